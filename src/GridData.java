@@ -3,6 +3,7 @@ import java.util.LinkedList;
 
 import javax.swing.JOptionPane;
 import java.util.Calendar;
+import eduni.simjava.Sim_system;
 import gridsim.*;
 
 /*
@@ -23,6 +24,20 @@ public class GridData {
 	
 	private String lastResults = "";
 	
+	/*
+	 * The state of the simulation being run, which is read by the
+	 * GUI thread to show the progress.
+	 */
+	private volatile ArrayList<GridSimUser> activeUsers = new ArrayList<GridSimUser>();
+	private volatile boolean cancelled = false;
+	private ResultsWindow resultsWindow;
+	
+	/*
+	 * How the users send their jobs to the grids
+	 */
+	private int brokerPolicy = GridSimUser.POLICY_LEAST_LOADED;
+	private int brokerWindow = 0;
+	
 	
 	public GridData(){
 		grids = new ArrayList <Grid> ();
@@ -430,11 +445,85 @@ public class GridData {
 		return useless;
 	}
 	
+	/*
+	 * Sets the window where the Gridlets are shown as they are received.
+	 */
+	public void setResultsWindow(ResultsWindow window)
+	{
+		resultsWindow = window;
+	}
+	
+	/*
+	 * Sets how the users send their jobs to the grids.
+	 * See GridSimUser.setBrokerPolicy()
+	 */
+	public void setBrokerPolicy(int policy, int window)
+	{
+		brokerPolicy = policy;
+		brokerWindow = window;
+	}
+	
+	/*
+	 * Stops the simulation being run. The results received so far
+	 * are kept.
+	 */
+	public void cancel()
+	{
+		cancelled = true;
+		Sim_system.run_abort();
+	}
+	
+	public boolean isCancelled()
+	{
+		return cancelled;
+	}
+	
+	/*
+	 * Forgets a cancel of the previous simulation. This is called
+	 * before a new simulation is started, so that a cancel issued
+	 * while it is being set up is not lost.
+	 */
+	public void clearCancelled()
+	{
+		cancelled = false;
+	}
+	
+	/*
+	 * Gets the number of Gridlets received by the users so far.
+	 * This can be called while the simulation is running.
+	 */
+	public int countCompletedJobs()
+	{
+		int count = 0;
+		for (GridSimUser u : activeUsers)
+			count += u.getCompletedCount();
+		return count;
+	}
+	
+	/*
+	 * Gets the current simulation time.
+	 */
+	public double getSimulationTime()
+	{
+		return GridSim.clock();
+	}
+	
+	/*
+	 * Gets the number of events processed by the simulation so far.
+	 */
+	public long getEventCount()
+	{
+		return Sim_system.get_event_count();
+	}
+	
 	/*
 	 * Run using the given data.
+	 * This may take a long time, so the GUI calls it from a worker thread.
 	 */
 	public void run()
 	{
+		activeUsers = new ArrayList<GridSimUser>();
+
 		// init gridsim
 		boolean trace_flag = true; // mean trace GridSim events/activities
 
@@ -455,6 +544,11 @@ public class GridData {
         // Initialize the GridSim package
         GridSim.init(users.size(), Calendar.getInstance(), trace_flag, exclude_from_file,
                 exclude_from_processing, report_name);
+        
+        // initialising the simulation clears the stop flag, so a cancel
+        // that came in before has to be passed on again
+        if (cancelled)
+        	Sim_system.run_abort();
        
         // loop through all the grids that were requsted.
         // add all the machines to the grids
@@ -477,6 +571,8 @@ public class GridData {
 			
         	try {
 				newGridUser = new GridSimUser(newuser.getName(), baud_rate, grids.size());
+				newGridUser.setResultsWindow(resultsWindow);
+				newGridUser.setBrokerPolicy(brokerPolicy, brokerWindow);
 				runningUsers.add(newGridUser);
 			
 	        	for (GridJob j : usersJobs)
@@ -508,13 +604,22 @@ public class GridData {
         }
         
         // Fourth step: Starts the simulation
+        activeUsers = runningUsers;
         GridSim.startGridSimulation();
 
-        // Final step: Prints the Gridlets when simulation is over
-        String results = "";
+        // Final step: Prints the totals when simulation is over, as
+        // the Gridlets themselves have been shown in the results window
+        StringBuilder results = new StringBuilder();
+        if (cancelled)
+        	results.append("Simulation cancelled at time " + GridSim.clock() + "\n");
         for (GridSimUser u : runningUsers)
-        	results += u.printGridletList();
-        lastResults = results;
+        {
+        	if (resultsWindow != null)
+        		results.append(u.printSummary());
+        	else
+        		results.append(u.printGridletList());
+        }
+        lastResults = results.toString();
         
         //JOptionPane.showMessageDialog(null, results);
 
@@ -1,4 +1,5 @@
 import java.util.*;
+import eduni.simjava.Sim_event;
 import gridsim.*;
 
 /** Taken from Example 5, the gridsim example
@@ -7,11 +8,24 @@ import gridsim.*;
  */
 public class GridSimUser extends GridSim
 {
+    /** Sends the Gridlets to random resources all at once */
+    public static final int POLICY_RANDOM = 0;
+
+    /** Sends each Gridlet to the resource with the fewest Gridlets per PE */
+    public static final int POLICY_LEAST_LOADED = 1;
+
+    /** Sends each Gridlet to the cheapest resource that has room for it */
+    public static final int POLICY_CHEAPEST = 2;
+
     private Integer ID_;
     private String name_;
     private GridletList list_;
     private GridletList receiveList_;
     private int totalResource_;
+    private ResultsWindow results_;
+    private volatile int completed_;
+    private int policy_ = POLICY_RANDOM;
+    private int window_ = 0;    // max. Gridlets in flight per resource
 
 
     /**
@@ -47,6 +61,12 @@ public class GridSimUser extends GridSim
      */
     public void body()
     {
+        if (this.policy_ != POLICY_RANDOM)
+        {
+            brokerBody();
+            return;
+        }
+
         int resourceID[] = new int[this.totalResource_];
         double resourceCost[] = new double[this.totalResource_];
         String resourceName[] = new String[this.totalResource_];
@@ -140,10 +160,163 @@ public class GridSimUser extends GridSim
 
             // stores the received Gridlet into a new GridletList object
             this.receiveList_.add(gridlet);
+            this.completed_++;
+            if (this.results_ != null)
+            	this.results_.addGridlet(this.name_, gridlet);
+        }
+
+        shutdown();
+    }
+
+    /**
+     * Sets how the Gridlets are sent to the resources. With a policy other
+     * than {@link #POLICY_RANDOM}, this user acts as a broker: it learns
+     * about the resources as they register, asks all of them for their
+     * characteristics at once, and keeps at most <tt>window</tt> Gridlets
+     * in each resource. A new Gridlet is sent whenever one comes back.
+     * @param policy    one of the POLICY_XXX constants
+     * @param window    the max. number of Gridlets in flight per resource,
+     *                  or <tt>0</tt> to use the number of PEs of each resource
+     */
+    public void setBrokerPolicy(int policy, int window)
+    {
+        this.policy_ = policy;
+        this.window_ = window;
+    }
+
+    /**
+     * Sends the Gridlets to the resources based on the broker policy
+     */
+    private void brokerBody()
+    {
+        int resourceID[] = new int[this.totalResource_];
+        String resourceName[] = new String[this.totalResource_];
+        double resourceCost[] = new double[this.totalResource_];
+        int numPE[] = new int[this.totalResource_];
+        int inFlight[] = new int[this.totalResource_];
+        int window[] = new int[this.totalResource_];
+
+        // ask the GIS to tell us about the resources as they register, and
+        // ask each of them for its characteristics straight away
+        super.send(GridSim.getGridInfoServiceEntityId(), GridSimTags.SCHEDULE_NOW,
+                GridSimTags.GIS_SUBSCRIBE_REGISTRATION, this.ID_);
+
+        Sim_event ev = new Sim_event();
+        int requested = 0;
+        int received = 0;
+        while (received < this.totalResource_)
+        {
+            super.sim_get_next(ev);
+            if (ev.get_tag() == GridSimTags.GIS_RESOURCE_REGISTERED &&
+                requested < this.totalResource_)
+            {
+                int id = ( (Integer) ev.get_data() ).intValue();
+                super.send(id, GridSimTags.SCHEDULE_NOW,
+                        GridSimTags.RESOURCE_CHARACTERISTICS, this.ID_);
+                requested++;
+            }
+            else if (ev.get_tag() == GridSimTags.RESOURCE_CHARACTERISTICS)
+            {
+                ResourceCharacteristics resChar =
+                        (ResourceCharacteristics) ev.get_data();
+                resourceID[received] = resChar.getResourceID();
+                resourceName[received] = resChar.getResourceName();
+                resourceCost[received] = resChar.getCostPerSec();
+                numPE[received] = resChar.getNumPE();
+                window[received] = (this.window_ > 0) ? this.window_ :
+                        Math.max(1, numPE[received]);
+
+                System.out.println(this.name_ +
+                        ":Received ResourceCharacteristics from " +
+                        resourceName[received] + ", with id = " +
+                        resourceID[received]);
+                super.recordStatistics("\"Received ResourceCharacteristics " +
+                        "from " + resourceName[received] + "\"", "");
+                received++;
+            }
+        }
+
+        // keep each resource busy, but no more than its window
+        int next = 0;
+        int total = this.list_.size();
+        while (this.receiveList_.size() < total)
+        {
+            int index = selectResource(resourceCost, numPE, inFlight, window);
+            if (next < total && index >= 0)
+            {
+                Gridlet gridlet = this.list_.get(next);
+                next++;
+                inFlight[index]++;
+                super.gridletSubmit(gridlet, resourceID[index]);
+                super.recordStatistics("\"Submit Gridlet_" +
+                        gridlet.getGridletID() + " to " +
+                        resourceName[index] + "\"", "");
+                continue;
+            }
+
+            Gridlet gridlet = super.gridletReceive();
+            for (int i = 0; i < this.totalResource_; i++)
+            {
+                if (resourceID[i] == gridlet.getResourceID())
+                {
+                    inFlight[i]--;
+                    break;
+                }
+            }
+
+            super.recordStatistics("\"Received Gridlet_" +
+                    gridlet.getGridletID() + "\"", gridlet.getProcessingCost());
+            this.receiveList_.add(gridlet);
+            this.completed_++;
+            if (this.results_ != null)
+            	this.results_.addGridlet(this.name_, gridlet);
+        }
+
+        shutdown();
+    }
+
+    /**
+     * Finds the resource that receives the next Gridlet
+     * @return the index of the resource, or <tt>-1</tt> if all resources
+     *         have a full window
+     */
+    private int selectResource(double cost[], int numPE[], int inFlight[],
+                               int window[])
+    {
+        int best = -1;
+        for (int i = 0; i < cost.length; i++)
+        {
+            if (inFlight[i] >= window[i])
+                continue;
+
+            if (best < 0)
+            {
+                best = i;
+                continue;
+            }
+
+            if (this.policy_ == POLICY_CHEAPEST && cost[i] != cost[best])
+            {
+                if (cost[i] < cost[best])
+                    best = i;
+                continue;
+            }
+
+            // fewer Gridlets per PE, i.e. inFlight[i] / numPE[i] is lower
+            long load = (long) inFlight[i] * Math.max(1, numPE[best]);
+            long bestLoad = (long) inFlight[best] * Math.max(1, numPE[i]);
+            if (load < bestLoad)
+                best = i;
         }
+        return best;
+    }
 
-        // shut down all the entities, including GridStatistics entity since
-        // we used it to record certain events.
+    /**
+     * Shuts down all the entities, including GridStatistics entity since
+     * we used it to record certain events.
+     */
+    private void shutdown()
+    {
         super.shutdownGridStatisticsEntity();
         super.shutdownUserEntity();
         super.terminateIOEntities();
@@ -171,36 +344,63 @@ public class GridSimUser extends GridSim
     	GridletList list = getGridletList();
         int size = list.size();
         Gridlet gridlet;
-        String text = "";
+        StringBuilder text = new StringBuilder();
         String indent = "    ";
         int totalCost = 0;
         double timeTaken = 0;
         double totalTime = 0;
         
-        text += ("\n\n========== OUTPUT : " + this.name_ + " =========\n");
-        text += ("Gridlet ID" + indent + "Name" + indent + "STATUS" + indent +
+        text.append("\n\n========== OUTPUT : " + this.name_ + " =========\n");
+        text.append("Gridlet ID" + indent + "Name" + indent + "STATUS" + indent +
                 "Resource ID" + indent + "Cost" + indent + "Time Taken\n");
 
         for (int i = 0; i < size; i++)
         {
-            gridlet = (Gridlet) list.get(i);
-            text += (indent + gridlet.getGridletID() + indent + gridlet.getName()
-                    + indent);
+            gridlet = list.get(i);
+            text.append(indent).append(gridlet.getGridletID()).append(indent)
+                .append(gridlet.getName()).append(indent);
 
             if (gridlet.getGridletStatus() == Gridlet.SUCCESS)
-            	text += ("SUCCESS");
+            	text.append("SUCCESS");
             timeTaken = gridlet.getFinishTime()-gridlet.getSubmissionTime();
-            text += ( indent + indent + gridlet.getResourceID() +
-                    indent + indent + gridlet.getProcessingCost() + indent + timeTaken +"\n");
+            text.append(indent).append(indent).append(gridlet.getResourceID())
+                .append(indent).append(indent).append(gridlet.getProcessingCost())
+                .append(indent).append(timeTaken).append("\n");
             totalCost += gridlet.getProcessingCost();
             totalTime += timeTaken;
             
             
         }
-        text += "-------------------------------------\nTotal Cost: " +  totalCost ;
-        text += "\nAverage Time: " + totalTime/(double)size  + "\n\n";
+        text.append(getSummary(totalCost, totalTime, size));
+        
+        return text.toString();
+    }
+    
+    /**
+     * Gets the total cost and average time of the Gridlets received
+     * @return the summary of the Gridlets
+     */
+    public String printSummary()
+    {
+    	GridletList list = getGridletList();
+        int size = list.size();
+        int totalCost = 0;
+        double totalTime = 0;
+        for (int i = 0; i < size; i++)
+        {
+            Gridlet gridlet = list.get(i);
+            totalCost += gridlet.getProcessingCost();
+            totalTime += gridlet.getFinishTime()-gridlet.getSubmissionTime();
+        }
         
-        return text;
+        return "\n========== " + this.name_ + " =========\n" +
+        	"Gridlets: " + size + "\n" + getSummary(totalCost, totalTime, size);
+    }
+    
+    private static String getSummary(int totalCost, double totalTime, int size)
+    {
+        return "-------------------------------------\nTotal Cost: " +  totalCost +
+        	"\nAverage Time: " + totalTime/(double)size  + "\n\n";
     }
     
     public int getUserId()
@@ -208,6 +408,25 @@ public class GridSimUser extends GridSim
     	return ID_;
     }
     
+    /**
+     * Gets the number of Gridlets received so far. This can be called
+     * while the simulation is running.
+     * @return the number of Gridlets received
+     */
+    public int getCompletedCount()
+    {
+    	return completed_;
+    }
+    
+    /**
+     * Sets the window where each Gridlet is shown once it is received
+     * @param results the results window or <tt>null</tt>
+     */
+    public void setResultsWindow(ResultsWindow results)
+    {
+    	this.results_ = results;
+    }
+    
     public void assignJobs(GridletList list)
     {
     	this.list_ = list;
@@ -77,6 +77,17 @@ public class HomeScreen extends javax.swing.JFrame {
 	private Label numUnusedUsersLabel;
 	private Label numUnusedGridsLabel;
 	
+	private Label progressLabel;
+	
+	/*
+	 * The simulation is run by a worker thread, so that the
+	 * GUI keeps responding while it runs.
+	 */
+	private static final int PROGRESS_INTERVAL = 500;
+	private Thread simThread;
+	private long lastEventCount;
+	private long lastProgressTime;
+	
 	/*
 	 * Instances of all the worker windows.
 	 * All the windows are created at load, then hidden.
@@ -174,6 +185,11 @@ public class HomeScreen extends javax.swing.JFrame {
 				}
 			});
 		}
+		{
+			progressLabel = new Label(shell, SWT.NONE);
+			progressLabel.setText("");
+			progressLabel.setBounds(10, 262, 310, 15);
+		}
 		{
 			healthTopLabel = new Label(shell, SWT.NONE);
 			healthTopLabel.setText("Grid Simulation Health:");
@@ -377,9 +393,79 @@ public class HomeScreen extends javax.swing.JFrame {
 				
 	}
 	private void runButtonWidgetSelected(SelectionEvent evt) {
-		data.run();
-		resultsWindow.displayText(data.getLastResults());
+		// a second click while running cancels the simulation
+		if (simThread != null && simThread.isAlive())
+		{
+			data.cancel();
+			runButton.setEnabled(false);
+			progressLabel.setText("Cancelling...");
+			return;
+		}
+		
+		data.clearCancelled();
+		resultsWindow.clear();
 		resultsWindow.setVisible(true);
+		data.setResultsWindow(resultsWindow);
+		runButton.setText("Cancel");
+		
+		final Display display = shell.getDisplay();
+		simThread = new Thread("Simulation") {
+			public void run() {
+				try {
+					data.run();
+				} finally {
+					display.asyncExec(new Runnable() {
+						public void run() {
+							simulationFinished();
+						}
+					});
+				}
+			}
+		};
+		
+		lastEventCount = 0;
+		lastProgressTime = System.currentTimeMillis();
+		simThread.start();
+		display.timerExec(PROGRESS_INTERVAL, new Runnable() {
+			public void run() {
+				if (shell.isDisposed() || simThread == null || !simThread.isAlive())
+					return;
+				
+				showProgress();
+				shell.getDisplay().timerExec(PROGRESS_INTERVAL, this);
+			}
+		});
+	}
+	
+	/*
+	 * Shows the simulation time, the jobs completed and the
+	 * number of events processed per second.
+	 */
+	private void showProgress() {
+		long now = System.currentTimeMillis();
+		long events = data.getEventCount();
+		long rate = 0;
+		if (now > lastProgressTime)
+			rate = (events - lastEventCount) * 1000 / (now - lastProgressTime);
+		lastEventCount = events;
+		lastProgressTime = now;
+		
+		progressLabel.setText("Time: " + (long) data.getSimulationTime() +
+				"  Jobs: " + data.countCompletedJobs() + "/" + data.countJobs() +
+				"  Events/s: " + rate);
+	}
+	
+	private void simulationFinished() {
+		if (shell.isDisposed())
+			return;
+		
+		simThread = null;
+		runButton.setText("Run!");
+		runButton.setEnabled(true);
+		progressLabel.setText((data.isCancelled() ? "Cancelled" : "Finished") +
+				" at time " + (long) data.getSimulationTime() +
+				", jobs completed: " + data.countCompletedJobs());
+		resultsWindow.displayText(data.getLastResults());
 	}
 	
 	private void updateGridsButtonWidgetSelected(SelectionEvent evt) {
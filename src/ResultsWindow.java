@@ -1,13 +1,23 @@
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 import javax.swing.GroupLayout;
 import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JScrollPane;
+import javax.swing.JTable;
 import javax.swing.JTextPane;
 import javax.swing.LayoutStyle;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
 
 import javax.swing.WindowConstants;
 import javax.swing.SwingUtilities;
 
+import gridsim.Gridlet;
+
 
 /**
 * This code was edited or generated using CloudGarden's Jigloo
@@ -24,7 +34,17 @@ import javax.swing.SwingUtilities;
 public class ResultsWindow extends javax.swing.JFrame {
 	private JLabel topLabel;
 	private JScrollPane jScrollPane1;
+	private JScrollPane jScrollPane2;
+	private JTable resultsTable;
 	private JTextPane resultsDisplay;
+	
+	/*
+	 * The Gridlets received by the users are queued by the simulation
+	 * and added to the table a few times per second.
+	 */
+	private ResultsTableModel results = new ResultsTableModel();
+	private ConcurrentLinkedQueue<Object[]> arrived = new ConcurrentLinkedQueue<Object[]>();
+	private Timer updateTimer;
 
 	/**
 	* Auto-generated main method to display this JFrame
@@ -42,6 +62,12 @@ public class ResultsWindow extends javax.swing.JFrame {
 	public ResultsWindow() {
 		super();
 		initGUI();
+		updateTimer = new Timer(250, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				addArrivedGridlets();
+			}
+		});
+		updateTimer.start();
 	}
 	
 	private void initGUI() {
@@ -55,16 +81,26 @@ public class ResultsWindow extends javax.swing.JFrame {
 			}
 			{
 				jScrollPane1 = new JScrollPane();
+				{
+					resultsTable = new JTable(results);
+					jScrollPane1.setViewportView(resultsTable);
+				}
+			}
+			{
+				jScrollPane2 = new JScrollPane();
 				{
 					resultsDisplay = new JTextPane();
-					jScrollPane1.setViewportView(resultsDisplay);
+					resultsDisplay.setEditable(false);
+					jScrollPane2.setViewportView(resultsDisplay);
 				}
 			}
 			thisLayout.setVerticalGroup(thisLayout.createSequentialGroup()
 				.addContainerGap()
 				.addComponent(topLabel, GroupLayout.PREFERRED_SIZE, GroupLayout.PREFERRED_SIZE, GroupLayout.PREFERRED_SIZE)
 				.addPreferredGap(LayoutStyle.ComponentPlacement.RELATED)
-				.addComponent(jScrollPane1, 0, 391, Short.MAX_VALUE)
+				.addComponent(jScrollPane1, 0, 291, Short.MAX_VALUE)
+				.addPreferredGap(LayoutStyle.ComponentPlacement.RELATED)
+				.addComponent(jScrollPane2, GroupLayout.PREFERRED_SIZE, 94, GroupLayout.PREFERRED_SIZE)
 				.addContainerGap());
 			thisLayout.setHorizontalGroup(thisLayout.createSequentialGroup()
 				.addContainerGap()
@@ -74,6 +110,9 @@ public class ResultsWindow extends javax.swing.JFrame {
 				        .addGap(0, 389, Short.MAX_VALUE))
 				    .addGroup(thisLayout.createSequentialGroup()
 				        .addComponent(jScrollPane1, GroupLayout.PREFERRED_SIZE, 557, GroupLayout.PREFERRED_SIZE)
+				        .addGap(0, 0, Short.MAX_VALUE))
+				    .addGroup(thisLayout.createSequentialGroup()
+				        .addComponent(jScrollPane2, GroupLayout.PREFERRED_SIZE, 557, GroupLayout.PREFERRED_SIZE)
 				        .addGap(0, 0, Short.MAX_VALUE)))
 				.addContainerGap());
 			pack();
@@ -84,9 +123,93 @@ public class ResultsWindow extends javax.swing.JFrame {
 		}
 	}
 	
-	public void displayText(String in)
+	/*
+	 * Shows the summary of the simulation.
+	 * This can be called from any thread.
+	 */
+	public void displayText(final String in)
 	{
-		resultsDisplay.setText(in);
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				resultsDisplay.setText(in);
+			}
+		});
+	}
+	
+	/*
+	 * Adds a Gridlet received by a user to the table.
+	 * This is called by the simulation while it is running.
+	 */
+	public void addGridlet(String user, Gridlet gridlet)
+	{
+		double timeTaken = gridlet.getFinishTime() - gridlet.getSubmissionTime();
+		arrived.add(new Object[] {
+				user, gridlet.getGridletID(), gridlet.getName(),
+				Gridlet.getStatusString(gridlet.getGridletStatus()),
+				gridlet.getResourceID(), gridlet.getProcessingCost(), timeTaken });
+	}
+	
+	/*
+	 * Removes the results of the previous simulation.
+	 * This can be called from any thread.
+	 */
+	public void clear()
+	{
+		arrived.clear();
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				results.clear();
+				resultsDisplay.setText("");
+			}
+		});
+	}
+	
+	private void addArrivedGridlets()
+	{
+		Object[] row = arrived.poll();
+		if (row == null)
+			return;
+		
+		int first = results.getRowCount();
+		while (row != null)
+		{
+			results.rows.add(row);
+			row = arrived.poll();
+		}
+		results.fireTableRowsInserted(first, results.getRowCount() - 1);
+	}
+	
+	/*
+	 * The rows of the table. Only the rows that are visible 
+	 * are drawn, so the table copes with many Gridlets.
+	 */
+	private static class ResultsTableModel extends AbstractTableModel
+	{
+		private static final String[] COLUMNS = { "User", "Gridlet ID", "Name",
+			"Status", "Resource ID", "Cost", "Time Taken" };
+		
+		private ArrayList<Object[]> rows = new ArrayList<Object[]>();
+		
+		public int getRowCount() {
+			return rows.size();
+		}
+		
+		public int getColumnCount() {
+			return COLUMNS.length;
+		}
+		
+		public String getColumnName(int column) {
+			return COLUMNS[column];
+		}
+		
+		public Object getValueAt(int row, int column) {
+			return rows.get(row)[column];
+		}
+		
+		private void clear() {
+			rows.clear();
+			fireTableDataChanged();
+		}
 	}
 
 }
@@ -46,16 +46,31 @@ class Linedata {
 
   public void draw(Graphics g, int i, GraphPanel p) {
     g.setColor(valtocol(i));
-    // Join points.
-    for (int j=0; j<points.size()-1; j++) {
+    // Join points. Points falling in the same pixel column are
+    // drawn as one vertical line from their lowest to highest.
+    int lastx = 0, lasty = 0, miny = 0, maxy = 0;
+    for (int j=0; j<points.size(); j++) {
       DPoint p1 = (DPoint)points.get(j);
-      DPoint p2 = (DPoint)points.get(j+1);
-      g.drawLine(p.xscale(p1.x),p.yscale(p1.y),
-		 p.xscale(p2.x),p.yscale(p2.y)); 
+      int ix = p.xscale(p1.x);
+      int iy = p.yscale(p1.y);
+      if ((j > 0) && (ix == lastx)) {
+	if (iy < miny) miny = iy;
+	if (iy > maxy) maxy = iy;
+      } else {
+	if (j > 0) {
+	  if (maxy > miny) g.drawLine(lastx,miny,lastx,maxy);
+	  g.drawLine(lastx,lasty,ix,iy);
+	}
+	miny = iy; maxy = iy;
+      }
+      lastx = ix; lasty = iy;
     }
+    if (maxy > miny) g.drawLine(lastx,miny,lastx,maxy);
 
     int sz = 2; // Cross size.
-    for (int j=0; j<points.size(); j++) {
+    // Crosses are left out when there are too many to tell apart
+    if (points.size() * (2*sz+1) > p.getSize().width) sz = 0;
+    for (int j=0; j<points.size() && sz>0; j++) {
       DPoint p1 = (DPoint)points.get(j);
       int ix = p.xscale(p1.x);
       int iy = p.yscale(p1.y);
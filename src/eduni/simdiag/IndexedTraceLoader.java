@@ -0,0 +1,104 @@
+package eduni.simdiag;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.io.IOException;
+
+/**
+ * IndexedTraceLoader
+ * Loads a timing diagram trace from a file through its
+ * <a href="eduni.simdiag.TraceIndex.html">index</a>, so that
+ * traces of long runs can be viewed.
+ *<p>
+ * Only the lines before the events are sent to the listeners.
+ * A timing diagram that receives them from this loader reads
+ * the events of the time window it shows from the loader, and
+ * draws a summary of the blocks of the index when it is zoomed
+ * out too far for the events to be drawn one by one.
+ */
+public class IndexedTraceLoader implements Traceable, Runnable {
+
+  /** The number of blocks of events kept in memory */
+  public static final int CACHE_BLOCKS = 256;
+
+  transient Thread thread;
+  String fileName;
+  TraceIndex index;
+
+  // Block number (Integer) -> List of lines, least recently used first
+  private Map cache = new LinkedHashMap(16, 0.75f, true) {
+    protected boolean removeEldestEntry(Map.Entry eldest) {
+      return size() > CACHE_BLOCKS;
+    }
+  };
+
+  /** Create a trace loader for the given file */
+  public IndexedTraceLoader(String fileName) {
+    this.fileName = fileName;
+    thread = new Thread(this);
+  }
+
+  /** Called after output has been wired */
+  public void startLoading() {
+    thread.start();
+  }
+
+  /** Returns the index, or null if it hasn't been opened */
+  public TraceIndex getIndex() { return index; }
+
+  /** Returns the lines of a block of events */
+  public synchronized List getBlock(int block) throws IOException {
+    Integer key = new Integer(block);
+    List lines = (List)cache.get(key);
+    if (lines == null) {
+      lines = index.readBlock(block);
+      cache.put(key, lines);
+    }
+    return lines;
+  }
+
+  /** Opens the index, building it if needed, and sends the
+   * lines before the events to the listeners. */
+  public void run() {
+    try {
+      index = TraceIndex.open(fileName);
+    } catch (IOException e) {
+      System.out.println("Couldn't open trace "+fileName+": "+e.getMessage());
+      return;
+    }
+
+    forwardTrace( new TraceEventObject(this,LAYOUT) );
+
+    List header = index.getHeader();
+    for (int i=0; i<header.size(); i++) {
+      forwardTrace( new TraceEventObject(this,(String)header.get(i)) );
+    }
+
+    forwardTrace( new TraceEventObject(this,DISPLAY) );
+
+    System.out.println("Indexed "+index.getNumEvents()+" events in "+
+		       index.getNumBlocks()+" blocks");
+  }
+
+  private List traceListeners = new ArrayList();
+  /** Javabeans trace event output */
+  public synchronized void addTraceListener(TraceListener l) {
+    traceListeners.add(l);
+  }
+  /** Javabeans trace event output */
+  public synchronized void removeTraceListener(TraceListener l) {
+    traceListeners.remove(l);
+  }
+  /** Sends trace event onwards to any listeners */
+  public void forwardTrace(TraceEventObject e) {
+    List l;
+    TraceEventObject weo = new TraceEventObject(this,e);
+    synchronized(this) { l = (List)((ArrayList)traceListeners).clone(); }
+    for (int i=0; i<l.size(); i++) {
+      TraceListener wl = (TraceListener) l.get(i);
+      wl.handleTrace(weo);
+    }
+  }
+}
@@ -11,6 +11,7 @@ package eduni.simdiag;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.StringTokenizer;
+import java.io.IOException;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Panel;
@@ -187,56 +188,77 @@ class Entry {
     g.drawString(name,x,y);
   }
 
+  double xtot(int x) {
+    return startt + ((double)x * (endt-startt) / (double)w);
+  }
+
+  // Index of the last event at or before time t, or -1 if there is none
+  int lastBefore(double t) {
+    int lo = 0, hi = events.size() - 1, found = -1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if (((Event)events.get(mid)).time <= t) { found = mid; lo = mid + 1; }
+      else hi = mid - 1;
+    }
+    return found;
+  }
+
   // draw all events from t1 to t2.
+  // Each pixel column is drawn once, in the state at its left edge,
+  // so a view of many events costs no more than one pixel each.
   void draw(Graphics g, double t1, double t2) {
     startt = t1; endt = t2;
 
-    // System.out.println("Drawing from "+t1+" to "+t2);
-
     // Get last event before starttime
-    int ptri=0, previ=0;
-    boolean found = false;
-    int i=0;
-    for (i=0; i<events.size() && !found; i++) {
-      if (((Event)events.get(i)).time > t1) {
-	found = true;
-	ptri = i;
-	previ = ptri-1; if (previ<0) previ=0;
-      }
-    }
-
-    // System.out.println("Found start at index "+previ+" out of "+events.size());
-
-    boolean reachedend = false;
-    for (; previ<events.size() && !reachedend; previ++) {
-      double time1=t1,time2=t2;
-      int val = 0;
-
-      ptri = previ+1;
+    int n = events.size();
+    int i = lastBefore(t1);
+    if (i < 0) i = 0;
+
+    int painted = Integer.MIN_VALUE;
+    while (i < n) {
+      Event ev = (Event)events.get(i);
+      if (ev.time > t2) break;
+      double time2 = t2;
+      if (i+1 < n) time2 = ((Event)events.get(i+1)).time;
+      if (time2 > t2) time2 = t2;
 
-      Event prevevent = (Event)events.get(previ);
-      Event ptr;
-      if (ptri<events.size()) 
-	ptr = (Event)events.get(ptri);
-      else ptr = new Event();
+      int x1 = Math.max(ttox(ev.time), painted);
+      int x2 = Math.max(ttox(time2), x1 + 1);
+      g.setColor(valtocol(ev.stateno));
+      g.fillRect(x1, y, x2-x1, h);
+      painted = x2;
 
-      if (!prevevent.isblank()) {
-	time1 = prevevent.time;
-	val = prevevent.stateno;
-      }
-      if (!ptr.isblank())       time2 = ptr.time;
+      // Skip the events hidden under the pixels already drawn
+      int next = lastBefore(xtot(painted));
+      i = (next > i) ? next : i + 1;
+    }
+  }
 
+  // draw the state filling most of each block of the index, for views
+  // with too many events to read them.
+  void drawSummary(Graphics g, double t1, double t2, TraceIndex index) {
+    startt = t1; endt = t2;
+    int bar = index.getBar(name);
+    if (bar < 0) return;
+
+    int last = index.findBlock(t2);
+    int b = index.findBlock(t1);
+    int painted = Integer.MIN_VALUE;
+    while (b <= last) {
+      double time2 = index.getBlockEnd(b);
       if (time2 > t2) time2 = t2;
-      if (time1 > t2) time1 = t2;
-
-      //System.out.println("Drawing: "+ttox(time1)+" "+ttox(time2-time1)+" v="+val+"  t="+time1+" - "+time2);
-
-      g.setColor(valtocol(val));
-      g.fillRect(ttox(time1),y, ttox(time2)-ttox(time1),h);
+      int x1 = Math.max(ttox(index.getBlockStart(b)), painted);
+      int x2 = Math.max(ttox(time2), x1 + 1);
+      int val = index.getDominantState(b, bar);
+      if (val >= 0) {
+	g.setColor(valtocol(val));
+	g.fillRect(x1, y, x2-x1, h);
+      }
+      painted = x2;
 
-      if (prevevent.time > t2) reachedend = true;
+      int next = index.findBlock(xtot(painted));
+      b = (next > b) ? next : b + 1;
     }
-
   }
 }
 
@@ -253,6 +275,13 @@ class Entries {
 
   double starttime, endtime;
 
+  // Source of the events when they are read from an indexed trace
+  // as they are needed, instead of all being stored.
+  IndexedTraceLoader pager;
+  int firstBlock, lastBlock;  // The blocks of events read
+  // Blocks are summarised when narrower than this many pixels
+  final int LOD_PIXELS = 4;
+
   Entries() {
     entries = new ArrayList();
     types   = new Types();
@@ -266,6 +295,47 @@ class Entries {
     types.getV().clear();
     starttime = 0.0; 
     endtime   = 1.0;
+    pager = null;
+  }
+
+  /** Read the events from an indexed trace as they are needed */
+  void setPager(IndexedTraceLoader p) {
+    pager = p;
+    firstBlock = -1;
+    lastBlock  = -1;
+    endtime = p.getIndex().getEndTime();
+  }
+
+  /** Read the events from t1 to t2 from the indexed trace.
+   * Return false if they are too many to be drawn one by one
+   */
+  boolean pageIn(double t1, double t2, int w) {
+    TraceIndex index = pager.getIndex();
+    if (index.getNumBlocks() == 0) return true;
+    int b1 = index.findBlock(t1);
+    int b2 = index.findBlock(t2);
+    if ((b2-b1+1) * LOD_PIXELS > w) return false;
+    if ((b1 == firstBlock) && (b2 == lastBlock)) return true;
+
+    int n = entries.size();
+    for (int i=0; i < n; i++) {
+      Entry en = (Entry)(entries.get(i));
+      en.events.clear();
+      int bar = index.getBar(en.name);
+      if ((bar >= 0) && (index.getState(b1, bar) >= 0))
+	en.add(new Event(index.getBlockStart(b1), index.getState(b1, bar)));
+    }
+    firstBlock = b1;
+    lastBlock  = b2;
+    try {
+      for (int b=b1; b<=b2; b++) {
+	List lines = pager.getBlock(b);
+	for (int j=0; j<lines.size(); j++) addTrace((String)lines.get(j));
+      }
+    } catch (IOException e) {
+      System.out.println("Couldn't read trace: "+e.getMessage());
+    }
+    return true;
   }
 
   /** Add a single trace line 
@@ -346,10 +416,12 @@ class Entries {
     if (n>0) {
       double wavespace  = h / n;
       double waveheight = wavespace * 0.75;
+      boolean summary = (pager != null) && !pageIn(t1, t2, w);
       for (int i=0; i < n; i++) {
 	Entry en = (Entry)(entries.get(i));
 	en.setPosition(0,i * (int)wavespace, w, (int)waveheight);
-	en.draw(g,t1,t2);
+	if (summary) en.drawSummary(g,t1,t2,pager.getIndex());
+	else en.draw(g,t1,t2);
       }
     }
   }
@@ -460,6 +532,9 @@ class Diagram extends Panel implements MouseMotionListener,
   void reLayout() { 
     entries.reset();
   } 
+  void setPager(IndexedTraceLoader p) {
+    entries.setPager(p);
+  }
   void processTrace(String t) {
     entries.addTrace(t);
   }
@@ -703,6 +778,8 @@ public class TimingDiagram extends Applet implements
       diag.processTrace(e.getLine());
     } else if (e.getCmd() == LAYOUT) {
       diag.reLayout();
+      if (e.getSource() instanceof IndexedTraceLoader)
+	diag.setPager((IndexedTraceLoader)e.getSource());
     } else if (e.getCmd() == DISPLAY) {
       diag.display();
       labels.repaint();
@@ -791,13 +868,20 @@ public class TimingDiagram extends Applet implements
 
   /** Example standalone application code.
    * Creates a timing diagram and wires a trace loader to its input.
+   * A trace file given as argument is loaded through its index.
    */
   public static void main(String args[]) {
     Frame f = new Frame("Timing Diagram Example");
     TimingDiagram ex1 = new TimingDiagram();
-    TraceLoader tl = new TraceLoader("http://www.dcs.ed.ac.uk/home/fwh/tmp.trace");
-    tl.addTraceListener(ex1);
-    tl.startLoading();
+    if (args.length > 0) {
+      IndexedTraceLoader itl = new IndexedTraceLoader(args[0]);
+      itl.addTraceListener(ex1);
+      itl.startLoading();
+    } else {
+      TraceLoader tl = new TraceLoader("http://www.dcs.ed.ac.uk/home/fwh/tmp.trace");
+      tl.addTraceListener(ex1);
+      tl.startLoading();
+    }
     f.add("Center", ex1);
     f.pack();
     f.setSize(600,300);
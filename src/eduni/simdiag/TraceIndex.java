@@ -0,0 +1,428 @@
+package eduni.simdiag;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+import java.util.StringTokenizer;
+import java.io.File;
+import java.io.InputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.RandomAccessFile;
+import java.io.IOException;
+
+/**
+ * TraceIndex
+ * An index of a timing diagram trace file, so that the events of
+ * any time window can be read without reading the whole trace.
+ *<p>
+ * The events are split into blocks of <tt>BLOCK_SIZE</tt> events.
+ * For each block the index keeps the offset of its first line in the
+ * trace file, its start time, the state of each bar at that time and
+ * the state that fills most of the block for each bar. The last one
+ * is used to draw views in which the blocks are too small for their
+ * events to be drawn one by one.
+ *<p>
+ * The index is stored next to the trace in a file with the extra
+ * extension <tt>.idx</tt>, and built again when the trace changes.
+ * The events must be in time order, as written by simjava.
+ *
+ * @see eduni.simdiag.IndexedTraceLoader
+ */
+public class TraceIndex {
+
+  /** The number of events in a block */
+  public static final int BLOCK_SIZE = 1024;
+
+  static final int MAGIC = 0x54494458;
+  static final int VERSION = 1;
+
+  String fileName;
+  long fileLength, fileModified;
+  List header = new ArrayList();   // Lines up to $events
+  List barNames = new ArrayList();
+  HashMap bars = new HashMap();    // Bar name -> Integer index
+  List barLabels = new ArrayList();// Bar index -> List of state labels
+  double endTime;
+  int numEvents;
+
+  int numBlocks;
+  long[] offsets = new long[16];
+  double[] starts = new double[16];
+  int[] states;     // State of each bar at the start of each block
+  int[] dominant;   // State filling most of each block for each bar
+
+  private RandomAccessFile file;
+
+  TraceIndex(String fileName) {
+    this.fileName = fileName;
+  }
+
+  /**
+   * Opens the index of a trace file, building it if it is missing
+   * or older than the trace.
+   */
+  public static TraceIndex open(String fileName) throws IOException {
+    File f = new File(fileName);
+    if (!f.isFile()) {
+      throw new IOException("Couldn't find trace file " + fileName);
+    }
+    TraceIndex index = new TraceIndex(fileName);
+    File idx = new File(fileName + ".idx");
+    boolean loaded = false;
+    if (idx.isFile()) {
+      try {
+	loaded = index.read(idx, f.length(), f.lastModified());
+      } catch (IOException e) {
+	loaded = false;
+      }
+    }
+    if (!loaded) {
+      index = new TraceIndex(fileName);
+      index.build(f);
+      try {
+	index.write(idx);
+      } catch (IOException e) {
+	System.out.println("Couldn't write trace index " + idx);
+      }
+    }
+    return index;
+  }
+
+  /** Returns the lines of the trace before the events */
+  public List getHeader() { return header; }
+  /** Returns the time of the last event */
+  public double getEndTime() { return endTime; }
+  /** Returns the number of events */
+  public int getNumEvents() { return numEvents; }
+  /** Returns the number of blocks */
+  public int getNumBlocks() { return numBlocks; }
+  /** Returns the number of bars */
+  public int getNumBars() { return barNames.size(); }
+
+  /** Returns the index of a bar, or -1 if there is no such bar */
+  public int getBar(String name) {
+    Integer i = (Integer)bars.get(name);
+    return (i == null) ? -1 : i.intValue();
+  }
+
+  /** Returns the time of the first event of a block */
+  public double getBlockStart(int block) { return starts[block]; }
+
+  /** Returns the time at which the next block starts */
+  public double getBlockEnd(int block) {
+    return (block+1 < numBlocks) ? starts[block+1] : endTime;
+  }
+
+  /** Returns the state of a bar at the start of a block,
+   * or -1 if the bar has no state yet */
+  public int getState(int block, int bar) {
+    return states[block * getNumBars() + bar];
+  }
+
+  /** Returns the state that fills most of a block for a bar,
+   * or -1 if the bar has no state in the block */
+  public int getDominantState(int block, int bar) {
+    return dominant[block * getNumBars() + bar];
+  }
+
+  /** Returns the last block starting at or before time t,
+   * or 0 if there is none */
+  public int findBlock(double t) {
+    int lo = 0, hi = numBlocks - 1;
+    while (lo < hi) {
+      int mid = (lo + hi + 1) >>> 1;
+      if (starts[mid] <= t) lo = mid;
+      else hi = mid - 1;
+    }
+    return lo;
+  }
+
+  /** Reads the lines of a block from the trace file */
+  public synchronized List readBlock(int block) throws IOException {
+    if (file == null) {
+      file = new RandomAccessFile(fileName, "r");
+    }
+    long end = (block+1 < numBlocks) ? offsets[block+1] : fileLength;
+    byte[] bytes = new byte[(int)(end - offsets[block])];
+    file.seek(offsets[block]);
+    file.readFully(bytes);
+
+    List lines = new ArrayList();
+    int start = 0;
+    for (int i=0; i<=bytes.length; i++) {
+      if ((i == bytes.length) || (bytes[i] == '\n')) {
+	int len = i - start;
+	if ((len > 0) && (bytes[start+len-1] == '\r')) len--;
+	if (len > 0) lines.add(new String(bytes, start, len, "ISO-8859-1"));
+	start = i + 1;
+      }
+    }
+    return lines;
+  }
+
+  /** Closes the trace file */
+  public synchronized void close() throws IOException {
+    if (file != null) {
+      file.close();
+      file = null;
+    }
+  }
+
+  /* Building the index */
+
+  void build(File f) throws IOException {
+    fileLength = f.length();
+    fileModified = f.lastModified();
+    LineInput in = new LineInput(new FileInputStream(f));
+    try {
+      String l;
+      List types = new ArrayList();   // Type lines, split into tokens
+      int section = -1;
+      while ((section != 2) && ((l = in.readLine()) != null)) {
+	section = addHeader(l, section, types);
+      }
+      buildBlocks(in);
+    } finally {
+      in.close();
+    }
+  }
+
+  /** Adds a header line, returning the section that follows it */
+  int addHeader(String l, int section, List types) {
+    header.add(l);
+    if ("$types".compareTo(l) == 0)   return 0;
+    if ("$bars".compareTo(l) == 0)    return 1;
+    if ("$events".compareTo(l) == 0)  return 2;
+    if ((section == 0) && (l.trim().length() > 0)) types.add(tokens(l));
+    else if (section == 1) addBar(l, types);
+    return section;
+  }
+
+  // Format: barname bartype
+  void addBar(String l, List types) {
+    List t = tokens(l);
+    if (t.size() < 2) return;
+    for (int i=0; i<types.size(); i++) {
+      List type = (List)types.get(i);
+      if (type.get(0).equals(t.get(1))) {
+	bars.put(t.get(0), new Integer(barNames.size()));
+	barNames.add(t.get(0));
+	barLabels.add(type.subList(1, type.size()));
+	return;
+      }
+    }
+  }
+
+  static List tokens(String l) {
+    List t = new ArrayList();
+    StringTokenizer st = new StringTokenizer(l, " \t");
+    while (st.hasMoreTokens()) t.add(st.nextToken());
+    return t;
+  }
+
+  void buildBlocks(LineInput in) throws IOException {
+    int nbars = getNumBars();
+    int[] current = new int[nbars];  // State of each bar
+    double[] since = new double[nbars];
+    double[][] spent = new double[nbars][];  // Time in each state
+    for (int b=0; b<nbars; b++) {
+      current[b] = -1;
+      spent[b] = new double[Math.max(1, ((List)barLabels.get(b)).size())];
+    }
+    states = new int[16 * nbars];
+    dominant = new int[16 * nbars];
+
+    long offset = in.getPosition();
+    String l;
+    while ((l = in.readLine()) != null) {
+      int bar, state;
+      double time;
+      try {
+	StringTokenizer st = new StringTokenizer(l, ": \n\r\t");
+	if (st.nextToken().charAt(0) != 'u') { offset = in.getPosition(); continue; }
+	bar = getBar(st.nextToken());
+	st.nextToken(); // skip 'at'
+	time = (Double.valueOf(st.nextToken())).doubleValue();
+	if ((bar < 0) || (st.nextToken().charAt(0) != 'P')) { offset = in.getPosition(); continue; }
+	state = ((List)barLabels.get(bar)).indexOf(st.nextToken());
+	if (state < 0) state = 0;
+      } catch (NoSuchElementException e) {
+	offset = in.getPosition(); continue;
+      } catch (NumberFormatException e) {
+	offset = in.getPosition(); continue;
+      }
+
+      if (numEvents % BLOCK_SIZE == 0) {
+	if (numBlocks > 0) endBlock(time, current, since, spent);
+	startBlock(offset, time, current, since);
+      }
+      if (current[bar] >= 0) spent[bar][current[bar]] += time - since[bar];
+      current[bar] = state;
+      since[bar] = time;
+      if (time > endTime) endTime = time;
+      numEvents++;
+      offset = in.getPosition();
+    }
+    if (numBlocks > 0) endBlock(endTime, current, since, spent);
+  }
+
+  void startBlock(long offset, double time, int[] current, double[] since) {
+    int nbars = current.length;
+    if (numBlocks == offsets.length) {
+      offsets = grow(offsets);
+      starts = grow(starts);
+    }
+    if ((numBlocks+1) * nbars > states.length) {
+      states = grow(states);
+      dominant = grow(dominant);
+    }
+    offsets[numBlocks] = offset;
+    starts[numBlocks] = time;
+    System.arraycopy(current, 0, states, numBlocks * nbars, nbars);
+    Arrays.fill(since, time);
+    numBlocks++;
+  }
+
+  void endBlock(double time, int[] current, double[] since, double[][] spent) {
+    int base = (numBlocks-1) * current.length;
+    for (int b=0; b<current.length; b++) {
+      if (current[b] >= 0) spent[b][current[b]] += time - since[b];
+      int best = current[b];
+      double most = 0.0;
+      for (int s=0; s<spent[b].length; s++) {
+	if (spent[b][s] > most) { most = spent[b][s]; best = s; }
+      }
+      dominant[base + b] = best;
+      Arrays.fill(spent[b], 0.0);
+    }
+  }
+
+  static long[] grow(long[] a) {
+    long[] t = new long[2 * a.length];
+    System.arraycopy(a, 0, t, 0, a.length);
+    return t;
+  }
+  static double[] grow(double[] a) {
+    double[] t = new double[2 * a.length];
+    System.arraycopy(a, 0, t, 0, a.length);
+    return t;
+  }
+  static int[] grow(int[] a) {
+    int[] t = new int[Math.max(16, 2 * a.length)];
+    System.arraycopy(a, 0, t, 0, a.length);
+    return t;
+  }
+
+  /* Index file */
+
+  void write(File idx) throws IOException {
+    DataOutputStream out = new DataOutputStream(
+      new BufferedOutputStream(new FileOutputStream(idx), 65536));
+    try {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(fileLength);
+      out.writeLong(fileModified);
+      out.writeInt(header.size());
+      for (int i=0; i<header.size(); i++) out.writeUTF((String)header.get(i));
+      out.writeDouble(endTime);
+      out.writeInt(numEvents);
+      out.writeInt(numBlocks);
+      int n = numBlocks * getNumBars();
+      for (int i=0; i<numBlocks; i++) {
+	out.writeLong(offsets[i]);
+	out.writeDouble(starts[i]);
+      }
+      for (int i=0; i<n; i++) out.writeInt(states[i]);
+      for (int i=0; i<n; i++) out.writeInt(dominant[i]);
+    } finally {
+      out.close();
+    }
+  }
+
+  /** Returns false if the index is not for this version of the trace */
+  boolean read(File idx, long length, long modified) throws IOException {
+    DataInputStream in = new DataInputStream(
+      new BufferedInputStream(new FileInputStream(idx), 65536));
+    try {
+      if ((in.readInt() != MAGIC) || (in.readInt() != VERSION) ||
+	  (in.readLong() != length) || (in.readLong() != modified))
+	return false;
+      fileLength = length;
+      fileModified = modified;
+      int nlines = in.readInt();
+      List types = new ArrayList();
+      int section = -1;
+      for (int i=0; i<nlines; i++) {
+	section = addHeader(in.readUTF(), section, types);
+      }
+      endTime = in.readDouble();
+      numEvents = in.readInt();
+      numBlocks = in.readInt();
+      int n = numBlocks * getNumBars();
+      offsets = new long[numBlocks];
+      starts = new double[numBlocks];
+      states = new int[n];
+      dominant = new int[n];
+      for (int i=0; i<numBlocks; i++) {
+	offsets[i] = in.readLong();
+	starts[i] = in.readDouble();
+      }
+      for (int i=0; i<n; i++) states[i] = in.readInt();
+      for (int i=0; i<n; i++) dominant[i] = in.readInt();
+      return true;
+    } finally {
+      in.close();
+    }
+  }
+
+  /** Builds the index of a trace file ahead of viewing it */
+  public static void main(String args[]) {
+    if (args.length < 1) {
+      System.out.println("Usage: java eduni.simdiag.TraceIndex <trace file>");
+      return;
+    }
+    try {
+      TraceIndex index = open(args[0]);
+      System.out.println("Indexed "+index.getNumEvents()+" events in "+
+			 index.getNumBlocks()+" blocks");
+    } catch (IOException e) {
+      System.out.println("TraceIndex: Error - " + e.getMessage());
+    }
+  }
+}
+
+/** Reads lines, keeping track of the position in the file */
+class LineInput {
+  InputStream in;
+  long pos = 0;
+  StringBuffer sb = new StringBuffer();
+
+  LineInput(InputStream in) {
+    this.in = new BufferedInputStream(in, 65536);
+  }
+
+  long getPosition() { return pos; }
+
+  /** Returns the next line, or null at the end of the file */
+  String readLine() throws IOException {
+    sb.setLength(0);
+    int c;
+    while ((c = in.read()) >= 0) {
+      pos++;
+      if (c == '\n') break;
+      if (c != '\r') sb.append((char)c);
+    }
+    if ((c < 0) && (sb.length() == 0)) return null;
+    return sb.toString();
+  }
+
+  void close() throws IOException { in.close(); }
+}
@@ -0,0 +1,276 @@
+/* Sim_binary_outfile.java */
+
+package eduni.simjava;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A trace output class that writes the simulation trace as binary records. Records are
+ * gathered in memory and written to the file by a background thread, so that tracing
+ * slows down the simulation as little as possible. If the name of the file ends with
+ * <code>.gz</code>, it is compressed with gzip.
+ * <p>
+ * To use it, give it to <code>Sim_system</code> after the simulation has been initialised:
+ * <pre>
+ *   Sim_system.set_trace_output(new Sim_binary_outfile("sim_trace.bin"));
+ * </pre>
+ * The file can be read with <code>Sim_trace_reader</code>, which can also convert it into the
+ * text format written by <code>Sim_outfile</code>.
+ * <p>
+ * The file starts with the magic number and the format version. Then each record starts with a
+ * byte giving its kind. The records of the default trace have a fixed size of 29 bytes: kind,
+ * time (double), source id, destination id, tag (ints) and value (double). A message record has
+ * the kind, the time, the source id and the message. The first time an entity appears, a name
+ * record with its id and name is written before. Strings are written as their length followed
+ * by their UTF-8 bytes.
+ * @see         Sim_trace_output
+ * @see         Sim_trace_reader
+ * @version     1.0 19 October 2026
+ */
+public class Sim_binary_outfile implements Sim_trace_output {
+  /** The number identifying a binary trace file */
+  public static final int MAGIC = 0x53544246;
+  /** The version of the binary trace format */
+  public static final int VERSION = 1;
+
+  // The kinds of records that are not part of the default trace
+  static final int NAME = 0;
+  static final int MESSAGE = 127;
+
+  // The size of a record of the default trace
+  static final int RECORD_SIZE = 29;
+
+  private static final int CHUNK_SIZE = 65536;
+  private static final int NUM_CHUNKS = 16;
+  private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+  private String path;
+  private OutputStream out;
+  private Thread writer;
+  private ArrayBlockingQueue full;  // Chunks waiting to be written
+  private ArrayBlockingQueue empty; // Chunks already written, ready to be reused
+  private byte[] chunk;             // The chunk being filled
+  private int pos;                  // The position in the chunk
+  private boolean[] named;          // The entities whose name has been written
+  private volatile IOException error;
+
+  /**
+   * Constructor
+   * @param path The name of the trace file
+   */
+  public Sim_binary_outfile(String path) {
+    this.path = path;
+  }
+
+  /**
+   * Open the file and start the writer thread.
+   */
+  public void initialise() {
+    try {
+      out = new FileOutputStream(path);
+      if (path.endsWith(".gz")) {
+        out = new GZIPOutputStream(out, CHUNK_SIZE);
+      }
+      out = new BufferedOutputStream(out, CHUNK_SIZE);
+    } catch(IOException e) {
+      System.out.println("Sim_system: Error - could not open trace file");
+      return;
+    }
+    full = new ArrayBlockingQueue(NUM_CHUNKS);
+    empty = new ArrayBlockingQueue(NUM_CHUNKS);
+    chunk = new byte[CHUNK_SIZE];
+    pos = 0;
+    named = new boolean[64];
+    put_int(MAGIC);
+    chunk[pos++] = (byte)VERSION;
+
+    writer = new Thread("Sim_binary_outfile") {
+      public void run() { write_chunks(); }
+    };
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Output a trace line that has already been formatted. The line is written as a message of
+   * no entity.
+   * @param msg The trace line
+   */
+  public void println(String msg) {
+    trace_message(Sim_system.clock(), -1, msg);
+  }
+
+  /**
+   * Output a record of the default trace.
+   * @param kind  The kind of record
+   * @param time  The simulation time
+   * @param src   The id of the entity that the record is about
+   * @param dest  The id of the destination entity of an event, or <code>-1</code>
+   * @param tag   The event tag, or <code>-1</code> if the record is not about an event
+   * @param value The delay or event time, depending on the kind of record
+   */
+  public synchronized void trace_event(int kind, double time, int src, int dest, int tag, double value) {
+    if (chunk == null) {
+      return;
+    }
+    add_name(src);
+    add_name(dest);
+    reserve(RECORD_SIZE);
+    chunk[pos++] = (byte)kind;
+    put_long(Double.doubleToLongBits(time));
+    put_int(src);
+    put_int(dest);
+    put_int(tag);
+    put_long(Double.doubleToLongBits(value));
+  }
+
+  /**
+   * Output a trace message generated by an entity.
+   * @param time  The simulation time
+   * @param src   The id of the entity
+   * @param msg   The trace message
+   */
+  public synchronized void trace_message(double time, int src, String msg) {
+    if (chunk == null) {
+      return;
+    }
+    add_name(src);
+    byte[] bytes = utf8(msg);
+    reserve(17 + bytes.length);
+    chunk[pos++] = (byte)MESSAGE;
+    put_long(Double.doubleToLongBits(time));
+    put_int(src);
+    put_bytes(bytes);
+  }
+
+  /**
+   * Write the remaining records, wait for the writer thread and close the file.
+   */
+  public synchronized void close() {
+    if (chunk == null) {
+      return;
+    }
+    hand_over();
+    chunk = null;
+    try {
+      full.put(END);
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (error != null) {
+      System.out.println("Sim_system: Error - could not write trace file: " + error.getMessage());
+    }
+  }
+
+  // Write a name record the first time an entity appears
+  private void add_name(int id) {
+    if (id < 0) {
+      return;
+    }
+    if (id >= named.length) {
+      boolean[] temp = new boolean[Math.max(id + 1, 2*named.length)];
+      System.arraycopy(named, 0, temp, 0, named.length);
+      named = temp;
+    }
+    if (named[id]) {
+      return;
+    }
+    named[id] = true;
+    byte[] bytes = utf8(Sim_system.get_entity(id).get_name());
+    reserve(9 + bytes.length);
+    chunk[pos++] = (byte)NAME;
+    put_int(id);
+    put_bytes(bytes);
+  }
+
+  // Make room in the current chunk for a record, handing the chunk over if it is full
+  private void reserve(int size) {
+    if (pos + size <= chunk.length) {
+      return;
+    }
+    hand_over();
+    if (size > chunk.length) {
+      chunk = new byte[size];
+    }
+  }
+
+  // Give the current chunk to the writer thread and take an empty one
+  private void hand_over() {
+    if (pos == 0) {
+      return;
+    }
+    try {
+      full.put(ByteBuffer.wrap(chunk, 0, pos));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    chunk = (byte[])empty.poll();
+    if (chunk == null) {
+      chunk = new byte[CHUNK_SIZE];
+    }
+    pos = 0;
+  }
+
+  // The body of the writer thread
+  private void write_chunks() {
+    try {
+      while (true) {
+        ByteBuffer buffer = (ByteBuffer)full.take();
+        if (buffer == END) {
+          break;
+        }
+        if (error == null) {
+          try {
+            out.write(buffer.array(), 0, buffer.limit());
+          } catch (IOException e) {
+            error = e;
+          }
+        }
+        if (buffer.capacity() == CHUNK_SIZE) {
+          empty.offer(buffer.array());
+        }
+      }
+      out.close();
+    } catch (IOException e) {
+      if (error == null) {
+        error = e;
+      }
+    } catch (InterruptedException e) {
+      // The simulation is being stopped
+    }
+  }
+
+  private void put_int(int v) {
+    chunk[pos++] = (byte)(v >>> 24);
+    chunk[pos++] = (byte)(v >>> 16);
+    chunk[pos++] = (byte)(v >>> 8);
+    chunk[pos++] = (byte)v;
+  }
+
+  private void put_long(long v) {
+    put_int((int)(v >>> 32));
+    put_int((int)v);
+  }
+
+  private void put_bytes(byte[] bytes) {
+    put_int(bytes.length);
+    System.arraycopy(bytes, 0, chunk, pos, bytes.length);
+    pos += bytes.length;
+  }
+
+  static byte[] utf8(String s) {
+    try {
+      return s.getBytes("UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      return s.getBytes();
+    }
+  }
+}
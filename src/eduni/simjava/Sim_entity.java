@@ -586,11 +586,7 @@ public class Sim_entity extends Thread implements Cloneable {
     if (stat != null) {
       stat.reset();
     }
-    int size = generators.size();
-    for (int i=0; i < size; i++) {
-      Generator generator = (Generator)generators.get(i);
-      generator.set_seed(Sim_system.next_seed());
-    }
+    reseed_generators();
   }
 
   /**
@@ -610,18 +606,28 @@ public class Sim_entity extends Thread implements Cloneable {
    * to reseed the generator. This is performed when independent replications have been selected
    * as an output analysis method. If this method is not used for a generator then the seed used in the
    * subsequent replication will be the last one produced by the generator in the previous run.
+   * <p>
+   * If entity streams have been selected with <code>Sim_system.set_entity_streams</code>, the
+   * generator is also given its own stream, derived from the entity's name and the number of
+   * generators added before it. This replaces the seed given to the generator's constructor, and
+   * keeps the generator's samples the same when other entities or generators are added to the
+   * simulation.
    * @param generator The sample generator to be added to the entity
    */
   public void add_generator(Generator generator) {
     generators.add(generator);
+    if (Sim_system.get_entity_streams()) {
+      generator.set_seed(Sim_system.stream_seed(name, generators.size() - 1));
+    }
   }
 
   // Reseed the generators of this entity
   void reseed_generators() {
+    boolean streams = Sim_system.get_entity_streams();
     int size = generators.size();
     for (int i=0; i < size; i++) {
       Generator generator = (Generator)generators.get(i);
-      generator.set_seed(Sim_system.next_seed());
+      generator.set_seed(streams ? Sim_system.stream_seed(name, i) : Sim_system.next_seed());
     }
   }
 
@@ -684,7 +690,7 @@ public class Sim_entity extends Thread implements Cloneable {
       stat.set_busy(start_time);
     }
     if (Sim_system.default_tracing()) {
-      Sim_system.trace(me, "start holding");
+      Sim_system.trace_event(Sim_trace_output.HOLD, me, -1, -1, 0.0);
     }
     sim_wait_for(p, ev);
     if (!Sim_system.running()) return;
@@ -734,7 +740,7 @@ public class Sim_entity extends Thread implements Cloneable {
       stat.set_busy(start_time);
     }
     if (Sim_system.default_tracing()) {
-      Sim_system.trace(me, "start holding");
+      Sim_system.trace_event(Sim_trace_output.HOLD, me, -1, -1, 0.0);
     }
     sim_schedule(me, delay, 9999); // Send self 'hold done' msg
     sim_wait_for(p, ev);
@@ -795,7 +801,7 @@ public class Sim_entity extends Thread implements Cloneable {
       return;
     }
     if (Sim_system.default_tracing()) {
-      Sim_system.trace(me, "start pausing");
+      Sim_system.trace_event(Sim_trace_output.PAUSE, me, -1, -1, 0.0);
     }
     sim_wait_for(p, ev);
   }
@@ -833,7 +839,7 @@ public class Sim_entity extends Thread implements Cloneable {
     double start_time = Sim_system.sim_clock();
     double time_left = 0.0;
     if (Sim_system.default_tracing()) {
-      Sim_system.trace(me, "start pausing");
+      Sim_system.trace_event(Sim_trace_output.PAUSE, me, -1, -1, 0.0);
     }
     sim_schedule(me, delay, 9999); // Send self 'hold done' msg
     sim_wait_for(p, ev);
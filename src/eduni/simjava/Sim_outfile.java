@@ -19,18 +19,25 @@ import java.io.IOException;
  */
 public class Sim_outfile implements Sim_output {
   private PrintWriter trcstream;
+  private String path;
 
   /**
    * Constructor
    */
-  public Sim_outfile()  { }
+  public Sim_outfile()  { this("sim_trace"); }
+
+  /**
+   * Constructor for a trace file with another name
+   * @param path The name of the trace file
+   */
+  public Sim_outfile(String path) { this.path = path; }
 
   /**
    * Attempt to open the file
    */
   public void initialise() {
     try {
-      trcstream = new PrintWriter(new FileOutputStream("sim_trace"));
+      trcstream = new PrintWriter(new FileOutputStream(path));
     } catch(IOException e) {
       System.out.println("Sim_system: Error - could not open trace file");
     }
@@ -5,6 +5,7 @@ package eduni.simjava;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.Collection;
 import java.util.Iterator;
@@ -127,6 +128,13 @@ import java.io.Serializable;
  * efficient by calling a <code>set_efficient</code> method while the <code>Sim_stat</code> object is
  * being setup.
  * <p>
+ * Measures may also be specified as streaming by calling a <code>set_streaming</code> method instead. A
+ * streaming measure is an efficient measure that keeps a fixed amount of running summaries alongside its
+ * efficient data. From these the variance and standard deviation are available, quantiles are estimated
+ * for interval based measures, and batch means may be used as the output analysis method. The batch means
+ * of a streaming measure are approximations, since they are calculated from time bins rather than from
+ * the observations themselves.
+ * <p>
  * A final point of consideration is the order with which the setup steps are carried out for a <code>Sim_stat</code>
  * object:
  * <ul>
@@ -207,9 +215,11 @@ public class Sim_stat implements Serializable {
                          counters, // Stores the previous time of update and state value for custom STATE-BASED measures
                          init_counters; // Stores the initial state values for custom STATE-BASED measures
   private List measures, // Contains the measures that are to be calculated
-               observations, // Contains the vectors of the measures calculated
+               observations, // Contains the observation columns of the measures calculated
                levels; // Stores the levels of exceedence proportions that are desired to be calculated
   private HashMap data; // Holds required data for light measures
+  private HashMap streams; // Holds the running summaries of streaming measures
+  private transient HashMap ids; // Maps the measure names to their ids. Rebuilt when null.
 
   private List annotations; // Holds the annotations. Used by the graph viewing utility.
 
@@ -265,7 +275,8 @@ public class Sim_stat implements Serializable {
       throw new Sim_stat_exception(measure_names[measure] + " is already being measured for this entity.");
     }
     measures.add(new Object[] {measure_names[measure], new Integer(measure_types[measure])});
-    observations.add(new ArrayList());
+    observations.add(new Column(measure_types[measure]));
+    ids = null;
   }
 
   /**
@@ -285,7 +296,8 @@ public class Sim_stat implements Serializable {
       add_measure(measure_name, measure_type, 0.0);
     } else {
       measures.add(new Object[] {measure_name, new Integer(measure_type)});
-      observations.add(new ArrayList());
+      observations.add(new Column(measure_type));
+      ids = null;
     }
   }
 
@@ -303,7 +315,8 @@ public class Sim_stat implements Serializable {
       throw new Sim_stat_exception(measure_name + " is already being measured for this entity.");
     }
     measures.add(new Object[] {measure_name, new Integer(measure_type), new Boolean(true)});
-    observations.add(new ArrayList());
+    observations.add(new Column(measure_type));
+    ids = null;
     counters.add(new Object[] {measure_name, new Double(level), new Double(0.0)});
     init_counters.add(new Object[] {measure_name, new Double(level), new Double(0.0)});
   }
@@ -327,7 +340,8 @@ public class Sim_stat implements Serializable {
       add_measure(measure_name, measure_type, 0.0);
     } else {
       measures.add(new Object[] {measure_name, new Integer(measure_type), new Boolean(false)});
-      observations.add(new ArrayList());
+      observations.add(new Column(measure_type));
+      ids = null;
     }
   }
 
@@ -392,37 +406,98 @@ public class Sim_stat implements Serializable {
     if (!is_selected(measure)) {
       throw new Sim_stat_exception(measure + " has not been measured for this entity.");
     }
+    if (is_streaming(measure)) {
+      throw new Sim_stat_exception(measure + " is already a streaming measure.");
+    }
+    if ((data == null) || !data.containsKey(measure)) {
+      init_efficient(measure);
+      Sim_system.efficient_measure_defined();
+    }
+  }
+
+  /**
+   * Mark a default measure as streaming. A streaming measure is an efficient measure that also
+   * keeps running summaries from which the variance, standard deviation, quantiles and batch
+   * means can be obtained. The median and the 90th, 95th and 99th percentiles are estimated
+   * for interval based measures.
+   * @param measure The <code>int</code> constant defining the default measure of interest
+   */
+  public void set_streaming(int measure) {
+    set_streaming(measure_names[measure]);
+  }
+
+  /**
+   * Mark a custom measure as streaming. The median and the 90th, 95th and 99th percentiles are
+   * estimated for interval based measures.
+   * @param measure The name of the measure
+   */
+  public void set_streaming(String measure) {
+    set_streaming(measure, Sim_stat_stream.DEFAULT_QUANTILES);
+  }
+
+  /**
+   * Mark a measure as streaming, specifying the quantiles to be estimated. Quantiles are only
+   * estimated for interval based measures.
+   * <p>
+   * Unlike other efficient measures, streaming measures may be used with batch means as the output
+   * analysis method. Their batch means are calculated from a fixed number of time bins, so they are
+   * approximations when a batch boundary falls within a bin. The minimum-maximum method of transient
+   * period estimation can't be used with a streaming measure.
+   * @param measure       The name of the measure
+   * @param probabilities The probabilities of the quantiles, each between <code>0.0</code> and <code>1.0</code>
+   */
+  public void set_streaming(String measure, double[] probabilities) {
+    if (!is_selected(measure)) {
+      throw new Sim_stat_exception(measure + " has not been measured for this entity.");
+    }
+    if (is_efficient(measure) && !is_streaming(measure)) {
+      throw new Sim_stat_exception(measure + " is already an efficient measure.");
+    }
+    for (int i=0; i < probabilities.length; i++) {
+      if ((probabilities[i] <= 0.0) || (probabilities[i] >= 1.0)) {
+        throw new Sim_stat_exception("Quantile probabilities must be between 0.0 and 1.0.");
+      }
+    }
+    if (streams == null) {
+      streams = new HashMap();
+    }
+    if (!is_efficient(measure)) {
+      init_efficient(measure);
+    }
+    streams.put(measure, new Sim_stat_stream(get_type(measure), (double[])probabilities.clone(), 0.0));
+    Sim_system.streaming_measure_defined();
+  }
+
+  // Creates the efficient data of a measure
+  private void init_efficient(String measure) {
     if (data == null) {
       data = new HashMap();
     }
-    if (!data.containsKey(measure)) {
-      int type = get_type(get_id(measure));
-      switch (type) {
-        case RATE_BASED:
-          data.put(measure, new Long(0L));
-          break;
-        case STATE_BASED:
-          double initial_level = 0.0;
-          Object[] counters = get_counters(measure);
-          if (counters != null) {
-            // Its a custom state based measure
-            initial_level = ((Double)counters[1]).doubleValue();
-          }
-          if (get_levels(measure) == null) {
-            data.put(measure, new Object[] {new double[] {0, 0, 0, 0, initial_level, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}});
-          } else {
-            data.put(measure, new Object[] {new double[] {0, 0, 0, 0, initial_level, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}, new double[get_levels(measure).length]});
-          }
-          break;
-        case INTERVAL_BASED:
-          if (get_levels(measure) == null) {
-            data.put(measure, new Object[] {new double[] {0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0}});
-          } else {
-            data.put(measure, new Object[] {new double[] {0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0}, new double[get_levels(measure).length]});
-          }
-          break;
-      }
-      Sim_system.efficient_measure_defined();
+    int type = get_type(get_id(measure));
+    switch (type) {
+      case RATE_BASED:
+        data.put(measure, new Long(0L));
+        break;
+      case STATE_BASED:
+        double initial_level = 0.0;
+        Object[] counters = get_counters(measure);
+        if (counters != null) {
+          // Its a custom state based measure
+          initial_level = ((Double)counters[1]).doubleValue();
+        }
+        if (get_levels(measure) == null) {
+          data.put(measure, new Object[] {new double[] {0, 0, 0, 0, initial_level, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}});
+        } else {
+          data.put(measure, new Object[] {new double[] {0, 0, 0, 0, initial_level, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}, new double[get_levels(measure).length]});
+        }
+        break;
+      case INTERVAL_BASED:
+        if (get_levels(measure) == null) {
+          data.put(measure, new Object[] {new double[] {0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0}});
+        } else {
+          data.put(measure, new Object[] {new double[] {0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0}, new double[get_levels(measure).length]});
+        }
+        break;
     }
   }
 
@@ -443,8 +518,9 @@ public class Sim_stat implements Serializable {
           Long counter = (Long)data.get(measure_names[ARRIVAL_RATE]);
           counter = new Long(counter.longValue()+1);
           data.put(measure_names[ARRIVAL_RATE], counter);
+          stream_rate(measure_names[ARRIVAL_RATE], time_occurred);
         } else {
-          ((List)observations.get(get_id(measure_names[ARRIVAL_RATE]))).add(new Double(time_occurred));
+          ((Column)observations.get(get_id(measure_names[ARRIVAL_RATE]))).add(time_occurred);
         }
         // Notify Sim_system
         Sim_system.observation_collected(entity_id, measure_names[ARRIVAL_RATE]);
@@ -473,6 +549,7 @@ public class Sim_stat implements Serializable {
               }
             }
           }
+          stream_state(measure_names[QUEUE_LENGTH], mValues[4], mValues[3], time_occurred);
           mValues[2] = mValues[3]; // The previous interval start time
           mValues[3] = time_occurred; // The previous interval end time
           if (mValues[4] < mValues[5]) {
@@ -485,7 +562,7 @@ public class Sim_stat implements Serializable {
           data.put(measure_names[QUEUE_LENGTH], values);
           Sim_system.observation_collected(entity_id, measure_names[QUEUE_LENGTH]);
         } else {
-          ((List)observations.get(get_id(measure_names[QUEUE_LENGTH]))).add(new double[] {queue_length, prev_time_queue, time_occurred});
+          ((Column)observations.get(get_id(measure_names[QUEUE_LENGTH]))).add(queue_length, prev_time_queue, time_occurred);
           queue_length++;
           prev_time_queue = time_occurred;
           // Notify Sim_system
@@ -526,6 +603,7 @@ public class Sim_stat implements Serializable {
                     }
                   }
                 }
+                stream_state(measure_names[QUEUE_LENGTH], mValues[4], mValues[3], end_time);
                 mValues[2] = mValues[3]; // The previous interval start time
                 mValues[3] = end_time; // The previous interval end time
                 if (mValues[4] < mValues[5]) {
@@ -538,7 +616,7 @@ public class Sim_stat implements Serializable {
                 data.put(measure_names[QUEUE_LENGTH], values);
               }
             } else {
-                ((List)observations.get(get_id(measure_names[QUEUE_LENGTH]))).add(new double[] {queue_length--, prev_time_queue, end_time});
+                ((Column)observations.get(get_id(measure_names[QUEUE_LENGTH]))).add(queue_length--, prev_time_queue, end_time);
                 prev_time_queue = end_time;
             }
             // Notify Sim_system
@@ -567,8 +645,9 @@ public class Sim_stat implements Serializable {
                 }
               }
               data.put(measure_names[WAITING_TIME], values);
+              stream_interval(measure_names[WAITING_TIME], end_time-start_time, end_time);
             } else {
-              ((List)observations.get(get_id(measure_names[WAITING_TIME]))).add(new double[] {start_time, end_time});
+              ((Column)observations.get(get_id(measure_names[WAITING_TIME]))).add(start_time, end_time);
             }
             // Notify Sim_system
             Sim_system.observation_collected(entity_id, measure_names[WAITING_TIME]);
@@ -598,8 +677,9 @@ public class Sim_stat implements Serializable {
                 }
               }
               data.put(measure_names[RESIDENCE_TIME], values);
+              stream_interval(measure_names[RESIDENCE_TIME], end_time-start_time, end_time);
             } else {
-              ((List)observations.get(get_id(measure_names[RESIDENCE_TIME]))).add(new double[] {start_time, end_time});
+              ((Column)observations.get(get_id(measure_names[RESIDENCE_TIME]))).add(start_time, end_time);
             }
             // Notify Sim_system
             Sim_system.observation_collected(entity_id, measure_names[RESIDENCE_TIME]);
@@ -609,8 +689,9 @@ public class Sim_stat implements Serializable {
               Long counter = (Long)data.get(measure_names[THROUGHPUT]);
               counter = new Long(counter.longValue()+1);
               data.put(measure_names[THROUGHPUT], counter);
+              stream_rate(measure_names[THROUGHPUT], end_time);
             } else {
-              ((List)observations.get(get_id(measure_names[THROUGHPUT]))).add(new Double(end_time));
+              ((Column)observations.get(get_id(measure_names[THROUGHPUT]))).add(end_time);
             }
             // Notify Sim_system
             Sim_system.observation_collected(entity_id, measure_names[THROUGHPUT]);
@@ -640,8 +721,9 @@ public class Sim_stat implements Serializable {
                 }
               }
               data.put(measure_names[SERVICE_TIME], values);
+              stream_interval(measure_names[SERVICE_TIME], end_time-start_time, end_time);
             } else {
-              ((List)observations.get(get_id(measure_names[SERVICE_TIME]))).add(new double[] {start_time, end_time});
+              ((Column)observations.get(get_id(measure_names[SERVICE_TIME]))).add(start_time, end_time);
             }
             // Notify Sim_system
             Sim_system.observation_collected(entity_id, measure_names[SERVICE_TIME]);
@@ -668,6 +750,8 @@ public class Sim_stat implements Serializable {
         }
         mValues[0] += end_time-start_time; // The level sum
         mValues[1] += end_time-mValues[3]; // The time sum
+        stream_state(measure_names[UTILISATION], 0.0, mValues[3], start_time);
+        stream_state(measure_names[UTILISATION], 1.0, start_time, end_time);
         mValues[2] = start_time; // The previous interval start time
         mValues[3] = end_time; // The previous interval end time
         data.put(measure_names[UTILISATION], values);
@@ -676,8 +760,8 @@ public class Sim_stat implements Serializable {
         Sim_system.observation_collected(entity_id, measure_names[UTILISATION]);
       } else {
         if (prev_time_util != 0.0) {
-          List obs = (List)observations.get(get_id(measure_names[UTILISATION]));
-          prev_time_util = ((double[])obs.get(obs.size()-1))[2];
+          Column obs = (Column)observations.get(get_id(measure_names[UTILISATION]));
+          prev_time_util = obs.c2[obs.size-1];
           if (prev_time_util > start_time) {
             // This only occurs with batch means as a variance reduction method. The entity
             // started holding before batch means was applied and did not finish. The time
@@ -686,8 +770,8 @@ public class Sim_stat implements Serializable {
           }
         }
         int id = get_id(measure_names[UTILISATION]);
-        ((List)observations.get(id)).add(new double[] {0.0, prev_time_util, start_time});
-        ((List)observations.get(id)).add(new double[] {1.0, start_time, end_time});
+        ((Column)observations.get(id)).add(0.0, prev_time_util, start_time);
+        ((Column)observations.get(id)).add(1.0, start_time, end_time);
         prev_time_util = end_time;
         entity_busy = false;
         // Notify Sim_system
@@ -719,8 +803,9 @@ public class Sim_stat implements Serializable {
       Long counter = (Long)data.get(measure);
       counter = new Long(counter.longValue()+1);
       data.put(measure, counter);
+      stream_rate(measure, time_occurred);
     } else {
-      ((List)observations.get(id)).add(new Double(time_occurred));
+      ((Column)observations.get(id)).add(time_occurred);
     }
     // Notify Sim_system
     Sim_system.observation_collected(entity_id, measure);
@@ -778,11 +863,12 @@ public class Sim_stat implements Serializable {
         mValues[6] = level;                            // The maximum
       }
       data.put(measure, values);
+      stream_state(measure, level, start_time, end_time);
     } else {
       if (end_time < trans_time) {
         return;
       }
-      ((List)observations.get(id)).add(new double[] {level, start_time, end_time});
+      ((Column)observations.get(id)).add(level, start_time, end_time);
     }
     // Notify Sim_system
     Sim_system.observation_collected(entity_id, measure);
@@ -848,6 +934,7 @@ public class Sim_stat implements Serializable {
         if (mValues[4] > mValues[6]) {
           mValues[6] = mValues[4]; // The maximum
         }
+        stream_state(measure, mValues[4], mValues[3], end_time);
         mValues[2] = mValues[3];
         mValues[3] = end_time;
         mValues[4] = first;
@@ -859,7 +946,7 @@ public class Sim_stat implements Serializable {
         if (end_time < trans_time) {
           return;
         }
-        ((List)observations.get(id)).add(new double[] {prev_level, prev_time, end_time});
+        ((Column)observations.get(id)).add(prev_level, prev_time, end_time);
         set_counters(measure, first, end_time);
       }
     } else {
@@ -892,11 +979,12 @@ public class Sim_stat implements Serializable {
           }
         }
         data.put(measure, values);
+        stream_interval(measure, end_time-first, end_time);
       } else {
         if (end_time < trans_time) {
           return;
         }
-        ((List)observations.get(id)).add(new double[] {first, end_time});
+        ((Column)observations.get(id)).add(first, end_time);
       }
     }
     // Notify Sim_system
@@ -925,6 +1013,7 @@ public class Sim_stat implements Serializable {
               }
             }
           }
+          stream_state(measure_names[QUEUE_LENGTH], mValues[4], mValues[3], clock);
           mValues[2] = mValues[3];  // The previous interval start time
           mValues[3] = clock;       // The previous interval end time
           if (mValues[4] < mValues[5]) {
@@ -939,7 +1028,7 @@ public class Sim_stat implements Serializable {
         }
       } else {
         if (prev_time_queue < clock) {
-          ((List)observations.get(get_id(measure_names[QUEUE_LENGTH]))).add(new double[] {queue_length, prev_time_queue, clock});
+          ((Column)observations.get(get_id(measure_names[QUEUE_LENGTH]))).add(queue_length, prev_time_queue, clock);
           prev_time_queue = clock;
           // Notify Sim_system
           Sim_system.observation_collected(entity_id, measure_names[QUEUE_LENGTH]);
@@ -959,12 +1048,14 @@ public class Sim_stat implements Serializable {
             mValues[0] += clock-started_busy; // The level sum
             mValues[2] = started_busy;        // The previous interval start time
           }
+          stream_state(measure_names[UTILISATION], 0.0, mValues[3], mValues[2]);
+          stream_state(measure_names[UTILISATION], 1.0, mValues[2], clock);
           mValues[1] += clock-mValues[3];   // The time sum
           mValues[3] = clock;               // The previous interval end time
           data.put(measure_names[UTILISATION], values);
         } else {
-          ((List)observations.get(id)).add(new double[] {0.0, prev_time_util, started_busy});
-          ((List)observations.get(id)).add(new double[] {1.0, started_busy, clock});
+          ((Column)observations.get(id)).add(0.0, prev_time_util, started_busy);
+          ((Column)observations.get(id)).add(1.0, started_busy, clock);
           prev_time_util = clock;
         }
         // Notify Sim_system
@@ -975,13 +1066,14 @@ public class Sim_stat implements Serializable {
           Object[] values = (Object[])data.get(measure_names[UTILISATION]);
           double[] mValues = (double[])values[0];
           if (mValues[3] < clock) {
+            stream_state(measure_names[UTILISATION], 0.0, mValues[3], clock);
             mValues[1] += clock-mValues[3];
             mValues[3] = clock;
             data.put(measure_names[UTILISATION], values);
           }
         } else {
           if (prev_time_util < clock) {
-            ((List)observations.get(id)).add(new double[] {0.0, prev_time_util, clock});
+            ((Column)observations.get(id)).add(0.0, prev_time_util, clock);
           }
         }
         // Notify Sim_system
@@ -1018,6 +1110,7 @@ public class Sim_stat implements Serializable {
               if (mValues[4] > mValues[6]) {
                 mValues[6] = mValues[4]; // The maximum
               }
+              stream_state(measure, mValues[4], mValues[3], clock);
               mValues[2] = mValues[3];
               mValues[3] = clock;
               data.put(measure, values);
@@ -1028,7 +1121,7 @@ public class Sim_stat implements Serializable {
             double prev_level = ((Double)counters[1]).doubleValue();
             double prev_time = ((Double)counters[2]).doubleValue();
             if (prev_time < clock) {
-              ((List)observations.get(id)).add(new double[] {prev_level, prev_time, clock});
+              ((Column)observations.get(id)).add(prev_level, prev_time, clock);
               set_counters((String)next[0], prev_time, clock);
               // Notify Sim_system
               Sim_system.observation_collected(entity_id, (String)next[0]);
@@ -1039,6 +1132,28 @@ public class Sim_stat implements Serializable {
     }
   }
 
+  // Used to update the running summaries of streaming measures, alongside their efficient data
+  private void stream_rate(String measure, double time) {
+    if (streams != null) {
+      Sim_stat_stream stream = (Sim_stat_stream)streams.get(measure);
+      if (stream != null) stream.rate(time);
+    }
+  }
+
+  private void stream_state(String measure, double level, double from, double to) {
+    if (streams != null) {
+      Sim_stat_stream stream = (Sim_stat_stream)streams.get(measure);
+      if (stream != null) stream.state(level, from, to);
+    }
+  }
+
+  private void stream_interval(String measure, double value, double time) {
+    if (streams != null) {
+      Sim_stat_stream stream = (Sim_stat_stream)streams.get(measure);
+      if (stream != null) stream.interval(value, time);
+    }
+  }
+
   // Used to signal when the entity has started to hold. Used for calculating the tidying-up utilisation
   void set_busy(double time) {
     entity_busy = true;
@@ -1079,6 +1194,12 @@ public class Sim_stat implements Serializable {
         data.put(measure, value);
       }
     }
+    if (streams != null) {
+      Iterator stream_values = streams.values().iterator();
+      while (stream_values.hasNext()) {
+        ((Sim_stat_stream)stream_values.next()).restart(trans_time);
+      }
+    }
     this.trans_time = trans_time;
   }
 
@@ -1166,14 +1287,17 @@ public class Sim_stat implements Serializable {
 
   /**
    * Get the sample variance for a default state or interval based measure. The variance can't be obtained
-   * for a measure when it is defined as efficient. Furthermore, the measure provided may not be the
+   * for a measure when it is defined as efficient, unless it is streaming, in which case it applies to the
+   * same period as the efficient average. Furthermore, the measure provided may not be the
    * utilisation. The variance applies to the entire run length.
    * @param measure The <code>int</code> constant representing the default measure
    * @return The sample variance
    * @throws Sim_stat_exception If there is an error in the passed parameters. This error can be left unchecked.
    */
   public double variance(int measure) {
-    if (is_efficient(measure_names[measure])) {
+    if (is_streaming(measure_names[measure])) {
+      return variance_streaming(measure_names[measure]);
+    } else if (is_efficient(measure_names[measure])) {
       throw new Sim_stat_exception(measure_names[measure] + " can't produce variance as an efficient measure.");
     }
     return variance(measure_names[measure], 0.0, Sim_system.sim_clock());
@@ -1181,14 +1305,16 @@ public class Sim_stat implements Serializable {
 
   /**
    * Get the sample standard deviation for a default state or interval based measure. The standard deviation
-   * can't be obtained for a measure when it is defined as efficient. Furthermore, the measure provided may
-   * not be the utilisation. The standard deviation applies to the entire run length.
+   * can't be obtained for a measure when it is defined as efficient, unless it is streaming. Furthermore,
+   * the measure provided may not be the utilisation. The standard deviation applies to the entire run length.
    * @param measure The <code>int</code> constant representing the default measure
    * @return The sample standard deviation.
    * @throws Sim_stat_exception If there is an error in the passed parameters. This error can be left unchecked.
    */
   public double std_deviation(int measure) {
-    if (is_efficient(measure_names[measure])) {
+    if (is_streaming(measure_names[measure])) {
+      return Math.sqrt(variance_streaming(measure_names[measure]));
+    } else if (is_efficient(measure_names[measure])) {
       throw new Sim_stat_exception(measure_names[measure] + " can't produce standard deviation as an efficient measure.");
     }
     return Math.sqrt(variance(measure_names[measure], 0.0, Sim_system.sim_clock()));
@@ -1325,13 +1451,16 @@ public class Sim_stat implements Serializable {
 
   /**
    * Get the sample variance for a custom state or interval based measure. The variance can't be obtained
-   * for a measure when it is defined as efficient. The variance applies to the entire run length.
+   * for a measure when it is defined as efficient, unless it is streaming. The variance applies to the
+   * entire run length.
    * @param measure The name of the custom measure
    * @return The sample variance
    * @throws Sim_stat_exception If there is an error in the passed parameters. This error can be left unchecked.
    */
   public double variance(String measure) {
-    if (is_efficient(measure)) {
+    if (is_streaming(measure)) {
+      return variance_streaming(measure);
+    } else if (is_efficient(measure)) {
       throw new Sim_stat_exception(measure + " can't produce variance as an efficient measure.");
     }
     return variance(measure, 0.0, Sim_system.sim_clock());
@@ -1339,14 +1468,16 @@ public class Sim_stat implements Serializable {
 
   /**
    * Get the sample standard deviation for a custom state or interval based measure. The standard deviation
-   * can't be obtained for a measure when it is defined as efficient. The standard deviation applies to the
-   * entire run length.
+   * can't be obtained for a measure when it is defined as efficient, unless it is streaming. The standard
+   * deviation applies to the entire run length.
    * @param measure The name of the ustom measure
    * @return The sample variance
    * @throws Sim_stat_exception If there is an error in the passed parameters. This error can be left unchecked.
    */
   public double std_deviation(String measure) {
-    if (is_efficient(measure)) {
+    if (is_streaming(measure)) {
+      return Math.sqrt(variance_streaming(measure));
+    } else if (is_efficient(measure)) {
       throw new Sim_stat_exception(measure + " can't produce standard deviation as an efficient measure.");
     }
     return Math.sqrt(variance(measure, 0.0, Sim_system.sim_clock()));
@@ -1582,33 +1713,32 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
-      double[] first = (double[])data.get(indices[0]);
+      Column data = (Column)observations.get(id);
+      int first = indices[0];
       double sum;
       double time_period = 0.0;
-      if (first[1] < start_time) {
-        sum = first[0]*(first[2]-start_time);
-        time_period += first[2]-start_time;
+      if (data.c1[first] < start_time) {
+        sum = data.c0[first]*(data.c2[first]-start_time);
+        time_period += data.c2[first]-start_time;
       } else {
-        sum = first[0]*(first[2]-first[1]);
-        time_period += first[2]-first[1];
+        sum = data.c0[first]*(data.c2[first]-data.c1[first]);
+        time_period += data.c2[first]-data.c1[first];
       }
       for (int i=indices[0]+1; i < indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        sum += next[0]*(next[2]-next[1]);
-        time_period += (next[2]-next[1]);
+        sum += data.c0[i]*(data.c2[i]-data.c1[i]);
+        time_period += (data.c2[i]-data.c1[i]);
       }
-      double[] last = (double[])data.get(indices[1]);
+      int last = indices[1];
       if (continuous) {
-        sum += last[0]*(end_time-last[1]);
-        time_period += end_time-last[1];
+        sum += data.c0[last]*(end_time-data.c1[last]);
+        time_period += end_time-data.c1[last];
       } else {
-        if (last[2] > end_time) {
-          sum += last[0]*(end_time-last[1]);
-          time_period += end_time-last[1];
+        if (data.c2[last] > end_time) {
+          sum += data.c0[last]*(end_time-data.c1[last]);
+          time_period += end_time-data.c1[last];
         } else {
-          sum += last[0]*(last[2]-last[1]);
-          time_period += last[2]-last[1];
+          sum += data.c0[last]*(data.c2[last]-data.c1[last]);
+          time_period += data.c2[last]-data.c1[last];
         }
       }
       if (time_period == 0.0) {
@@ -1622,11 +1752,10 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
+      Column data = (Column)observations.get(id);
       double sum = 0.0;
       for (int i=indices[0]; i <= indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        sum += next[1]-next[0];
+        sum += data.c1[i]-data.c0[i];
       }
       if (((indices[1]-indices[0])+1) == 0) {
         result = 0.0;
@@ -1663,11 +1792,10 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
+      Column data = (Column)observations.get(id);
       for (int i = indices[0]; i <= indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        if (next[0] > result) {
-          result = next[0];
+        if (data.c0[i] > result) {
+          result = data.c0[i];
         }
       }
     } else {
@@ -1675,11 +1803,10 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
+      Column data = (Column)observations.get(id);
       for (int i = indices[0]; i <= indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        if ((next[1]-next[0]) > result) {
-          result = next[1]-next[0];
+        if ((data.c1[i]-data.c0[i]) > result) {
+          result = data.c1[i]-data.c0[i];
         }
       }
     }
@@ -1712,13 +1839,12 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
-      double[] first = (double[])data.get(indices[0]);
-      result = first[0];
+      Column data = (Column)observations.get(id);
+      int first = indices[0];
+      result = data.c0[first];
       for (int i = indices[0]+1; i <= indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        if (next[0] < result) {
-          result = next[0];
+        if (data.c0[i] < result) {
+          result = data.c0[i];
         }
       }
     } else {
@@ -1726,13 +1852,12 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
-      double[] first = (double[])data.get(indices[0]);
-      result = first[1]-first[0];
+      Column data = (Column)observations.get(id);
+      int first = indices[0];
+      result = data.c1[first]-data.c0[first];
       for (int i = indices[0]+1; i <= indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        if ((next[1]-next[0]) < result) {
-          result = next[1]-next[0];
+        if ((data.c1[i]-data.c0[i]) < result) {
+          result = data.c1[i]-data.c0[i];
         }
       }
     }
@@ -1771,33 +1896,32 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
-      double[] first = (double[])data.get(indices[0]);
+      Column data = (Column)observations.get(id);
+      int first = indices[0];
       double sum;
       double time_period = 0.0;
-      if (first[1] < start_time) {
-        sum = Math.pow(first[0], 2.0)*(first[2]-start_time);
-        time_period += first[2]-start_time;
+      if (data.c1[first] < start_time) {
+        sum = Math.pow(data.c0[first], 2.0)*(data.c2[first]-start_time);
+        time_period += data.c2[first]-start_time;
       } else {
-        sum = Math.pow(first[0], 2.0)*(first[2]-first[1]);
-        time_period += first[2]-first[1];
+        sum = Math.pow(data.c0[first], 2.0)*(data.c2[first]-data.c1[first]);
+        time_period += data.c2[first]-data.c1[first];
       }
       for (int i=indices[0]+1; i < indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        sum += Math.pow(next[0], 2.0)*(next[2]-next[1]);
-        time_period += next[2]-next[1];
+        sum += Math.pow(data.c0[i], 2.0)*(data.c2[i]-data.c1[i]);
+        time_period += data.c2[i]-data.c1[i];
       }
-      double[] last = (double[])data.get(indices[1]);
+      int last = indices[1];
       if (continuous) {
-        sum += Math.pow(last[0], 2.0)*(end_time-last[1]);
-        time_period += end_time-last[1];
+        sum += Math.pow(data.c0[last], 2.0)*(end_time-data.c1[last]);
+        time_period += end_time-data.c1[last];
       } else {
-        if (last[2] > end_time) {
-          sum += Math.pow(last[0], 2.0)*(end_time-last[1]);
-          time_period += end_time-last[1];
+        if (data.c2[last] > end_time) {
+          sum += Math.pow(data.c0[last], 2.0)*(end_time-data.c1[last]);
+          time_period += end_time-data.c1[last];
         } else {
-          sum += Math.pow(last[0], 2.0)*(last[2]-last[1]);
-          time_period += last[2]-last[1];
+          sum += Math.pow(data.c0[last], 2.0)*(data.c2[last]-data.c1[last]);
+          time_period += data.c2[last]-data.c1[last];
         }
       }
       if (time_period == 0.0) {
@@ -1810,11 +1934,10 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
+      Column data = (Column)observations.get(id);
       double sum = 0.0;
       for (int i=indices[0]; i <= indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        sum += Math.pow(next[1]-next[0], 2.0);
+        sum += Math.pow(data.c1[i]-data.c0[i], 2.0);
       }
       double mean = ((indices[1]-indices[0])+1) * Math.pow(average(measure, start_time, end_time), 2.0);
       if ((indices[1]-indices[0]) == 0) {
@@ -1894,44 +2017,43 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
-      double[] first = (double[])data.get(indices[0]);
+      Column data = (Column)observations.get(id);
+      int first = indices[0];
       double sum = 0.0;
       double time_period = 0.0;
-      if (first[1] < start_time) {
-        time_period += first[2]-start_time;
-        if (first[0] > level) {
-          sum = first[2]-start_time;
+      if (data.c1[first] < start_time) {
+        time_period += data.c2[first]-start_time;
+        if (data.c0[first] > level) {
+          sum = data.c2[first]-start_time;
         }
       } else {
-        time_period += first[2]-first[1];
-        if (first[0] > level) {
-          sum = first[2]-first[1];
+        time_period += data.c2[first]-data.c1[first];
+        if (data.c0[first] > level) {
+          sum = data.c2[first]-data.c1[first];
         }
       }
       for (int i=indices[0]+1; i < indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        time_period += next[2]-next[1];
-        if (next[0] > level) {
-          sum += next[2]-next[1];
+        time_period += data.c2[i]-data.c1[i];
+        if (data.c0[i] > level) {
+          sum += data.c2[i]-data.c1[i];
         }
       }
-      double[] last = (double[])data.get(indices[1]);
+      int last = indices[1];
       if (continuous) {
-        time_period += end_time-last[1];
-        if (last[0] > level) {
-          sum += end_time-last[1];
+        time_period += end_time-data.c1[last];
+        if (data.c0[last] > level) {
+          sum += end_time-data.c1[last];
         }
       } else {
-        if (last[2] > end_time) {
-          time_period += end_time-last[1];
-          if (last[0] > level) {
-            sum += end_time-last[1];
+        if (data.c2[last] > end_time) {
+          time_period += end_time-data.c1[last];
+          if (data.c0[last] > level) {
+            sum += end_time-data.c1[last];
           }
         } else {
-          time_period += last[2]-last[1];
-          if (last[0] > level) {
-            sum += last[2]-last[1];
+          time_period += data.c2[last]-data.c1[last];
+          if (data.c0[last] > level) {
+            sum += data.c2[last]-data.c1[last];
           }
         }
       }
@@ -1946,11 +2068,10 @@ public class Sim_stat implements Serializable {
       if (indices[1] == -1) {
         return 0.0;
       }
-      List data = (List)observations.get(id);
+      Column data = (Column)observations.get(id);
       double sum = 0.0;
       for (int i=indices[0]; i <= indices[1]; i++) {
-        double[] next = (double[])data.get(i);
-        if ((next[1]-next[0]) > level) {
+        if ((data.c1[i]-data.c0[i]) > level) {
           sum++;
         }
       }
@@ -2005,6 +2126,51 @@ public class Sim_stat implements Serializable {
     }
   }
 
+  // Methods for streaming measure measurements
+
+  // The sample variance
+  private double variance_streaming(String measure) {
+    Sim_stat_stream stream = (Sim_stat_stream)streams.get(measure);
+    if (stream.get_type() == RATE_BASED) {
+      throw new Sim_stat_exception(measure + " must be a state-based or interval-based measure.");
+    } else if (measure.equals("Utilisation")) {
+      throw new Sim_stat_exception("Invalid measure type. Must be state-based or interval-based.");
+    }
+    return stream.variance();
+  }
+
+  /**
+   * Get the quantile estimates of a streaming interval based measure. Before steady state is reached
+   * the estimates apply to the entire run length up to that point. If steady state has been reached
+   * they apply to the steady state up to that point.
+   * @param measure The name of the measure
+   * @return The estimates, in the order of the probabilities given by <code>get_quantile_probabilities</code>
+   * @throws Sim_stat_exception If the measure isn't a streaming interval based measure. This error can be left unchecked.
+   */
+  public double[] quantiles(String measure) {
+    if (!is_streaming(measure) || (get_type(measure) != INTERVAL_BASED)) {
+      throw new Sim_stat_exception("Quantiles are only estimated for streaming interval based measures.");
+    }
+    return ((Sim_stat_stream)streams.get(measure)).quantiles();
+  }
+
+  /**
+   * Get the probabilities of the quantiles estimated for a streaming measure.
+   * @param measure The name of the measure
+   * @return The probabilities or <code>null</code> if the measure isn't streaming
+   */
+  public double[] get_quantile_probabilities(String measure) {
+    if (!is_streaming(measure)) {
+      return null;
+    }
+    return (double[])((Sim_stat_stream)streams.get(measure)).get_probabilities().clone();
+  }
+
+  // Used by Sim_system to get the batch means of a streaming measure
+  double[] batch_means(String measure, int batch_count, double start_time, double end_time) {
+    return ((Sim_stat_stream)streams.get(measure)).batch_means(batch_count, start_time, end_time);
+  }
+
   // The maximum observation
   private double maximum_efficient(String measure) {
     int type = get_type(measure);
@@ -2088,33 +2254,68 @@ public class Sim_stat implements Serializable {
   // Returns [i,j] where i and j are the first and last indices of the observations vector
   // to be included in the measurement. Used by providing the measure's id.
   int[] observation_count(int measure_id, double start_time, double end_time) {
-    List data = (List)observations.get(measure_id);
-    double time;
+    Column data = (Column)observations.get(measure_id);
     int type = get_type(measure_id);
-    int data_size = data.size();
-    int low_index = 0,
+    int data_size = data.size;
+    if (!data.sorted) {
+      return observation_count_unsorted(data, type, start_time, end_time);
+    }
+    // The observations are ordered by their time key, so both indices are found with a binary search.
+    // Find low index. If no observation qualifies the low index is left at 0.
+    int low_index;
+    if (type == STATE_BASED) {
+      low_index = data.first_after(0, start_time);
+    } else {
+      low_index = data.first_at_or_after(0, start_time);
+    }
+    if (low_index == data_size) {
+      low_index = 0;
+    }
+    // Find high index
+    int high_index;
+    if (type == STATE_BASED) {
+      // The first observation ending at or after end_time. If it also starts after end_time it is excluded.
+      int i = data.first_at_or_after(low_index, end_time);
+      if (i == data_size) {
+        high_index = data_size-1;
+      } else if ((data.c1[i] > end_time) && (i != low_index)) {
+        high_index = i-1;
+      } else {
+        high_index = i;
+      }
+    } else {
+      int i = data.first_after(low_index, end_time);
+      if (i == data_size) {
         high_index = data_size-1;
-    Object[] measure_array = (Object[])measures.get(measure_id);
-    boolean continuous = true;
-    if (measure_array.length == 3) {
-      // The measure is custom
-      continuous = ((Boolean)measure_array[2]).booleanValue();
+      } else if (i == low_index) {
+        high_index = i;
+      } else {
+        high_index = i-1;
+      }
     }
+    return new int[] {low_index, high_index};
+  }
+
+  // Used by observation_count when observations have been added out of time order. Scans the
+  // observations linearly.
+  private int[] observation_count_unsorted(Column data, int type, double start_time, double end_time) {
+    int data_size = data.size;
+    int low_index = 0,
+        high_index = data_size-1;
     // Find low index
     for (int i=0; i < data_size; i++) {
-      Object next = data.get(i);
       if (type == RATE_BASED) {
-        if (((Double)next).doubleValue() >= start_time) {
+        if (data.c0[i] >= start_time) {
           low_index = i;
           break;
         }
       } else if (type == STATE_BASED) {
-        if (((double[])next)[2] > start_time) {
+        if (data.c2[i] > start_time) {
           low_index = i;
           break;
         }
       } else {
-        if (((double[])next)[1] >= start_time) {
+        if (data.c1[i] >= start_time) {
           low_index = i;
           break;
         }
@@ -2122,10 +2323,8 @@ public class Sim_stat implements Serializable {
     }
     // Find high index
     for (int i=low_index; i < data_size; i++) {
-      Object next = data.get(i);
       if (type == RATE_BASED) {
-        time = ((Double)next).doubleValue();
-        if (time > end_time) {
+        if (data.c0[i] > end_time) {
           if (i == low_index) {
             high_index = i;
           } else {
@@ -2134,10 +2333,10 @@ public class Sim_stat implements Serializable {
           break;
         }
       } else if (type == STATE_BASED) {
-        if ((((double[])next)[1] <= end_time) && (((double[])next)[2] >= end_time)) {
+        if ((data.c1[i] <= end_time) && (data.c2[i] >= end_time)) {
           high_index = i;
           break;
-        } else if ((((double[])next)[1] >= end_time) && (((double[])next)[2] > end_time)) {
+        } else if ((data.c1[i] >= end_time) && (data.c2[i] > end_time)) {
           if (i == low_index) {
             high_index = i;
           } else {
@@ -2146,7 +2345,7 @@ public class Sim_stat implements Serializable {
           break;
         }
       } else {
-        if (((double[])next)[1] > end_time) {
+        if (data.c1[i] > end_time) {
           if (i == low_index) {
             high_index = i;
           } else {
@@ -2174,10 +2373,17 @@ public class Sim_stat implements Serializable {
    *   <li>
    *     <code>List {double[] {start_time, end_time}, double[] {start_time, end_time}, ... }</code> - for interval based measures
    * </ul>
+   * The observation lists are built from the primitive columns in which the observations are
+   * held, so they are a snapshot that is not updated by later observations.
    * @return The <code>Sim_stat</code>'s data as described above
    */
   public List[] get_data() {
-    return new List[] {measures, observations};
+    List lists = new ArrayList();
+    int observations_size = observations.size();
+    for (int i=0; i < observations_size; i++) {
+      lists.add(((Column)observations.get(i)).to_list());
+    }
+    return new List[] {measures, lists};
   }
 
   /**
@@ -2238,6 +2444,29 @@ public class Sim_stat implements Serializable {
     }
   }
 
+  /**
+   * Check to see whether a default measure is specified to be streaming.
+   * @param measure The <code>int</code> constant representing the default measure
+   * @return <code>true</code> if the measure is streaming, <code>false</code> otherwise
+   */
+  public boolean is_streaming(int measure) {
+    return is_streaming(measure_names[measure]);
+  }
+
+  /**
+   * Check to see whether a custom measure is specified to be streaming. Streaming measures are
+   * also efficient.
+   * @param measure The name of the measure
+   * @return <code>true</code> if the measure is streaming, <code>false</code> otherwise
+   */
+  public boolean is_streaming(String measure) {
+    if (streams == null) {
+      return false;
+    } else {
+      return streams.containsKey(measure);
+    }
+  }
+
   /**
    * Get the exceedence proportion levels defined for a default measure.
    * @param measure The <code>int</code> constant representing the default measure
@@ -2265,26 +2494,25 @@ public class Sim_stat implements Serializable {
 
   // Checks to see whether the given measure has been defined or not
   private boolean is_selected(String measure) {
-    int measures_size = measures.size();
-    for (int i=0; i < measures_size; i++) {
-      Object[] next = (Object[])measures.get(i);
-      if (((String)next[0]).equals(measure)) {
-        return true;
-      }
-    }
-    return false;
+    return get_id(measure) >= 0;
   }
 
   // Gets the id - index of the given measure
   private int get_id(String measure_name) {
-    int measures_size = measures.size();
-    for (int i=0; i < measures_size; i++) {
-      Object[] next = (Object[])measures.get(i);
-      if (((String)next[0]).equals(measure_name)) {
-        return i;
+    if (ids == null) {
+      // Resolve the measure names to their ids once, after the measures have changed
+      ids = new HashMap();
+      int measures_size = measures.size();
+      for (int i=0; i < measures_size; i++) {
+        Object[] next = (Object[])measures.get(i);
+        ids.put(next[0], new Integer(i));
       }
     }
-    return -1;
+    Integer id = (Integer)ids.get(measure_name);
+    if (id == null) {
+      return -1;
+    }
+    return id.intValue();
   }
 
   // Gets the type of the measure with the given id
@@ -2341,21 +2569,18 @@ public class Sim_stat implements Serializable {
     int type = get_type(id);
     double result = -1.0;
     double current_value;
-    double[] next, other;
     boolean found_other_min = false;
     boolean found_other_max = false;
     boolean found_steady_state = false;
-    List data = (List)observations.get(id);
-    int data_size = data.size();
+    Column data = (Column)observations.get(id);
+    int data_size = data.size;
     for (int i=1; i < data_size-1; i++) {
-      next = (double[])data.get(i);
       if (type == STATE_BASED) {
-        current_value = next[0];
+        current_value = data.c0[i];
         for (int j=i+1; j < data_size; j++) {
-          other = (double[])data.get(j);
-          if (other[0] < current_value) {
+          if (data.c0[j] < current_value) {
             found_other_min = true;
-          } else if (other[0] > current_value) {
+          } else if (data.c0[j] > current_value) {
             found_other_max = true;
           }
           if (found_other_min && found_other_max) {
@@ -2364,19 +2589,18 @@ public class Sim_stat implements Serializable {
           }
         }
         if (found_steady_state) {
-          result = next[1];
+          result = data.c1[i];
           break;
         } else {
           found_other_min = false;
           found_other_max = false;
         }
       } else {
-        current_value = next[1]-next[0];
+        current_value = data.c1[i]-data.c0[i];
         for (int j=i+1; j < data_size; j++) {
-          other = (double[])data.get(j);
-          if ((other[1]-other[0]) < current_value) {
+          if ((data.c1[j]-data.c0[j]) < current_value) {
             found_other_min = true;
-          } else if ((other[1]-other[0]) > current_value) {
+          } else if ((data.c1[j]-data.c0[j]) > current_value) {
             found_other_max = true;
           }
           if (found_other_min && found_other_max) {
@@ -2385,7 +2609,7 @@ public class Sim_stat implements Serializable {
           }
         }
         if (found_steady_state) {
-          result = next[0];
+          result = data.c0[i];
           break;
         } else {
           found_other_min = false;
@@ -2406,7 +2630,7 @@ public class Sim_stat implements Serializable {
     counters.clear();
     int measures_size = measures.size();
     for (int i=0; i < measures_size; i++) {
-      observations.add(new ArrayList());
+      observations.add(new Column(get_type(i)));
     }
     int init_counters_size = init_counters.size();
     for (int i=0; i < init_counters_size; i++) {
@@ -2423,7 +2647,13 @@ public class Sim_stat implements Serializable {
       }
       data.clear();
       for (int i=0; i < measures.length; i++) {
-        set_efficient(measures[i]);
+        if (is_streaming(measures[i])) {
+          init_efficient(measures[i]);
+          Sim_stat_stream stream = (Sim_stat_stream)streams.get(measures[i]);
+          streams.put(measures[i], new Sim_stat_stream(stream.get_type(), stream.get_probabilities(), 0.0));
+        } else {
+          set_efficient(measures[i]);
+        }
       }
     }
     end_time = -1.0;
@@ -2441,16 +2671,26 @@ public class Sim_stat implements Serializable {
     stat.set_levels((List)((ArrayList)levels).clone());
     stat.set_tags((List)((ArrayList)tags).clone());
     if (data != null) stat.set_data((HashMap)data.clone());
+    if (streams != null) {
+      HashMap streams_copy = new HashMap();
+      Iterator entries = streams.entrySet().iterator();
+      while (entries.hasNext()) {
+        Map.Entry entry = (Map.Entry)entries.next();
+        streams_copy.put(entry.getKey(), ((Sim_stat_stream)entry.getValue()).copy());
+      }
+      stat.set_streams(streams_copy);
+    }
     stat.set_end_time(end_time);
     stat.set_trans_time(trans_time);
     return stat;
   }
 
-  void set_measures(List measures) { this.measures = measures; }
+  void set_measures(List measures) { this.measures = measures; ids = null; }
   void set_observations(List observations) { this.observations = observations; }
   void set_levels(List levels) { this.levels = levels; }
   void set_tags(List tags) { this.tags = tags; }
   void set_data(HashMap data) { this.data = data; }
+  void set_streams(HashMap streams) { this.streams = streams; }
   void set_end_time(double end_time) { this.end_time = end_time; }
   void set_trans_time(double trans_time) { this.trans_time = trans_time; }
 
@@ -2472,11 +2712,11 @@ public class Sim_stat implements Serializable {
     int id = get_id(measure);
     int type = get_type(id);
     double[] values = new double[times.length];
-    List data = (List)observations.get(id);
+    Column data = (Column)observations.get(id);
     double start_time = times[0];
     double end_time = times[times.length-1];
     double min, max;
-    int data_size = data.size();
+    int data_size = data.size;
 
     if (type == RATE_BASED) {
       // Rate-based measures
@@ -2484,18 +2724,15 @@ public class Sim_stat implements Serializable {
       min = 0.0;
       max = 0.0;
       int index = 0;
-      double next;
       for (int i=0; i < data_size; i++) {
-        next = ((Double)data.get(i)).doubleValue();
-        if (next >= times[0]) {
+        if (data.c0[i] >= times[0]) {
           index = i;
           break;
         }
       }
       int sum = 0;
       for (int i=1; i < times.length; i++) {
-        while ((index < data_size) &&
-               (((next = ((Double)data.get(index)).doubleValue())) <= times[i])) {
+        while ((index < data_size) && (data.c0[index] <= times[i])) {
           index++;
           sum++;
         }
@@ -2517,32 +2754,32 @@ public class Sim_stat implements Serializable {
       double sum_level = 0.0;
       double prev_sum_time = 0.0;
       double sum_time = 0.0;
-      double[] next = null;
+      int next = -1; // The last observation visited
       for (int i=0; i < data_size; i++) {
-        next = (double[])data.get(i);
-        if (next[2] > times[0]) {
+        next = i;
+        if (data.c2[next] > times[0]) {
           index = i;
-          if (next[1] < start_time) {
+          if (data.c1[next] < start_time) {
             index++;
-            sum_level = next[0]*(next[2]-times[0]);
-            sum_time = next[2]-times[0];
+            sum_level = data.c0[next]*(data.c2[next]-times[0]);
+            sum_time = data.c2[next]-times[0];
           }
           break;
         }
       }
       for (int i=1; i < times.length; i++) {
-        while ((index < data_size) && (((double[])data.get(index))[1] < times[i])) {
-          next = (double[])data.get(index++);
+        while ((index < data_size) && (data.c1[index] < times[i])) {
+          next = index++;
           prev_sum_time = sum_time;
           prev_sum_level = sum_level;
-          sum_level += next[0]*(next[2]-next[1]);
-          sum_time += next[2]-next[1];
+          sum_level += data.c0[next]*(data.c2[next]-data.c1[next]);
+          sum_time += data.c2[next]-data.c1[next];
         }
         if (index == 0) {
           values[i] = 0.0;
         } else {
-          if (next[2] > times[i]) {
-            values[i] = (prev_sum_level + next[0]*(times[i]-next[1])) / (prev_sum_time + (times[i]-next[1]));
+          if (data.c2[next] > times[i]) {
+            values[i] = (prev_sum_level + data.c0[next]*(times[i]-data.c1[next])) / (prev_sum_time + (times[i]-data.c1[next]));
           } else {
             values[i] = sum_level / sum_time;
           }
@@ -2561,19 +2798,17 @@ public class Sim_stat implements Serializable {
       max = 0.0;
       int index = 0;
       double sum = 0.0;
-      double[] next;
       for (int i=0; i < data_size; i++) {
-        next = (double[])data.get(i);
-        if (next[1] >= times[0]) {
+        if (data.c1[i] >= times[0]) {
           index = i;
           break;
         }
       }
       int count = 0;
       for (int i=1; i < times.length; i++) {
-        while ((index < data_size) && (((double[])data.get(index))[1] <= times[i])) {
-          next = (double[])data.get(index++);
-          sum += next[1]-next[0];
+        while ((index < data_size) && (data.c1[index] <= times[i])) {
+          sum += data.c1[index]-data.c0[index];
+          index++;
           count++;
         }
         if (count == 0) {
@@ -2649,6 +2884,135 @@ public class Sim_stat implements Serializable {
       return measures.size()-data.size();
     }
   }
+
+  // The observations of a measure, held in growable primitive columns. Rate based measures use c0
+  // (occurrence time), state based measures c0, c1 and c2 (level, start time, end time) and interval
+  // based measures c0 and c1 (start time, end time). The last column used is the time key by which
+  // observations are searched.
+  private static class Column implements Serializable {
+    double[] c0, c1, c2;
+    int size = 0;
+    boolean sorted = true; // Whether the time keys have been added in non-decreasing order
+    private final int width;
+
+    Column(int type) {
+      switch (type) {
+        case RATE_BASED:
+          width = 1;
+          break;
+        case STATE_BASED:
+          width = 3;
+          break;
+        default:
+          width = 2;
+          break;
+      }
+      c0 = new double[16];
+      c1 = (width > 1) ? new double[16] : null;
+      c2 = (width > 2) ? new double[16] : null;
+    }
+
+    void add(double v0) {
+      ensure_capacity();
+      check_order(v0);
+      c0[size++] = v0;
+    }
+
+    void add(double v0, double v1) {
+      ensure_capacity();
+      check_order(v1);
+      c0[size] = v0;
+      c1[size++] = v1;
+    }
+
+    void add(double v0, double v1, double v2) {
+      ensure_capacity();
+      check_order(v2);
+      c0[size] = v0;
+      c1[size] = v1;
+      c2[size++] = v2;
+    }
+
+    // The time key of an observation
+    double key(int index) {
+      switch (width) {
+        case 1: return c0[index];
+        case 2: return c1[index];
+        default: return c2[index];
+      }
+    }
+
+    // The index of the first observation, from index from, with a key greater than time. Returns
+    // size if there is none.
+    int first_after(int from, double time) {
+      int low = from, high = size;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (key(mid) > time) {
+          high = mid;
+        } else {
+          low = mid + 1;
+        }
+      }
+      return low;
+    }
+
+    // The index of the first observation, from index from, with a key greater than or equal to
+    // time. Returns size if there is none.
+    int first_at_or_after(int from, double time) {
+      int low = from, high = size;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (key(mid) >= time) {
+          high = mid;
+        } else {
+          low = mid + 1;
+        }
+      }
+      return low;
+    }
+
+    // Builds the observations in the List form returned by get_data()
+    List to_list() {
+      List result = new ArrayList(size);
+      for (int i=0; i < size; i++) {
+        switch (width) {
+          case 1:
+            result.add(new Double(c0[i]));
+            break;
+          case 2:
+            result.add(new double[] {c0[i], c1[i]});
+            break;
+          default:
+            result.add(new double[] {c0[i], c1[i], c2[i]});
+            break;
+        }
+      }
+      return result;
+    }
+
+    private void check_order(double time) {
+      if ((size > 0) && (time < key(size-1))) {
+        sorted = false;
+      }
+    }
+
+    private void ensure_capacity() {
+      if (size < c0.length) {
+        return;
+      }
+      int capacity = c0.length * 2;
+      c0 = grow(c0, capacity);
+      if (c1 != null) c1 = grow(c1, capacity);
+      if (c2 != null) c2 = grow(c2, capacity);
+    }
+
+    private double[] grow(double[] column, int capacity) {
+      double[] result = new double[capacity];
+      System.arraycopy(column, 0, result, 0, size);
+      return result;
+    }
+  }
 }
 
 
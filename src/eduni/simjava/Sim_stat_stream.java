@@ -0,0 +1,311 @@
+/* Sim_stat_stream.java */
+
+package eduni.simjava;
+
+import java.util.Arrays;
+import java.io.Serializable;
+
+/**
+ * This class holds the running summaries of a streaming measure.
+ * <p>
+ * A streaming measure is an efficient measure that also keeps enough state to report
+ * its variance, a set of quantile estimates and batch means, without retaining the
+ * observations themselves. The memory used is fixed when the measure is defined:
+ * <ul>
+ *   <li>The mean and variance are kept with Welford's update. State based measures are
+ *       weighted by the time spent at each level, interval based measures count each
+ *       interval once.
+ *   <li>Batch means are calculated from a fixed number of time bins. When an observation
+ *       falls past the last bin, adjacent bins are merged in pairs and the bin width is
+ *       doubled. Batches that start or end within a bin take a share of it proportional
+ *       to their overlap.
+ *   <li>Quantiles of interval based measures are estimated with the P<sup>2</sup> algorithm
+ *       of Jain and Chlamtac, which keeps five markers per quantile.
+ * </ul>
+ * <p>
+ * This class is used internally by <code>Sim_stat</code> and should not be directly accessed.
+ * @see eduni.simjava.Sim_stat
+ * @version 1.0 19 October 2026
+ */
+class Sim_stat_stream implements Serializable {
+
+  // The number of time bins kept for the batch means
+  static final int BINS = 1024;
+  // The initial width of a time bin. It is doubled as often as needed to cover the run.
+  static final double INITIAL_BIN_WIDTH = 1.0e-6;
+  // The quantiles estimated when none are specified
+  static final double[] DEFAULT_QUANTILES = {0.5, 0.9, 0.95, 0.99};
+
+  private int type;
+  private double[] probabilities;
+
+  // Welford accumulators
+  private long count;
+  private double weight_sum, mean, m2;
+
+  // The batch means bins
+  private double start, width;
+  private double[] bin_sum, bin_weight;
+
+  // The quantile estimators
+  private P2[] quantiles;
+
+  Sim_stat_stream(int type, double[] probabilities, double start) {
+    this.type = type;
+    this.probabilities = probabilities;
+    restart(start);
+  }
+
+  // Clears the summaries and starts binning from the given time
+  void restart(double start) {
+    count = 0;
+    weight_sum = 0.0;
+    mean = 0.0;
+    m2 = 0.0;
+    this.start = start;
+    width = INITIAL_BIN_WIDTH;
+    bin_sum = new double[BINS];
+    bin_weight = new double[BINS];
+    if ((type == Sim_stat.INTERVAL_BASED) && (probabilities != null)) {
+      quantiles = new P2[probabilities.length];
+      for (int i=0; i < probabilities.length; i++) {
+        quantiles[i] = new P2(probabilities[i]);
+      }
+    }
+  }
+
+  int get_type() { return type; }
+  double[] get_probabilities() { return probabilities; }
+
+  //  METHODS USED TO UPDATE THE SUMMARIES
+
+  // An event of a rate based measure
+  void rate(double time) {
+    if (time < start) {
+      return;
+    }
+    count++;
+    bin_sum[bin(time)] += 1.0;
+  }
+
+  // A state based measure held the given level from one time to another
+  void state(double level, double from, double to) {
+    if (from < start) {
+      from = start;
+    }
+    if (to <= from) {
+      return;
+    }
+    welford(level, to-from);
+    // Spread the level over the bins covered by the period
+    int last = bin(to);
+    int first = (int)((from-start)/width);
+    for (int i=first; i <= last; i++) {
+      double bin_start = start + i*width;
+      double overlap = Math.min(to, bin_start+width) - Math.max(from, bin_start);
+      if (overlap > 0.0) {
+        bin_sum[i] += level * overlap;
+        bin_weight[i] += overlap;
+      }
+    }
+  }
+
+  // An interval of the given length ended at the given time
+  void interval(double value, double time) {
+    if (time < start) {
+      return;
+    }
+    welford(value, 1.0);
+    int i = bin(time);
+    bin_sum[i] += value;
+    bin_weight[i] += 1.0;
+    if (quantiles != null) {
+      for (int j=0; j < quantiles.length; j++) {
+        quantiles[j].add(value);
+      }
+    }
+  }
+
+  // West's weighted form of Welford's update
+  private void welford(double value, double weight) {
+    count++;
+    weight_sum += weight;
+    double delta = value - mean;
+    mean += delta * weight / weight_sum;
+    m2 += weight * delta * (value - mean);
+  }
+
+  // Gets the bin of the given time, widening the bins if the time falls past the last one
+  private int bin(double time) {
+    while (time >= start + BINS*width) {
+      for (int i=0; i < BINS/2; i++) {
+        bin_sum[i] = bin_sum[2*i] + bin_sum[2*i+1];
+        bin_weight[i] = bin_weight[2*i] + bin_weight[2*i+1];
+      }
+      Arrays.fill(bin_sum, BINS/2, BINS, 0.0);
+      Arrays.fill(bin_weight, BINS/2, BINS, 0.0);
+      width *= 2;
+    }
+    int i = (int)((time-start)/width);
+    return (i < BINS) ? i : BINS-1;
+  }
+
+  //  METHODS USED TO CALCULATE MEASUREMENTS
+
+  // The sample variance. Time weighted for state based measures, as with the detailed measures.
+  double variance() {
+    if (type == Sim_stat.STATE_BASED) {
+      return (weight_sum == 0.0) ? 0.0 : m2/weight_sum;
+    }
+    return (count < 2) ? 0.0 : m2/(count-1);
+  }
+
+  // The quantile estimates, in the order of the probabilities
+  double[] quantiles() {
+    if (quantiles == null) {
+      return null;
+    }
+    double[] result = new double[quantiles.length];
+    for (int i=0; i < quantiles.length; i++) {
+      result[i] = quantiles[i].estimate();
+    }
+    return result;
+  }
+
+  // The means of batch_count equal batches between the given times
+  double[] batch_means(int batch_count, double from, double to) {
+    double[] result = new double[batch_count];
+    double length = (to-from)/batch_count;
+    for (int b=0; b < batch_count; b++) {
+      double a = from + b*length;
+      double e = a + length;
+      double sum = 0.0, weight = 0.0;
+      int first = Math.max(0, (int)((a-start)/width));
+      int last = Math.min(BINS-1, (int)((e-start)/width));
+      for (int i=first; i <= last; i++) {
+        double bin_start = start + i*width;
+        double overlap = Math.min(e, bin_start+width) - Math.max(a, bin_start);
+        if (overlap > 0.0) {
+          sum += bin_sum[i] * overlap/width;
+          weight += bin_weight[i] * overlap/width;
+        }
+      }
+      if (type == Sim_stat.RATE_BASED) {
+        result[b] = (length == 0.0) ? 0.0 : sum/length;
+      } else {
+        result[b] = (weight == 0.0) ? 0.0 : sum/weight;
+      }
+    }
+    return result;
+  }
+
+  // Returns a copy of the stream, used when the Sim_stat object is copied
+  Sim_stat_stream copy() {
+    Sim_stat_stream copy = new Sim_stat_stream(type, probabilities, start);
+    copy.count = count;
+    copy.weight_sum = weight_sum;
+    copy.mean = mean;
+    copy.m2 = m2;
+    copy.width = width;
+    copy.bin_sum = (double[])bin_sum.clone();
+    copy.bin_weight = (double[])bin_weight.clone();
+    if (quantiles != null) {
+      for (int i=0; i < quantiles.length; i++) {
+        copy.quantiles[i] = quantiles[i].copy();
+      }
+    }
+    return copy;
+  }
+
+  // The P-square estimator of a single quantile
+  private static class P2 implements Serializable {
+    private double p;
+    private double[] q = new double[5],  // The marker heights
+                     n = new double[5],  // The marker positions
+                     np = new double[5], // The desired marker positions
+                     dn;                 // The increments of the desired positions
+    private int count = 0;
+
+    P2(double p) {
+      this.p = p;
+      dn = new double[] {0, p/2, p, (1+p)/2, 1};
+    }
+
+    void add(double x) {
+      if (count < 5) {
+        q[count++] = x;
+        if (count == 5) {
+          Arrays.sort(q);
+          for (int i=0; i < 5; i++) {
+            n[i] = i+1;
+          }
+          np = new double[] {1, 1+2*p, 1+4*p, 3+2*p, 5};
+        }
+        return;
+      }
+      // Find the cell of the observation, extending the extreme markers if needed
+      int k;
+      if (x < q[0]) {
+        q[0] = x;
+        k = 0;
+      } else if (x >= q[4]) {
+        q[4] = x;
+        k = 3;
+      } else {
+        k = 0;
+        while (x >= q[k+1]) {
+          k++;
+        }
+      }
+      for (int i=k+1; i < 5; i++) {
+        n[i] += 1;
+      }
+      for (int i=0; i < 5; i++) {
+        np[i] += dn[i];
+      }
+      count++;
+      // Move the middle markers towards their desired positions
+      for (int i=1; i <= 3; i++) {
+        double d = np[i] - n[i];
+        if (((d >= 1) && (n[i+1]-n[i] > 1)) || ((d <= -1) && (n[i-1]-n[i] < -1))) {
+          int s = (d >= 0) ? 1 : -1;
+          double candidate = parabolic(i, s);
+          if ((q[i-1] < candidate) && (candidate < q[i+1])) {
+            q[i] = candidate;
+          } else {
+            q[i] = q[i] + s*(q[i+s]-q[i])/(n[i+s]-n[i]);
+          }
+          n[i] += s;
+        }
+      }
+    }
+
+    private double parabolic(int i, int s) {
+      return q[i] + s/(n[i+1]-n[i-1]) * ((n[i]-n[i-1]+s)*(q[i+1]-q[i])/(n[i+1]-n[i]) +
+                                         (n[i+1]-n[i]-s)*(q[i]-q[i-1])/(n[i]-n[i-1]));
+    }
+
+    double estimate() {
+      if (count == 0) {
+        return 0.0;
+      } else if (count < 5) {
+        // Too few observations for the markers, use the nearest rank
+        double[] sorted = new double[count];
+        System.arraycopy(q, 0, sorted, 0, count);
+        Arrays.sort(sorted);
+        int rank = (int)Math.ceil(p*count) - 1;
+        return sorted[Math.max(0, Math.min(count-1, rank))];
+      }
+      return q[2];
+    }
+
+    P2 copy() {
+      P2 copy = new P2(p);
+      copy.q = (double[])q.clone();
+      copy.n = (double[])n.clone();
+      copy.np = (double[])np.clone();
+      copy.count = count;
+      return copy;
+    }
+  }
+}
@@ -4,6 +4,8 @@ package eduni.simjava;
 
 import eduni.simanim.Sim_anim;
 import eduni.simjava.distributions.Sim_random_obj;
+import eduni.simjava.distributions.Sim_lcg_engine;
+import eduni.simjava.distributions.Sim_splitmix_engine;
 import eduni.simjava.distributions.Generator;
 import java.util.ListIterator;
 import java.util.List;
@@ -109,6 +111,13 @@ import java.io.InputStreamReader;
  * <code><a href="Sim_entity.html#add_generator(eduni.simjava.distributions.Generator)">add_generator</a></code> method.
  * Otherwise the previous replication's last seed is used as the next one's initial seed.
  * <p>
+ * Unless the generators use the <code>LCG</code> engine of earlier versions (see
+ * <code>Sim_random_obj.set_engine_type</code>), the seeds are not spaced along a single sequence.
+ * Each seed is instead derived from the root seed by a mixing function. If entity streams are
+ * selected with <code>set_entity_streams</code>, a generator added to an entity is instead seeded
+ * from the root seed, the entity's name, the order in which the generator was added and the
+ * replication, so adding or removing other entities does not change its stream.
+ * <p>
  * <code>Sim_system</code> also provides control over the simulation's output. The <b>trace file</b>
  * (<code>sim_trace</code>) can be managed with more detail. The <code>set_trace_detail</code> method
  * can be used to specify whether or not to add the default trace , trace generated by the
@@ -218,10 +227,13 @@ public class Sim_system {
   private static Evqueue future; // The future event queue
   private static Evqueue deferred; // The deferred event queue
   private static double clock;  // Holds the current global sim time
+  private static volatile long event_count; // The number of events processed so far
   private static boolean running; // Flag for checking if the simulation is running
   private static Semaphore onestopped; // Semaphore for synchronising entities
   private static Semaphore onecompleted; // Semaphore for registering entities having completed
   private static Sim_output trcout; // The output object for trace messages
+  private static Sim_trace_output trace_out; // The output object, if it takes trace records
+  private static Sim_trace_filter trace_filter; // The filter for trace records, or null
   private static int trace_level; // The trace level for which event trace will be generated
   private static boolean auto_trace; // Should we print trace messages?
   private static boolean animation; // Are we running as an animation applet?
@@ -238,10 +250,13 @@ public class Sim_system {
   // Private fields used for seed generation
   private static long root_seed = 4851L; // The default seed
   private static int seed_spacing = 100000; // The default seed spacing
-  private static Sim_random_obj seed_source = new Sim_random_obj("Seed generator", root_seed); // The seed generator
+  private static Sim_random_obj seed_source = new Sim_random_obj("Seed generator", new Sim_lcg_engine(root_seed)); // The seed generator
   private static boolean not_sampled = true; // Flag that is checked to see whether the seed generator has been sampled
+  private static long seed_count = 0L; // The number of seeds derived from the root seed
+  private static int stream_epoch = 0; // The replication whose entity streams are being derived
+  private static boolean entity_streams = false; // Flag used to check whether generators added to entities get their own streams
 
-  private static boolean anim_stopped = false; // Flag used to check whether (in animated versions) the user has clicked on the stop button
+  private static volatile boolean anim_stopped = false; // Flag used to check whether (in animated versions) the user has clicked on the stop button
 
   // Fields concerning graph generation
   private static final String suffix = ".sjg"; // The suffix for SimJava graphs
@@ -249,6 +264,7 @@ public class Sim_system {
   private static String graph_file = "sim_graphs" + suffix; // The default graph file to be used
 
   private static boolean efficient_measure_defined = false; // Flag used to check whether the simulation contains an efficient measure
+  private static boolean streaming_measure_defined = false; // Flag used to check whether the simulation contains a streaming measure
 
   /**
    * Do not a constructor for <code>Sim_system</code>. Use an <code>initialise</code> method instead.
@@ -293,10 +309,14 @@ public class Sim_system {
     onestopped = new Semaphore(0);
     onecompleted = new Semaphore(0);
     trcout = out;
+    trace_out = (out instanceof Sim_trace_output) ? (Sim_trace_output)out : null;
     trcout.initialise();
     trace_level = 0xff;
     auto_trace = false;
     simThread = sim;
+    event_count = 0;
+    anim_stopped = false;
+    stream_epoch = 0;
     // Set the default number format
     nf = NumberFormat.getInstance();
     nf.setMaximumFractionDigits(4);
@@ -331,6 +351,13 @@ public class Sim_system {
    */
   public static double sim_clock() { return clock; }
 
+  /**
+   * Get the number of events processed so far. This method can be called
+   * from outside the simulation, for example to show its progress.
+   * @return The number of events processed
+   */
+  public static long get_event_count() { return event_count; }
+
   /**
    * Get the current number of entities in the simulation.
    * @return The number of entities
@@ -427,6 +454,28 @@ public class Sim_system {
    */
   public static void set_auto_trace(boolean on) { auto_trace = on; }
 
+  /**
+   * Set the object to which the simulation trace is sent, instead of the <code>sim_trace</code>
+   * file. This method should be called after the simulation has been initialised and before it
+   * starts. It should not be used in animated simulations.
+   * @param out The new trace output, such as a <code>Sim_binary_outfile</code>
+   */
+  public static void set_trace_output(Sim_output out) {
+    if (trcout != null) {
+      trcout.close();
+    }
+    trcout = out;
+    trace_out = (out instanceof Sim_trace_output) ? (Sim_trace_output)out : null;
+    trcout.initialise();
+  }
+
+  /**
+   * Set a filter that selects which trace records are output. The filter is checked before
+   * a trace line is formatted. It is ignored in animations, which need every record.
+   * @param filter The filter, or <code>null</code> to output all records
+   */
+  public static void set_trace_filter(Sim_trace_filter filter) { trace_filter = filter; }
+
   /**
    * Add a new entity to the simulation. This is present for compatibility with existing
    * simulations since entities are automatically added to the simulation upon instantiation.
@@ -576,7 +625,7 @@ public class Sim_system {
     future.add_event(e);
     ((Sim_entity)entities.get(src)).set_state(Sim_entity.HOLDING);
     if (auto_trace && default_trace) {
-      trace(src, "start processing");
+      trace_event(Sim_trace_output.PROCESS, src, -1, -1, 0.0);
     }
   }
 
@@ -586,7 +635,7 @@ public class Sim_system {
     future.add_event(e);
     ((Sim_entity)entities.get(src)).set_state(Sim_entity.HOLDING);
     if (auto_trace && default_trace) {
-      trace(src, "start pausing");
+      trace_event(Sim_trace_output.PAUSE, src, -1, -1, 0.0);
     }
   }
 
@@ -597,9 +646,7 @@ public class Sim_system {
     }
     Sim_event e = new Sim_event(Sim_event.SEND, clock+delay, src, dest, tag, data);
     if (auto_trace && (default_trace || (event_trace && is_trace_tag(tag)))) {
-      trace(src, "scheduling event type "+tag+" for "+
-                 ((Sim_entity)entities.get(dest)).get_name()+
-                 " with delay "+delay);
+      trace_event(Sim_trace_output.SEND, src, dest, tag, delay);
     }
     future.add_event(e);
   }
@@ -614,7 +661,7 @@ public class Sim_system {
       wait_predicates.put(new Integer(src), p);
     }
     if (auto_trace && default_trace) {
-      trace(src,"waiting for an event");
+      trace_event(Sim_trace_output.WAIT, src, -1, -1, 0.0);
     }
   }
 
@@ -650,12 +697,12 @@ public class Sim_system {
     if (found) {
       ((Sim_entity)entities.get(src)).set_evbuf((Sim_event)ev.clone());
       if (auto_trace && (default_trace || (event_trace &&is_trace_tag(ev.get_tag())))) {
-        trace(src,"selected event type " + ev.get_tag() + " (event time was "+ev.event_time()+")");
+        trace_event(Sim_trace_output.SELECT, src, -1, ev.get_tag(), ev.event_time());
       }
     } else {
       ((Sim_entity)entities.get(src)).set_evbuf(null);
       if (auto_trace && (default_trace)) {
-        trace(src,"no event selected");
+        trace_event(Sim_trace_output.SELECT_NONE, src, -1, -1, 0.0);
       }
     }
   }
@@ -678,12 +725,12 @@ public class Sim_system {
     if (found) {
       ((Sim_entity)entities.get(src)).set_evbuf((Sim_event)ev.clone());
       if (auto_trace && (default_trace || (event_trace && is_trace_tag(ev.get_tag())))) {
-        trace(src,"cancelled event type " + ev.get_tag() + " (event time was "+ev.event_time()+")");
+        trace_event(Sim_trace_output.CANCEL, src, -1, ev.get_tag(), ev.event_time());
       }
     } else {
       ((Sim_entity)entities.get(src)).set_evbuf(null);
       if (auto_trace && default_trace) {
-        trace(src,"no event cancelled");
+        trace_event(Sim_trace_output.CANCEL_NONE, src, -1, -1, 0.0);
       }
     }
   }
@@ -704,6 +751,7 @@ public class Sim_system {
       throw new Sim_exception("Sim_system: Past event detected.");
     }
     clock = e.event_time();
+    event_count++;
     // Ok now process it
     switch(e.get_type()) {
       case(Sim_event.ENULL):
@@ -760,6 +808,7 @@ public class Sim_system {
     Sim_system.root_seed = root_seed;
     seed_source.set_seed(root_seed);
     not_sampled = true;
+    seed_count = 0L;
   }
 
   /**
@@ -787,6 +836,7 @@ public class Sim_system {
     root_seed = new_seed;
     seed_source.set_seed(new_seed);
     not_sampled = true;
+    seed_count = 0L;
   }
 
   /**
@@ -803,6 +853,10 @@ public class Sim_system {
    * @return The next well spaced seed
    */
   public static long next_seed() {
+    if (Sim_random_obj.get_engine_type() != Sim_random_obj.LCG) {
+      seed_count++;
+      return Sim_splitmix_engine.mix(Sim_splitmix_engine.mix(root_seed) + seed_count);
+    }
     long new_seed = seed_source.get_seed();
     if ((new_seed == root_seed) && not_sampled) {
       not_sampled = false;
@@ -815,6 +869,49 @@ public class Sim_system {
     return new_seed;
   }
 
+  /**
+   * Select whether the generators added to entities are given their own streams. If selected, the
+   * seed of each generator added to an entity is replaced with one derived from the entity's name
+   * and the position of the generator, both when it is added and for each replication. The samples
+   * of a generator then stay the same when other entities or generators are added to the
+   * simulation. By default the generators keep the seeds given to their constructors, so that
+   * generators deliberately given the same seed keep producing the same numbers.
+   * @param streams <code>true</code> if the generators should get their own streams,
+   *                <code>false</code> otherwise
+   */
+  public static void set_entity_streams(boolean streams) {
+    entity_streams = streams;
+  }
+
+  /**
+   * Check whether the generators added to entities are given their own streams.
+   * @return <code>true</code> if they are, <code>false</code> otherwise
+   */
+  public static boolean get_entity_streams() {
+    return entity_streams;
+  }
+
+  /**
+   * Derive the seed of a generator added to an entity. The seed only depends on the root seed,
+   * the entity's name, the position of the generator in the entity and the current replication.
+   * This method is automatically called and doesn't need to be included on user simulations.
+   * @param ent_name The name of the entity
+   * @param index    The position of the generator among the entity's generators
+   * @return The seed of the generator's stream
+   */
+  public static long stream_seed(String ent_name, int index) {
+    // FNV-1a hash of the name, which unlike String.hashCode has 64 bits
+    long key = 0xCBF29CE484222325L;
+    int length = ent_name.length();
+    for (int i=0; i < length; i++) {
+      key ^= ent_name.charAt(i);
+      key *= 0x100000001B3L;
+    }
+    long seed = Sim_splitmix_engine.mix(root_seed ^ Sim_splitmix_engine.mix(key));
+    seed = Sim_splitmix_engine.mix(seed + index);
+    return Sim_splitmix_engine.mix(seed + stream_epoch);
+  }
+
   // Called when an event is considered to have completed service. If the event that completed is the one
   // that determines the run length condition.
   static synchronized void job_completed(int entity, int event_tag) {
@@ -832,7 +929,7 @@ public class Sim_system {
       }
     }
     if (auto_trace && (default_trace || (event_trace && is_trace_tag(event_tag)))) {
-      trace(entity, "event type " + event_tag + " completed service");
+      trace_event(Sim_trace_output.COMPLETED, entity, -1, event_tag, 0.0);
     }
   }
 
@@ -1085,8 +1182,8 @@ public class Sim_system {
       throw new Sim_exception("You can't specify two transient conditions.");
     } else if ((term_condition == INTERVAL_ACCURACY) || (term_condition == NONE)) {
       throw new Sim_exception("The minimum-maximum method can only be used with a termination of event completions or elapsed time.");
-    } else if (efficient_measure_defined) {
-      throw new Sim_exception("The minimum-maximum method can't be used with efficient measures.");
+    } else if (efficient_measure_defined || streaming_measure_defined) {
+      throw new Sim_exception("The minimum-maximum method can't be used with efficient or streaming measures.");
     }
     trans_condition = type;
     trans_entity_id = get_entity_id(entity);
@@ -1122,8 +1219,8 @@ public class Sim_system {
       throw new Sim_exception("You can't specify two transient conditions.");
     } else if ((term_condition == INTERVAL_ACCURACY) || (term_condition == NONE)) {
       throw new Sim_exception("The minimum-maximum method can only be used with a termination of event completions or elapsed time.");
-    } else if (efficient_measure_defined) {
-      throw new Sim_exception("The minimum-maximum method can't be used with efficient measures.");
+    } else if (efficient_measure_defined || streaming_measure_defined) {
+      throw new Sim_exception("The minimum-maximum method can't be used with efficient or streaming measures.");
     }
     trans_condition = type;
     trans_entity_id = get_entity_id(entity);
@@ -1352,7 +1449,7 @@ public class Sim_system {
               if ((trans_event_counter >= trans_count) && (!in_steady_state)) {
                 trans_time = clock;
                 in_steady_state = true;
-                if (efficient_measure_defined) {
+                if (efficient_measure_defined || streaming_measure_defined) {
                   notify_stats_trans(trans_time);
                 }
               }
@@ -1377,7 +1474,7 @@ public class Sim_system {
                   // Start counting termination events from the beginning
                   term_event_counter = 0;
                   trans_time = clock;
-                  if (efficient_measure_defined) {
+                  if (efficient_measure_defined || streaming_measure_defined) {
                     notify_stats_trans(trans_time);
                   }
                 }
@@ -1390,7 +1487,7 @@ public class Sim_system {
               if ((clock >= initial_trans_time) && (!in_steady_state)) {
                 in_steady_state = true;
                 trans_time = clock;
-                if (efficient_measure_defined) {
+                if (efficient_measure_defined || streaming_measure_defined) {
                   notify_stats_trans(trans_time);
                 }
               }
@@ -1415,7 +1512,7 @@ public class Sim_system {
                   transient_term_event_count = term_event_counter;
                   // Start counting termination events from the beginning
                   term_event_counter = 0;
-                  if (efficient_measure_defined) {
+                  if (efficient_measure_defined || streaming_measure_defined) {
                     notify_stats_trans(trans_time);
                   }
                 }
@@ -1484,7 +1581,7 @@ public class Sim_system {
               if ((trans_event_counter >= trans_count+1) && (!in_steady_state)) {
                 trans_time = clock;
                 in_steady_state = true;
-                if (efficient_measure_defined) {
+                if (efficient_measure_defined || streaming_measure_defined) {
                   notify_stats_trans(trans_time);
                 }
               }
@@ -1510,7 +1607,7 @@ public class Sim_system {
                   term_event_counter = 0;
                   trans_time = clock;
                   term_time += trans_time;
-                  if (efficient_measure_defined) {
+                  if (efficient_measure_defined || streaming_measure_defined) {
                     notify_stats_trans(trans_time);
                   }
                 }
@@ -1523,7 +1620,7 @@ public class Sim_system {
               if ((clock >= initial_trans_time) && (!in_steady_state)) {
                 in_steady_state = true;
                 trans_time = clock;
-                if (efficient_measure_defined) {
+                if (efficient_measure_defined || streaming_measure_defined) {
                   notify_stats_trans(trans_time);
                 }
               }
@@ -1545,7 +1642,7 @@ public class Sim_system {
                   in_steady_state = true;
                   trans_time = clock;
                   term_time += trans_time;
-                  if (efficient_measure_defined) {
+                  if (efficient_measure_defined || streaming_measure_defined) {
                     notify_stats_trans(trans_time);
                   }
                 }
@@ -1619,7 +1716,7 @@ public class Sim_system {
               if (trans_event_counter >= trans_count+1) {
                 trans_time = clock;
                 in_steady_state = true;
-                if (efficient_measure_defined) {
+                if (efficient_measure_defined || streaming_measure_defined) {
                   notify_stats_trans(trans_time);
                 }
               }
@@ -1628,7 +1725,7 @@ public class Sim_system {
               if (clock >= initial_trans_time) {
                 in_steady_state = true;
                 trans_time = clock;
-                if (efficient_measure_defined) {
+                if (efficient_measure_defined || streaming_measure_defined) {
                   notify_stats_trans(trans_time);
                 }
               }
@@ -1646,7 +1743,7 @@ public class Sim_system {
             if (trans_event_counter >= trans_count+1) {
               trans_time = clock;
               in_steady_state = true;
-              if (efficient_measure_defined) {
+              if (efficient_measure_defined || streaming_measure_defined) {
                 notify_stats_trans(trans_time);
               }
             }
@@ -1655,7 +1752,7 @@ public class Sim_system {
             if (clock >= initial_trans_time) {
               in_steady_state = true;
               trans_time = clock;
-              if (efficient_measure_defined) {
+              if (efficient_measure_defined || streaming_measure_defined) {
                 notify_stats_trans(trans_time);
               }
             }
@@ -1742,7 +1839,7 @@ public class Sim_system {
     run_initialise();
     while (incomplete) {
       if (!running) run_start();
-      while (check_conditions()) {
+      while (check_conditions() && !anim_stopped) {
         if (run_tick()) {
           break;
         }
@@ -2105,6 +2202,15 @@ public class Sim_system {
     return repeat;
   }
 
+  // The sample average of a measure over a batch. Streaming measures don't retain their observations
+  // so their batch averages are taken from their time bins.
+  private static double batch_average(Sim_stat stat, String measure, double batch_start, double batch_end) {
+    if (stat.is_streaming(measure)) {
+      return stat.batch_means(measure, 1, batch_start, batch_end)[0];
+    }
+    return stat.average(measure, batch_start, batch_end);
+  }
+
   // Apply the batch means method for output analysis
   private static boolean batch_means() {
     if (trans_time < 0.0) {
@@ -2124,7 +2230,7 @@ public class Sim_system {
       for (int i=0; i < batch_count; i++) {
         double batch_start = trans_time + (i * batch_length);
         double batch_end = trans_time + ((i+1) * batch_length);
-        double batch_mean = stat.average(term_measure, batch_start, batch_end);
+        double batch_mean = batch_average(stat, term_measure, batch_start, batch_end);
         batch_means[i] = batch_mean;
         total_mean += batch_mean;
       }
@@ -2146,7 +2252,7 @@ public class Sim_system {
         for (int i=0; i < batch_count; i++) {
           double batch_start = trans_time + (i * batch_length);
           double batch_end = trans_time + ((i+1) * batch_length);
-          double batch_mean = stat.average(term_measure, batch_start, batch_end);
+          double batch_mean = batch_average(stat, term_measure, batch_start, batch_end);
           batch_means[i] = batch_mean;
           total_mean += batch_mean;
         }
@@ -2169,7 +2275,7 @@ public class Sim_system {
       for (int i=0; i < batch_count; i++) {
         double batch_start = trans_time + (i * batch_length);
         double batch_end = trans_time + ((i+1) * batch_length);
-        double batch_mean = stat.average(term_measure, batch_start, batch_end);
+        double batch_mean = batch_average(stat, term_measure, batch_start, batch_end);
         batch_means[i] = batch_mean;
         total_mean += batch_mean;
       }
@@ -2225,7 +2331,7 @@ public class Sim_system {
             for (int m=0; m < l; m++) {
               double batch_start = trans_time + (m * batch_length);
               double batch_end = trans_time + ((m+1) * batch_length);
-              double batch_mean = ent_stat.average(measure, batch_start, batch_end);
+              double batch_mean = batch_average(ent_stat, measure, batch_start, batch_end);
               batch_means[m] = batch_mean;
               total_mean += batch_mean;
             }
@@ -2301,7 +2407,11 @@ public class Sim_system {
             interval[3] = new Double(best_interval[3]); // The total variance
             interval[4] = new Double(best_interval[4]); // The accuracy
             interval[5] = new Double(Math.sqrt(best_interval[3])); // The total standard deviation
-            interval[6] = new Double(stat.count(measure, trans_time, clock)); // Total count
+            if (stat.is_streaming(measure)) {
+              interval[6] = new Double(stat.count(measure)); // Total count
+            } else {
+              interval[6] = new Double(stat.count(measure, trans_time, clock)); // Total count
+            }
             break;
           default:
             if (measure_levels != null) {
@@ -2315,7 +2425,20 @@ public class Sim_system {
             interval[3] = new Double(best_interval[3]); // The variance
             interval[4] = new Double(best_interval[4]); // The accuracy
             interval[5] = new Double(Math.sqrt(best_interval[3])); // The standard deviation
-            if (!measure.equals("Utilisation")) {
+            if (!measure.equals("Utilisation") && stat.is_streaming(measure)) {
+              // Streaming measures hold these for the whole steady state only
+              interval[6] = new Double(stat.maximum(measure)); // The maximum
+              interval[7] = new Double(stat.minimum(measure)); // The minimum
+              if (measure_levels != null) {
+                double[] props = stat.exc_proportion(measure);
+                double[][] exc_proportions = new double[measure_levels.length][2];
+                for (int l=0; l < measure_levels.length; l++) {
+                  exc_proportions[l][0] = measure_levels[l];
+                  exc_proportions[l][1] = props[l];
+                }
+                interval[8] = exc_proportions;
+              }
+            } else if (!measure.equals("Utilisation")) {
               interval[6] = new Double(stat.maximum(measure, trans_time, clock)); // The maximum
               interval[7] = new Double(stat.minimum(measure, trans_time, clock)); // The minimum
               if (measure_levels != null) {
@@ -2468,6 +2591,8 @@ public class Sim_system {
 
   // Resets the simulation to its original state
   private static void reset() {
+    // The generators of the next replication use new streams
+    stream_epoch++;
     // Clear the event queue
     future.clear();
     deferred.clear();
@@ -2716,8 +2841,13 @@ public class Sim_system {
                 if (stat.is_efficient(m_name)) {
                   reporter.append_report("Sample mean:          " + stat.average(m_name));
                   if (!m_name.equals("Utilisation")) {
-                    reporter.append_report("Sample variance:      Not available in efficient mode");
-                    reporter.append_report("Sample std deviation: Not available in efficient mode");
+                    if (stat.is_streaming(m_name)) {
+                      reporter.append_report("Sample variance:      " + stat.variance(m_name));
+                      reporter.append_report("Sample std deviation: " + stat.std_deviation(m_name));
+                    } else {
+                      reporter.append_report("Sample variance:      Not available in efficient mode");
+                      reporter.append_report("Sample std deviation: Not available in efficient mode");
+                    }
                     reporter.append_report("Maximum:              " + stat.maximum(m_name));
                     reporter.append_report("Minimum:              " + stat.minimum(m_name));
                     if (levels != null) {
@@ -2731,6 +2861,9 @@ public class Sim_system {
                         }
                       }
                     }
+                    if (stat.is_streaming(m_name) && (m_type == Sim_stat.INTERVAL_BASED)) {
+                      report_quantiles(reporter, stat, m_name);
+                    }
                   }
                 } else {
                   reporter.append_report("Sample mean:          " + stat.average(m_name, trans_time, total_time));
@@ -2830,8 +2963,13 @@ public class Sim_system {
                   if (stat.is_efficient(m_name)) {
                     reporter.append_report("Sample mean:          " + stat.average(m_name));
                     if (!m_name.equals("Utilisation")) {
-                      reporter.append_report("Sample variance:      Not available in efficient mode");
-                      reporter.append_report("Sample std deviation: Not available in efficient mode");
+                      if (stat.is_streaming(m_name)) {
+                        reporter.append_report("Sample variance:      " + stat.variance(m_name));
+                        reporter.append_report("Sample std deviation: " + stat.std_deviation(m_name));
+                      } else {
+                        reporter.append_report("Sample variance:      Not available in efficient mode");
+                        reporter.append_report("Sample std deviation: Not available in efficient mode");
+                      }
                       reporter.append_report("Maximum:              " + stat.maximum(m_name));
                       reporter.append_report("Minimum:              " + stat.minimum(m_name));
                       if (levels != null) {
@@ -2845,6 +2983,9 @@ public class Sim_system {
                           }
                         }
                       }
+                      if (stat.is_streaming(m_name) && (m_type == Sim_stat.INTERVAL_BASED)) {
+                        report_quantiles(reporter, stat, m_name);
+                      }
                     }
                   } else {
                     reporter.append_report("Sample mean:          " + stat.average(m_name, trans_time, total_time));
@@ -2928,6 +3069,12 @@ public class Sim_system {
               double[] levels = stat.get_levels(m_name);
               reporter.append_report("- " + m_name);
               reporter.append_report("");
+              if (stat.is_streaming(m_name)) {
+                // Only the batch mean is available for streaming measures
+                reporter.append_report("Sample mean:          " + batch_average(stat, m_name, start_time, end_time));
+                reporter.append_report("");
+                continue;
+              }
               switch (m_type) {
                 case Sim_stat.RATE_BASED:
                   reporter.append_report("Sample mean:          " + stat.average(m_name, start_time, end_time));
@@ -2996,6 +3143,16 @@ public class Sim_system {
     reporter.close_report();
   }
 
+  // Adds the quantile estimates of a streaming measure to the report
+  private static void report_quantiles(Sim_reporter reporter, Sim_stat stat, String m_name) {
+    double[] probabilities = stat.get_quantile_probabilities(m_name);
+    double[] quantiles = stat.quantiles(m_name);
+    reporter.append_report("Quantile estimates:");
+    for (int i=0; i < probabilities.length; i++) {
+      reporter.append_report("      " + probabilities[i] + " : " + quantiles[i]);
+    }
+  }
+
   // Prints a message about the progress of the simulation
   private static void print_message(String message) {
     if (animation) {
@@ -3021,6 +3178,15 @@ public class Sim_system {
     anim_stopped = true;
   }
 
+  /**
+   * Stop a running simulation after the current tick, as if the end of the simulation has been
+   * reached. This method can be called from outside the simulation, for example when the user
+   * cancels a simulation that is run in the background.
+   */
+  public static void run_abort() {
+    anim_stopped = true;
+  }
+
   // TRACE METHODS
 
   /**
@@ -3081,11 +3247,31 @@ public class Sim_system {
 
   // Adds a trace message
   static synchronized void trace(int src, String msg) {
+    if (trace_out != null) {
+      trace_out.trace_message(clock, src, msg);
+      return;
+    }
     trcout.println("u: " + ((Sim_entity)entities.get(src)).get_name() + " at " + clock + ": " + msg);
   }
 
+  // Adds a record of the default trace, formatting it only if the output takes text lines
+  static synchronized void trace_event(int kind, int src, int dest, int tag, double value) {
+    if ((trace_filter != null) && !animation && !trace_filter.accept(src, dest, tag)) {
+      return;
+    }
+    if (trace_out != null) {
+      trace_out.trace_event(kind, clock, src, dest, tag, value);
+      return;
+    }
+    String dest_name = (dest < 0) ? null : ((Sim_entity)entities.get(dest)).get_name();
+    trace(src, Sim_trace_reader.format(kind, dest_name, tag, value));
+  }
+
   // Called by entities to generate trace messages
   static synchronized void ent_trace(int src, String msg) {
+    if ((trace_filter != null) && !animation && !trace_filter.accept(src, -1, -1)) {
+      return;
+    }
     if ((auto_trace && entity_trace) || animation) trace(src, msg);
   }
 
@@ -3151,6 +3337,11 @@ public class Sim_system {
     efficient_measure_defined = true;
   }
 
+  // Called by Sim_stat objects to notify Sim_system that a streaming measure has been defined
+  static synchronized void streaming_measure_defined() {
+    streaming_measure_defined = true;
+  }
+
   // Informs Sim_stat objects of the transient time end. This is used to reset any efficient measures
   private static void notify_stats_trans(double trans_time) {
     int entities_size = entities.size();
@@ -0,0 +1,93 @@
+/* Sim_trace_filter.java */
+
+package eduni.simjava;
+
+import java.util.Arrays;
+
+/**
+ * A filter that selects which trace records are output. The filter is checked by
+ * <code>Sim_system</code> before a trace line is formatted, so that the records left out cost
+ * almost nothing.
+ * <p>
+ * By default all records are accepted. When event tags are added, only the records about events
+ * with one of these tags are accepted. When entities are added, only the records whose source or
+ * destination is one of these entities are accepted. Subclasses may override
+ * <code>accept()</code> to select the records in other ways.
+ * @see         Sim_system#set_trace_filter(Sim_trace_filter)
+ * @version     1.0 19 October 2026
+ */
+public class Sim_trace_filter {
+  private int[] tags = null;      // sorted tags, or null for all tags
+  private boolean[] entities = null;  // entities by id, or null for all entities
+
+  /**
+   * Constructor for a filter that accepts all records.
+   */
+  public Sim_trace_filter() { }
+
+  /**
+   * Accept only the records about events with the given tag, or with any of the tags
+   * added before.
+   * @param tag The event tag
+   */
+  public void add_tag(int tag) {
+    if (tags == null) {
+      tags = new int[] { tag };
+    } else if (Arrays.binarySearch(tags, tag) < 0) {
+      int[] temp = new int[tags.length + 1];
+      System.arraycopy(tags, 0, temp, 0, tags.length);
+      temp[tags.length] = tag;
+      Arrays.sort(temp);
+      tags = temp;
+    }
+  }
+
+  /**
+   * Accept only the records of the given entity, or of any of the entities added before.
+   * @param id The entity's id
+   */
+  public void add_entity(int id) {
+    if (id < 0) {
+      return;
+    }
+    if (entities == null) {
+      entities = new boolean[id + 1];
+    } else if (id >= entities.length) {
+      boolean[] temp = new boolean[Math.max(id + 1, 2*entities.length)];
+      System.arraycopy(entities, 0, temp, 0, entities.length);
+      entities = temp;
+    }
+    entities[id] = true;
+  }
+
+  /**
+   * Accept only the records of the given entity, or of any of the entities added before.
+   * @param name The entity's name
+   * @throws Sim_exception If the entity was not found
+   */
+  public void add_entity(String name) {
+    add_entity(Sim_system.get_entity_id(name));
+  }
+
+  /**
+   * Check whether a record is accepted.
+   * @param src  The id of the entity that the record is about
+   * @param dest The id of the destination entity of an event, or <code>-1</code>
+   * @param tag  The event tag, or <code>-1</code> if the record is not about an event
+   * @return <code>true</code> if the record should be output, <code>false</code> otherwise
+   */
+  public boolean accept(int src, int dest, int tag) {
+    if ((tags != null) && ((tag < 0) || (Arrays.binarySearch(tags, tag) < 0))) {
+      return false;
+    }
+    if (entities != null) {
+      return is_entity(src) || is_entity(dest);
+    }
+    return true;
+  }
+
+  // Check whether an entity was added to the filter
+  private boolean is_entity(int id) {
+    return (id >= 0) && (id < entities.length) && entities[id];
+  }
+}
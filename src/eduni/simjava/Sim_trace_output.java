@@ -0,0 +1,58 @@
+/* Sim_trace_output.java */
+
+package eduni.simjava;
+
+/**
+ * A trace output class that receives the trace of the simulation as records, instead of text
+ * lines. <code>Sim_system</code> then skips formatting each trace line, which is the main cost
+ * of tracing a simulation.
+ * <p>
+ * Each record of the default trace has one of the kinds defined in this interface. The text
+ * line of a record, as written by <code>Sim_outfile</code>, can be obtained with
+ * <code>Sim_trace_reader.format()</code>.
+ * @see         Sim_binary_outfile
+ * @see         Sim_trace_reader
+ * @version     1.0 19 October 2026
+ */
+public interface Sim_trace_output extends Sim_output {
+
+  /** An entity starts processing: <code>start processing</code> */
+  public static final int PROCESS = 1;
+  /** An entity starts holding: <code>start holding</code> */
+  public static final int HOLD = 2;
+  /** An entity starts pausing: <code>start pausing</code> */
+  public static final int PAUSE = 3;
+  /** An entity schedules an event, the value being the delay */
+  public static final int SEND = 4;
+  /** An entity waits for an event: <code>waiting for an event</code> */
+  public static final int WAIT = 5;
+  /** An entity selects an event, the value being the event time */
+  public static final int SELECT = 6;
+  /** An entity finds no event to select: <code>no event selected</code> */
+  public static final int SELECT_NONE = 7;
+  /** An entity cancels an event, the value being the event time */
+  public static final int CANCEL = 8;
+  /** An entity finds no event to cancel: <code>no event cancelled</code> */
+  public static final int CANCEL_NONE = 9;
+  /** An entity completes the service of an event */
+  public static final int COMPLETED = 10;
+
+  /**
+   * Called by <code>Sim_system</code> to output a record of the default trace.
+   * @param kind  The kind of record
+   * @param time  The simulation time
+   * @param src   The id of the entity that the record is about
+   * @param dest  The id of the destination entity of an event, or <code>-1</code>
+   * @param tag   The event tag, or <code>-1</code> if the record is not about an event
+   * @param value The delay or event time, depending on the kind of record
+   */
+  public void trace_event(int kind, double time, int src, int dest, int tag, double value);
+
+  /**
+   * Called by <code>Sim_system</code> to output a trace message generated by an entity.
+   * @param time  The simulation time
+   * @param src   The id of the entity
+   * @param msg   The trace message
+   */
+  public void trace_message(double time, int src, String msg);
+}
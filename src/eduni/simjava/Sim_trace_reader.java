@@ -0,0 +1,240 @@
+/* Sim_trace_reader.java */
+
+package eduni.simjava;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A reader for the binary trace files written by <code>Sim_binary_outfile</code>. The records
+ * are read one at a time with <code>next()</code>, after which the fields of the current record
+ * can be obtained:
+ * <pre>
+ *   Sim_trace_reader reader = new Sim_trace_reader("sim_trace.bin");
+ *   while (reader.next()) {
+ *     if (reader.get_tag() == 2) System.out.println(reader.to_text());
+ *   }
+ *   reader.close();
+ * </pre>
+ * A binary trace file can also be converted into the text format written by
+ * <code>Sim_outfile</code>, for tools that read that format:
+ * <pre>
+ *   java eduni.simjava.Sim_trace_reader sim_trace.bin sim_trace
+ * </pre>
+ * @see         Sim_binary_outfile
+ * @version     1.0 19 October 2026
+ */
+public class Sim_trace_reader {
+  private DataInputStream in;
+  private HashMap names = new HashMap();  // Entity names by id
+  private int kind, src, dest, tag;
+  private double time, value;
+  private String message;
+
+  /**
+   * Open a binary trace file. The file is uncompressed with gzip if its name ends with
+   * <code>.gz</code>.
+   * @param path The name of the trace file
+   * @throws IOException If the file can't be read or is not a binary trace file
+   */
+  public Sim_trace_reader(String path) throws IOException {
+    InputStream stream = new FileInputStream(path);
+    if (path.endsWith(".gz")) {
+      stream = new GZIPInputStream(stream);
+    }
+    in = new DataInputStream(new BufferedInputStream(stream, 65536));
+    if (in.readInt() != Sim_binary_outfile.MAGIC) {
+      in.close();
+      throw new IOException(path + " is not a binary trace file");
+    }
+    int version = in.readUnsignedByte();
+    if (version != Sim_binary_outfile.VERSION) {
+      in.close();
+      throw new IOException("Unsupported trace file version " + version);
+    }
+  }
+
+  /**
+   * Read the next record of the trace.
+   * @return <code>true</code> if a record was read, <code>false</code> at the end of the file
+   * @throws IOException If the file can't be read
+   */
+  public boolean next() throws IOException {
+    while (true) {
+      int k = in.read();
+      if (k < 0) {
+        return false;
+      }
+      if (k == Sim_binary_outfile.NAME) {
+        int id = in.readInt();
+        names.put(new Integer(id), read_string());
+        continue;
+      }
+      kind = k;
+      time = in.readDouble();
+      src = in.readInt();
+      if (k == Sim_binary_outfile.MESSAGE) {
+        dest = -1;
+        tag = -1;
+        value = 0.0;
+        message = read_string();
+      } else {
+        dest = in.readInt();
+        tag = in.readInt();
+        value = in.readDouble();
+        message = null;
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Get the kind of the current record.
+   * @return One of the kinds defined in <code>Sim_trace_output</code>, or <code>127</code>
+   *         for a message
+   */
+  public int get_kind() { return kind; }
+
+  /**
+   * Get the simulation time of the current record.
+   * @return The simulation time
+   */
+  public double get_time() { return time; }
+
+  /**
+   * Get the id of the entity that the current record is about.
+   * @return The entity's id, or <code>-1</code> for a line that was not generated by an entity
+   */
+  public int get_src() { return src; }
+
+  /**
+   * Get the id of the destination entity of the event of the current record.
+   * @return The entity's id, or <code>-1</code>
+   */
+  public int get_dest() { return dest; }
+
+  /**
+   * Get the event tag of the current record.
+   * @return The event tag, or <code>-1</code> if the record is not about an event
+   */
+  public int get_tag() { return tag; }
+
+  /**
+   * Get the delay or event time of the current record.
+   * @return The value
+   */
+  public double get_value() { return value; }
+
+  /**
+   * Get the message of the current record.
+   * @return The message, or <code>null</code> if the record is part of the default trace
+   */
+  public String get_message() { return message; }
+
+  /**
+   * Get the name of an entity that appeared in the trace so far.
+   * @param id The entity's id
+   * @return The entity's name, or <code>null</code> if it is unknown
+   */
+  public String get_name(int id) { return (String)names.get(new Integer(id)); }
+
+  /**
+   * Get the current record as a line of the text trace format.
+   * @return The trace line
+   */
+  public String to_text() {
+    if ((kind == Sim_binary_outfile.MESSAGE) && (src < 0)) {
+      return message;
+    }
+    String msg = message;
+    if (msg == null) {
+      msg = format(kind, get_name(dest), tag, value);
+    }
+    return "u: " + get_name(src) + " at " + time + ": " + msg;
+  }
+
+  /**
+   * Close the trace file.
+   * @throws IOException If the file can't be closed
+   */
+  public void close() throws IOException {
+    in.close();
+  }
+
+  /**
+   * Format the message of a record of the default trace, as it appears in a text trace line.
+   * @param kind      The kind of record, as defined in <code>Sim_trace_output</code>
+   * @param dest_name The name of the destination entity of the event
+   * @param tag       The event tag
+   * @param value     The delay or event time
+   * @return The message
+   */
+  public static String format(int kind, String dest_name, int tag, double value) {
+    switch (kind) {
+      case Sim_trace_output.PROCESS:     return "start processing";
+      case Sim_trace_output.HOLD:        return "start holding";
+      case Sim_trace_output.PAUSE:       return "start pausing";
+      case Sim_trace_output.SEND:        return "scheduling event type " + tag + " for " + dest_name +
+                                                " with delay " + value;
+      case Sim_trace_output.WAIT:        return "waiting for an event";
+      case Sim_trace_output.SELECT:      return "selected event type " + tag + " (event time was " + value + ")";
+      case Sim_trace_output.SELECT_NONE: return "no event selected";
+      case Sim_trace_output.CANCEL:      return "cancelled event type " + tag + " (event time was " + value + ")";
+      case Sim_trace_output.CANCEL_NONE: return "no event cancelled";
+      case Sim_trace_output.COMPLETED:   return "event type " + tag + " completed service";
+      default:                           return "unknown trace record " + kind;
+    }
+  }
+
+  /**
+   * Convert a binary trace file into the text format written by <code>Sim_outfile</code>.
+   * @param binary_path The name of the binary trace file
+   * @param text_path   The name of the text file to be written
+   * @throws IOException If a file can't be read or written
+   */
+  public static void convert(String binary_path, String text_path) throws IOException {
+    Sim_trace_reader reader = new Sim_trace_reader(binary_path);
+    PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(text_path), 65536));
+    try {
+      while (reader.next()) {
+        out.println(reader.to_text());
+      }
+    } finally {
+      out.close();
+      reader.close();
+    }
+  }
+
+  /**
+   * Convert a binary trace file into the text format.
+   * @param args The name of the binary trace file and, optionally, the name of the text file,
+   *             which is <code>sim_trace</code> by default
+   */
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.out.println("Usage: java eduni.simjava.Sim_trace_reader <binary trace> [<text trace>]");
+      return;
+    }
+    try {
+      convert(args[0], (args.length > 1) ? args[1] : "sim_trace");
+    } catch (IOException e) {
+      System.out.println("Sim_trace_reader: Error - " + e.getMessage());
+    }
+  }
+
+  // Read a string written by Sim_binary_outfile
+  private String read_string() throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, "UTF-8");
+  }
+}
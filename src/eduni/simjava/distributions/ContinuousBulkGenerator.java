@@ -0,0 +1,22 @@
+/* ContinuousBulkGenerator.java */
+
+package eduni.simjava.distributions;
+
+/**
+ * This interface extends <code>ContinuousGenerator</code> with bulk sampling, for random number
+ * generators based on continuous distributions that can fill an array faster than by sampling
+ * one number at a time.
+ * @see eduni.simjava.distributions.Sim_bulk_sampler
+ * @version 1.0 19 October 2026
+ */
+public interface ContinuousBulkGenerator extends ContinuousGenerator {
+
+  /**
+   * Sample the random number generator several times. The samples are the same as the ones
+   * returned by calling <code>sample()</code> <code>len</code> times.
+   * @param out The array where the samples are stored
+   * @param off The position in the array of the first sample
+   * @param len The number of samples
+   */
+  public void sample(double[] out, int off, int len);
+}
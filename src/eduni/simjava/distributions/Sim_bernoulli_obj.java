@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_bernoulli_obj implements DiscreteGenerator {
+public class Sim_bernoulli_obj implements DiscreteBulkGenerator {
   private Sim_random_obj source;
   private double prob;
   private String name;
@@ -66,6 +66,19 @@ public class Sim_bernoulli_obj implements DiscreteGenerator {
     return result;
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(long[] out, int off, int len) {
+    int end = off + len;
+    for (int i=off; i < end; i++) {
+      out[i] = (source.sample() <= prob) ? 1L : 0L;
+    }
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_beta_obj implements ContinuousGenerator {
+public class Sim_beta_obj implements ContinuousBulkGenerator {
   private Sim_random_obj source;
   private double shape_a, shape_b;
   private String name;
@@ -139,6 +139,16 @@ public class Sim_beta_obj implements ContinuousGenerator {
   }
 
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(double[] out, int off, int len) {
+    Sim_bulk_sampler.fill(this, out, off, len);
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
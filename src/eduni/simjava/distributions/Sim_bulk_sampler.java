@@ -0,0 +1,44 @@
+/* Sim_bulk_sampler.java */
+
+package eduni.simjava.distributions;
+
+/**
+ * This class fills arrays with samples from generators that have no faster way of producing
+ * several numbers at once than sampling them one by one.
+ * @see eduni.simjava.distributions.ContinuousBulkGenerator
+ * @see eduni.simjava.distributions.DiscreteBulkGenerator
+ * @version 1.0 19 October 2026
+ */
+public final class Sim_bulk_sampler {
+
+  // Only static methods
+  private Sim_bulk_sampler() {}
+
+  /**
+   * Sample a continuous generator several times.
+   * @param gen The generator to sample
+   * @param out The array where the samples are stored
+   * @param off The position in the array of the first sample
+   * @param len The number of samples
+   */
+  public static void fill(ContinuousGenerator gen, double[] out, int off, int len) {
+    int end = off + len;
+    for (int i=off; i < end; i++) {
+      out[i] = gen.sample();
+    }
+  }
+
+  /**
+   * Sample a discrete generator several times.
+   * @param gen The generator to sample
+   * @param out The array where the samples are stored
+   * @param off The position in the array of the first sample
+   * @param len The number of samples
+   */
+  public static void fill(DiscreteGenerator gen, long[] out, int off, int len) {
+    int end = off + len;
+    for (int i=off; i < end; i++) {
+      out[i] = gen.sample();
+    }
+  }
+}
@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_chisquare_obj implements ContinuousGenerator {
+public class Sim_chisquare_obj implements ContinuousBulkGenerator {
   private Sim_random_obj source;
   private long deg_freedom;
   private String name;
@@ -50,6 +50,9 @@ public class Sim_chisquare_obj implements ContinuousGenerator {
    * @return The next random number in the sequence
    */
   public double sample() {
+    if (!Sim_sampling.is_classic()) {
+      return Sim_sampling.gamma(source, 2.0, deg_freedom/2.0);
+    }
     double result = 0.0;
     for (long i=0L; i < deg_freedom; i++) {
       result += Sim_normal_obj.sample(source, 0.0, 1.0);
@@ -59,6 +62,9 @@ public class Sim_chisquare_obj implements ContinuousGenerator {
 
   // Used by other distributions that rely on the Chi-Square distribution
   static double sample(Sim_random_obj source, long deg_freedom) {
+    if (!Sim_sampling.is_classic()) {
+      return Sim_sampling.gamma(source, 2.0, deg_freedom/2.0);
+    }
     double result = 0.0;
     for (long i=0L; i < deg_freedom; i++) {
       result += Sim_normal_obj.sample(source, 0.0, 1.0);
@@ -66,6 +72,16 @@ public class Sim_chisquare_obj implements ContinuousGenerator {
     return result;
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(double[] out, int off, int len) {
+    Sim_bulk_sampler.fill(this, out, off, len);
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_erlang_obj implements ContinuousGenerator {
+public class Sim_erlang_obj implements ContinuousBulkGenerator {
   private Sim_random_obj source;
   private double scale, shape;
   private String name;
@@ -54,6 +54,9 @@ public class Sim_erlang_obj implements ContinuousGenerator {
    * @return The next random number in the sequence
    */
   public double sample() {
+    if (!Sim_sampling.is_classic() && (shape > 0.0)) {
+      return Sim_sampling.gamma(source, scale, Math.ceil(shape));
+    }
     double product = 1.0;
     for (int i=0; i<shape; i++) {
       product *= source.sample();
@@ -63,6 +66,9 @@ public class Sim_erlang_obj implements ContinuousGenerator {
 
   // Used by other distributions that rely on the Erlang distribution
   static double sample(Sim_random_obj source, double scale, double shape) {
+    if (!Sim_sampling.is_classic() && (shape > 0.0)) {
+      return Sim_sampling.gamma(source, scale, Math.ceil(shape));
+    }
     double product = 1.0;
     for (int i=0; i<shape; i++) {
       product *= source.sample();
@@ -70,6 +76,16 @@ public class Sim_erlang_obj implements ContinuousGenerator {
     return -scale * Math.log(product);
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(double[] out, int off, int len) {
+    Sim_bulk_sampler.fill(this, out, off, len);
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_f_obj implements ContinuousGenerator {
+public class Sim_f_obj implements ContinuousBulkGenerator {
   private Sim_random_obj source;
   private long num_deg_freedom, den_deg_freedom;
   private String name;
@@ -64,6 +64,16 @@ public class Sim_f_obj implements ContinuousGenerator {
            (Sim_chisquare_obj.sample(source, den_deg_freedom)/den_deg_freedom);
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(double[] out, int off, int len) {
+    Sim_bulk_sampler.fill(this, out, off, len);
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_gamma_obj implements ContinuousGenerator {
+public class Sim_gamma_obj implements ContinuousBulkGenerator {
   private Sim_random_obj source;
   private double scale, shape;
   private String name;
@@ -54,6 +54,9 @@ public class Sim_gamma_obj implements ContinuousGenerator {
    * @return The next random number in the sequence
    */
   public double sample() {
+    if (!Sim_sampling.is_classic()) {
+      return Sim_sampling.gamma(source, scale, shape);
+    }
     double result;
     if (shape == (long)shape) {
       // The shape is an integer
@@ -72,6 +75,9 @@ public class Sim_gamma_obj implements ContinuousGenerator {
 
   // Used by other distributions that rely on the Gamma distribution
   static double sample(Sim_random_obj source, double scale, double shape) {
+    if (!Sim_sampling.is_classic()) {
+      return Sim_sampling.gamma(source, scale, shape);
+    }
     double result;
     if (shape == (long)shape) {
       // The shape is an integer
@@ -88,6 +94,16 @@ public class Sim_gamma_obj implements ContinuousGenerator {
     return result;
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(double[] out, int off, int len) {
+    Sim_bulk_sampler.fill(this, out, off, len);
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
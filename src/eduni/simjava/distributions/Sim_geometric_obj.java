@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_geometric_obj implements DiscreteGenerator {
+public class Sim_geometric_obj implements DiscreteBulkGenerator {
   private Sim_random_obj source;
   private double prob;
   private String name;
@@ -68,6 +68,22 @@ public class Sim_geometric_obj implements DiscreteGenerator {
     return result;
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(long[] out, int off, int len) {
+    double log_q = Math.log(1.0 - prob);
+    int end = off + len;
+    for (int i=off; i < end; i++) {
+      double result1 = Math.log(source.sample()) / log_q;
+      long result = (long)result1;
+      out[i] = (result < result1) ? result + 1 : result;
+    }
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
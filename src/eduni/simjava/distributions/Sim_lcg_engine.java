@@ -0,0 +1,83 @@
+/* Sim_lcg_engine.java */
+
+package eduni.simjava.distributions;
+
+/**
+ * The multiplicative linear congruential engine used by every <code>Sim_random_obj</code> in
+ * earlier versions. It generates numbers through the following structure:
+ * <p>
+ * <code>Y[1] = (742938285*Y[0]) mod (2<sup>31</sup>-1)</code>
+ * <p>
+ * The cycle of the engine is <code>2<sup>31</sup>-2</code>, which is too short for long runs.
+ * It is kept in order to reproduce the exact results of older experiments. The seed of this
+ * engine is its current state, so <code>get_seed</code> returns the last number generated.
+ * @see eduni.simjava.distributions.Sim_random_obj#set_engine_type(int)
+ * @version 1.0 19 October 2026
+ */
+public class Sim_lcg_engine implements Sim_random_engine {
+  // The multiplier
+  private static final long A = 742938285L;
+  // The modulus
+  private static final long M = 2147483647L;
+  // The last computed random number
+  private long x;
+
+  /**
+   * Create a new engine.
+   * @param seed The initial seed of the engine
+   */
+  public Sim_lcg_engine(long seed) {
+    x = seed;
+  }
+
+  /**
+   * Generate the next uniformly distributed number.
+   * @return A number between <code>0</code> and <code>1</code>
+   */
+  public double next_double() {
+    x = (A * x) % M;
+    return (double)x / (double)M;
+  }
+
+  /**
+   * Generate several uniformly distributed numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void next_doubles(double[] out, int off, int len) {
+    long z = x;
+    int end = off + len;
+    for (int i=off; i < end; i++) {
+      z = (A * z) % M;
+      out[i] = (double)z / (double)M;
+    }
+    x = z;
+  }
+
+  /**
+   * Generate the next value of the engine. Only the lower 31 bits are random.
+   * @return The next value in the sequence
+   */
+  public long next_long() {
+    x = (A * x) % M;
+    return x;
+  }
+
+  /**
+   * Set the engine's seed.
+   * @param seed The new seed for the engine
+   */
+  public void set_seed(long seed) {
+    x = seed;
+  }
+
+  /**
+   * Get the engine's current seed, which is the last number it generated.
+   * @return The engine's seed
+   */
+  public long get_seed() {
+    return x;
+  }
+
+}
@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_logistic_obj implements ContinuousGenerator {
+public class Sim_logistic_obj implements ContinuousBulkGenerator {
   private Sim_random_obj source;
   private double location, scale;
   private String name;
@@ -62,6 +62,20 @@ public class Sim_logistic_obj implements ContinuousGenerator {
     return location-scale*Math.log((1/source.sample())-1);
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(double[] out, int off, int len) {
+    source.sample(out, off, len);
+    int end = off + len;
+    for (int i=off; i < end; i++) {
+      out[i] = location-scale*Math.log((1/out[i])-1);
+    }
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
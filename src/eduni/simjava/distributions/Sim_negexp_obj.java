@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_negexp_obj implements ContinuousGenerator {
+public class Sim_negexp_obj implements ContinuousBulkGenerator {
   private Sim_random_obj source;
   private double mean;
   private String name;
@@ -58,6 +58,20 @@ public class Sim_negexp_obj implements ContinuousGenerator {
     return -mean * Math.log(source.sample());
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(double[] out, int off, int len) {
+    source.sample(out, off, len);
+    int end = off + len;
+    for (int i=off; i < end; i++) {
+      out[i] = -mean * Math.log(out[i]);
+    }
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
@@ -8,13 +8,11 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_normal_obj implements ContinuousGenerator {
+public class Sim_normal_obj implements ContinuousBulkGenerator {
   private Sim_random_obj source;
   private double mean, std_dev;
   private boolean not_sampled = true;
   private double u1, u2;
-  private static boolean not_sampled_st = true;
-  private static double u1_st, u2_st;
   private String name;
 
   /**
@@ -71,16 +69,20 @@ public class Sim_normal_obj implements ContinuousGenerator {
 
   // Used by other distributions that rely on the Normal distribution
   static double sample(Sim_random_obj source, double mean, double variance) {
-    double result;
     double std_dev = Math.sqrt(variance);
-    if (not_sampled_st) {
-      u1_st = source.sample();
-      u2_st = source.sample();
-      result = mean + std_dev * Math.cos(2 * Math.PI * u1_st) * Math.sqrt(-2 * Math.log(u2_st));
-    } else {
-      result = mean + std_dev * Math.sin(2 * Math.PI * u1_st) * Math.sqrt(-2 * Math.log(u2_st));
-    }
-    return result;
+    double u1 = source.sample();
+    double u2 = source.sample();
+    return mean + std_dev * Math.cos(2 * Math.PI * u1) * Math.sqrt(-2 * Math.log(u2));
+  }
+
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(double[] out, int off, int len) {
+    Sim_bulk_sampler.fill(this, out, off, len);
   }
 
   /**
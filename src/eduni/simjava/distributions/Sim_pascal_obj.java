@@ -8,7 +8,7 @@ package eduni.simjava.distributions;
  * @author      Costas Simatos
  */
 
-public class Sim_pascal_obj implements DiscreteGenerator {
+public class Sim_pascal_obj implements DiscreteBulkGenerator {
   private Sim_random_obj source;
   private double prob;
   private long successes;
@@ -59,6 +59,9 @@ public class Sim_pascal_obj implements DiscreteGenerator {
    * @return The next random number in the sequence
    */
   public long sample() {
+    if (!Sim_sampling.is_classic()) {
+      return Sim_sampling.pascal(source, prob, successes);
+    }
     long sum = 0L;
     for (long i=0L; i < successes; i++) {
       sum += Sim_geometric_obj.sample(source, prob);
@@ -68,6 +71,9 @@ public class Sim_pascal_obj implements DiscreteGenerator {
 
   // Used by other distributions that rely on the Pascal distribution
   static long sample(Sim_random_obj source, double prob, long successes) {
+    if (!Sim_sampling.is_classic()) {
+      return Sim_sampling.pascal(source, prob, successes);
+    }
     long sum = 0L;
     for (long i=0L; i < successes; i++) {
       sum += Sim_geometric_obj.sample(source, prob);
@@ -75,6 +81,16 @@ public class Sim_pascal_obj implements DiscreteGenerator {
     return sum;
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(long[] out, int off, int len) {
+    Sim_bulk_sampler.fill(this, out, off, len);
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
@@ -7,7 +7,7 @@ package eduni.simjava.distributions;
  * @version     1.0, 14 May 2002
  * @author      Costas Simatos
  */
-public class Sim_poisson_obj implements DiscreteGenerator {
+public class Sim_poisson_obj implements DiscreteBulkGenerator {
   private Sim_random_obj source;
   private double mean;
   private String name;
@@ -49,6 +49,9 @@ public class Sim_poisson_obj implements DiscreteGenerator {
    * @return The next random number in the sequence
    */
   public long sample() {
+    if (!Sim_sampling.is_classic()) {
+      return Sim_sampling.poisson(source, mean);
+    }
     long x = -1L;
     double m = Math.exp(mean);
     do {
@@ -60,6 +63,9 @@ public class Sim_poisson_obj implements DiscreteGenerator {
 
   // Used by other distributions that rely on the Poisson distribution
   static long sample(Sim_random_obj source, double mean) {
+    if (!Sim_sampling.is_classic()) {
+      return Sim_sampling.poisson(source, mean);
+    }
     long x = -1L;
     double m = Math.exp(mean);
     do {
@@ -69,6 +75,16 @@ public class Sim_poisson_obj implements DiscreteGenerator {
     return x;
   }
 
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(long[] out, int off, int len) {
+    Sim_bulk_sampler.fill(this, out, off, len);
+  }
+
   /**
    * Set the random number generator's seed.
    * @param seed The new seed for the generator
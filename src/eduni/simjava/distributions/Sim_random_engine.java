@@ -0,0 +1,46 @@
+/* Sim_random_engine.java */
+
+package eduni.simjava.distributions;
+
+/**
+ * This interface defines the functionality that should be provided by the engines that produce
+ * the uniform pseudorandom numbers used by <code>Sim_random_obj</code>, and therefore by every
+ * other generator of this package.
+ * @see eduni.simjava.distributions.Sim_random_obj
+ * @version 1.0 19 October 2026
+ */
+public interface Sim_random_engine {
+
+  /**
+   * Generate the next uniformly distributed number.
+   * @return A number between <code>0</code> and <code>1</code>, both excluded
+   */
+  public double next_double();
+
+  /**
+   * Generate the next uniformly distributed <code>long</code> value.
+   * @return The next value in the sequence
+   */
+  public long next_long();
+
+  /**
+   * Generate several uniformly distributed numbers. The numbers are the same as the ones
+   * returned by calling <code>next_double()</code> <code>len</code> times.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void next_doubles(double[] out, int off, int len);
+
+  /**
+   * Set the engine's seed. The same seed always produces the same sequence of numbers.
+   * @param seed The new seed for the engine
+   */
+  public void set_seed(long seed);
+
+  /**
+   * Get the engine's seed.
+   * @return The engine's seed
+   */
+  public long get_seed();
+}
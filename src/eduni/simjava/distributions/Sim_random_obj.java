@@ -3,53 +3,127 @@
 package eduni.simjava.distributions;
 
 /**
- * A random number generator producing pseudorandom numbers based
- * on the value of a specific seed. The generator is a multiplicative
- * linear congruential generator. It generates numbers through the
- * following structure:
+ * A random number generator producing pseudorandom numbers uniformly distributed between
+ * <code>0</code> and <code>1</code>, based on the value of a specific seed.
  * <p>
- * <code>Y[1] = (742938285*Y[0]) mod (2<sup>31</sup>-1)</code>
+ * The numbers are produced by an engine, which is by default a xoshiro256** engine with a
+ * period of <code>2<sup>256</sup>-1</code>. The engine used by new generators is selected with
+ * <code>set_engine_type</code>:
+ * <ul>
+ *   <li><code>XOSHIRO</code>: the xoshiro256** engine.
+ *   <li><code>SPLITMIX</code>: the SplitMix64 engine, with a period of <code>2<sup>64</sup></code>.
+ *   <li><code>LCG</code>: the multiplicative linear congruential engine of earlier versions,
+ *       <code>Y[1] = (742938285*Y[0]) mod (2<sup>31</sup>-1)</code>, whose cycle is
+ *       <code>2<sup>31</sup>-2</code>. It should only be used to reproduce older experiments.
+ * </ul>
+ * Any other engine can be used by giving it to the constructor.
  * <p>
- * The seed (<code>Y[0]</code>) provided is used to generate a sequence of pseudorandom
- * numbers uniformly distributed between <code>0</code> and <code>1</code>. The cycle of the generator
- * is <code>2<sup>31</sup>-2</code>.
+ * Except with the <code>LCG</code> engine, whose seed is its current state, the numbers are
+ * taken from the engine in blocks of <code>BUFFER_SIZE</code> and kept until they are sampled.
+ * This is invisible to the users of the generator, but the engine returned by
+ * <code>get_engine</code> is ahead of the numbers sampled so far.
+ * @see eduni.simjava.distributions.Sim_random_engine
  * @version 1.0, 13 May 2002
  * @author Costas Simatos
  */
 
-public class Sim_random_obj implements ContinuousGenerator {
-  // The multiplier
-  private final long a = 742938285;
-  // The modulus
-  private final long m = 2147483647;
-  // The last computed random number
-  private long x;
+public class Sim_random_obj implements ContinuousBulkGenerator {
+  /** The multiplicative linear congruential engine of earlier versions */
+  public static final int LCG = 0;
+  /** The xoshiro256** engine */
+  public static final int XOSHIRO = 1;
+  /** The SplitMix64 engine */
+  public static final int SPLITMIX = 2;
+
+  /** The number of uniform numbers taken from the engine at once */
+  public static final int BUFFER_SIZE = 128;
+
+  // The engine used by new generators
+  private static int engine_type = XOSHIRO;
+
+  // The engine producing the numbers
+  private Sim_random_engine engine;
   private String name;
+  // The numbers taken from the engine and not yet sampled, from next to end
+  private double[] buffer;
+  private int next, end;
 
   /**
    * Constructor with which <code>Sim_system</code> is allowed to set the random number
    * generator's seed
    * @param name The name to be associated with this instance
-   * @param min  The minimum value this instance should generate
-   * @param max  The maximum value this instance should generate
    */
   public Sim_random_obj(String name) {
-    x = eduni.simjava.Sim_system.next_seed();
+    engine = create_engine(engine_type, eduni.simjava.Sim_system.next_seed());
     this.name = name;
+    create_buffer();
   }
 
   /**
    * The constructor with which a specific seed is set for the random
    * number generator
    * @param name The name to be associated with this instance
-   * @param min  The minimum value this instance should generate
-   * @param max  The maximum value this instance should generate
    * @param seed The initial seed for the generator, two instances with
    *             the same seed will generate the same sequence of numbers
    */
   public Sim_random_obj(String name, long seed) {
-    x = seed;
+    engine = create_engine(engine_type, seed);
+    this.name = name;
+    create_buffer();
+  }
+
+  /**
+   * The constructor with which a specific engine is used by the random
+   * number generator
+   * @param name The name to be associated with this instance
+   * @param engine The engine producing the numbers
+   */
+  public Sim_random_obj(String name, Sim_random_engine engine) {
+    if (engine == null) {
+      throw new Sim_parameter_exception("Sim_random_obj: The engine must not be null.");
+    }
+    this.engine = engine;
     this.name = name;
+    create_buffer();
+  }
+
+  /**
+   * Select the engine used by the generators created from now on. This should be called
+   * before any entity is created.
+   * @param type One of <code>XOSHIRO</code>, <code>SPLITMIX</code> or <code>LCG</code>
+   */
+  public static void set_engine_type(int type) {
+    if ((type != LCG) && (type != XOSHIRO) && (type != SPLITMIX)) {
+      throw new Sim_parameter_exception("Sim_random_obj: Unknown engine type " + type + ".");
+    }
+    engine_type = type;
+  }
+
+  /**
+   * Get the type of engine used by new generators.
+   * @return One of <code>XOSHIRO</code>, <code>SPLITMIX</code> or <code>LCG</code>
+   */
+  public static int get_engine_type() {
+    return engine_type;
+  }
+
+  /**
+   * Create a new engine.
+   * @param type One of <code>XOSHIRO</code>, <code>SPLITMIX</code> or <code>LCG</code>
+   * @param seed The initial seed of the engine
+   * @return The new engine
+   */
+  public static Sim_random_engine create_engine(int type, long seed) {
+    switch (type) {
+      case LCG:
+        return new Sim_lcg_engine(seed);
+      case SPLITMIX:
+        return new Sim_splitmix_engine(seed);
+      case XOSHIRO:
+        return new Sim_xoshiro_engine(seed);
+      default:
+        throw new Sim_parameter_exception("Sim_random_obj: Unknown engine type " + type + ".");
+    }
   }
 
   /**
@@ -57,8 +131,31 @@ public class Sim_random_obj implements ContinuousGenerator {
    * @return The next random number in the sequence
    */
   public double sample() {
-    x = (a * x) % m;
-    return (double)x / (double)m;
+    if (buffer == null) {
+      return engine.next_double();
+    }
+    if (next == end) {
+      engine.next_doubles(buffer, 0, BUFFER_SIZE);
+      next = 0;
+      end = BUFFER_SIZE;
+    }
+    return buffer[next++];
+  }
+
+  /**
+   * Generate several new random numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void sample(double[] out, int off, int len) {
+    // Use up the buffered numbers first, to keep the sequence unchanged
+    int buffered = Math.min(len, end - next);
+    if (buffered > 0) {
+      System.arraycopy(buffer, next, out, off, buffered);
+      next += buffered;
+    }
+    engine.next_doubles(out, off + buffered, len - buffered);
   }
 
   /**
@@ -66,7 +163,9 @@ public class Sim_random_obj implements ContinuousGenerator {
    * @param seed The new seed for the generator
    */
   public void set_seed(long seed) {
-    x = seed;
+    engine.set_seed(seed);
+    next = 0;
+    end = 0;
   }
 
   /**
@@ -74,7 +173,22 @@ public class Sim_random_obj implements ContinuousGenerator {
    * @return The generator's seed
    */
   public long get_seed() {
-    return x;
+    return engine.get_seed();
+  }
+
+  /**
+   * Get the engine producing the numbers of this generator.
+   * @return The generator's engine
+   */
+  public Sim_random_engine get_engine() {
+    return engine;
+  }
+
+  // The LCG engine is not buffered, so that its seed remains the last number sampled
+  private void create_buffer() {
+    if (!(engine instanceof Sim_lcg_engine)) {
+      buffer = new double[BUFFER_SIZE];
+    }
   }
 
   /**
@@ -0,0 +1,266 @@
+/* Sim_sampling.java */
+
+package eduni.simjava.distributions;
+
+/**
+ * This class selects the algorithms used to sample the Binomial, Poisson, Gamma, Erlang,
+ * Chi-Square and Pascal distributions.
+ * <p>
+ * By default these distributions are sampled with algorithms that take a constant expected
+ * number of uniform samples, whatever the values of their parameters:
+ * <ul>
+ *   <li>Binomial: the BTRD algorithm of Hormann when <code>n*min(p,1-p)</code> is at least 10,
+ *       inversion otherwise.
+ *   <li>Poisson: the PTRS algorithm of Hormann when the mean is at least 10, the classic
+ *       multiplication method otherwise.
+ *   <li>Gamma, Erlang and Chi-Square: the method of Marsaglia and Tsang.
+ *   <li>Pascal: a Poisson variate whose mean is a Gamma variate.
+ * </ul>
+ * The algorithms of earlier versions need a number of samples that grows with the
+ * parameters. They can be selected again with <code>set_classic(true)</code> before the
+ * simulation starts, in order to reproduce the exact results of older experiments.
+ * <p>
+ * Note that the classic Chi-Square algorithm sums normal variates instead of their
+ * squares, so its results only follow the Chi-Square distribution with the fast algorithms.
+ * @version 1.0 19 October 2026
+ */
+public final class Sim_sampling {
+
+  // Precomputed values of the Stirling correction fc(k), for k less than 10
+  private static final double[] STIRLING_CORRECTION = {
+    0.08106146679532726, 0.04134069595540929, 0.02767792568499834,
+    0.02079067210376509, 0.01664469118982119, 0.01387612882307075,
+    0.01189670994589177, 0.01041126526197209, 0.009255462182712733,
+    0.008330563433362871
+  };
+  private static final double HALF_LOG_2PI = 0.5 * Math.log(2.0 * Math.PI);
+
+  private static boolean classic = false;
+
+  private Sim_sampling() {}
+
+  /**
+   * Select the algorithms used to sample the distributions.
+   * @param on <code>true</code> to use the algorithms of earlier versions,
+   *           <code>false</code> to use the constant time algorithms
+   */
+  public static void set_classic(boolean on) { classic = on; }
+
+  /**
+   * Check whether the algorithms of earlier versions are used.
+   * @return <code>true</code> if the classic algorithms are used, <code>false</code> otherwise
+   */
+  public static boolean is_classic() { return classic; }
+
+  // Sample a Binomial variate
+  static long binomial(Sim_random_obj source, double prob, long trials) {
+    if (prob >= 1.0) {
+      return trials;
+    }
+    if (prob > 0.5) {
+      return trials - binomial(source, 1.0 - prob, trials);
+    }
+    if (trials * prob < 10.0) {
+      return binomial_inversion(source, prob, trials);
+    }
+    return binomial_btrd(source, prob, trials);
+  }
+
+  // Sample a Poisson variate
+  static long poisson(Sim_random_obj source, double mean) {
+    if (mean < 10.0) {
+      long x = 0L;
+      double limit = Math.exp(-mean);
+      double product = source.sample();
+      while (product > limit) {
+        x++;
+        product *= source.sample();
+      }
+      return x;
+    }
+    return poisson_ptrs(source, mean);
+  }
+
+  // Sample a Gamma variate
+  static double gamma(Sim_random_obj source, double scale, double shape) {
+    if (shape < 1.0) {
+      return gamma(source, scale, shape + 1.0) * Math.pow(source.sample(), 1.0/shape);
+    }
+    double d = shape - 1.0/3.0;
+    double c = 1.0 / Math.sqrt(9.0*d);
+    while (true) {
+      double x, v;
+      do {
+        x = normal(source);
+        v = 1.0 + c*x;
+      } while (v <= 0.0);
+      v = v*v*v;
+      double u = source.sample();
+      double x2 = x*x;
+      if ((u < 1.0 - 0.0331*x2*x2) || (Math.log(u) < 0.5*x2 + d*(1.0 - v + Math.log(v)))) {
+        return scale * d * v;
+      }
+    }
+  }
+
+  // Sample a Pascal variate, the number of trials needed for a number of successes
+  static long pascal(Sim_random_obj source, double prob, long successes) {
+    if (prob >= 1.0) {
+      return successes;
+    }
+    // The failures follow a Negative Binomial distribution, a Gamma mixture of Poissons
+    double mean = gamma(source, (1.0 - prob)/prob, successes);
+    return successes + poisson(source, mean);
+  }
+
+  // Sample a standard normal variate with the Box-Muller method, keeping no state
+  private static double normal(Sim_random_obj source) {
+    double u1 = source.sample();
+    double u2 = source.sample();
+    return Math.sqrt(-2.0*Math.log(u1)) * Math.cos(2.0*Math.PI*u2);
+  }
+
+  // Binomial sampling by sequential search, for small means
+  private static long binomial_inversion(Sim_random_obj source, double prob, long trials) {
+    double q = 1.0 - prob;
+    double s = prob / q;
+    double a = (trials + 1) * s;
+    double start = Math.pow(q, trials);
+    // Guard against rounding errors in the tail
+    long bound = Math.min(trials, (long)(trials*prob + 10.0*Math.sqrt(trials*prob*q + 1.0)));
+    while (true) {
+      double r = start;
+      double u = source.sample();
+      long x = 0L;
+      while (u > r) {
+        u -= r;
+        x++;
+        if (x > bound) {
+          break;
+        }
+        r *= (a/x - s);
+      }
+      if (x <= bound) {
+        return x;
+      }
+    }
+  }
+
+  // Binomial sampling by transformed rejection with decomposition (BTRD), for p <= 0.5
+  private static long binomial_btrd(Sim_random_obj source, double prob, long trials) {
+    double n = (double)trials;
+    double q = 1.0 - prob;
+    double m = Math.floor((n + 1.0)*prob);
+    double r = prob / q;
+    double nr = (n + 1.0)*r;
+    double npq = n*prob*q;
+    double sqrt_npq = Math.sqrt(npq);
+    double b = 1.15 + 2.53*sqrt_npq;
+    double a = -0.0873 + 0.0248*b + 0.01*prob;
+    double c = n*prob + 0.5;
+    double alpha = (2.83 + 5.1/b)*sqrt_npq;
+    double v_r = 0.92 - 4.2/b;
+    double u_rv_r = 0.86*v_r;
+
+    while (true) {
+      double u, v = source.sample();
+      if (v <= u_rv_r) {
+        u = v/v_r - 0.43;
+        return (long)Math.floor((2.0*a/(0.5 - Math.abs(u)) + b)*u + c);
+      }
+      if (v >= v_r) {
+        u = source.sample() - 0.5;
+      } else {
+        u = v/v_r - 0.93;
+        u = ((u < 0.0) ? -0.5 : 0.5) - u;
+        v = source.sample()*v_r;
+      }
+
+      double us = 0.5 - Math.abs(u);
+      double k = Math.floor((2.0*a/us + b)*u + c);
+      if ((k < 0.0) || (k > n)) {
+        continue;
+      }
+      v = v*alpha/(a/(us*us) + b);
+      double km = Math.abs(k - m);
+
+      if (km <= 15.0) {
+        // Evaluate the ratio of probabilities recursively
+        double f = 1.0;
+        if (m < k) {
+          for (double i = m + 1.0; i <= k; i++) {
+            f *= (nr/i - r);
+          }
+        } else if (m > k) {
+          for (double i = k + 1.0; i <= m; i++) {
+            v *= (nr/i - r);
+          }
+        }
+        if (v <= f) {
+          return (long)k;
+        }
+        continue;
+      }
+
+      // Squeeze with the normal approximation
+      v = Math.log(v);
+      double rho = (km/npq)*(((km/3.0 + 0.625)*km + 1.0/6.0)/npq + 0.5);
+      double t = -km*km/(2.0*npq);
+      if (v < t - rho) {
+        return (long)k;
+      }
+      if (v > t + rho) {
+        continue;
+      }
+
+      double nm = n - m + 1.0;
+      double h = (m + 0.5)*Math.log((m + 1.0)/(r*nm)) + stirling_correction(m) + stirling_correction(n - m);
+      double nk = n - k + 1.0;
+      if (v <= h + (n + 1.0)*Math.log(nm/nk) + (k + 0.5)*Math.log(nk*r/(k + 1.0))
+                - stirling_correction(k) - stirling_correction(n - k)) {
+        return (long)k;
+      }
+    }
+  }
+
+  // Poisson sampling by transformed rejection with squeeze (PTRS), for means of at least 10
+  private static long poisson_ptrs(Sim_random_obj source, double mean) {
+    double log_mean = Math.log(mean);
+    double b = 0.931 + 2.53*Math.sqrt(mean);
+    double a = -0.059 + 0.02483*b;
+    double log_inv_alpha = Math.log(1.1239 + 1.1328/(b - 3.4));
+    double v_r = 0.9277 - 3.6224/(b - 2.0);
+
+    while (true) {
+      double u = source.sample() - 0.5;
+      double v = source.sample();
+      double us = 0.5 - Math.abs(u);
+      double k = Math.floor((2.0*a/us + b)*u + mean + 0.43);
+      if ((us >= 0.07) && (v <= v_r)) {
+        return (long)k;
+      }
+      if ((k < 0.0) || ((us < 0.013) && (v > us))) {
+        continue;
+      }
+      if (Math.log(v) + log_inv_alpha - Math.log(a/(us*us) + b) <= -mean + k*log_mean - log_factorial(k)) {
+        return (long)k;
+      }
+    }
+  }
+
+  // The logarithm of k!, for integer values of k
+  private static double log_factorial(double k) {
+    return (k + 0.5)*Math.log(k + 1.0) - (k + 1.0) + HALF_LOG_2PI + stirling_correction(k);
+  }
+
+  // The error of Stirling's approximation of log(k!), for integer values of k
+  private static double stirling_correction(double k) {
+    if (k < 10.0) {
+      return STIRLING_CORRECTION[(int)k];
+    }
+    double k1 = 1.0 / (k + 1.0);
+    double k2 = k1*k1;
+    return (1.0/12.0 - (1.0/360.0 - (1.0/1260.0)*k2)*k2)*k1;
+  }
+
+}
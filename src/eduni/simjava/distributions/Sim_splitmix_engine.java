@@ -0,0 +1,90 @@
+/* Sim_splitmix_engine.java */
+
+package eduni.simjava.distributions;
+
+/**
+ * An engine based on the SplitMix64 generator of Steele, Lea and Flood. It adds a constant
+ * to a 64 bit counter and scrambles the result, so its period is <code>2<sup>64</sup></code>
+ * and any seed is valid. Its <code>mix</code> function is also used to seed the other engines
+ * and to derive independent seeds for the streams of the simulation's entities.
+ * @version 1.0 19 October 2026
+ */
+public class Sim_splitmix_engine implements Sim_random_engine {
+  // The increment of the counter, derived from the golden ratio
+  static final long GAMMA = 0x9E3779B97F4A7C15L;
+  // The value of the lowest bit of a double's 53 bit mantissa
+  static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+  private long seed;
+  private long state;
+
+  /**
+   * Create a new engine.
+   * @param seed The initial seed of the engine
+   */
+  public Sim_splitmix_engine(long seed) {
+    set_seed(seed);
+  }
+
+  /**
+   * Scramble a 64 bit value, so that close values give unrelated results.
+   * @param z The value to be scrambled
+   * @return The scrambled value
+   */
+  public static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Generate the next uniformly distributed number.
+   * @return A number between <code>0</code> and <code>1</code>, both excluded
+   */
+  public double next_double() {
+    return ((next_long() >>> 11) + 0.5) * DOUBLE_UNIT;
+  }
+
+  /**
+   * Generate several uniformly distributed numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void next_doubles(double[] out, int off, int len) {
+    long z = state;
+    int end = off + len;
+    for (int i=off; i < end; i++) {
+      z += GAMMA;
+      out[i] = ((mix(z) >>> 11) + 0.5) * DOUBLE_UNIT;
+    }
+    state = z;
+  }
+
+  /**
+   * Generate the next uniformly distributed <code>long</code> value.
+   * @return The next value in the sequence
+   */
+  public long next_long() {
+    state += GAMMA;
+    return mix(state);
+  }
+
+  /**
+   * Set the engine's seed.
+   * @param seed The new seed for the engine
+   */
+  public void set_seed(long seed) {
+    this.seed = seed;
+    state = seed;
+  }
+
+  /**
+   * Get the seed with which the engine was last initialised.
+   * @return The engine's seed
+   */
+  public long get_seed() {
+    return seed;
+  }
+
+}
@@ -0,0 +1,147 @@
+/* Sim_xoshiro_engine.java */
+
+package eduni.simjava.distributions;
+
+/**
+ * An engine based on the xoshiro256** generator of Blackman and Vigna. It has a period of
+ * <code>2<sup>256</sup>-1</code>, passes the usual statistical tests and only needs a few
+ * shifts and additions per number. This is the default engine of <code>Sim_random_obj</code>.
+ * <p>
+ * The 256 bit state is filled from the 64 bit seed with <code>Sim_splitmix_engine</code>, so
+ * any seed is valid. Independent streams can also be obtained from a single seed with
+ * <code>split</code>, which jumps <code>2<sup>128</sup></code> numbers ahead.
+ * @see eduni.simjava.distributions.Sim_splitmix_engine
+ * @version 1.0 19 October 2026
+ */
+public class Sim_xoshiro_engine implements Sim_random_engine {
+  // The polynomial used to jump 2^128 numbers ahead
+  private static final long[] JUMP = {
+    0x180EC6D33CFD0ABAL, 0xD5A61266F0C9392CL, 0xA9582618E03FC9AAL, 0x39ABDC4529B1661CL
+  };
+
+  private long seed;
+  private long s0, s1, s2, s3;
+
+  /**
+   * Create a new engine.
+   * @param seed The initial seed of the engine
+   */
+  public Sim_xoshiro_engine(long seed) {
+    set_seed(seed);
+  }
+
+  // Used by split
+  private Sim_xoshiro_engine(Sim_xoshiro_engine other) {
+    seed = other.seed;
+    s0 = other.s0;
+    s1 = other.s1;
+    s2 = other.s2;
+    s3 = other.s3;
+  }
+
+  /**
+   * Generate the next uniformly distributed number.
+   * @return A number between <code>0</code> and <code>1</code>, both excluded
+   */
+  public double next_double() {
+    return ((next_long() >>> 11) + 0.5) * Sim_splitmix_engine.DOUBLE_UNIT;
+  }
+
+  /**
+   * Generate several uniformly distributed numbers.
+   * @param out The array where the numbers are stored
+   * @param off The position in the array of the first number
+   * @param len The number of numbers
+   */
+  public void next_doubles(double[] out, int off, int len) {
+    long a = s0, b = s1, c = s2, d = s3;
+    int end = off + len;
+    for (int i=off; i < end; i++) {
+      long result = Long.rotateLeft(b * 5, 7) * 9;
+      long t = b << 17;
+      c ^= a;
+      d ^= b;
+      b ^= c;
+      a ^= d;
+      c ^= t;
+      d = Long.rotateLeft(d, 45);
+      out[i] = ((result >>> 11) + 0.5) * Sim_splitmix_engine.DOUBLE_UNIT;
+    }
+    s0 = a;
+    s1 = b;
+    s2 = c;
+    s3 = d;
+  }
+
+  /**
+   * Generate the next uniformly distributed <code>long</code> value.
+   * @return The next value in the sequence
+   */
+  public long next_long() {
+    long result = Long.rotateLeft(s1 * 5, 7) * 9;
+    long t = s1 << 17;
+    s2 ^= s0;
+    s3 ^= s1;
+    s1 ^= s2;
+    s0 ^= s3;
+    s2 ^= t;
+    s3 = Long.rotateLeft(s3, 45);
+    return result;
+  }
+
+  /**
+   * Set the engine's seed.
+   * @param seed The new seed for the engine
+   */
+  public void set_seed(long seed) {
+    this.seed = seed;
+    long z = seed;
+    s0 = Sim_splitmix_engine.mix(z += Sim_splitmix_engine.GAMMA);
+    s1 = Sim_splitmix_engine.mix(z += Sim_splitmix_engine.GAMMA);
+    s2 = Sim_splitmix_engine.mix(z += Sim_splitmix_engine.GAMMA);
+    s3 = Sim_splitmix_engine.mix(z += Sim_splitmix_engine.GAMMA);
+  }
+
+  /**
+   * Get the seed with which the engine was last initialised.
+   * @return The engine's seed
+   */
+  public long get_seed() {
+    return seed;
+  }
+
+  /**
+   * Create a new engine that continues from the current state of this one, and move this
+   * engine <code>2<sup>128</sup></code> numbers ahead. The two engines then produce
+   * sequences that do not overlap in any practical simulation.
+   * @return The new engine
+   */
+  public Sim_xoshiro_engine split() {
+    Sim_xoshiro_engine copy = new Sim_xoshiro_engine(this);
+    jump();
+    return copy;
+  }
+
+  /**
+   * Move the engine <code>2<sup>128</sup></code> numbers ahead.
+   */
+  public void jump() {
+    long t0 = 0L, t1 = 0L, t2 = 0L, t3 = 0L;
+    for (int i=0; i < JUMP.length; i++) {
+      for (int b=0; b < 64; b++) {
+        if ((JUMP[i] & (1L << b)) != 0L) {
+          t0 ^= s0;
+          t1 ^= s1;
+          t2 ^= s2;
+          t3 ^= s3;
+        }
+        next_long();
+      }
+    }
+    s0 = t0;
+    s1 = t1;
+    s2 = t2;
+    s3 = t3;
+  }
+
+}
@@ -0,0 +1,385 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ */
+
+package gridsim;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+
+/**
+ * A batch of reservation operations that are sent to one or more resources
+ * in one go, using
+ * {@link gridsim.AdvanceReservation#submitBatch(ARBatch)}. The operations
+ * for the same resource are sent in a single message, and all resources
+ * process their part of the batch at the same time. Hence, a batch
+ * over <tt>N</tt> resources takes about one round trip instead of <tt>N</tt>.
+ * <p>
+ * This object is also a handle to the results. Once submitted, the results
+ * arrive by calling
+ * {@link gridsim.AdvanceReservation#pollBatch(ARBatch)} (which does not
+ * block) or {@link gridsim.AdvanceReservation#waitBatch(ARBatch)} (which
+ * blocks until all results have arrived). An example on how to use it:
+ * <pre>
+ *     ARBatch batch = new ARBatch();
+ *     for (int i = 0; i &lt; resID.length; i++) {
+ *         batch.createReservation(startTime, duration, numPE, resID[i]);
+ *     }
+ *
+ *     submitBatch(batch);   // inside an AdvanceReservation entity
+ *     waitBatch(batch);
+ *     for (int i = 0; i &lt; batch.size(); i++) {
+ *         String bookingID = batch.getBookingID(i);
+ *         ...
+ *     }
+ * </pre>
+ * The result of each operation is the same as its single counterpart in
+ * {@link gridsim.AdvanceReservation}.
+ *
+ * @see gridsim.AdvanceReservation
+ * @see gridsim.ARGridResource
+ * @invariant $none
+ */
+public class ARBatch
+{
+    private ArrayList opList_;      // a list of Op objects
+    private boolean submitted_;     // whether this batch has been sent or not
+    private int pending_;           // number of operations waiting for results
+    private int transID_;           // transaction ID of this batch
+    private int pendingMsg_;        // number of messages waiting for replies
+    private HashMap transMap_;      // transaction ID -> Op object
+    private HashMap resMap_;        // resource ID -> list of Op objects
+
+    /** Denotes an operation for creating a new reservation */
+    public static final int CREATE = 1;
+
+    /** Denotes an operation for committing a reservation */
+    public static final int COMMIT = 2;
+
+    /** Denotes an operation for querying the status of a reservation */
+    public static final int QUERY = 3;
+
+    /** Denotes an operation for cancelling a reservation */
+    public static final int CANCEL = 4;
+
+
+    /**
+     * Creates an empty batch
+     * @pre $none
+     * @post $none
+     */
+    public ARBatch()
+    {
+        opList_ = new ArrayList();
+        submitted_ = false;
+        pending_ = 0;
+        transID_ = -1;
+        pendingMsg_ = 0;
+        transMap_ = new HashMap();
+        resMap_ = new HashMap();
+    }
+
+    /**
+     * Adds a new reservation request into this batch. Immediate reservation
+     * is requested by setting <tt>startTime</tt> or <tt>duration</tt> to
+     * <tt>0</tt>.
+     * @param startTime   reservation start time in milliseconds
+     * @param duration    reservation duration time in seconds
+     * @param numPE       number of PEs required for this reservation
+     * @param resID       a resource ID
+     * @return the index of this operation in the batch or <tt>-1</tt> if
+     *         this batch has been submitted
+     * @see gridsim.AdvanceReservation#createReservation(long, int, int, int)
+     * @pre $none
+     * @post $none
+     */
+    public int createReservation(long startTime, int duration, int numPE,
+                                 int resID)
+    {
+        Op op = new Op(CREATE);
+        op.startTime = startTime;
+        op.duration = duration;
+        op.numPE = numPE;
+        op.resID = resID;
+        return add(op);
+    }
+
+    /**
+     * Adds a commit request <b>without</b> any Gridlets into this batch
+     * @param bookingID   a reservation booking ID
+     * @return the index of this operation in the batch or <tt>-1</tt> if
+     *         this batch has been submitted
+     * @see gridsim.AdvanceReservation#commitReservation(String)
+     * @pre $none
+     * @post $none
+     */
+    public int commitReservation(String bookingID)
+    {
+        Op op = new Op(COMMIT);
+        op.bookingID = bookingID;
+        return add(op);
+    }
+
+    /**
+     * Adds a query request for the status of a reservation into this batch
+     * @param bookingID   a reservation booking ID
+     * @return the index of this operation in the batch or <tt>-1</tt> if
+     *         this batch has been submitted
+     * @see gridsim.AdvanceReservation#queryReservation(String)
+     * @pre $none
+     * @post $none
+     */
+    public int queryReservation(String bookingID)
+    {
+        Op op = new Op(QUERY);
+        op.bookingID = bookingID;
+        return add(op);
+    }
+
+    /**
+     * Adds a request for cancelling a reservation and all of its Gridlets
+     * into this batch
+     * @param bookingID   a reservation booking ID
+     * @return the index of this operation in the batch or <tt>-1</tt> if
+     *         this batch has been submitted
+     * @see gridsim.AdvanceReservation#cancelReservation(String)
+     * @pre $none
+     * @post $none
+     */
+    public int cancelReservation(String bookingID)
+    {
+        Op op = new Op(CANCEL);
+        op.bookingID = bookingID;
+        return add(op);
+    }
+
+    /**
+     * Gets the number of operations in this batch
+     * @return the number of operations
+     * @pre $none
+     * @post $result >= 0
+     */
+    public int size() {
+        return opList_.size();
+    }
+
+    /**
+     * Checks whether this batch has been submitted or not
+     * @return <tt>true</tt> if submitted, <tt>false</tt> otherwise
+     * @pre $none
+     * @post $none
+     */
+    public boolean isSubmitted() {
+        return submitted_;
+    }
+
+    /**
+     * Checks whether the results of all operations have arrived or not
+     * @return <tt>true</tt> if all results have arrived, <tt>false</tt>
+     *         otherwise
+     * @pre $none
+     * @post $none
+     */
+    public boolean isDone() {
+        return submitted_ && pending_ == 0;
+    }
+
+    /**
+     * Gets the type of an operation
+     * @param index   the index of an operation
+     * @return one of {@link #CREATE}, {@link #COMMIT}, {@link #QUERY} or
+     *         {@link #CANCEL}, or <tt>-1</tt> if the index is invalid
+     * @pre $none
+     * @post $none
+     */
+    public int getType(int index)
+    {
+        Op op = getOp(index);
+        if (op == null) {
+            return -1;
+        }
+        return op.type;
+    }
+
+    /**
+     * Checks whether the result of an operation has arrived or not
+     * @param index   the index of an operation
+     * @return <tt>true</tt> if the result has arrived, <tt>false</tt>
+     *         otherwise
+     * @pre $none
+     * @post $none
+     */
+    public boolean isDone(int index)
+    {
+        Op op = getOp(index);
+        return op != null && op.done;
+    }
+
+    /**
+     * Gets the result of a create reservation request
+     * @param index   the index of an operation
+     * @return an unique booking ID if successful, an error message
+     *         otherwise, or <tt>null</tt> if the result has not arrived or
+     *         this operation does not create a reservation
+     * @see gridsim.AdvanceReservation#createReservation(long, int, int, int)
+     * @pre $none
+     * @post $none
+     */
+    public String getBookingID(int index)
+    {
+        Op op = getOp(index);
+        if (op == null || !op.done || op.type != CREATE) {
+            return null;
+        }
+        return op.bookingID;
+    }
+
+    /**
+     * Gets the result of an operation. For a create reservation request,
+     * this is the reservation ID if successful or one of
+     * GridSimTags.AR_CREATE_XXXX tags otherwise. For other requests, this is
+     * the same integer tag returned by its single counterpart in
+     * {@link gridsim.AdvanceReservation}.
+     * @param index   the index of an operation
+     * @return an integer tag or <tt>0</tt> if the result has not arrived
+     * @see gridsim.GridSimTags
+     * @pre $none
+     * @post $none
+     */
+    public int getResult(int index)
+    {
+        Op op = getOp(index);
+        if (op == null || !op.done) {
+            return 0;
+        }
+        return op.result;
+    }
+
+    //////////////////////// PACKAGE METHODS ///////////////////////////
+
+    /** Gets an operation object */
+    Op getOp(int index)
+    {
+        if (index < 0 || index >= opList_.size()) {
+            return null;
+        }
+        return (Op) opList_.get(index);
+    }
+
+    /** Marks this batch as submitted with the given transaction ID */
+    void setSubmitted(int transID, int totalMessage)
+    {
+        submitted_ = true;
+        transID_ = transID;
+        pendingMsg_ = totalMessage;
+        pending_ = 0;
+        for (int i = 0; i < opList_.size(); i++)
+        {
+            if ( !((Op) opList_.get(i)).done ) {
+                pending_++;
+            }
+        }
+    }
+
+    /** Gets the transaction ID of this batch */
+    int getTransactionID() {
+        return transID_;
+    }
+
+    /** Gets the number of messages waiting for replies */
+    int getPendingMessage() {
+        return pendingMsg_;
+    }
+
+    /** Adds an operation that needs to be sent to a resource */
+    void addRequest(Op op, int resID, int transID, Object request)
+    {
+        op.resID = resID;
+        op.transID = transID;
+        op.request = request;
+        transMap_.put(new Integer(transID), op);
+
+        Integer key = new Integer(resID);
+        ArrayList list = (ArrayList) resMap_.get(key);
+        if (list == null)
+        {
+            list = new ArrayList();
+            resMap_.put(key, list);
+        }
+        list.add(op);
+    }
+
+    /** Gets resource ID -> list of operations to be sent */
+    HashMap getRequestMap() {
+        return resMap_;
+    }
+
+    /** Finds an operation by its transaction ID */
+    Op findOp(int transID) {
+        return (Op) transMap_.get( new Integer(transID) );
+    }
+
+    /** Sets the result of an operation */
+    void setResult(Op op, int result, String bookingID)
+    {
+        if (op.done) {
+            return;
+        }
+
+        op.result = result;
+        op.bookingID = bookingID;
+        op.done = true;
+        if (submitted_) {
+            pending_--;
+        }
+    }
+
+    /** Denotes a reply message for this batch has arrived */
+    void replyReceived() {
+        pendingMsg_--;
+    }
+
+    //////////////////////// PRIVATE METHODS ///////////////////////////
+
+    /** Adds an operation if this batch has not been submitted */
+    private int add(Op op)
+    {
+        if (submitted_) {
+            return -1;
+        }
+
+        opList_.add(op);
+        return opList_.size() - 1;
+    }
+
+    /**
+     * A reservation operation and its result
+     */
+    static class Op
+    {
+        int type;           // the operation type
+        long startTime;     // reservation start time
+        int duration;       // reservation duration time
+        int numPE;          // number of PEs required
+        int resID;          // a resource ID
+        String bookingID;   // a booking ID, or the result of creating one
+        int transID;        // the transaction ID of this operation
+        Object request;     // the data object sent to a resource
+        int result;         // the result of this operation
+        boolean done;       // whether the result has arrived or not
+
+        Op(int type)
+        {
+            this.type = type;
+            this.transID = -1;
+            this.done = false;
+        }
+    }
+
+}
+
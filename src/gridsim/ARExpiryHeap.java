@@ -0,0 +1,160 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ */
+
+package gridsim;
+
+
+/**
+ * A binary min-heap of reservations ordered by a time, such as the expiry
+ * time or the end time of each reservation. Reservations are not removed
+ * from the heap when they are cancelled or committed. Instead, they are
+ * checked when they reach the top of the heap.
+ *
+ * @see gridsim.ARSimpleSpaceShared
+ * @invariant $none
+ */
+class ARExpiryHeap
+{
+    private long[] time_;       // the time of each reservation
+    private ARObject[] obj_;    // the reservations
+    private int size_;          // the number of reservations in the heap
+
+
+    /**
+     * Creates an empty heap
+     * @pre $none
+     * @post $none
+     */
+    ARExpiryHeap()
+    {
+        time_ = new long[16];
+        obj_ = new ARObject[16];
+        size_ = 0;
+    }
+
+    /**
+     * Gets the number of reservations in the heap
+     * @return the number of reservations
+     * @pre $none
+     * @post $result >= 0
+     */
+    int size() {
+        return size_;
+    }
+
+    /**
+     * Adds a reservation into the heap
+     * @param time   the time of this reservation
+     * @param obj    a reservation object
+     * @pre obj != null
+     * @post $none
+     */
+    void add(long time, ARObject obj)
+    {
+        if (size_ == time_.length)
+        {
+            long[] newTime = new long[size_ * 2];
+            ARObject[] newObj = new ARObject[size_ * 2];
+            System.arraycopy(time_, 0, newTime, 0, size_);
+            System.arraycopy(obj_, 0, newObj, 0, size_);
+            time_ = newTime;
+            obj_ = newObj;
+        }
+
+        // move the parents down until the position is found
+        int i = size_++;
+        while (i > 0)
+        {
+            int parent = (i - 1) / 2;
+            if (time_[parent] <= time) {
+                break;
+            }
+
+            time_[i] = time_[parent];
+            obj_[i] = obj_[parent];
+            i = parent;
+        }
+
+        time_[i] = time;
+        obj_[i] = obj;
+    }
+
+    /**
+     * Gets the earliest time in the heap
+     * @return the earliest time or <tt>Long.MAX_VALUE</tt> if empty
+     * @pre $none
+     * @post $none
+     */
+    long peekTime()
+    {
+        if (size_ == 0) {
+            return Long.MAX_VALUE;
+        }
+        return time_[0];
+    }
+
+    /**
+     * Removes the reservation with the earliest time
+     * @return the reservation or <tt>null</tt> if empty
+     * @pre $none
+     * @post $none
+     */
+    ARObject poll()
+    {
+        if (size_ == 0) {
+            return null;
+        }
+
+        ARObject result = obj_[0];
+        size_--;
+        long time = time_[size_];
+        ARObject obj = obj_[size_];
+        obj_[size_] = null;
+
+        // move the last reservation down from the top
+        int i = 0;
+        while (2*i + 1 < size_)
+        {
+            int child = 2*i + 1;
+            if (child + 1 < size_ && time_[child + 1] < time_[child]) {
+                child++;
+            }
+
+            if (time <= time_[child]) {
+                break;
+            }
+
+            time_[i] = time_[child];
+            obj_[i] = obj_[child];
+            i = child;
+        }
+
+        if (size_ > 0)
+        {
+            time_[i] = time;
+            obj_[i] = obj;
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes all reservations from the heap
+     * @pre $none
+     * @post $none
+     */
+    void clear()
+    {
+        for (int i = 0; i < size_; i++) {
+            obj_[i] = null;
+        }
+        size_ = 0;
+    }
+
+}
+
@@ -120,6 +120,7 @@ public class ARGridResource extends GridResource
      *      <li> GridSimTags.SEND_AR_MODIFY
      *      <li> GridSimTags.SEND_AR_LIST_BUSY_TIME
      *      <li> GridSimTags.SEND_AR_LIST_FREE_TIME
+     *      <li> GridSimTags.SEND_AR_BATCH
      * </ul>
      *
      * @param ev    a Sim_event object
@@ -161,6 +162,10 @@ public class ARGridResource extends GridResource
                 handleQueryTime(ev);
                 break;
 
+            case GridSimTags.SEND_AR_BATCH:
+                handleBatch(ev);
+                break;
+
             default:
                 /****   // NOTE: Give to the scheduler to process other tags
                 System.out.println(super.get_name() + ".processOtherEvent(): " +
@@ -333,6 +338,132 @@ public class ARGridResource extends GridResource
         }
     }
 
+    /**
+     * Handles a batch of create, commit, cancel and query reservation
+     * requests. All requests are given to the scheduler at once, and their
+     * results are sent back in a single message.
+     * @param ev  Sim_event object
+     * @pre ev != null
+     * @post $none
+     * @see gridsim.ARBatch
+     */
+    private void handleBatch(Sim_event ev)
+    {
+        int src = -1;   // the sender id
+        Integer transID = null;
+        ArrayList replyList = new ArrayList();
+
+        try
+        {
+            // [0] = transID, [1] = sender ID, [2] = list of requests
+            Object[] obj = ( Object[] ) ev.get_data();
+            transID = (Integer) obj[0];
+            src = ( (Integer) obj[1] ).intValue();
+            ArrayList list = (ArrayList) obj[2];
+
+            // if this resource doesn't support AR, then all requests fail
+            if (policyType_ != ResourceCharacteristics.ADVANCE_RESERVATION)
+            {
+                System.out.println(super.get_name() + " : Error - can't " +
+                    "process a batch of reservations. This resource " +
+                    "doesn't support Advance Reservation.");
+            }
+            else
+            {
+                ARPolicy policy = (ARPolicy) policy_;
+                policy.beginBatch();
+                for (int i = 0; i < list.size(); i++)
+                {
+                    // each request is [0] = tag, [1] = data
+                    Object[] request = (Object[]) list.get(i);
+                    int tag = ( (Integer) request[0] ).intValue();
+                    processBatchRequest(policy, tag, request[1], src);
+                }
+                replyList = policy.endBatch();
+            }
+        }
+        catch (Exception e) {
+            System.out.println(super.get_name() + " : Error - can't " +
+                "process a batch of reservations.");
+        }
+
+        if (src == -1 || transID == null) {
+            return;
+        }
+
+        // [0] = transID, [1] = list of results, [2] = this resource ID
+        Object[] array = new Object[3];
+        array[0] = transID;
+        array[1] = replyList;
+        array[2] = new Integer( super.get_id() );
+
+        int size = super.SIZE + (replyList.size() * ((3*8) + 6));
+        super.send(src, 0.0, GridSimTags.RETURN_AR_BATCH,
+                   new IO_data(array, size, src));
+    }
+
+    /**
+     * Gives a request of a batch to the scheduler. A request that can not be
+     * processed gets no result, which the sender treats as an error.
+     * @param policy  the scheduler
+     * @param tag     the tag of a single request
+     * @param data    the data of a single request
+     * @param src     the sender ID
+     * @pre policy != null
+     * @post $none
+     */
+    private void processBatchRequest(ARPolicy policy, int tag, Object data,
+                                     int src)
+    {
+        try
+        {
+            ARObject obj = null;
+            int[] id = null;   // [0] = resID, [1] = reservID, [2] = trans ID
+            switch (tag)
+            {
+                case GridSimTags.SEND_AR_CREATE:
+                    obj = (ARObject) data;
+                    policy.handleCreateReservation(obj, src,
+                        GridSimTags.RETURN_AR_CREATE + obj.getTransactionID());
+                    break;
+
+                case GridSimTags.SEND_AR_CREATE_IMMEDIATE:
+                    obj = (ARObject) data;
+                    policy.handleImmediateReservation(obj, src,
+                        GridSimTags.RETURN_AR_CREATE + obj.getTransactionID());
+                    break;
+
+                case GridSimTags.SEND_AR_COMMIT_ONLY:
+                    id = (int[]) data;
+                    policy.handleCommitOnly(id[1], src,
+                        GridSimTags.RETURN_AR_COMMIT + id[2]);
+                    break;
+
+                case GridSimTags.SEND_AR_QUERY:
+                    id = (int[]) data;
+                    policy.handleQueryReservation(id[1], src,
+                        GridSimTags.RETURN_AR_QUERY_STATUS + id[2]);
+                    break;
+
+                case GridSimTags.SEND_AR_CANCEL:
+                    id = (int[]) data;
+                    policy.handleCancelReservation(id[1], src,
+                        GridSimTags.RETURN_AR_CANCEL + id[2]);
+                    break;
+
+                default:
+                    System.out.println(super.get_name() + " : Error - " +
+                        "can't process a request with tag " + tag +
+                        " in a batch.");
+                    break;
+            }
+        }
+        catch (Exception e) {
+            System.out.println(super.get_name() + " : Error - can't process " +
+                "a request with tag " + tag + " in a batch.");
+        }
+    }
+
     /**
      * Handles a query busy/free time request.
      * @param ev  Sim_event object
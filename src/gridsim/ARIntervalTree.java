@@ -0,0 +1,399 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ */
+
+package gridsim;
+
+import java.util.*;
+
+/**
+ * A reservation book that stores the start and end time of each reservation
+ * as an event in a balanced search tree ordered by time. Each event changes
+ * the number of PEs in use by the reservations starting or ending at that
+ * time. Every subtree keeps the total change of its events and the highest
+ * number of PEs in use after any of them, so that the maximum number of PEs
+ * in use during a period is found in <tt>O(log n)</tt> time.
+ * <p>
+ * A reservation occupies its PEs from its start time up to, but not
+ * including, its end time. Hence, a reservation may start at the same time
+ * as another one finishes.
+ *
+ * @see gridsim.ARSimpleSpaceShared
+ * @invariant $none
+ */
+class ARIntervalTree
+{
+    private Node root_;         // the root of the tree
+    private HashMap booked_;    // ARObject -> long[3] {start, end, numPE}
+    private int seed_;          // for generating the node priorities
+
+
+    /**
+     * Creates an empty reservation book
+     * @pre $none
+     * @post $none
+     */
+    ARIntervalTree()
+    {
+        root_ = null;
+        booked_ = new HashMap();
+        seed_ = 0x2545F491;
+    }
+
+    /**
+     * Adds a reservation into the book
+     * @param obj    a reservation object
+     * @param start  the reservation start time
+     * @param end    the reservation end time
+     * @pre obj != null
+     * @pre start <= end
+     * @post $none
+     */
+    void add(ARObject obj, long start, long end)
+    {
+        if (booked_.containsKey(obj) == true) {
+            return;
+        }
+
+        long[] entry = { start, end, obj.getNumPE() };
+        booked_.put(obj, entry);
+        update(start, (int) entry[2], 1);
+        update(end, (int) -entry[2], 1);
+    }
+
+    /**
+     * Removes a reservation from the book
+     * @param obj    a reservation object
+     * @return <tt>true</tt> if the reservation was in the book,
+     *         <tt>false</tt> otherwise
+     * @pre $none
+     * @post $none
+     */
+    boolean remove(ARObject obj)
+    {
+        long[] entry = (long[]) booked_.remove(obj);
+        if (entry == null) {
+            return false;
+        }
+
+        update(entry[0], (int) -entry[2], -1);
+        update(entry[1], (int) entry[2], -1);
+        return true;
+    }
+
+    /**
+     * Checks whether a reservation is in the book or not
+     * @param obj    a reservation object
+     * @return <tt>true</tt> if the reservation is in the book,
+     *         <tt>false</tt> otherwise
+     * @pre $none
+     * @post $none
+     */
+    boolean contains(ARObject obj) {
+        return booked_.containsKey(obj);
+    }
+
+    /**
+     * Removes all reservations from the book
+     * @pre $none
+     * @post $none
+     */
+    void clear()
+    {
+        root_ = null;
+        booked_.clear();
+    }
+
+    /**
+     * Finds the maximum number of PEs in use during a period of time
+     * @param start  the start time of the period
+     * @param end    the end time of the period
+     * @return the maximum number of PEs in use
+     * @pre start <= end
+     * @post $result >= 0
+     */
+    int getMaxUsage(long start, long end)
+    {
+        // the number of PEs in use at the start time, then any events after
+        Node[] part = split3(start + 1, end);
+        int offset = sum(part[0]);
+        int result = offset;
+        if (part[1] != null) {
+            result = Math.max(result, offset + part[1].maxPrefix);
+        }
+
+        root_ = merge(part[0], merge(part[1], part[2]));
+        return result;
+    }
+
+    /**
+     * Finds when the last period within a given time that has more than
+     * <tt>limit</tt> PEs in use ends
+     * @param start  the start time of the period
+     * @param end    the end time of the period
+     * @param limit  the highest number of PEs that can be in use
+     * @return the time when the busy period ends
+     * @pre start <= end
+     * @post $none
+     */
+    long getBusyUntil(long start, long end, int limit)
+    {
+        Node[] part = split3(start + 1, end);
+        Node last = findLastAbove(part[1], sum(part[0]), limit);
+        long time = start;
+        if (last != null) {
+            time = last.time;
+        }
+
+        root_ = merge(part[0], merge(part[1], part[2]));
+
+        // the busy period ends at the next event
+        Node next = findNext(time);
+        if (next == null) {
+            return end;
+        }
+        return next.time;
+    }
+
+    /**
+     * Finds the number of PEs in use during a period of time.
+     * Each object inside ArrayList is <tt>long array[3]</tt>, with:
+     * <ul>
+     *    <li> array[0] = start time of a segment
+     *    <li> array[1] = end time of a segment
+     *    <li> array[2] = number of PEs in use during the segment
+     * </ul>
+     * The segments cover the whole period in order, and two adjacent segments
+     * never have the same number of PEs in use.
+     * @param start  the start time of the period
+     * @param end    the end time of the period
+     * @return a list of segments
+     * @pre start < end
+     * @post $result != null
+     */
+    ArrayList getUsage(long start, long end)
+    {
+        Node[] part = split3(start + 1, end);
+        ArrayList result = new ArrayList();
+        long[] current = { start, end, sum(part[0]) };
+        collect(part[1], current, result);
+        result.add(current);
+
+        root_ = merge(part[0], merge(part[1], part[2]));
+        return result;
+    }
+
+    //////////////////////// PRIVATE METHODS ///////////////////////////
+
+    /**
+     * Adds a change in the number of PEs in use at a given time
+     * @param time    the event time
+     * @param delta   the change in the number of PEs
+     * @param refs    the change in the number of reservations referring
+     *                to this event
+     */
+    private void update(long time, int delta, int refs)
+    {
+        Node[] part = split3(time, time + 1);
+        Node node = part[1];
+        if (node == null)
+        {
+            seed_ ^= seed_ << 13;
+            seed_ ^= seed_ >>> 17;
+            seed_ ^= seed_ << 5;
+            node = new Node(time, seed_);
+        }
+
+        node.delta += delta;
+        node.refs += refs;
+        node.pull();
+        if (node.refs <= 0) {
+            node = null;
+        }
+
+        root_ = merge(part[0], merge(node, part[2]));
+    }
+
+    /**
+     * Splits the tree into events before <tt>from</tt>, events from
+     * <tt>from</tt> up to but not including <tt>to</tt>, and the rest
+     */
+    private Node[] split3(long from, long to)
+    {
+        Node[] left = split(root_, from);
+        Node[] right = split(left[1], Math.max(from, to));
+        Node[] result = { left[0], right[0], right[1] };
+        return result;
+    }
+
+    /**
+     * Splits a subtree into events before a given time and the rest
+     */
+    private static Node[] split(Node node, long time)
+    {
+        Node[] result = new Node[2];
+        if (node == null) {
+            return result;
+        }
+
+        if (node.time < time)
+        {
+            Node[] part = split(node.right, time);
+            node.right = part[0];
+            node.pull();
+            result[0] = node;
+            result[1] = part[1];
+        }
+        else
+        {
+            Node[] part = split(node.left, time);
+            node.left = part[1];
+            node.pull();
+            result[0] = part[0];
+            result[1] = node;
+        }
+
+        return result;
+    }
+
+    /**
+     * Joins two subtrees, where all events of the first one are earlier
+     */
+    private static Node merge(Node left, Node right)
+    {
+        if (left == null) {
+            return right;
+        }
+
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority)
+        {
+            left.right = merge(left.right, right);
+            left.pull();
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        right.pull();
+        return right;
+    }
+
+    /**
+     * Finds the last event of a subtree after which more than
+     * <tt>limit</tt> PEs are in use
+     */
+    private static Node findLastAbove(Node node, int offset, int limit)
+    {
+        if (node == null || offset + node.maxPrefix <= limit) {
+            return null;
+        }
+
+        int usage = offset + sum(node.left) + node.delta;
+        Node result = findLastAbove(node.right, usage, limit);
+        if (result != null) {
+            return result;
+        }
+
+        if (usage > limit) {
+            return node;
+        }
+
+        return findLastAbove(node.left, offset, limit);
+    }
+
+    /**
+     * Finds the first event after a given time
+     */
+    private Node findNext(long time)
+    {
+        Node result = null;
+        Node node = root_;
+        while (node != null)
+        {
+            if (node.time > time)
+            {
+                result = node;
+                node = node.left;
+            }
+            else {
+                node = node.right;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the segments ending at the events of a subtree, in time order
+     */
+    private static void collect(Node node, long[] current, ArrayList result)
+    {
+        if (node == null) {
+            return;
+        }
+
+        collect(node.left, current, result);
+        if (node.delta != 0)
+        {
+            long[] segment = { current[0], node.time, current[2] };
+            result.add(segment);
+            current[0] = node.time;
+            current[2] += node.delta;
+        }
+        collect(node.right, current, result);
+    }
+
+    /** Gets the total change of a subtree */
+    private static int sum(Node node)
+    {
+        if (node == null) {
+            return 0;
+        }
+        return node.sum;
+    }
+
+    /**
+     * An event in the tree
+     */
+    private static class Node
+    {
+        long time;          // the event time
+        int delta;          // the change in the number of PEs in use
+        int refs;           // the number of reservations referring to it
+        int priority;       // a random priority to keep the tree balanced
+        int sum;            // the total change of this subtree
+        int maxPrefix;      // the highest number of PEs in use in this subtree
+        Node left;
+        Node right;
+
+        Node(long time, int priority)
+        {
+            this.time = time;
+            this.priority = priority;
+        }
+
+        /** Updates the total change and highest usage of this subtree */
+        void pull()
+        {
+            int leftSum = sum(left);
+            sum = leftSum + delta + sum(right);
+            maxPrefix = leftSum + delta;
+            if (left != null) {
+                maxPrefix = Math.max(maxPrefix, left.maxPrefix);
+            }
+
+            if (right != null) {
+                maxPrefix = Math.max(maxPrefix, leftSum+delta+right.maxPrefix);
+            }
+        }
+    }
+
+}
+
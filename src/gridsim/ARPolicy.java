@@ -50,6 +50,7 @@ public abstract class ARPolicy extends AllocPolicy
     private static final int TAG_SIZE = 6;
     private final int[] timeArray_ = {1, 5, 10, 15, 30, 45};  // time interval
     private int[] tagArray_;
+    private ArrayList batchReply_;  // replies collected during a batch
 
     ///////////////////// ABSTRACT METHODS ////////////////////////////////
 
@@ -293,6 +294,7 @@ public abstract class ARPolicy extends AllocPolicy
     protected ARPolicy(String resourceName, String entityName) throws Exception
     {
         super(resourceName, entityName);
+        batchReply_ = null;
 
         // size = 3 * Time interval to store tags for sec, min and hour
         tagArray_ = new int[TAG_SIZE + TAG_SIZE + TAG_SIZE];
@@ -325,6 +327,13 @@ public abstract class ARPolicy extends AllocPolicy
         sendArray[1] = reservID;     // reservation id
         sendArray[2] = expiryTime;   // expiry time
 
+        // during a batch, the result is sent later together with the others
+        if (batchReply_ != null)
+        {
+            batchReply_.add(sendArray);
+            return;
+        }
+
         int size = (3*8) + 6;  // 3 longs * 8 bytes + overheads
         super.sim_schedule(super.outputPort_, 0, GridSimTags.RETURN_AR_CREATE,
                            new IO_data(sendArray, size, destID) );
@@ -347,6 +356,13 @@ public abstract class ARPolicy extends AllocPolicy
         array[0] = tag - GridSimTags.RETURN_AR_CANCEL;   // transaction ID
         array[1] = result;          // outcome of this functionality
 
+        // during a batch, the result is sent later together with the others
+        if (batchReply_ != null)
+        {
+            batchReply_.add(array);
+            return;
+        }
+
         // for cancel, just send the tag result
         super.sim_schedule(super.outputPort_, 0, GridSimTags.RETURN_AR_CANCEL,
                            new IO_data(array, SIZE, destID) );
@@ -369,6 +385,13 @@ public abstract class ARPolicy extends AllocPolicy
         array[0] = tag - GridSimTags.RETURN_AR_COMMIT;   // transaction ID
         array[1] = result;          // outcome of this functionality
 
+        // during a batch, the result is sent later together with the others
+        if (batchReply_ != null)
+        {
+            batchReply_.add(array);
+            return;
+        }
+
         // for commit, just send the tag result, same as cancel
         super.sim_schedule(super.outputPort_, 0, GridSimTags.RETURN_AR_COMMIT,
                            new IO_data(array, SIZE, destID) );
@@ -391,6 +414,13 @@ public abstract class ARPolicy extends AllocPolicy
         array[0] = tag - GridSimTags.RETURN_AR_QUERY_STATUS;  // transaction ID
         array[1] = result;          // outcome of this functionality
 
+        // during a batch, the result is sent later together with the others
+        if (batchReply_ != null)
+        {
+            batchReply_.add(array);
+            return;
+        }
+
         // for query, just send the tag result
         super.sim_schedule(super.outputPort_, 0, GridSimTags.RETURN_AR_QUERY_STATUS,
                            new IO_data(array, SIZE, destID) );
@@ -484,6 +514,40 @@ public abstract class ARPolicy extends AllocPolicy
         }
     }
 
+    /**
+     * Starts collecting the results of create, commit, cancel and query
+     * reservation requests, instead of sending each of them back to the
+     * sender. This is used by {@link gridsim.ARGridResource} to reply to a
+     * batch of requests in a single message.
+     * @pre $none
+     * @post $none
+     * @see gridsim.ARBatch
+     */
+    void beginBatch() {
+        batchReply_ = new ArrayList();
+    }
+
+    /**
+     * Stops collecting the results of reservation requests
+     * @return a list of results. Each object inside the list is the
+     *         same array as the one sent for a single request, i.e.
+     *         <tt>long[]</tt> for creating a reservation and <tt>int[]</tt>
+     *         for the others, where <tt>array[0]</tt> is the transaction ID.
+     * @pre $none
+     * @post $result != null
+     * @see gridsim.ARBatch
+     */
+    ArrayList endBatch()
+    {
+        ArrayList result = batchReply_;
+        batchReply_ = null;
+        if (result == null) {
+            result = new ArrayList();
+        }
+
+        return result;
+    }
+
     /**
      * Gets the current time. Time is calculated from simulation init time +
      * (GridSim.clock() * MILLI_SEC), where MILLI_SEC = 1000.
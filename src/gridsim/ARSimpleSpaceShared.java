@@ -37,9 +37,15 @@ import eduni.simjava.Sim_system;
  *          will be ignored during a commit reservation phase.
  *     <li> not able to split a Gridlet to run into more than one PE if empty
  *          PEs are available.
- *     <li> not able to list busy and free time for a certain period of time.
  *     <li> not able to modify an existing reservation.
  * </ul>
+ * <p>
+ * Reservations are booked in an interval tree that keeps the maximum number
+ * of PEs in use over time, so a new reservation is admitted, and the busy or
+ * free time of a period is listed, without scanning the whole reservation
+ * list. A reservation holds its PEs from its start time up to, but not
+ * including, its end time. Hence, a reservation may start at the same time
+ * as another one finishes, which versions before 5.0 did not allow.
  *
  * @author       Anthony Sulistio
  * @since        GridSim Toolkit 3.0
@@ -61,12 +67,14 @@ public class ARSimpleSpaceShared extends ARPolicy
 
     private ArrayList reservList_;  // a new reservation list
     private ArrayList expiryList_;  // a list that contains expired reservations
+    private ARIntervalTree reservTree_; // PEs in use by reservations over time
+    private ARExpiryHeap expiryHeap_;   // reservations by their expiry time
+    private ARExpiryHeap endHeap_;      // reservations by their end time
 
     private int reservID_;          // reservation ID
     private int commitPeriod_;      // default booking/reservation commit period
     private static final int SUCCESS = 1;        // a constant to denote success
     private static final int NOT_FOUND = -1;     // a constant to denote not found
-    private static final int EMPTY = -88888888;  // a constant regarding to empty val
     private static final int EXPIRY_TIME = 2;    // a constant to denote expiry time
     private static final int PERFORM_RESERVATION = 3;   // a constant
 
@@ -425,7 +433,7 @@ public class ARSimpleSpaceShared extends ARPolicy
 
         // change the status and remove the reservation
         obj.setStatus(GridSimTags.AR_STATUS_CANCELED);
-        reservList_.remove(obj);
+        removeReservation(obj);
         expiryList_.add(obj);
 
         // send back the result of this operation
@@ -620,11 +628,18 @@ public class ARSimpleSpaceShared extends ARPolicy
     }
 
     /**
-     * Handles a query busy time request (NOTE: <b>NOT YET SUPPORTED</b>).
+     * Handles a query busy time request.
+     * Each object inside the result list is <tt>long array[3]</tt>, with:
+     * <ul>
+     *    <li> array[0] = start time
+     *    <li> array[1] = duration time (in seconds)
+     *    <li> array[2] = number of PEs reserved during this time
+     * </ul>
      * @param from    starting period time
      * @param to      ending period time
      * @param senderID       a sender or user ID
      * @param sendTag        a tag to send to the user
+     * @param userTimeZone   the time zone of the user
      * @pre from > 0
      * @pre to > 0
      * @pre senderID > 0
@@ -633,18 +648,23 @@ public class ARSimpleSpaceShared extends ARPolicy
     public void handleQueryBusyTime(long from, long to, int senderID,
                                  int sendTag, double userTimeZone)
     {
-        System.out.println(super.get_name() +
-             ".handleQueryBusyTime(): not supported at the moment.");
-
-        super.replyTimeReservation(senderID, sendTag, null, userTimeZone);
+        ArrayList result = queryTime(from, to, true);
+        super.replyTimeReservation(senderID, sendTag, result, userTimeZone);
     }
 
     /**
-     * Handles a query free time request (NOTE: <b>NOT YET SUPPORTED</b>).
+     * Handles a query free time request.
+     * Each object inside the result list is <tt>long array[3]</tt>, with:
+     * <ul>
+     *    <li> array[0] = start time
+     *    <li> array[1] = duration time (in seconds)
+     *    <li> array[2] = number of PEs free during this time
+     * </ul>
      * @param from    starting period time
      * @param to      ending period time
      * @param senderID       a sender or user ID
      * @param sendTag        a tag to send to the user
+     * @param userTimeZone   the time zone of the user
      * @pre from > 0
      * @pre to > 0
      * @pre senderID > 0
@@ -653,10 +673,49 @@ public class ARSimpleSpaceShared extends ARPolicy
     public void handleQueryFreeTime(long from, long to, int senderID,
                                  int sendTag, double userTimeZone)
     {
-        System.out.println(super.get_name() +
-              ".handleQueryFreeTime(): not supported at the moment.");
+        ArrayList result = queryTime(from, to, false);
+        super.replyTimeReservation(senderID, sendTag, result, userTimeZone);
+    }
+
+    /**
+     * Lists the busy or free time of a period of time
+     * @param from    starting period time
+     * @param to      ending period time
+     * @param busy    <tt>true</tt> for the busy time, <tt>false</tt> for the
+     *                free time
+     * @return a list of <tt>long array[3]</tt> or <tt>null</tt> if the
+     *         period is invalid
+     * @pre $none
+     * @post $none
+     */
+    private ArrayList queryTime(long from, long to, boolean busy)
+    {
+        if (from >= to) {
+            return null;
+        }
+
+        ArrayList result = new ArrayList();
+        Iterator it = reservTree_.getUsage(from, to).iterator();
+        while ( it.hasNext() )
+        {
+            long[] segment = (long[]) it.next();
+            long numPE = segment[2];
+            if (!busy) {
+                numPE = super.totalPE_ - segment[2];
+            }
+
+            if (numPE <= 0) {
+                continue;
+            }
+
+            long[] array = new long[3];
+            array[0] = segment[0];
+            array[1] = (segment[1] - segment[0]) / MILLI_SEC;
+            array[2] = numPE;
+            result.add(array);
+        }
 
-        super.replyTimeReservation(senderID, sendTag, null, userTimeZone);
+        return result;
     }
 
     /**
@@ -746,7 +805,7 @@ public class ARSimpleSpaceShared extends ARPolicy
 
             // move the reservation from reservation list into expired list
             expiryList_.add(ar);
-            reservList_.remove(ar);
+            removeReservation(ar);
             return GridSimTags.AR_COMMIT_FAIL_EXPIRED;
         }
 
@@ -759,7 +818,7 @@ public class ARSimpleSpaceShared extends ARPolicy
 
             // move the reservation from reservation list into expired list
             expiryList_.add(ar);
-            reservList_.remove(ar);
+            removeReservation(ar);
             return GridSimTags.AR_COMMIT_FAIL_EXPIRED;
         }
 
@@ -1133,6 +1192,9 @@ public class ARSimpleSpaceShared extends ARPolicy
                 gridletQueueList_.clear();
                 gridletWaitingList_.clear();
                 reservList_.clear();
+                reservTree_.clear();
+                expiryHeap_.clear();
+                endHeap_.clear();
                 break;
             }
 
@@ -1148,6 +1210,7 @@ public class ARSimpleSpaceShared extends ARPolicy
                 ev.get_tag() == PERFORM_RESERVATION)
             {
                 performReservation();
+                super.notifyFreePE();
                 continue;
             }
 
@@ -1159,6 +1222,7 @@ public class ARSimpleSpaceShared extends ARPolicy
 
                 // periodically need to check reservations
                 performReservation();
+                super.notifyFreePE();
             }
         }
 
@@ -1577,6 +1641,9 @@ public class ARSimpleSpaceShared extends ARPolicy
         reservID_ = 1;
         reservList_ = new ArrayList();
         expiryList_ = new ArrayList();
+        reservTree_ = new ARIntervalTree();
+        expiryHeap_ = new ARExpiryHeap();
+        endHeap_ = new ARExpiryHeap();
 
         // initialises local data structure
         this.gridletInExecList_ = new ResGridletList();
@@ -1598,45 +1665,107 @@ public class ARSimpleSpaceShared extends ARPolicy
         long currentTime = super.getCurrentTime();   // get current time
         ARObject obj = null;
 
-        try
+        // checks whether a reservation has been committed before the
+        // expiry time or not
+        while (expiryHeap_.peekTime() <= currentTime)
         {
-            long endTime = 0;
+            obj = expiryHeap_.poll();
 
-            // a loop that checks a reservation has been committed before the
-            // expiry time or not
-            for (int i = 0; i < reservList_.size(); i++)
-            {
-                if (reservList_.size() == 0) {
-                    break;
-                }
+            // skip reservations that have been removed or committed
+            if (!reservTree_.contains(obj) || obj.hasCommitted()) {
+                continue;
+            }
 
-                obj = (ARObject) reservList_.get(i);
+            obj.setStatus(GridSimTags.AR_STATUS_EXPIRED);
+            expiryList_.add(obj);
+            removeReservation(obj);
+        }
 
-                // check for expiry time
-                if (obj.hasCommitted() == false &&
-                    obj.getExpiryTime() <= currentTime)
-                {
-                    obj.setStatus(GridSimTags.AR_STATUS_EXPIRED);
-                    expiryList_.add(obj);
-                    reservList_.remove(obj);
-                    continue;
-                }
+        // if no Gridlets executed and time has already gone
+        // then remove it from the list. Reservations that still have Gridlets
+        // are removed once their last Gridlet has finished.
+        while (endHeap_.peekTime() <= currentTime)
+        {
+            obj = endHeap_.poll();
+            if (!reservTree_.contains(obj) || obj.getTotalGridlet() > 0) {
+                continue;
+            }
 
-                // if no Gridlets executed or time has already gone
-                // then remove it from the list
-                endTime = obj.getStartTime()+(obj.getDurationTime()*MILLI_SEC);
-                if (obj.getTotalGridlet() == 0 && endTime <= currentTime)
-                {
-                    obj.setStatus(GridSimTags.AR_STATUS_COMPLETED);
-                    expiryList_.add(obj);
-                    reservList_.remove(obj);
-                    continue;
-                }
+            obj.setStatus(GridSimTags.AR_STATUS_COMPLETED);
+            expiryList_.add(obj);
+            removeReservation(obj);
+        }
+    }
+
+    /**
+     * Stores a reservation into the reservation list, the interval tree and
+     * the expiry heaps
+     * @param pos   an index or position number in the reservation list
+     * @param obj   a reservation object
+     * @pre pos >= 0
+     * @pre obj != null
+     * @post $none
+     */
+    private void bookReservation(int pos, ARObject obj)
+    {
+        long endTime = obj.getStartTime() + (obj.getDurationTime()*MILLI_SEC);
+        reservList_.add(pos, obj);
+        reservTree_.add(obj, obj.getStartTime(), endTime);
+        expiryHeap_.add(obj.getExpiryTime(), obj);
+        endHeap_.add(endTime, obj);
+    }
+
+    /**
+     * Removes a reservation from the reservation list and the interval tree.
+     * The expiry heaps skip it later.
+     * @param obj   a reservation object
+     * @pre obj != null
+     * @post $none
+     */
+    private void removeReservation(ARObject obj)
+    {
+        if (!reservTree_.remove(obj)) {
+            return;
+        }
+
+        // the list is sorted by start time, so look from the first
+        // reservation with the same start time
+        int i = findReservPosition(obj.getStartTime());
+        for (; i < reservList_.size(); i++)
+        {
+            if (reservList_.get(i) == obj)
+            {
+                reservList_.remove(i);
+                break;
             }
         }
-        catch (Exception e) {
-            // ....
+    }
+
+    /**
+     * Finds the position of the first reservation in the list that starts at
+     * or after a given time
+     * @param startTime   a reservation start time
+     * @return the position number in the reservation list
+     * @pre $none
+     * @post $result >= 0
+     */
+    private int findReservPosition(long startTime)
+    {
+        int low = 0;
+        int high = reservList_.size();
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            ARObject obj = (ARObject) reservList_.get(mid);
+            if (obj.getStartTime() < startTime) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
         }
+
+        return low;
     }
 
     /**
@@ -1665,7 +1794,7 @@ public class ARSimpleSpaceShared extends ARPolicy
         }
 
         arObj.setReservation(reservID_, expTime);   // set the id + expiry time
-        reservList_.add(pos, arObj);   // add the object into the list
+        bookReservation(pos, arObj);   // add the object into the list
 
         // convert the expiry time from local time into user's time
         expTime = AdvanceReservation.convertTimeZone(expTime,
@@ -1693,349 +1822,18 @@ public class ARSimpleSpaceShared extends ARPolicy
      */
     private int findEmptySlot(long startTime, long endTime, int numPE)
     {
-        long finishTime = 0;
-        int pos = NOT_FOUND;     // the exact position for a new obj to be put
-        int begin = NOT_FOUND;   // start interval for checking PE availability
-        int end = NOT_FOUND;     // end interval for checking PE availability
-
-        // forward increments that looking for position or index for the new
-        // reservation. Also, look for the start interval
-        ARObject obj = null;
-        Iterator iter = reservList_.iterator();
-        int i = 0;
-        while ( iter.hasNext() )
-        {
-            obj = (ARObject) iter.next();
-
-            // calculates the finish time of each reservation in the list
-            finishTime = obj.getStartTime()+(obj.getDurationTime()*MILLI_SEC);
-
-            // find exact location to store a new obj
-            // also find the start internal
-            if ( startTime <= obj.getStartTime() )
-            {
-                // set the correct position or index in the array
-                if (pos == NOT_FOUND) {
-                    pos = i;
-                }
-
-                // if start time is before both begin and finish time
-                if (begin == NOT_FOUND && startTime <= finishTime) {
-                    begin = i;
-                }
-            }
-
-            // if start time is in between begin and finish time
-            else if (begin == NOT_FOUND && startTime <= finishTime) {
-                begin = i;
-            }
-
-            // then find the end interval
-            if (obj.getStartTime() <= endTime) {
-                end = i;
-            }
-            else
-            {
-                end = i - 1;
-                break;
-            }
-
-            i++;
-        }
-
-        // if only 1 job found during the time interval, then make sure the end
-        // doesn't overlap with begin time
-        if (end == NOT_FOUND || end < begin) {
-            end = begin;
-        }
-
-        // if no position, then it will be appended at the end of the list
-        if (pos == NOT_FOUND) {
-            pos = reservList_.size();
-        }
-
-        // once a position in the list is determined, then check availability
-        int result = isAvailable(begin, end, numPE, startTime, endTime);
-        if (result < 0) {
-            pos = result;
-        }
-
-        return pos;
-    }
-
-    /**
-     * Finds how many PEs are used within the time interval as indicated by
-     * begin and end position of a list
-     * @param begin   a begin index or position in a reservation list
-     * @param end     an end index or position in a reservation list
-     * @param numPE   number of PEs required by this reservation
-     * @param startTime   reservation start time
-     * @param endTime     reservation end time
-     * @return the position number in the reservation list or a busy time tag.
-     * @pre $none
-     * @post $none
-     */
-    private int isAvailable(int begin, int end, int numPE, long startTime,
-                            long endTime)
-    {
-        // if the required slot is empty or not occupied
-        if (begin == NOT_FOUND) {
-            return SUCCESS;
-        }
-
-        ARObject obj = null;
-        long time = 0;        // a temp time
-        int result = 0;
-
-        // if the required slot only has 1 occupants or empty
-        if (begin == end)
+        // if there are not enough PEs at some point during the requested
+        // period, then approximates how long it is busy for
+        int used = reservTree_.getMaxUsage(startTime, endTime);
+        if (used + numPE > totalPE_)
         {
-            obj = (ARObject) reservList_.get(begin);
-
-            // if the slot is empty
-            if ( endTime < obj.getStartTime() ) {
-                result = SUCCESS;
-            }
-
-            // determines the total PE of existing reservation + new one
-            else if (obj.getNumPE() + numPE <= totalPE_) {
-                result = SUCCESS;
-            }
-            else
-            {
-                // if no enough PE then approximates the busy time
-                time = obj.getStartTime() +
-                       (obj.getDurationTime()*MILLI_SEC) - startTime;
-                result = approxBusyTime(time);
-            }
+            long time = reservTree_.getBusyUntil(startTime, endTime,
+                                                 totalPE_ - numPE);
+            return approxBusyTime(time - startTime);
         }
 
-        // if the required slot involves more than 1 occupants
-        else {
-            result = calculateEmptySlot(begin, end, numPE, startTime);
-        }
-
-        return result;
-    }
-
-    /**
-     * Finds how many PEs are used within the time interval as indicated by
-     * begin and end position of a list. This involves for more than 1 occupants
-     * in a slot.
-     * @param begin   a begin index or position in a reservation list
-     * @param end     an end index or position in a reservation list
-     * @param numPE   number of PEs required by this reservation
-     * @param startTime   reservation start time
-     * @return the position number in the reservation list or a busy time tag.
-     * @pre $none
-     * @post $none
-     */
-    private int calculateEmptySlot(int begin,int end,int numPE,long startTime)
-    {
-        int i = 0;
-        int NEGATIVE = -1;
-
-        // create a new array. Need to add 1 since it is start at 0
-        int[] array = new int[ (end - begin + 1) * 2];
-        int arrayIndex = 0;
-
-        // clear up the temp array
-        for (i = 0; i < array.length; i++) {
-            array[i] = EMPTY;
-        }
-
-        // do insertion sort for the start and end time of each object
-        // during the defined time interval. This basically make a histogram
-        // to determine each block.
-        ARObject obj = null;
-        long time = 0;
-        Iterator it = reservList_.iterator();
-        i = 0;
-        while ( it.hasNext() )
-        {
-            if (begin <= i && i <= end)
-            {
-                obj = (ARObject) it.next();
-                time = obj.getStartTime() + (obj.getDurationTime()*MILLI_SEC);
-
-                // skip all objects that have finished earlier than start time
-                // since the interval might include these objects
-                if (time < startTime) {
-                    continue;
-                }
-
-                // for a first occupant, insert straightaway
-                if (arrayIndex == 0)
-                {
-                    array[0] = i;
-                    array[1] = i * NEGATIVE;
-                    arrayIndex = 2;
-                }
-                // for other occupants, do insertion sort
-                else {
-                    arrayIndex = insertionSort(i, arrayIndex, array);
-                }
-            }
-
-            // exit the loop
-            if (i > end) {
-                break;
-            }
-
-            i++;
-        }
-
-        // After making a histogram, then for each block calculates how many
-        // PEs are used.
-        boolean tail = false;
-        int total = 0;
-        i = 0;
-        int end_index = NOT_FOUND;  // 1st occurrence of last index
-
-        // a loop that looking for a pattern of start - end
-        for (i = 0; i < arrayIndex; i++)
-        {
-            if (array[i] == 0 && tail == true)
-            {
-                end_index = i;
-                break;
-            }
-
-            if (array[i] < 0)
-            {
-                end_index = i;
-                break;
-            }
-
-            if (array[i] == 0 && tail == false) {
-                tail = true;
-            }
-        }
-
-        // after finding a pattern, then calculates total PEs used.
-        for (i = 0; i < end_index; i++)
-        {
-            if (array[i] == (end_index * -1)) {
-                continue;
-            }
-
-            obj = (ARObject) reservList_.get(i);
-            total += obj.getNumPE();
-        }
-
-        // if there are empty PEs, then return 1 to denote a success otherwise
-        // return a busy time tag.
-        int result = 0;
-        if (total + numPE <= totalPE_) {
-            result = 1;
-        }
-        else {
-            result = approxBusyTime(time - startTime);
-        }
-
-        return result;
-    }
-
-    /**
-     * Performs insertion sort in a given array
-     * @param pos   a number that denotes a position number in a reservation
-     *              list
-     * @param indexArray  a current index of the array
-     * @param array       an array that stores pos variable
-     * @return the latest current index of the array
-     */
-    private int insertionSort(int pos, int indexArray, int[] array)
-    {
-        ARObject obj = null;
-        ARObject newObj = null;
-
-        int begin = NOT_FOUND;
-        int end = NOT_FOUND;
-        long finishTime = 0;
-        long time = 0;
-
-        // NOTE: for insertion sort, it needs to do twice iterations for
-        // start and finish time
-        int i = 0;
-        int index = 0;
-        boolean tail = false;
-
-        // first loop for start time of a reservation
-        for (i = 0; i < indexArray; i++)
-        {
-            newObj = (ARObject) reservList_.get(pos);
-            finishTime = newObj.getStartTime() +
-                         (newObj.getDurationTime() * MILLI_SEC);
-
-            if (array[i] == EMPTY) {
-                break;
-            }
-
-            // end time
-            if (array[i] < 0 || (array[i] == 0 && tail == true) )
-            {
-                index = array[i] * -1;
-                obj = (ARObject) reservList_.get(index);
-                time = obj.getStartTime()+(obj.getDurationTime()*MILLI_SEC);
-            }
-
-            // start time
-            else {
-                obj = (ARObject) reservList_.get( array[i] );
-                time = obj.getStartTime();
-            }
-
-            // determines the exact begin position
-            if (begin == NOT_FOUND && newObj.getStartTime() < time ) {
-                begin = i;
-            }
-
-            // determines the exact end position
-            if (finishTime < time)
-            {
-                end = i;
-                break;
-            }
-
-            if (array[i] == 0 && tail == false) {
-                tail = true;
-            }
-        }
-
-        // if inserts in the beginning of the array
-        if (begin == NOT_FOUND)
-        {
-            array[indexArray] = pos;
-            array[indexArray+1] = pos * -1;
-
-            return indexArray+2;
-        }
-
-        // inserts in the middle or the end of the array
-        int inc = 2;
-        for (i = indexArray - 1; i < indexArray; i--)
-        {
-            if (end == NOT_FOUND)
-            {
-                inc = 1;
-                array[indexArray+1] = pos * -1;
-            }
-
-            array[i + inc] = array[i];
-            if (i == end)
-            {
-                inc = 1;
-                array[i + inc] = pos * -1;
-            }
-
-            if (i == begin)
-            {
-                array[i] = pos;
-                break;
-            }
-        }
-
-        return indexArray+2;
+        // the exact position for a new obj to be put
+        return findReservPosition(startTime);
     }
 
     /**
@@ -2276,11 +2074,11 @@ public class ARSimpleSpaceShared extends ARPolicy
                 long currentTime = super.getCurrentTime();
                 long endTime = obj.getStartTime() +
                                (obj.getDurationTime()*MILLI_SEC);
-                if (obj.getTotalGridlet() == 0 && currentTime > endTime)
+                if (obj.getTotalGridlet() == 0 && endTime <= currentTime)
                 {
                     obj.setStatus(GridSimTags.AR_STATUS_COMPLETED);
                     expiryList_.add(obj);
-                    reservList_.remove(obj);
+                    removeReservation(obj);
                 }
             }
         }
@@ -17,6 +17,7 @@ import gridsim.net.Link;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.Iterator;
 
 /**
@@ -1711,6 +1712,156 @@ public class AdvanceReservation extends GridSim
         return result;
     }
 
+    /**
+     * Sends a batch of reservation requests without waiting for the results.
+     * The requests for the same resource are sent in a single message, and
+     * the messages to all resources are sent at the same time.
+     * Requests that are found to be invalid before sending, e.g. because of
+     * an invalid booking ID, get their results straight away.
+     * <p>
+     * The results are collected by using {@link #pollBatch(ARBatch)} or
+     * {@link #waitBatch(ARBatch)}.
+     *
+     * @param batch   a batch of reservation requests
+     * @return <tt>true</tt> if the batch has been sent, <tt>false</tt> if
+     *         it is <tt>null</tt> or has been sent before
+     * @see gridsim.ARBatch
+     * @pre batch != null
+     * @post $none
+     */
+    public boolean submitBatch(ARBatch batch)
+    {
+        if (batch == null || batch.isSubmitted()) {
+            return false;
+        }
+
+        // prepares each request in the batch
+        for (int i = 0; i < batch.size(); i++)
+        {
+            ARBatch.Op op = batch.getOp(i);
+            switch (op.type)
+            {
+                case ARBatch.CREATE:
+                    prepareBatchCreate(batch, op);
+                    break;
+
+                case ARBatch.COMMIT:
+                    prepareBatchCommit(batch, op);
+                    break;
+
+                case ARBatch.QUERY:
+                    prepareBatchQuery(batch, op);
+                    break;
+
+                case ARBatch.CANCEL:
+                    prepareBatchCancel(batch, op);
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        // all messages of this batch share the same transaction ID
+        HashMap map = batch.getRequestMap();
+        int transID = incrementID();
+        batch.setSubmitted(transID, map.size());
+
+        // sends one message per resource
+        Iterator it = map.keySet().iterator();
+        while ( it.hasNext() )
+        {
+            Integer resID = (Integer) it.next();
+            ArrayList opList = (ArrayList) map.get(resID);
+            ArrayList requestList = new ArrayList( opList.size() );
+
+            int size = 0;
+            for (int i = 0; i < opList.size(); i++)
+            {
+                ARBatch.Op op = (ARBatch.Op) opList.get(i);
+                requestList.add(op.request);
+                if (op.type == ARBatch.CREATE) {
+                    size += ARObject.getByteSize();
+                }
+                else {
+                    size += SIZE_ARRAY;
+                }
+            }
+
+            // [0] = transID, [1] = sender ID, [2] = list of requests
+            Object[] data = new Object[3];
+            data[0] = new Integer(transID);
+            data[1] = new Integer( super.get_id() );
+            data[2] = requestList;
+
+            super.send(super.output, 0.0, GridSimTags.SEND_AR_BATCH,
+                       new IO_data(data, size, resID.intValue()) );
+        }
+
+        return true;
+    }
+
+    /**
+     * Collects the results of a batch that have arrived so far, without
+     * waiting for the rest.
+     * @param batch   a batch of reservation requests that has been sent
+     * @return <tt>true</tt> if all results have arrived, <tt>false</tt>
+     *         otherwise
+     * @see gridsim.ARBatch
+     * @see #submitBatch(ARBatch)
+     * @pre batch != null
+     * @post $none
+     */
+    public boolean pollBatch(ARBatch batch)
+    {
+        if (batch == null || !batch.isSubmitted()) {
+            return false;
+        }
+
+        FilterQueryTimeAR tag = new FilterQueryTimeAR(
+                batch.getTransactionID(), GridSimTags.RETURN_AR_BATCH);
+
+        // only takes the replies that are already waiting
+        while (batch.getPendingMessage() > 0 && super.sim_waiting(tag) > 0)
+        {
+            Sim_event ev = new Sim_event();
+            super.sim_get_next(tag, ev);
+            processBatchResult(batch, ev);
+        }
+
+        return batch.isDone();
+    }
+
+    /**
+     * Waits until all results of a batch have arrived.
+     * @param batch   a batch of reservation requests that has been sent
+     * @return <tt>true</tt> if all results have arrived, <tt>false</tt>
+     *         if the batch has not been sent
+     * @see gridsim.ARBatch
+     * @see #submitBatch(ARBatch)
+     * @pre batch != null
+     * @post $none
+     */
+    public boolean waitBatch(ARBatch batch)
+    {
+        if (batch == null || !batch.isSubmitted()) {
+            return false;
+        }
+
+        FilterQueryTimeAR tag = new FilterQueryTimeAR(
+                batch.getTransactionID(), GridSimTags.RETURN_AR_BATCH);
+
+        // waits for one reply from each resource
+        while (batch.getPendingMessage() > 0)
+        {
+            Sim_event ev = new Sim_event();
+            super.sim_get_next(tag, ev);
+            processBatchResult(batch, ev);
+        }
+
+        return batch.isDone();
+    }
+
     //////////////////////////////////// PRIVATE METHODS ////////////////////
 
     /**
@@ -1975,12 +2126,36 @@ public class AdvanceReservation extends GridSim
         Sim_event ev = new Sim_event();
         super.sim_get_next(tagObj, ev);
 
+        long[] array = null;
+        try {
+            array = (long []) ev.get_data();
+        }
+        catch (Exception e) {
+            array = null;
+        }
+
+        return processCreateResult(resID, obj, array);
+    }
+
+    /**
+     * Processes the result of a new reservation request. If the reservation
+     * has been accepted, then it is stored in the booking list.
+     * @param resID    a resource ID
+     * @param obj      the reservation object sent to the resource
+     * @param array    the result sent back by the resource, where
+     *                 [0] = transaction ID, [1] = reservation ID or an error
+     *                 tag, [2] = expiry time
+     * @return an unique booking id if successful, otherwise an error message
+     * @pre obj != null
+     * @post $result != null
+     */
+    private String processCreateResult(int resID, ARObject obj, long[] array)
+    {
         // gets the reservation id which must starts at 1 onwards ...
         // (if it is successful). 0 is used to denote a resource is empty
         int result = GridSimTags.AR_CREATE_ERROR;
         try
         {
-            long array[] = (long []) ev.get_data();
             result = (int) array[1];   // reservation id
 
             if (result > 0)
@@ -2003,6 +2178,270 @@ public class AdvanceReservation extends GridSim
         return AdvanceReservation.getCreateResult(result);
     }
 
+    /**
+     * Prepares a new reservation request of a batch
+     * @param batch   a batch of reservation requests
+     * @param op      a create reservation request
+     * @pre batch != null
+     * @pre op != null
+     * @post $none
+     */
+    private void prepareBatchCreate(ARBatch batch, ARBatch.Op op)
+    {
+        // sends an immediate reservation
+        int tag = GridSimTags.SEND_AR_CREATE;
+        boolean ar = true;
+        if (op.startTime == 0 || op.duration == 0)
+        {
+            ar = false;
+            tag = GridSimTags.SEND_AR_CREATE_IMMEDIATE;
+        }
+
+        // check all the values first
+        String errorMsg = validateValue(op.startTime, op.duration, op.numPE,
+                                        op.resID, ar);
+        if (errorMsg != null)
+        {
+            batch.setResult(op, GridSimTags.AR_CREATE_ERROR, errorMsg);
+            return;
+        }
+
+        ARObject createObj = new ARObject(super.get_id(), timeZone_);
+        createObj.setStartTime(op.startTime);
+        createObj.setDurationTime(op.duration);
+        createObj.setNumPE(op.numPE);
+        createObj.setResourceID(op.resID);
+
+        int transID = incrementID();
+        createObj.setTransactionID(transID);
+        batch.addRequest(op, op.resID, transID,
+                         createRequest(tag, createObj));
+    }
+
+    /**
+     * Prepares a commit request of a batch
+     * @param batch   a batch of reservation requests
+     * @param op      a commit reservation request
+     * @pre batch != null
+     * @pre op != null
+     * @post $none
+     */
+    private void prepareBatchCommit(ARBatch batch, ARBatch.Op op)
+    {
+        // id[0] = resID, [1] = reservID, [2] = trans ID, [3] = sender ID
+        int[] id = parseBookingID(op.bookingID);
+        if (id == null)
+        {
+            batch.setResult(op, GridSimTags.AR_COMMIT_FAIL_INVALID_BOOKING_ID,
+                            null);
+            return;
+        }
+
+        id[2] = incrementID();   // transaction id
+        id[3] = super.get_id();  // this entity or sender id
+        batch.addRequest(op, id[0], id[2],
+                createRequest(GridSimTags.SEND_AR_COMMIT_ONLY, id));
+    }
+
+    /**
+     * Prepares a query request of a batch
+     * @param batch   a batch of reservation requests
+     * @param op      a query reservation request
+     * @pre batch != null
+     * @pre op != null
+     * @post $none
+     */
+    private void prepareBatchQuery(ARBatch batch, ARBatch.Op op)
+    {
+        // id[0] = resID, [1] = reservID, [2] = trans ID, [3] = sender ID
+        int[] id = parseBookingID(op.bookingID);
+        ARObject obj = null;
+        if (id != null) {
+            obj = searchBooking(id[0], id[1]);
+        }
+
+        if (obj == null)
+        {
+            batch.setResult(op, GridSimTags.AR_STATUS_ERROR_INVALID_BOOKING_ID,
+                            null);
+            return;
+        }
+
+        // if a reservation hasn't been committed, no need to ask a resource
+        if (!obj.hasCommitted())
+        {
+            batch.setResult(op, GridSimTags.AR_STATUS_NOT_COMMITTED, null);
+            return;
+        }
+
+        id[2] = incrementID();   // transaction id
+        id[3] = super.get_id();  // this entity or sender id
+        batch.addRequest(op, id[0], id[2],
+                createRequest(GridSimTags.SEND_AR_QUERY, id));
+    }
+
+    /**
+     * Prepares a cancel request of a batch, which cancels all Gridlets of
+     * a reservation
+     * @param batch   a batch of reservation requests
+     * @param op      a cancel reservation request
+     * @pre batch != null
+     * @pre op != null
+     * @post $none
+     */
+    private void prepareBatchCancel(ARBatch batch, ARBatch.Op op)
+    {
+        // id[0] = resID, [1] = reservID, [2] = trans ID, [3] = sender ID
+        int[] id = parseBookingID(op.bookingID);
+        if (id == null)
+        {
+            batch.setResult(op, GridSimTags.AR_CANCEL_FAIL_INVALID_BOOKING_ID,
+                            null);
+            return;
+        }
+
+        int resourceID = id[0];    // get the resource ID
+        id[0] = -1;                // cancels all Gridlets
+        id[2] = incrementID();     // transaction id
+        id[3] = super.get_id();    // this entity or sender ID
+        batch.addRequest(op, resourceID, id[2],
+                createRequest(GridSimTags.SEND_AR_CANCEL, id));
+    }
+
+    /**
+     * Creates a request of a batch message
+     * @param tag    the tag of a single request
+     * @param data   the data of a single request
+     * @return an array, where [0] = tag and [1] = data
+     * @pre $none
+     * @post $result != null
+     */
+    private Object[] createRequest(int tag, Object data)
+    {
+        Object[] request = new Object[2];
+        request[0] = new Integer(tag);
+        request[1] = data;
+        return request;
+    }
+
+    /**
+     * Processes a reply message of a batch from a resource
+     * @param batch   a batch of reservation requests
+     * @param ev      a Sim_event object
+     * @pre batch != null
+     * @pre ev != null
+     * @post $none
+     */
+    private void processBatchResult(ARBatch batch, Sim_event ev)
+    {
+        batch.replyReceived();
+        int resID = -1;
+        try
+        {
+            // [0] = transID, [1] = list of results, [2] = resource ID
+            Object[] data = (Object[]) ev.get_data();
+            ArrayList list = (ArrayList) data[1];
+            resID = ( (Integer) data[2] ).intValue();
+
+            // [0] = transaction ID of each request in all results
+            for (int i = 0; i < list.size(); i++)
+            {
+                Object obj = list.get(i);
+                if (obj instanceof long[])
+                {
+                    long[] array = (long[]) obj;
+                    ARBatch.Op op = batch.findOp( (int) array[0] );
+                    if (op == null || op.done) {
+                        continue;
+                    }
+
+                    ARObject createObj = (ARObject) ((Object[]) op.request)[1];
+                    String bookingID = processCreateResult(op.resID,
+                                                           createObj, array);
+                    batch.setResult(op, (int) array[1], bookingID);
+                }
+                else
+                {
+                    int[] array = (int[]) obj;
+                    ARBatch.Op op = batch.findOp(array[0]);
+                    if (op == null || op.done) {
+                        continue;
+                    }
+
+                    batch.setResult(op, processBatchStatus(op, array[1]),
+                                    null);
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            System.out.println(super.get_name() +
+                    ": Error - can't read the result of a batch.");
+        }
+
+        // requests without any results are treated as errors
+        ArrayList opList = (ArrayList) batch.getRequestMap().get(
+                                            new Integer(resID) );
+        if (opList == null) {
+            return;
+        }
+
+        for (int i = 0; i < opList.size(); i++)
+        {
+            ARBatch.Op op = (ARBatch.Op) opList.get(i);
+            if (op.done) {
+                continue;
+            }
+
+            switch (op.type)
+            {
+                case ARBatch.CREATE:
+                    batch.setResult(op, GridSimTags.AR_CREATE_ERROR,
+                        getCreateResult(GridSimTags.AR_CREATE_ERROR) );
+                    break;
+
+                case ARBatch.COMMIT:
+                    batch.setResult(op, GridSimTags.AR_COMMIT_ERROR, null);
+                    break;
+
+                case ARBatch.QUERY:
+                    batch.setResult(op, GridSimTags.AR_STATUS_ERROR, null);
+                    break;
+
+                default:
+                    batch.setResult(op, GridSimTags.AR_CANCEL_ERROR, null);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Updates the booking list with the result of a commit, query or cancel
+     * request of a batch
+     * @param op       a request of a batch
+     * @param result   the result sent back by a resource
+     * @return the result of this request
+     * @pre op != null
+     * @post $none
+     */
+    private int processBatchStatus(ARBatch.Op op, int result)
+    {
+        int[] id = (int[]) ((Object[]) op.request)[1];
+        if (op.type == ARBatch.COMMIT) {
+            return updateCommitList(op.resID, id[1], result);
+        }
+
+        if (op.type == ARBatch.QUERY)
+        {
+            ARObject obj = searchBooking(op.resID, id[1]);
+            if (obj != null) {
+                obj.setStatus(result);   // put the latest status
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Calculates the total size of Gridlets
      * @param obj   a GridletList object
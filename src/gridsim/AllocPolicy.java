@@ -12,6 +12,7 @@ package gridsim;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedList;
 
 import eduni.simjava.Sim_entity;
 import eduni.simjava.Sim_event;
@@ -77,6 +78,10 @@ public abstract class AllocPolicy extends Sim_entity
      */
     protected long initTime_;
 
+    // entities notified when the number of free PEs changes
+    private LinkedList freePESubscribers_;
+    private int lastFreePE_;
+
     // for statistical purposes to determine the load of this scheduler
     private Accumulator accTotalLoad_;
     private boolean endSimulation_;  // denotes the end of simulation
@@ -403,6 +408,8 @@ public abstract class AllocPolicy extends Sim_entity
         endSimulation_ = false;
         totalPE_ = 0;
         accTotalLoad_ = new Accumulator();
+        freePESubscribers_ = new LinkedList();
+        lastFreePE_ = -1;
     }
 
     /**
@@ -670,6 +677,79 @@ public abstract class AllocPolicy extends Sim_entity
         return true;
     }
 
+    /**
+     * Adds an entity to be notified whenever the number of free PEs of this
+     * resource changes. The entity is notified of the current number at once.
+     * @param entityId  the entity ID
+     * @see gridsim.GridSimTags#RESOURCE_FREE_PE_CHANGED
+     * @pre entityId >= 0
+     * @post $none
+     */
+    public void subscribeFreePE(int entityId)
+    {
+        Integer id = new Integer(entityId);
+        if ( !freePESubscribers_.contains(id) ) {
+            freePESubscribers_.add(id);
+        }
+
+        lastFreePE_ = resource_.getNumFreePE();
+        sendFreePE(entityId, lastFreePE_);
+    }
+
+    /**
+     * Stops notifying an entity about the number of free PEs
+     * @param entityId  the entity ID
+     * @pre entityId >= 0
+     * @post $none
+     */
+    public void unsubscribeFreePE(int entityId) {
+        freePESubscribers_.remove( new Integer(entityId) );
+    }
+
+    /**
+     * Notifies the subscribed entities if the number of free PEs has
+     * changed since the last notification. This method is called by the
+     * resource after each event it receives, and should be called by a child
+     * class after processing each internal event that may change the
+     * status of PEs.
+     * @pre $none
+     * @post $none
+     */
+    public void notifyFreePE()
+    {
+        if (freePESubscribers_.size() == 0) {
+            return;
+        }
+
+        int numFreePE = resource_.getNumFreePE();
+        if (numFreePE == lastFreePE_) {
+            return;
+        }
+
+        lastFreePE_ = numFreePE;
+        Iterator it = freePESubscribers_.iterator();
+        while ( it.hasNext() ) {
+            sendFreePE( ((Integer) it.next()).intValue(), numFreePE );
+        }
+    }
+
+    /**
+     * Sends the number of free PEs to an entity
+     * @param entityId   the entity ID
+     * @param numFreePE  the number of free PEs
+     * @pre entityId >= 0
+     * @post $none
+     */
+    private void sendFreePE(int entityId, int numFreePE)
+    {
+        int[] array = new int[ARRAY_SIZE];
+        array[0] = resId_;
+        array[1] = numFreePE;
+        super.sim_schedule( outputPort_, GridSimTags.SCHEDULE_NOW,
+                GridSimTags.RESOURCE_FREE_PE_CHANGED,
+                new IO_data(array, 8, entityId) );
+    }
+
     /**
      * Sends an internal event to itself
      * @param time   the simulation delay time
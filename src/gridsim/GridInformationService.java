@@ -86,6 +86,7 @@ public class GridInformationService extends GridSimCore
     private LinkedList arList_;     // only for AR resources
     private LinkedList gisList_;    // list of all regional GIS
     private ArrayList netList_;     // for all network connections
+    private LinkedList subscriberList_; // entities notified of registrations
 
     /**
      * Allocates a new GridInformationService object with networked I/O ports
@@ -111,6 +112,7 @@ public class GridInformationService extends GridSimCore
         arList_ = new LinkedList();
         netList_ = new ArrayList();
         gisList_ = new LinkedList();
+        subscriberList_ = new LinkedList();
     }
 
     /**
@@ -123,6 +125,7 @@ public class GridInformationService extends GridSimCore
      *           that supports AR.
      *      <li> GridSimTags.RESOURCE_LIST
      *      <li> GridSimTags.RESOURCE_LIST_AR
+     *      <li> GridSimTags.GIS_SUBSCRIBE_REGISTRATION
      * </ul>
      * <p>
      * To process other tags apart from the above, you need to override
@@ -172,12 +175,19 @@ public class GridInformationService extends GridSimCore
                     // A resource is requesting to register.
                 case GridSimTags.REGISTER_RESOURCE:
                     resList_.add( (Integer) ev.get_data() );
+                    notifySubscribers( (Integer) ev.get_data() );
                     break;
 
                     // A resource that can support Advance Reservation
                 case GridSimTags.REGISTER_RESOURCE_AR:
                     resList_.add( (Integer) ev.get_data() );
                     arList_.add( (Integer) ev.get_data() );
+                    notifySubscribers( (Integer) ev.get_data() );
+                    break;
+
+                    // An entity wants to know when resources register
+                case GridSimTags.GIS_SUBSCRIBE_REGISTRATION:
+                    processSubscription( (Integer) ev.get_data() );
                     break;
 
                     // A Broker is requesting for a list of all resources.
@@ -391,6 +401,44 @@ public class GridInformationService extends GridSimCore
         return flag;
     }
 
+    /**
+     * Adds an entity that wants to be notified whenever a resource
+     * registers, and notifies it about the resources registered so far
+     * @param id    the entity ID
+     * @pre id != null
+     * @post $none
+     */
+    private void processSubscription(Integer id)
+    {
+        if (subscriberList_.contains(id) == true) {
+            return;
+        }
+
+        subscriberList_.add(id);
+        Iterator it = resList_.iterator();
+        while ( it.hasNext() )
+        {
+            super.send(id.intValue(), 0.0, GridSimTags.GIS_RESOURCE_REGISTERED,
+                       it.next());
+        }
+    }
+
+    /**
+     * Notifies the subscribers that a resource has registered
+     * @param resID     the resource ID
+     * @pre resID != null
+     * @post $none
+     */
+    private void notifySubscribers(Integer resID)
+    {
+        Iterator it = subscriberList_.iterator();
+        while ( it.hasNext() )
+        {
+            int id = ( (Integer) it.next() ).intValue();
+            super.send(id, 0.0, GridSimTags.GIS_RESOURCE_REGISTERED, resID);
+        }
+    }
+
     /**
      * Tells all registered entities the end of simulation
      * @pre $none
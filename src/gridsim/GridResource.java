@@ -535,6 +535,7 @@ public class GridResource extends GridSimCore
 
             // process the received event
             processEvent(ev);
+            policy_.notifyFreePE();
         }
 
         // remove I/O entities created during construction of this entity
@@ -675,6 +676,16 @@ public class GridResource extends GridSimCore
                         new IO_data(new Integer(numFreePE), SIZE, src_id) );
                 break;
 
+            case GridSimTags.RESOURCE_SUBSCRIBE_FREE_PE:
+                src_id = ( (Integer) ev.get_data() ).intValue();
+                policy_.subscribeFreePE(src_id);
+                break;
+
+            case GridSimTags.RESOURCE_UNSUBSCRIBE_FREE_PE:
+                src_id = ( (Integer) ev.get_data() ).intValue();
+                policy_.unsubscribeFreePE(src_id);
+                break;
+
                 // New Gridlet arrives
             case GridSimTags.GRIDLET_SUBMIT:
                 processGridletSubmit(ev, false);
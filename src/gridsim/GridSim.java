@@ -21,9 +21,11 @@ import gridsim.net.Link;
 import gridsim.parallel.gui.ParallelVisualizer;
 import gridsim.parallel.gui.Visualizer;
 import gridsim.parallel.gui.VisualizerAdaptor;
+import gridsim.resFailure.AvailabilityInfo;
 
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedList;
 
 /**
@@ -106,6 +108,12 @@ public class GridSim extends GridSimCore
      */
     public static final String GRIDSIM_VERSION_STRING = "5.0";
     private static Visualizer visualizer = new VisualizerAdaptor();
+
+    // characteristics of the resources queried so far, or null if not cached
+    private HashMap resCache_ = null;
+
+    // the latest number of free PEs pushed by each subscribed resource
+    private HashMap freePE_ = new HashMap();
     
     ////////////////////////////////////////////////////////////////////////
 
@@ -574,6 +582,26 @@ public class GridSim extends GridSimCore
     	}
     }
     
+    /**
+     * Sets the visualiser that receives the allocation actions performed
+     * by the entities. This is useful to run the simulation without a
+     * graphical interface, for example to record the actions with a
+     * {@link gridsim.parallel.gui.TimelineRecorder}.
+     * <b>Note</b>: This method should be called before starting
+     *              the simulation.
+     * @param visualizer the visualiser to be used, or <code>null</code>
+     *              to discard the actions
+     * @see gridsim.parallel.gui.VisualizerAdaptor
+     */
+    public static void setVisualizer(Visualizer visualizer) {
+    	if(visualizer == null) {
+    		GridSim.visualizer = new VisualizerAdaptor();
+    	}
+    	else {
+    		GridSim.visualizer = visualizer;
+    	}
+    }
+    
     /**
      * Returns a reference to the visualiser to be used.
      * @return a reference to the visualiser to be used.
@@ -1926,7 +1954,17 @@ public class GridSim extends GridSimCore
      * @pre resourceID > 0
      * @post $none
      */
-    public int getNumPE(int resourceID) {
+    public int getNumPE(int resourceID)
+    {
+        if (resCache_ != null)
+        {
+            ResourceCharacteristics res = (ResourceCharacteristics)
+                    resCache_.get( new Integer(resourceID) );
+            if (res != null) {
+                return res.getNumPE();
+            }
+        }
+
         return getResourcePE(resourceID, GridSimTags.RESOURCE_NUM_PE);
     }
 
@@ -1952,13 +1990,23 @@ public class GridSim extends GridSimCore
      * NOTE: Due to the dynamic nature of a Grid environment, the number of
      *       free PEs only reflect to the current status of a resource at the
      *       time of this request received.
+     * <br>
+     * If this entity has subscribed to the resource with
+     * {@link #subscribeFreePE(int)}, the latest number notified by the
+     * resource is returned without sending a request.
      *
      * @param resourceID  a resource ID
      * @return total number of free PE or <tt>-1</tt> if invalid resource ID
      * @pre resourceID > 0
      * @post $none
      */
-    public int getNumFreePE(int resourceID) {
+    public int getNumFreePE(int resourceID)
+    {
+        Integer id = new Integer(resourceID);
+        if ( freePE_.containsKey(id) ) {
+            return getPushedFreePE(id);
+        }
+
         return getResourcePE(resourceID, GridSimTags.RESOURCE_NUM_FREE_PE);
     }
 
@@ -2043,6 +2091,14 @@ public class GridSim extends GridSimCore
             return null;
         }
 
+        if (resCache_ != null)
+        {
+            Object obj = resCache_.get( new Integer(resourceID) );
+            if (obj != null) {
+                return (ResourceCharacteristics) obj;
+            }
+        }
+
         // Get Resource Characteristic Info: Send Request and Receive Event/Msg
         send(super.output, 0.0, GridSimTags.RESOURCE_CHARACTERISTICS,
              new IO_data( new Integer(super.get_id()), SIZE, resourceID)
@@ -2056,7 +2112,11 @@ public class GridSim extends GridSimCore
             // only look for this type of ack
             Sim_event ev = new Sim_event();
             super.sim_get_next(tag, ev);
-            return (ResourceCharacteristics) ev.get_data();
+            ResourceCharacteristics res = (ResourceCharacteristics)ev.get_data();
+            if (resCache_ != null && res != null) {
+                resCache_.put(new Integer(resourceID), res);
+            }
+            return res;
         }
         catch (Exception e) {
             System.out.println(super.get_name() +
@@ -2104,6 +2164,259 @@ public class GridSim extends GridSimCore
         return null;
     }
 
+    /**
+     * Gets the ResourceCharacteristics objects of several resources at once.
+     * The requests are sent to all resources before waiting for the replies,
+     * so this method takes a single round trip instead of one per resource.
+     * @param resourceIDs   the resource IDs
+     * @return an array with the ResourceCharacteristics object of each
+     *         resource, in the same order as the given IDs. An element is
+     *         <tt>null</tt> if the resource doesn't exist.
+     * @see #getResourceCharacteristics(int)
+     * @pre resourceIDs != null
+     * @post $result != null
+     */
+    public ResourceCharacteristics[] getResourceCharacteristics(
+                int[] resourceIDs)
+    {
+        ResourceCharacteristics[] result =
+                new ResourceCharacteristics[resourceIDs.length];
+
+        // send the requests for the resources not found in the cache
+        int pending = 0;
+        for (int i = 0; i < resourceIDs.length; i++)
+        {
+            if (!gis_.isResourceExist(resourceIDs[i])) {
+                continue;
+            }
+
+            if (resCache_ != null)
+            {
+                result[i] = (ResourceCharacteristics)
+                        resCache_.get( new Integer(resourceIDs[i]) );
+                if (result[i] != null) {
+                    continue;
+                }
+            }
+
+            send(super.output, 0.0, GridSimTags.RESOURCE_CHARACTERISTICS,
+                 new IO_data( new Integer(super.get_id()), SIZE,
+                              resourceIDs[i] )
+            );
+            pending++;
+        }
+
+        // the replies may arrive in any order
+        Sim_type_p tag = new Sim_type_p(GridSimTags.RESOURCE_CHARACTERISTICS);
+        Sim_event ev = new Sim_event();
+        while (pending > 0)
+        {
+            super.sim_get_next(tag, ev);
+            pending--;
+
+            ResourceCharacteristics res = null;
+            try {
+                res = (ResourceCharacteristics) ev.get_data();
+            }
+            catch (Exception e) {
+                System.out.println(super.get_name() +
+                        ".getResourceCharacteristics(): Exception error.");
+            }
+
+            if (res == null) {
+                continue;
+            }
+
+            if (resCache_ != null) {
+                resCache_.put(new Integer(res.getResourceID()), res);
+            }
+
+            for (int i = 0; i < resourceIDs.length; i++)
+            {
+                if (resourceIDs[i] == res.getResourceID() && result[i] == null)
+                {
+                    result[i] = res;
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Sets whether the ResourceCharacteristics objects are kept once
+     * received, so that querying the same resource again, or its number of
+     * PEs, needs no further request. As a resource sends a reference to its
+     * own object, the cached objects still reflect changes such as the
+     * status of PEs.
+     * <br>
+     * An entry is removed from the cache when
+     * {@link #processResourceNotification(Sim_event)} is given a
+     * registration or failure notification about the resource.
+     * By default, the characteristics are not cached.
+     *
+     * @param cache  <tt>true</tt> to cache the characteristics,
+     *               <tt>false</tt> to discard the cached ones
+     * @pre $none
+     * @post $none
+     */
+    public void setResourceCharacteristicsCache(boolean cache)
+    {
+        if (!cache) {
+            resCache_ = null;
+        }
+        else if (resCache_ == null) {
+            resCache_ = new HashMap();
+        }
+    }
+
+    /**
+     * Removes the cached ResourceCharacteristics object of a resource,
+     * so that it is requested again next time
+     * @param resourceID   the resource ID
+     * @pre $none
+     * @post $none
+     */
+    public void invalidateResourceCharacteristics(int resourceID)
+    {
+        if (resCache_ != null) {
+            resCache_.remove( new Integer(resourceID) );
+        }
+    }
+
+    /**
+     * Handles an event that notifies this entity about a change in a
+     * resource. A user entity should pass to this method the events it
+     * receives with one of the following tags:
+     * <ul>
+     *     <li> {@link gridsim.GridSimTags#GIS_RESOURCE_REGISTERED} and
+     *          {@link gridsim.GridSimTags#GRIDRESOURCE_STATUS_CHANGED}
+     *          remove the resource from the characteristics cache.
+     *     <li> {@link gridsim.GridSimTags#RESOURCE_FREE_PE_CHANGED}
+     *          updates the number of free PEs of a subscribed resource.
+     * </ul>
+     *
+     * @param ev   a Sim_event object
+     * @return <tt>true</tt> if the event has been handled,
+     *         <tt>false</tt> if it has a different tag
+     * @pre ev != null
+     * @post $none
+     */
+    public boolean processResourceNotification(Sim_event ev)
+    {
+        boolean result = true;
+        switch ( ev.get_tag() )
+        {
+            case GridSimTags.GIS_RESOURCE_REGISTERED:
+                invalidateResourceCharacteristics(
+                        ((Integer) ev.get_data()).intValue() );
+                break;
+
+            case GridSimTags.GRIDRESOURCE_STATUS_CHANGED:
+                invalidateResourceCharacteristics(
+                        ((AvailabilityInfo) ev.get_data()).getResID() );
+                break;
+
+            case GridSimTags.RESOURCE_FREE_PE_CHANGED:
+                storeFreePE( (int[]) ev.get_data() );
+                break;
+
+            default:
+                result = false;
+                break;
+        }
+
+        return result;
+    }
+
+    /**
+     * Asks a resource to notify this entity whenever its number of free PEs
+     * changes. Afterwards, {@link #getNumFreePE(int)} returns the latest
+     * number notified without sending a request to the resource.
+     * @param resourceID  a resource ID
+     * @return <tt>true</tt> if the request has been sent,
+     *         <tt>false</tt> if invalid resource ID
+     * @see gridsim.GridSimTags#RESOURCE_SUBSCRIBE_FREE_PE
+     * @pre resourceID > 0
+     * @post $none
+     */
+    public boolean subscribeFreePE(int resourceID)
+    {
+        if (!isResourceExist(resourceID)) {
+            return false;
+        }
+
+        Integer id = new Integer(resourceID);
+        if ( !freePE_.containsKey(id) )
+        {
+            freePE_.put(id, null);
+            super.send(super.output, 0.0,
+                    GridSimTags.RESOURCE_SUBSCRIBE_FREE_PE,
+                    new IO_data(new Integer(super.get_id()), SIZE, resourceID));
+        }
+
+        return true;
+    }
+
+    /**
+     * Stops the notifications about the number of free PEs of a resource
+     * @param resourceID  a resource ID
+     * @return <tt>true</tt> if the request has been sent,
+     *         <tt>false</tt> if this entity has not subscribed to the resource
+     * @pre resourceID > 0
+     * @post $none
+     */
+    public boolean unsubscribeFreePE(int resourceID)
+    {
+        Integer id = new Integer(resourceID);
+        if ( !freePE_.containsKey(id) ) {
+            return false;
+        }
+
+        freePE_.remove(id);
+        super.send(super.output, 0.0, GridSimTags.RESOURCE_UNSUBSCRIBE_FREE_PE,
+                new IO_data(new Integer(super.get_id()), SIZE, resourceID));
+        return true;
+    }
+
+    /**
+     * Gets the latest number of free PEs notified by a subscribed resource.
+     * The notifications already received are read first, and if the resource
+     * has not sent any yet, this method waits for the first one.
+     * @param resourceID  a resource ID
+     * @return the number of free PEs
+     * @pre resourceID != null
+     * @post $result >= 0
+     */
+    private int getPushedFreePE(Integer resourceID)
+    {
+        Sim_type_p tag = new Sim_type_p(GridSimTags.RESOURCE_FREE_PE_CHANGED);
+        Sim_event ev = new Sim_event();
+        while (freePE_.get(resourceID) == null || super.sim_waiting(tag) > 0)
+        {
+            super.sim_get_next(tag, ev);
+            storeFreePE( (int[]) ev.get_data() );
+        }
+
+        return ((Integer) freePE_.get(resourceID)).intValue();
+    }
+
+    /**
+     * Stores a number of free PEs notified by a resource, unless this entity
+     * has unsubscribed from it
+     * @param array    the resource ID and the number of free PEs
+     * @pre array != null
+     * @post $none
+     */
+    private void storeFreePE(int[] array)
+    {
+        Integer id = new Integer(array[0]);
+        if ( freePE_.containsKey(id) ) {
+            freePE_.put(id, new Integer(array[1]));
+        }
+    }
+
 
     ////////////  METHOD FOR RECORDING Statistics Information BEGIN ////////
 
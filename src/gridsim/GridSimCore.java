@@ -1072,5 +1072,62 @@ public class GridSimCore extends Sim_entity
         super.sim_schedule(destPort, delay, gridSimTag, data);
     }
 
+    /**
+     * Sends the same data to several entities. If the port leads to a
+     * packet-level {@link gridsim.net.Output} entity, a single event
+     * carrying all the destination IDs is sent to it, and the
+     * <tt>Output</tt> entity delivers the data to each destination.
+     * Otherwise, one event is sent per destination, as done by
+     * {@link #send(Sim_port, double, int, Object)}.
+     * <p>
+     * Each destination receives an <tt>IO_data</tt> object with its own ID,
+     * hence it can not tell whether the data was sent by multicast or not.
+     *
+     * @param destPort  A reference to the port to send the event out of
+     * @param delay      how long from the current simulation time the event
+     *                   should be sent.
+     *                   If delay is a negative number, then it will be
+     *                   changed to 0.0
+     * @param gridSimTag an user-defined number representing the type of
+     *                   an event/message
+     * @param data       the data object
+     * @param byteSize   the size of a data (in bytes)
+     * @param destIDs    the destination entity IDs
+     * @pre destPort != null
+     * @pre delay >= 0.0
+     * @pre byteSize >= 0
+     * @pre destIDs != null
+     * @post $none
+     * @see gridsim.IO_data#IO_data(Object, long, int[])
+     */
+    protected void multicast(Sim_port destPort, double delay, int gridSimTag,
+            Object data, long byteSize, int[] destIDs)
+    {
+        if (destPort == null || destIDs == null)
+        {
+            System.out.println(super.get_name() + ".multicast(): Error - " +
+                "destination port or IDs are null or empty.");
+            return;
+        }
+
+        // if delay is -ve, then it doesn't make sense. So resets to 0.0
+        if (delay < 0.0) {
+            delay = 0.0;
+        }
+
+        if (Sim_system.get_entity( destPort.get_dest() ) instanceof Output)
+        {
+            super.sim_schedule(destPort, delay, gridSimTag,
+                               new IO_data(data, byteSize, destIDs) );
+            return;
+        }
+
+        for (int i = 0; i < destIDs.length; i++)
+        {
+            super.sim_schedule(destPort, delay, gridSimTag,
+                               new IO_data(data, byteSize, destIDs[i]) );
+        }
+    }
+
 } 
 
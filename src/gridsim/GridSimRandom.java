@@ -10,6 +10,9 @@
 package gridsim;
 
 import java.util.Random;
+import eduni.simjava.distributions.Sim_random_engine;
+import eduni.simjava.distributions.Sim_random_obj;
+import eduni.simjava.distributions.Sim_xoshiro_engine;
 
 /**
  * GridSim Random provides static methods for incorporating randomness in data
@@ -27,6 +30,13 @@ import java.util.Random;
  * <tt>Example:</tt> to produce a random number between 18.00 and 22.00, need
  * to invoke <tt>GridSimRandom.real(20.0, 0.1, 0.1, randDouble)</tt> where
  * <tt>randDouble</tt> comes from <b>java.util.Random</b>.
+ * <p>
+ * The random numbers are produced by the same kind of engine as the SimJava
+ * generators, which is selected with
+ * {@link eduni.simjava.distributions.Sim_random_obj#set_engine_type(int)}
+ * before this class is given a seed. When the <tt>LCG</tt> engine type of
+ * earlier versions is selected, <b>java.util.Random</b> is used as before,
+ * so that older experiments give the same results.
  *
  * @author       Manzur Murshed and Rajkumar Buyya
  * @since        GridSim Toolkit 1.0
@@ -41,6 +51,7 @@ public class GridSimRandom
     private static final int MIN_VALUE = 0;
     private static final int MAX_VALUE = 1;
     private static Random random_;
+    private static Sim_random_engine engine_;   // null to use random_
 
     // Factor values for Network I/O
     private static double lessFactorIO_;
@@ -54,6 +65,7 @@ public class GridSimRandom
     static
     {
         random_ = new Random();
+        engine_ = new Sim_xoshiro_engine( System.nanoTime() );
         lessFactorIO_ = 0.0;
         moreFactorIO_ = 0.0;
         lessFactorExec_ = 0.0;
@@ -76,7 +88,7 @@ public class GridSimRandom
      * @post $none
      */
     public GridSimRandom(long seed) {
-        random_.setSeed(seed);
+        setSeed(seed);
     }
 
     /**
@@ -96,13 +108,44 @@ public class GridSimRandom
     public GridSimRandom(long seed, double lessFactorIO, double moreFactorIO,
                 double lessFactorExec, double moreFactorExec)
     {
-        random_.setSeed(seed);
+        setSeed(seed);
         lessFactorIO_ = lessFactorIO;
         moreFactorIO_ = moreFactorIO;
         lessFactorExec_ = lessFactorExec;
         moreFactorExec_ = moreFactorExec;
     }
 
+    /**
+     * Sets the seed of the random numbers. The engine producing them is
+     * created according to the current SimJava engine type.
+     * @param seed  the new seed
+     * @see eduni.simjava.distributions.Sim_random_obj#set_engine_type(int)
+     * @pre $none
+     * @post $none
+     */
+    public static void setSeed(long seed)
+    {
+        random_.setSeed(seed);
+        int type = Sim_random_obj.get_engine_type();
+        if (type == Sim_random_obj.LCG) {
+            engine_ = null;
+        }
+        else {
+            engine_ = Sim_random_obj.create_engine(type, seed);
+        }
+    }
+
+    /**
+     * Sets the engine producing the random numbers
+     * @param engine    the engine or <tt>null</tt> to use
+     *                  <b>java.util.Random</b>
+     * @pre $none
+     * @post $none
+     */
+    public static void setEngine(Sim_random_engine engine) {
+        engine_ = engine;
+    }
+
     /**
      * Sets the Network I/O and execution values
      * @param lessFactorIOValue  less factor for Network I/O
@@ -126,7 +169,7 @@ public class GridSimRandom
     }
 
     /**
-     * Gets the random int value from <b>java.util.Random</b>
+     * Gets a random int value
      * @param range the bound on the random number to be returned.
      *              The range must be positive (excluding 0).
      * @return a pseudorandom, uniformly distributed <tt>int</tt> value between
@@ -135,20 +178,36 @@ public class GridSimRandom
      * @pre range > 0
      * @post $result >= 0
      */
-    public static int intSample(int range) throws IllegalArgumentException {
-        return random_.nextInt(range);
+    public static int intSample(int range) throws IllegalArgumentException
+    {
+        if (engine_ == null) {
+            return random_.nextInt(range);
+        }
+
+        if (range <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "GridSimRandom.intSample() : Error - range must be" +
+                    " positive.");
+        }
+
+        return (int) (engine_.next_double() * range);
     }
 
     /**
-     * Gets the random double value from <b>java.util.Random</b>
+     * Gets a random double value
      * @return the next pseudorandom, uniformly distributed <tt>double</tt>
      *         value between 0.0 and 1.0 from this random number generator's
      *         sequence
      * @pre $none
      * @post $result >= 0.0 && $result <= 1.0
      */
-    public static double doubleSample() {
-        return random_.nextDouble();
+    public static double doubleSample()
+    {
+        if (engine_ == null) {
+            return random_.nextDouble();
+        }
+        return engine_.next_double();
     }
 
     /**
@@ -358,6 +358,64 @@ public class GridSimTags
     /** The polling interval for the GIS entities. */
     public static final int POLLING_TIME_GIS = BASE + 37;
 
+    /**
+     * This tag is used by an entity to ask a resource to notify it whenever
+     * the resource fails or recovers. The data is the entity ID in
+     * <tt>Integer</tt> object.
+     */
+    public static final int GRIDRESOURCE_SUBSCRIBE_FAILURE = BASE + 38;
+
+    /**
+     * This tag is used by an entity to stop receiving failure and recovery
+     * notifications from a resource. The data is the entity ID in
+     * <tt>Integer</tt> object.
+     */
+    public static final int GRIDRESOURCE_UNSUBSCRIBE_FAILURE = BASE + 39;
+
+    /**
+     * This tag is used by a resource to notify its subscribers that all of
+     * its machines have failed or that it has recovered from such a failure.
+     * The data is an <tt>AvailabilityInfo</tt> object.
+     */
+    public static final int GRIDRESOURCE_STATUS_CHANGED = BASE + 40;
+
+    /**
+     * This tag is used by an entity to ask the GIS entity to notify it
+     * whenever a resource registers, instead of polling for the list of
+     * resources. The resources registered beforehand are notified at once.
+     * The data is the entity ID in <tt>Integer</tt> object.
+     */
+    public static final int GIS_SUBSCRIBE_REGISTRATION = BASE + 41;
+
+    /**
+     * This tag is used by the GIS entity to notify its subscribers that a
+     * resource has registered. The data is the resource ID in
+     * <tt>Integer</tt> object.
+     */
+    public static final int GIS_RESOURCE_REGISTERED = BASE + 42;
+
+    /**
+     * This tag is used by an entity to ask a resource to notify it whenever
+     * the number of free PEs of the resource changes, instead of polling
+     * with {@link #RESOURCE_NUM_FREE_PE}. The current number is notified at
+     * once. The data is the entity ID in <tt>Integer</tt> object.
+     */
+    public static final int RESOURCE_SUBSCRIBE_FREE_PE = BASE + 43;
+
+    /**
+     * This tag is used by an entity to stop receiving notifications about
+     * the number of free PEs of a resource. The data is the entity ID in
+     * <tt>Integer</tt> object.
+     */
+    public static final int RESOURCE_UNSUBSCRIBE_FREE_PE = BASE + 44;
+
+    /**
+     * This tag is used by a resource to notify its subscribers that its
+     * number of free PEs has changed. The data is an <tt>int</tt> array
+     * containing the resource ID followed by the number of free PEs.
+     */
+    public static final int RESOURCE_FREE_PE_CHANGED = BASE + 45;
+
 
     ///////////////////////////////////////////////////////////////
 
@@ -417,6 +475,13 @@ public class GridSimTags
      */
     public static final int SEND_AR_MODIFY = ARBASE + 9;
 
+    /**
+     * Sends a batch of create, commit, cancel and query requests.
+     * This tag is sent by AdvanceReservation to ARGridResource class.
+     * @see gridsim.ARBatch
+     */
+    public static final int SEND_AR_BATCH = ARBASE + 56;
+
     ///////////////////////////////////////////////////////////////
 
     // Below denotes the status of a reservation during its lifetime.
@@ -689,6 +754,11 @@ public class GridSimTags
      */
     public static final int RETURN_AR_MODIFY = ARBASE + 55;
 
+    /** Denotes a return tag from GridResource to User entity
+     * for sending the results of a batch of reservation requests
+     */
+    public static final int RETURN_AR_BATCH = ARBASE + 57;
+
     ///////////////////////////////////////////////////////////////
 
     // The below tags are used in reply to
@@ -72,7 +72,6 @@ public class Gridlet
     private int numPE_;              // num of PE required to execute this job
     private int gridletID_;          // this Gridlet ID
     private int status_;             // status of this Gridlet
-    private DecimalFormat num_;      // to format the decimal number
     private double finishTime_;      // the time where this Gridlet completes
 
     // start time of executing this Gridlet.
@@ -84,8 +83,9 @@ public class Gridlet
 
     // records the transaction history for this Gridlet
     private boolean record_;         // record a history or not
-    private String newline_;
-    private StringBuffer history_;
+    private double[] history_;       // events as {time, type, arg1, arg2}
+    private int historySize_;        // number of values used in history_
+    private ArrayList<String> notes_;   // free text written into the history
     private ArrayList<Resource> resList_;
     private int index_;
 
@@ -128,6 +128,19 @@ public class Gridlet
     /** The gridlet has failed due to a resource failure */
     public static final int FAILED_RESOURCE_UNAVAILABLE = 9;
 
+    // the events recorded into the history of a Gridlet
+    private static final int HISTORY_STRIDE = 4;   // values per event
+    private static final int EVENT_CREATE = 0;
+    private static final int EVENT_USER = 1;
+    private static final int EVENT_ALLOCATE = 2;
+    private static final int EVENT_MOVE = 3;
+    private static final int EVENT_SUBMISSION = 4;
+    private static final int EVENT_EXEC_START = 5;
+    private static final int EVENT_EXEC_PARAM = 6;
+    private static final int EVENT_STATUS = 7;
+    private static final int EVENT_FINISHED_SO_FAR = 8;
+    private static final int EVENT_NOTE = 9;
+
 
     /////////////////////////////////////////////////////////////
 
@@ -208,9 +221,9 @@ public class Gridlet
         this.record_ = record;
 
         // history will be created later
-        this.num_ = null;
         this.history_ = null;
-        this.newline_ = null;
+        this.historySize_ = 0;
+        this.notes_ = null;
         
         this.growthRate = growthRate;
         this.growthFactor = growthFactor;
@@ -258,7 +271,7 @@ public class Gridlet
      * Internal class that keeps track Gridlet's movement in different
      * GridResources
      */
-    private class Resource
+    private static class Resource
     {
         /** Gridlet's submission time to a GridResource */
         double submissionTime = 0.0;
@@ -466,15 +479,31 @@ public class Gridlet
      */
     public String getGridletHistory()
     {
-        String msg = null;
         if (history_ == null) {
-            msg = "No history is recorded for Gridlet #" + gridletID_;
+            return "No history is recorded for Gridlet #" + gridletID_;
         }
-        else {
-            msg = history_.toString();
+
+        // the history is only turned into text when it is asked for
+        String newline = System.getProperty("line.separator");
+        DecimalFormat num = new DecimalFormat("#0.00#"); // 3 decimal spaces
+        StringBuffer msg = new StringBuffer(historySize_ * 16 + 200);
+        msg.append("Time below denotes the simulation time.");
+        msg.append(newline);
+        msg.append("Time (sec)       Description Gridlet #" + gridletID_);
+        msg.append(newline);
+        msg.append("------------------------------------------");
+        msg.append(newline);
+
+        for (int i = 0; i < historySize_; i += HISTORY_STRIDE)
+        {
+            msg.append( num.format(history_[i]) );
+            msg.append("   ");
+            msg.append( describe((int) history_[i+1], history_[i+2],
+                                 history_[i+3], num) );
+            msg.append(newline);
         }
 
-        return msg;
+        return msg.toString();
     }
 
     /**
@@ -548,7 +577,7 @@ public class Gridlet
         res.finishedSoFar = length;
 
         if (record_) {
-            write("Sets the length's finished so far to " + length);
+            log(EVENT_FINISHED_SO_FAR, length, 0);
         }
     }
 
@@ -573,10 +602,8 @@ public class Gridlet
     public void setUserID(int id)
     {
         userID_ = id;
-        if (record_)
-        {
-            write("Assigns the Gridlet to " + GridSim.getEntityName(id) +
-                  " (ID #" + id + ")");
+        if (record_) {
+            log(EVENT_USER, id, 0);
         }
     }
 
@@ -648,18 +675,11 @@ public class Gridlet
         // add into a list if moving to a new grid resource
         resList_.add(res);
 
-        if (index_ == -1 && record_)
-        {
-            write("Allocates this Gridlet to " + res.resourceName +
-                  " (ID #" + resourceID + ") with cost = $" + cost + "/sec");
+        if (index_ == -1 && record_) {
+            log(EVENT_ALLOCATE, 0, 0);
         }
-        else if (record_)
-        {
-            int id = resList_.get(index_).resourceId;
-            String name = resList_.get(index_).resourceName;
-            write("Moves Gridlet from " + name + " (ID #" + id + ") to " +
-                  res.resourceName + " (ID #" + resourceID +
-                  ") with cost = $" + cost + "/sec");
+        else if (record_) {
+            log(EVENT_MOVE, index_, index_ + 1);
         }
 
         index_++;  // initially, index_ = -1
@@ -681,7 +701,7 @@ public class Gridlet
         res.submissionTime = clockTime;
 
         if (record_) {
-            write( "Sets the submission time to " + num_.format(clockTime) );
+            log(EVENT_SUBMISSION, clockTime, 0);
         }
     }
 
@@ -715,7 +735,7 @@ public class Gridlet
     {
         execStartTime_ = clockTime;
         if (record_) {
-            write("Sets the execution start time to " + num_.format(clockTime));
+            log(EVENT_EXEC_START, clockTime, 0);
         }
     }
 
@@ -754,10 +774,8 @@ public class Gridlet
         res.wallClockTime = wallTime;
         res.actualCPUTime = actualTime;
 
-        if (record_)
-        {
-            write("Sets the wall clock time to "+ num_.format(wallTime)+
-                  " and the actual CPU time to " + num_.format(actualTime));
+        if (record_) {
+            log(EVENT_EXEC_PARAM, wallTime, actualTime);
         }
     }
 
@@ -786,10 +804,8 @@ public class Gridlet
             finishTime_ = GridSim.clock();
         }
 
-        if (record_)
-        {
-            String obj = "Sets Gridlet status from " + getGridletStatusString();
-            write( obj + " to " + Gridlet.getStatusString(newStatus) );
+        if (record_) {
+            log(EVENT_STATUS, status_, newStatus);
         }
 
         this.status_ = newStatus;
@@ -1169,25 +1185,119 @@ public class Gridlet
             return;
         }
 
-        if (num_ == null || history_ == null)
+        if (notes_ == null) {
+            notes_ = new ArrayList<String>(2);
+        }
+
+        notes_.add(str);
+        log(EVENT_NOTE, notes_.size() - 1, 0);
+    }
+
+    //////////////////////////// PRIVATE METHODS //////////////////////////////
+
+    /**
+     * Records an event into the history of this Gridlet. Only the event
+     * type and its arguments are kept, and they are turned into text by
+     * {@link #getGridletHistory()}.
+     * @param type   one of the EVENT_XXX constants
+     * @param arg1   the first argument of the event
+     * @param arg2   the second argument of the event
+     * @pre $none
+     * @post $none
+     */
+    private void log(int type, double arg1, double arg2)
+    {
+        double clock = GridSim.clock();
+        if (history_ == null)
         {
-            // Creates the history or transactions of this Gridlet
-            newline_ = System.getProperty("line.separator");
-            num_ = new DecimalFormat("#0.00#");   // with 3 decimal spaces
-            history_ = new StringBuffer(1000);
-            history_.append("Time below denotes the simulation time.");
-            history_.append( System.getProperty("line.separator") );
-            history_.append("Time (sec)       Description Gridlet #"+gridletID_);
-            history_.append( System.getProperty("line.separator") );
-            history_.append("------------------------------------------");
-            history_.append( System.getProperty("line.separator") );
-            history_.append( num_.format(GridSim.clock()) );
-            history_.append("   Creates Gridlet ID #" + gridletID_);
-            history_.append( System.getProperty("line.separator") );
+            // the first event creates the history of this Gridlet
+            history_ = new double[HISTORY_STRIDE * 8];
+            append(clock, EVENT_CREATE, 0, 0);
         }
 
-        history_.append( num_.format(GridSim.clock()) );
-        history_.append( "   " + str + newline_);
+        append(clock, type, arg1, arg2);
+    }
+
+    /**
+     * Adds an event at the end of the history
+     * @pre history_ != null
+     * @post $none
+     */
+    private void append(double clock, int type, double arg1, double arg2)
+    {
+        if (historySize_ + HISTORY_STRIDE > history_.length)
+        {
+            double[] temp = new double[history_.length * 2];
+            System.arraycopy(history_, 0, temp, 0, historySize_);
+            history_ = temp;
+        }
+
+        history_[historySize_++] = clock;
+        history_[historySize_++] = type;
+        history_[historySize_++] = arg1;
+        history_[historySize_++] = arg2;
+    }
+
+    /**
+     * Describes an event of the history
+     * @param type   one of the EVENT_XXX constants
+     * @param arg1   the first argument of the event
+     * @param arg2   the second argument of the event
+     * @param num    to format the time
+     * @return the description of this event
+     * @pre num != null
+     * @post $result != null
+     */
+    private String describe(int type, double arg1, double arg2,
+                            DecimalFormat num)
+    {
+        Resource res = null;
+        Resource from = null;
+        switch (type)
+        {
+            case EVENT_CREATE:
+                return "Creates Gridlet ID #" + gridletID_;
+
+            case EVENT_USER:
+                return "Assigns the Gridlet to " +
+                       GridSim.getEntityName((int) arg1) +
+                       " (ID #" + (int) arg1 + ")";
+
+            case EVENT_ALLOCATE:
+                res = resList_.get((int) arg1);
+                return "Allocates this Gridlet to " + res.resourceName +
+                       " (ID #" + res.resourceId + ") with cost = $" +
+                       res.costPerSec + "/sec";
+
+            case EVENT_MOVE:
+                from = resList_.get((int) arg1);
+                res = resList_.get((int) arg2);
+                return "Moves Gridlet from " + from.resourceName + " (ID #" +
+                       from.resourceId + ") to " + res.resourceName +
+                       " (ID #" + res.resourceId + ") with cost = $" +
+                       res.costPerSec + "/sec";
+
+            case EVENT_SUBMISSION:
+                return "Sets the submission time to " + num.format(arg1);
+
+            case EVENT_EXEC_START:
+                return "Sets the execution start time to " + num.format(arg1);
+
+            case EVENT_EXEC_PARAM:
+                return "Sets the wall clock time to " + num.format(arg1) +
+                       " and the actual CPU time to " + num.format(arg2);
+
+            case EVENT_STATUS:
+                return "Sets Gridlet status from " +
+                       Gridlet.getStatusString((int) arg1) + " to " +
+                       Gridlet.getStatusString((int) arg2);
+
+            case EVENT_FINISHED_SO_FAR:
+                return "Sets the length's finished so far to " + arg1;
+
+            default:
+                return notes_.get((int) arg1);
+        }
     }
     
     
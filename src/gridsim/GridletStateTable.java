@@ -0,0 +1,252 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ */
+
+package gridsim;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * A table that keeps the final state of many Gridlets outside the Java
+ * heap. It is meant for very large workloads, where keeping every Gridlet
+ * object until the end of a simulation needs too much memory. A user entity
+ * records each Gridlet as it comes back from a resource and can then
+ * discard the Gridlet object, for example:
+ * <pre>
+ *     GridletStateTable table = new GridletStateTable(numGridlets);
+ *     for (int i = 0; i &lt; numGridlets; i++)
+ *     {
+ *         Gridlet gl = super.gridletReceive();
+ *         table.record(gl);
+ *     }
+ * </pre>
+ * Each Gridlet takes {@link #RECORD_SIZE} bytes, and it is found by its
+ * ID. Hence, Gridlet IDs should be numbered from <tt>0</tt> without big gaps,
+ * and be lower than about 53 million.
+ * <p>
+ * Recording Gridlets with <tt>record</tt> set to <tt>false</tt> avoids
+ * keeping a history for each of them as well.
+ *
+ * @see gridsim.Gridlet
+ * @invariant $none
+ */
+public class GridletStateTable
+{
+    /** The number of bytes used by each Gridlet in the table */
+    public static final int RECORD_SIZE = 40;
+
+    // the position of each value inside a record
+    private static final int STATUS = 0;        // status + 1, or 0 if empty
+    private static final int RESOURCE = 4;
+    private static final int SUBMISSION = 8;
+    private static final int EXEC_START = 16;
+    private static final int FINISH = 24;
+    private static final int COST = 32;
+
+    // a direct buffer holds at most 2 GB
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / RECORD_SIZE;
+
+    private ByteBuffer buffer_;     // the records, outside the Java heap
+    private int capacity_;          // the number of records in buffer_
+    private int size_;              // the number of Gridlets recorded
+
+
+    /**
+     * Creates a new table
+     * @param capacity  the expected number of Gridlets. The table grows
+     *                  when a larger Gridlet ID is recorded.
+     * @pre capacity > 0
+     * @post $none
+     */
+    public GridletStateTable(int capacity)
+    {
+        capacity_ = Math.min(MAX_CAPACITY, Math.max(1, capacity));
+        buffer_ = ByteBuffer.allocateDirect(capacity_ * RECORD_SIZE);
+        size_ = 0;
+    }
+
+    /**
+     * Records the current state of a Gridlet. If the same Gridlet ID has
+     * been recorded before, its state is replaced.
+     * @param gl    a Gridlet object
+     * @return <tt>true</tt> if the Gridlet has been recorded,
+     *         <tt>false</tt> otherwise
+     * @pre gl != null
+     * @post $none
+     */
+    public boolean record(Gridlet gl)
+    {
+        if (gl == null || gl.getGridletID() < 0 ||
+            gl.getGridletID() >= MAX_CAPACITY) {
+            return false;
+        }
+
+        int id = gl.getGridletID();
+        if (id >= capacity_) {
+            grow(id + 1);
+        }
+
+        int pos = id * RECORD_SIZE;
+        if (buffer_.getInt(pos + STATUS) == 0) {
+            size_++;
+        }
+
+        buffer_.putInt(pos + STATUS, gl.getGridletStatus() + 1);
+        buffer_.putInt(pos + RESOURCE, gl.getResourceID());
+        buffer_.putDouble(pos + SUBMISSION, gl.getSubmissionTime());
+        buffer_.putDouble(pos + EXEC_START, gl.getExecStartTime());
+        buffer_.putDouble(pos + FINISH, gl.getFinishTime());
+        buffer_.putDouble(pos + COST, gl.getProcessingCost());
+        return true;
+    }
+
+    /**
+     * Gets the number of Gridlets recorded
+     * @return the number of Gridlets
+     * @pre $none
+     * @post $result >= 0
+     */
+    public int size() {
+        return size_;
+    }
+
+    /**
+     * Checks whether a Gridlet has been recorded or not
+     * @param id    a Gridlet ID
+     * @return <tt>true</tt> if the Gridlet has been recorded,
+     *         <tt>false</tt> otherwise
+     * @pre $none
+     * @post $none
+     */
+    public boolean contains(int id)
+    {
+        if (id < 0 || id >= capacity_) {
+            return false;
+        }
+        return buffer_.getInt(id * RECORD_SIZE + STATUS) != 0;
+    }
+
+    /**
+     * Gets the status of a Gridlet
+     * @param id    a Gridlet ID
+     * @return the status code or <tt>-1</tt> if not recorded
+     * @see gridsim.Gridlet#getGridletStatus()
+     * @pre $none
+     * @post $result >= -1
+     */
+    public int getGridletStatus(int id)
+    {
+        if (id < 0 || id >= capacity_) {
+            return -1;
+        }
+        return buffer_.getInt(id * RECORD_SIZE + STATUS) - 1;
+    }
+
+    /**
+     * Gets the latest resource ID that processed a Gridlet
+     * @param id    a Gridlet ID
+     * @return the resource ID or <tt>-1</tt> if not recorded
+     * @see gridsim.Gridlet#getResourceID()
+     * @pre $none
+     * @post $result >= -1
+     */
+    public int getResourceID(int id)
+    {
+        if (contains(id) == false) {
+            return -1;
+        }
+        return buffer_.getInt(id * RECORD_SIZE + RESOURCE);
+    }
+
+    /**
+     * Gets the submission time of a Gridlet to its latest resource
+     * @param id    a Gridlet ID
+     * @return the submission time or <tt>0.0</tt> if not recorded
+     * @see gridsim.Gridlet#getSubmissionTime()
+     * @pre $none
+     * @post $result >= 0.0
+     */
+    public double getSubmissionTime(int id) {
+        return getDouble(id, SUBMISSION, 0.0);
+    }
+
+    /**
+     * Gets the latest execution start time of a Gridlet
+     * @param id    a Gridlet ID
+     * @return the execution start time or <tt>0.0</tt> if not recorded
+     * @see gridsim.Gridlet#getExecStartTime()
+     * @pre $none
+     * @post $result >= 0.0
+     */
+    public double getExecStartTime(int id) {
+        return getDouble(id, EXEC_START, 0.0);
+    }
+
+    /**
+     * Gets the finish time of a Gridlet
+     * @param id    a Gridlet ID
+     * @return the finish time or <tt>-1</tt> if not finished or recorded
+     * @see gridsim.Gridlet#getFinishTime()
+     * @pre $none
+     * @post $result >= -1
+     */
+    public double getFinishTime(int id) {
+        return getDouble(id, FINISH, -1.0);
+    }
+
+    /**
+     * Gets the total cost of processing a Gridlet
+     * @param id    a Gridlet ID
+     * @return the processing cost or <tt>0.0</tt> if not recorded
+     * @see gridsim.Gridlet#getProcessingCost()
+     * @pre $none
+     * @post $result >= 0.0
+     */
+    public double getProcessingCost(int id) {
+        return getDouble(id, COST, 0.0);
+    }
+
+    /**
+     * Removes all Gridlets from the table
+     * @pre $none
+     * @post $none
+     */
+    public void clear()
+    {
+        for (int i = 0; i < capacity_; i++) {
+            buffer_.putInt(i * RECORD_SIZE + STATUS, 0);
+        }
+        size_ = 0;
+    }
+
+    //////////////////////// PRIVATE METHODS ///////////////////////////
+
+    /** Gets a value of a record, or a default value if not recorded */
+    private double getDouble(int id, int offset, double empty)
+    {
+        if (contains(id) == false) {
+            return empty;
+        }
+        return buffer_.getDouble(id * RECORD_SIZE + offset);
+    }
+
+    /** Makes room for at least the given number of records */
+    private void grow(int minCapacity)
+    {
+        int capacity = (int) Math.min(MAX_CAPACITY,
+                Math.max(minCapacity, capacity_ * 2L));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+
+        buffer_.clear();
+        buffer.put(buffer_);
+        buffer_ = buffer;
+        capacity_ = capacity;
+    }
+
+}
+
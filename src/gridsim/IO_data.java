@@ -23,6 +23,7 @@ public class IO_data
     private long byteSize_;
     private int destID_;
     private int netServiceLevel_;   // used by network schedulers
+    private int[] destIDs_;         // recipients of a multicast, or null
 
 
     /**
@@ -90,6 +91,27 @@ public class IO_data
         }
     }
 
+    /**
+     * Allocates a new IO_data object to be sent to several destinations at
+     * once. The object is given to the <tt>Output</tt> entity of the sender
+     * in a single event, instead of one event per destination.
+     *
+     * @param data         the data object
+     * @param byteSize     the size of a data (in bytes)
+     * @param destIDs      the destination IDs
+     * @see gridsim.GridSimCore#multicast(eduni.simjava.Sim_port, double,
+     *      int, Object, long, int[])
+     * @pre data != null
+     * @pre byteSize >= 0
+     * @pre destIDs != null
+     * @post $none
+     */
+    public IO_data(Object data, long byteSize, int[] destIDs)
+    {
+        this(data, byteSize, -1);
+        this.destIDs_ = destIDs;
+    }
+
     /**
      * Returns the class type of this IO_data object.
      * @return the classtype
@@ -130,6 +152,17 @@ public class IO_data
         return destID_;
     }
 
+    /**
+     * Gets the destination IDs of a multicast
+     * @return the destination IDs or <tt>null</tt> if this object has a
+     *         single destination
+     * @pre $none
+     * @post $none
+     */
+    public int[] getDestIDs() {
+        return destIDs_;
+    }
+
     /**
      * Returns a human-readable information of this object
      * @return a String representation of this object
@@ -142,8 +175,16 @@ public class IO_data
         str.append(data_);
         str.append("], size = ");
         str.append(byteSize_);
-        str.append(" bytes, destination = ");
-        str.append( GridSim.getEntityName(destID_) );
+        if (destIDs_ != null)
+        {
+            str.append(" bytes, destinations = ");
+            str.append(destIDs_.length);
+        }
+        else
+        {
+            str.append(" bytes, destination = ");
+            str.append( GridSim.getEntityName(destID_) );
+        }
         str.append(", network service type = ");
         str.append(netServiceLevel_);
 
@@ -30,6 +30,16 @@ public class ResourceCalendar
     private LinkedList holidayList_;
     private final int TIME = 60;
 
+    // the load of each hour of the simulation, computed in advance so
+    // that getting the current load is only an array lookup
+    private double[] loadTimeline_;     // load for each hour
+    private boolean[] holidayTimeline_; // whether each hour is a holiday
+    private int timelineSize_;          // number of hours computed so far
+    private int timelineOffset_;        // seconds past the hour at time 0
+    private Calendar timelineCalendar_; // local time of the last hour
+    private final int HOUR_SECONDS = 3600;
+    private final int WEEK_HOURS = 168;
+
 
     // LinkedList weekend is a list of 0 = Sunday, 1 = Monday, 2 = Tuesday,
     // 3 = Wednesday, 4 = Thursday, 5 = Friday, 6 = Saturday
@@ -175,6 +185,103 @@ public class ResourceCalendar
 
             }
         } // end if
+
+        // the timeline needs the simulation start date. If GridSim.init()
+        // has not been called yet, it is created on the first lookup
+        if (GridSim.getSimulationCalendar() != null) {
+            initTimeline();
+        }
+    }
+
+    /**
+     * Creates the load timeline for the first week of the simulation.
+     * Each entry holds the load of one hour of the local time, starting
+     * from the hour in which the simulation starts.
+     * @throws NullPointerException if <tt>GridSim.init()</tt> has not been
+     *              called before
+     * @pre $none
+     * @post $none
+     */
+    private void initTimeline() throws NullPointerException
+    {
+        timelineCalendar_ = getCalendarAtSimulationTime(0);
+        timelineOffset_ = timelineCalendar_.get(Calendar.MINUTE) * TIME
+                          + timelineCalendar_.get(Calendar.SECOND);
+
+        loadTimeline_ = new double[WEEK_HOURS];
+        holidayTimeline_ = new boolean[WEEK_HOURS];
+        timelineSize_ = 0;
+        extendTimeline(WEEK_HOURS);
+    }
+
+    /**
+     * Computes the load timeline up to the given number of hours.
+     * The local time is moved one hour at a time, so day light saving
+     * changes of the simulation calendar are taken into account.
+     * @param hours     the number of hours needed
+     * @pre hours > 0
+     * @post $none
+     */
+    private void extendTimeline(int hours)
+    {
+        if (hours > loadTimeline_.length)
+        {
+            double[] load = new double[hours];
+            boolean[] holiday = new boolean[hours];
+            System.arraycopy(loadTimeline_, 0, load, 0, timelineSize_);
+            System.arraycopy(holidayTimeline_, 0, holiday, 0, timelineSize_);
+            loadTimeline_ = load;
+            holidayTimeline_ = holiday;
+        }
+
+        for (int i = timelineSize_; i < hours; i++)
+        {
+            // hour i starts at simulation time (i * 3600 - offset)
+            if (i == 1) {
+                timelineCalendar_.add(Calendar.SECOND,
+                                      HOUR_SECONDS - timelineOffset_);
+            }
+            else if (i > 1) {
+                timelineCalendar_.add(Calendar.SECOND, HOUR_SECONDS);
+            }
+
+            int hour = timelineCalendar_.get(Calendar.HOUR_OF_DAY);
+            boolean holiday = isHoliday(timelineCalendar_);
+            holidayTimeline_[i] = holiday;
+            if (holiday) {
+                loadTimeline_[i] = holidayLoad_[hour];
+            }
+            else {
+                loadTimeline_[i] = weekdayLoad_[hour];
+            }
+        }
+        timelineSize_ = hours;
+    }
+
+    /**
+     * Gets the position in the load timeline of a simulation time,
+     * extending the timeline if needed
+     * @param simulationTime    the simulation time
+     * @return the hour of the timeline
+     * @throws NullPointerException if <tt>GridSim.init()</tt> has not been
+     *              called before
+     * @pre simulationTime >= 0.0
+     * @post $result >= 0
+     */
+    private int getTimelineHour(double simulationTime)
+                throws NullPointerException
+    {
+        if (loadTimeline_ == null) {
+            initTimeline();
+        }
+
+        // like the Calendar, only whole seconds are counted
+        long hour = ((long) simulationTime + timelineOffset_) / HOUR_SECONDS;
+        if (hour >= timelineSize_) {
+            extendTimeline( (int) Math.max(hour + 1, 2L * timelineSize_) );
+        }
+
+        return (int) hour;
     }
 
     /**
@@ -192,9 +299,7 @@ public class ResourceCalendar
                 throws NullPointerException
     {
         Calendar calendar = GridSim.getSimulationCalendar();
-        Date date = GridSim.getSimulationCalendar().getTime();
-
-        if (date == null)
+        if (calendar == null)
         {
             throw new NullPointerException(
                     "ResourceCalendar.getCalendarAtSimulationTime() : Error - "+
@@ -202,9 +307,6 @@ public class ResourceCalendar
                     "GridSim entities.");
         }
 
-        // Set calendar time as the Simulation start date-time at 0:00:00 GMT
-        calendar.setTime(date);
-
         // Adjust calendar time for time zone and simulation time
         calendar.add(Calendar.MINUTE, (int) (timeZone_ * TIME));
         calendar.add(Calendar.SECOND, (int) simulationTime);
@@ -301,7 +403,21 @@ public class ResourceCalendar
      */
     public boolean isHoliday() throws NullPointerException
     {
-        Calendar myCalendar = getCurrentCalendar();
+        int hour = getTimelineHour( Sim_system.clock() );
+        return holidayTimeline_[hour];
+    }
+
+    /**
+     * Checks whether the day of a Calendar object is a holiday or a
+     * weekend
+     * @param myCalendar    the Calendar object
+     * @return <tt>true</tt> if it is a holiday, otherwise returns
+     *         <tt>false</tt>
+     * @pre myCalendar != null
+     * @post $result == true || $result == false
+     */
+    private boolean isHoliday(Calendar myCalendar)
+    {
         int day_of_year = myCalendar.get(Calendar.DAY_OF_YEAR);
         int day_of_week = myCalendar.get(Calendar.DAY_OF_WEEK);
 
@@ -369,14 +485,28 @@ public class ResourceCalendar
      * @pre $none
      * @post $result >= 0.0
      */
-    public double getCurrentLoad() throws NullPointerException
+    public double getCurrentLoad() throws NullPointerException {
+        return getLoadAtSimulationTime( Sim_system.clock() );
+    }
+
+    /**
+     * Gets the load for a specified simulation time. The load depends
+     * on the local hour of the day, and on whether it is a weekday or
+     * a holiday.
+     * @param simulationTime    the simulation time
+     * @return the load at that time
+     * @throws NullPointerException if <tt>GridSim.init()</tt> has not been
+     *              called before
+     * @see gridsim.GridSim#init(int, Calendar, boolean, String[], String[],
+     *          String)
+     * @pre simulationTime >= 0.0
+     * @post $result >= 0.0
+     */
+    public double getLoadAtSimulationTime(double simulationTime)
+                throws NullPointerException
     {
-        if ( isHoliday() ) {
-            return holidayLoad_[getCurrentCalendar().HOUR_OF_DAY];
-        }
-        else {
-            return weekdayLoad_[getCurrentCalendar().HOUR_OF_DAY];
-        }
+        int hour = getTimelineHour(simulationTime);
+        return loadTimeline_[hour];
     }
 
 } 
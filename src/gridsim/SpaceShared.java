@@ -104,6 +104,7 @@ class SpaceShared extends AllocPolicy
             {
                 updateGridletProcessing();   // update Gridlets
                 checkGridletCompletion();    // check for finished Gridlets
+                super.notifyFreePE();
             }
         }
 
@@ -128,6 +128,7 @@ class TimeShared extends AllocPolicy
             // Internal Event if the event source is this entity
             if (ev.get_src() == super.myId_) {
                 internalEvent();
+                super.notifyFreePE();
             }
         }
 
@@ -13,9 +13,9 @@ import eduni.simjava.Sim_port;
 import eduni.simjava.Sim_system;
 import gridsim.GridSim;
 import gridsim.GridSimTags;
-import gridsim.IO_data;
 
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.LinkedList;
 
 /**
@@ -315,11 +315,13 @@ public abstract class Auction extends GridSim {
 		 * It would be better to consider some FIPA's encoding schema, for example.
 		 * Please see: www.fipa.org
 		 */
+		int[] destIds = new int[nBidders];
+		Iterator it = bidders.iterator();
 		for(int i=0; i<nBidders; i++){
-			int destId = ((Integer)bidders.get(i)).intValue();
-            super.sim_schedule(this.outputPort, GridSimTags.SCHEDULE_NOW, 
-            		tag, new IO_data(msg, 100, destId));
+			destIds[i] = ((Integer)it.next()).intValue();
 		}
+		super.multicast(this.outputPort, GridSimTags.SCHEDULE_NOW,
+				tag, msg, 100, destIds);
 
 		return true;
     }
@@ -15,9 +15,7 @@ import gridsim.auction.MessageAsk;
 import gridsim.auction.MessageBid;
 import gridsim.auction.MessageCallForBids;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.Iterator;
 
 /**
  * This class represents a Continuos Double Auction. 
@@ -40,6 +38,13 @@ import java.util.LinkedList;
  *    bidder can trade at the price (price ask + price bid) / 2). 
  * 2. Otherwise, the auctioneer adds the bid in the list.
  *
+ * Asks and bids with the same price are matched in the order they
+ * arrived. The lists are kept as order books sorted by price, so each
+ * ask or bid takes a time proportional to the logarithm of the number
+ * of different prices. Asks and bids that have not been matched yet
+ * can be withdrawn with {@link #cancelAsk(MessageAsk)} and
+ * {@link #cancelBid(MessageBid)}.
+ *
  * @author       Marcos Dias de Assuncao
  * @since        GridSim Toolkit 4.0
  * @see gridsim.auction.Auction
@@ -47,10 +52,8 @@ import java.util.LinkedList;
  * @see gridsim.auction.AuctionTags
  */
 public class ContinuousDoubleAuction extends DoubleAuction {
-	private LinkedList asks;
-	private LinkedList bids;
-	private Comparator compAsks;
-	private Comparator compBids;
+	private OrderBook asks;
+	private OrderBook bids;
 	private Object syncObj = new Object();
 	
 	/**
@@ -65,10 +68,8 @@ public class ContinuousDoubleAuction extends DoubleAuction {
 			double durationOfAuction, Sim_port output ) throws Exception {
 		super(auctionName, auctioneerID,AuctionTags.CONTINUOUS_DOUBLE_AUCTION, 
 				durationOfAuction, output);
-		compAsks = new OrderAsksByPriceAsc();
-		compBids = new OrderBidsByPriceDesc();
-		asks = new LinkedList();
-		bids = new LinkedList();
+		asks = new OrderBook(false);
+		bids = new OrderBook(true);
 	}
 	
 	/**
@@ -81,10 +82,8 @@ public class ContinuousDoubleAuction extends DoubleAuction {
 			double durationOfAuction ) throws Exception {
 		super(auctionName, AuctionTags.CONTINUOUS_DOUBLE_AUCTION, 
 				durationOfAuction);
-		compAsks = new OrderAsksByPriceAsc();
-		compBids = new OrderBidsByPriceDesc();
-		asks = new LinkedList();
-		bids = new LinkedList();
+		asks = new OrderBook(false);
+		bids = new OrderBook(true);
 	}
 
 	/**
@@ -101,156 +100,82 @@ public class ContinuousDoubleAuction extends DoubleAuction {
 	 */
 	public void onStop(){
 		synchronized (syncObj) {
-			for(int i=0;i<asks.size();i++){
-				super.match((MessageAsk)asks.get(i), null, 0);
+			Iterator it = asks.toList().iterator();
+			while(it.hasNext()){
+				super.match((MessageAsk)it.next(), null, 0);
 			}
-			
-			for(int i=0;i<bids.size();i++){
-				super.match(null, (MessageBid)bids.get(i), 0);
+
+			it = bids.toList().iterator();
+			while(it.hasNext()){
+				super.match(null, (MessageBid)it.next(), 0);
 			}
-					
+
 			asks.clear();
 			bids.clear();
 		}
 	}
-	
+
 	/**
 	 * Called when a ask is sent by a provider.
 	 * @param ask the ask sent by the provider
 	 */
 	public void onReceiveAsk(MessageAsk ask){
 		synchronized (syncObj) {
-			Collections.sort(bids,compBids);
-			if(bids.size() > 0){
-				MessageBid bid = (MessageBid)bids.getFirst();
-				double priceAsk = ask.getPrice();
-				double priceBid = bid.getPrice();
-					
-				if(priceBid >= priceAsk){
-					double finalPrice = (priceAsk + priceBid) / 2;
-					super.match(ask,bid,finalPrice);
-					
-	    			bids.remove(bid);
-				}
-				else{
-					asks.add(ask);
-				}
+			MessageBid bid = (MessageBid)bids.first();
+			double priceAsk = ask.getPrice();
+
+			if(bid != null && bid.getPrice() >= priceAsk){
+				double finalPrice = (priceAsk + bid.getPrice()) / 2;
+				super.match(ask,bid,finalPrice);
+				bids.remove(bid);
 			}
 			else{
-				asks.add(ask);			
-			}			
+				asks.add(ask, priceAsk);
+			}
 		}
 	}
-	
+
 	/**
 	 * Called when a bid is received.
 	 * @param bid the bid received by the auctioneer
 	 */
 	public void onReceiveBid(MessageBid bid){
 		synchronized (syncObj) {
-			Collections.sort(asks,compAsks);
-			if(asks.size() > 0){
-				MessageAsk ask = (MessageAsk)asks.getFirst();
-				double priceAsk = ask.getPrice();
-				double priceBid = bid.getPrice();
-					
-				if(priceBid >= priceAsk){
-					double finalPrice = (priceAsk + priceBid) / 2;
-					super.match(ask, bid, finalPrice);
-	    			asks.remove(ask);
-				}
-				else{
-					bids.add(bid);
-				}
+			MessageAsk ask = (MessageAsk)asks.first();
+			double priceBid = bid.getPrice();
+
+			if(ask != null && priceBid >= ask.getPrice()){
+				double finalPrice = (ask.getPrice() + priceBid) / 2;
+				super.match(ask, bid, finalPrice);
+				asks.remove(ask);
 			}
 			else{
-				bids.add(bid);			
-			}			
+				bids.add(bid, priceBid);
+			}
 		}
 	}
 
 	/**
-	 * 
-	 * @author Marcos
-	 *
-	 * TODO To change the template for this generated type comment go to
-	 * Window - Preferences - Java - Code Style - Code Templates
+	 * Withdraws an ask that has not been matched yet
+	 * @param ask the ask to be withdrawn
+	 * @return <tt>true</tt> if the ask was withdrawn, <tt>false</tt> if
+	 * it has been matched already or was not received by the auction
 	 */
-	 class OrderAsksByPriceAsc implements Comparator
-	 {
-	 	/**
-	 	 * 
-	 	 */
-	 	public OrderAsksByPriceAsc() {
-	 		super();
-	    }
+	public boolean cancelAsk(MessageAsk ask){
+		synchronized (syncObj) {
+			return asks.remove(ask);
+		}
+	}
 
-        /* (non-Javadoc)
-         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
-         */
-        public int compare(Object a, Object b) throws ClassCastException
-	    {
-        	if(a == null){
-        		return -1;
-        	}
-        	else if(b == null){
-        		return 1;
-        	}
-        	else if(a == null && b == null ){
-        		return 0; 
-        	}
-        	else{
-            	MessageAsk aska = (MessageAsk) a;
-	            MessageAsk askb = (MessageAsk) b;
-	
-	            Double d_c1 = new Double( aska.getPrice());
-	            Double d_c2 = new Double( askb.getPrice());
-	
-	            return d_c1.compareTo(d_c2);
-        	}
-	 	}
-	 }
-	 
-	 
-	 /**
-	 * 
-	 * @author Marcos
-	 *
-	 * TODO To change the template for this generated type comment go to
-	 * Window - Preferences - Java - Code Style - Code Templates
+	/**
+	 * Withdraws a bid that has not been matched yet
+	 * @param bid the bid to be withdrawn
+	 * @return <tt>true</tt> if the bid was withdrawn, <tt>false</tt> if
+	 * it has been matched already or was not received by the auction
 	 */
-	 class OrderBidsByPriceDesc implements Comparator
-	 {
-	 	/**
-	 	 * 
-	 	 */
-	 	public OrderBidsByPriceDesc() {
-	 		super();
-	    }
-
-        /* (non-Javadoc)
-         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
-         */
-        public int compare(Object a, Object b) throws ClassCastException
-	    {
-        	if(a == null){
-        		return -1;
-        	}
-        	else if(b == null){
-        		return 1;
-        	}
-        	else if(a == null && b == null ){
-        		return 0; 
-        	}
-        	else{
-            	MessageBid bida = (MessageBid) a;
-	            MessageBid bidb = (MessageBid) b;
-	
-	            Double d_c1 = new Double( bida.getPrice());
-	            Double d_c2 = new Double( bidb.getPrice());
-	
-	            return d_c2.compareTo(d_c1);
-        	}
-	 	}
+	public boolean cancelBid(MessageBid bid){
+		synchronized (syncObj) {
+			return bids.remove(bid);
+		}
 	}
 }
@@ -0,0 +1,133 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ */
+package gridsim.auction;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.TreeMap;
+
+/**
+ * One side of the order book of a double auction. Orders are kept
+ * in price-time priority: the order with the best price comes first,
+ * and orders with the same price are kept in the order they arrived.
+ * Each price level is a FIFO queue, and the levels are kept in a
+ * sorted tree, so adding, removing and finding the first order take
+ * a time proportional to the logarithm of the number of prices.
+ *
+ * @since GridSim Toolkit 5.0
+ * @see gridsim.auction.ContinuousDoubleAuction
+ */
+class OrderBook {
+	// price (Double) -> orders at that price, by message ID
+	private TreeMap levels;
+	// message ID (Integer) -> price at which the order was added
+	private HashMap prices;
+	// true if the highest price comes first, like for bids
+	private boolean highestFirst;
+
+	/**
+	 * Constructor
+	 * @param highestFirst <tt>true</tt> if the orders with the highest
+	 * price come first, <tt>false</tt> if the lowest price comes first
+	 */
+	public OrderBook(boolean highestFirst){
+		this.highestFirst = highestFirst;
+		levels = new TreeMap();
+		prices = new HashMap();
+	}
+
+	/**
+	 * Adds an order after the other orders with the same price
+	 * @param order the order
+	 * @param price the price of the order
+	 */
+	public void add(Message order, double price){
+		Double key = new Double(price);
+		LinkedHashMap level = (LinkedHashMap)levels.get(key);
+		if(level == null){
+			level = new LinkedHashMap();
+			levels.put(key, level);
+		}
+
+		Integer id = new Integer(order.getMessageID());
+		level.put(id, order);
+		prices.put(id, key);
+	}
+
+	/**
+	 * Returns the order with the best price that arrived first
+	 * @return the order or <tt>null</tt> if the book is empty
+	 */
+	public Message first(){
+		if(levels.isEmpty()){
+			return null;
+		}
+
+		Object key = highestFirst ? levels.lastKey() : levels.firstKey();
+		LinkedHashMap level = (LinkedHashMap)levels.get(key);
+		return (Message)level.values().iterator().next();
+	}
+
+	/**
+	 * Removes an order from the book
+	 * @param order the order
+	 * @return <tt>true</tt> if the order was in the book
+	 */
+	public boolean remove(Message order){
+		Integer id = new Integer(order.getMessageID());
+		Object key = prices.remove(id);
+		if(key == null){
+			return false;
+		}
+
+		LinkedHashMap level = (LinkedHashMap)levels.get(key);
+		level.remove(id);
+		if(level.isEmpty()){
+			levels.remove(key);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of orders in the book
+	 * @return the number of orders
+	 */
+	public int size(){
+		return prices.size();
+	}
+
+	/**
+	 * Returns all orders in price-time priority
+	 * @return a list of orders
+	 */
+	public LinkedList toList(){
+		LinkedList list = new LinkedList();
+		Iterator it = levels.values().iterator();
+		while(it.hasNext()){
+			LinkedHashMap level = (LinkedHashMap)it.next();
+			if(highestFirst){
+				// the levels are visited from the lowest price
+				list.addAll(0, level.values());
+			}
+			else{
+				list.addAll(level.values());
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Removes all orders from the book
+	 */
+	public void clear(){
+		levels.clear();
+		prices.clear();
+	}
+}
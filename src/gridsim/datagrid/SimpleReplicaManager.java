@@ -12,12 +12,14 @@ package gridsim.datagrid;
 import eduni.simjava.Sim_event;
 import eduni.simjava.Sim_system;
 import gridsim.GridSimTags;
+import gridsim.Gridlet;
 import gridsim.IO_data;
 import gridsim.ParameterException;
 import gridsim.datagrid.index.AbstractRC;
 import gridsim.datagrid.storage.Storage;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -36,6 +38,10 @@ import java.util.List;
  * neccessary files to the local storage and pass the gridlet to the
  * AllocationPolicy for execution.
  * </ul>
+ * <br>
+ * Only one transfer of a file is made at a time. If a DataGridlet requires
+ * a file that is already being transferred to this resource, it waits for
+ * that transfer instead of querying the RC and requesting the file again.
  * 
  * @author Uros Cibej and Anthony Sulistio
  * @since GridSim Toolkit 4.0
@@ -54,6 +60,11 @@ public class SimpleReplicaManager extends ReplicaManager {
     // the list of all DataGridlets waiting to acquire the needed files
     private ArrayList waitingDataGridlet_;
 
+    // file name -> list of DataGridlets waiting for that file, for each file
+    // that has been requested from the RC but not delivered yet. An entry is
+    // removed when the file arrives or when the RC can not find the file.
+    private HashMap transfersInFlight_;
+
     //  -------------------INITIALIZATION-------------------------------
 
     /**
@@ -82,6 +93,7 @@ public class SimpleReplicaManager extends ReplicaManager {
         masterFilesWaitingForAddACK_ = new ArrayList();
         masterFilesWaitingForDeleteACK_ = new ArrayList();
         waitingDataGridlet_ = new ArrayList();
+        transfersInFlight_ = new HashMap();
         priorityFile_ = new ArrayList();
     }
 
@@ -871,7 +883,8 @@ public class SimpleReplicaManager extends ReplicaManager {
     /**
      * Receives a DataGridlet object.
      * In this approach, a DataGridlet requires n files. If one or more files
-     * are not available, then this RM will fetch them.
+     * are not available, then this RM will fetch them. A file that is
+     * already being fetched for another DataGridlet is not requested again.
      * Only if all files are available, then this DataGridlet is ready to
      * be executed by a resource's scheduler.
      *
@@ -896,6 +909,20 @@ public class SimpleReplicaManager extends ReplicaManager {
             if (contains(filename)) {
                 dg.deleteRequiredFile(filename); // delete from the list
             }
+            // if the file is already being transferred, then wait for it
+            else if (transfersInFlight_.containsKey(filename)) {
+                ArrayList subscribers = (ArrayList) transfersInFlight_.get(filename);
+                if (!subscribers.contains(dg)) {
+                    subscribers.add(dg);
+                }
+
+                // the QoS is only chosen when the RC replies with the file
+                // location, so if it hasn't yet the transfer can still be
+                // made with a higher QoS
+                if (serviceLevel == 1 && !isPriorityFile(filename)) {
+                    priorityFile_.add(filename);
+                }
+            }
             // if the file is not available, then make a replica request
             else {
                 // if the file should have higher QoS
@@ -903,6 +930,10 @@ public class SimpleReplicaManager extends ReplicaManager {
                     priorityFile_.add(filename);
                 }
 
+                ArrayList subscribers = new ArrayList();
+                subscribers.add(dg);
+                transfersInFlight_.put(filename, subscribers);
+
                 Object[] packet = new Object[2];
                 packet[0] = filename;
                 packet[1] = super.resIdObj_;
@@ -942,6 +973,24 @@ public class SimpleReplicaManager extends ReplicaManager {
         String filename = (String) data[0]; // get file name
         Integer resID = (Integer) data[1]; // get resource ID
 
+        // if the RC doesn't know the file, then no transfer is made and
+        // the DataGridlets waiting for it are sent back as failed
+        if (resID.intValue() == -1) {
+            priorityFile_.remove(filename);
+            System.out.println(super.get_name() +
+                ".receiveReplicaLocation(): Warning - file " + filename +
+                " is not found in the RC");
+
+            ArrayList subscribers = (ArrayList) transfersInFlight_.remove(filename);
+            if (subscribers != null) {
+                Iterator it = subscribers.iterator();
+                while (it.hasNext()) {
+                    failDataGridlet((DataGridlet) it.next());
+                }
+            }
+            return;
+        }
+
         // make a request to transfer the given filename
         Object[] packet = new Object[3];
         packet[0] = filename; // request for this file name
@@ -961,6 +1010,8 @@ public class SimpleReplicaManager extends ReplicaManager {
 
     /**
      * A requested file has been delivered by another resource.
+     * All DataGridlets waiting for this transfer are updated, and the ones
+     * that do not need any more files are submitted for execution.
      * @param file  a File object
      * @return <tt>true</tt> if this delivery has been acknowledged,
      *         <tt>false</tt> otherwise
@@ -974,9 +1025,17 @@ public class SimpleReplicaManager extends ReplicaManager {
         file.setMasterCopy(false); // set file as a replica
         addFile(file);
 
-        for (int i = 0; i < waitingDataGridlet_.size(); i++) {
-            DataGridlet dg = (DataGridlet) waitingDataGridlet_.get(i);
-            dg.deleteRequiredFile(file.getName());
+        String filename = file.getName();
+        priorityFile_.remove(filename);
+        ArrayList subscribers = (ArrayList) transfersInFlight_.remove(filename);
+        if (subscribers == null) {
+            return true;
+        }
+
+        Iterator it = subscribers.iterator();
+        while (it.hasNext()) {
+            DataGridlet dg = (DataGridlet) it.next();
+            dg.deleteRequiredFile(filename);
 
             // if a job does not need any more files
             if (!dg.requiresFiles()) {
@@ -989,6 +1048,35 @@ public class SimpleReplicaManager extends ReplicaManager {
         return true;
     }
 
+    /**
+     * Sends a waiting DataGridlet back to its user with a
+     * <tt>Gridlet.FAILED</tt> status, because one of its files can not be
+     * found. The DataGridlet also stops waiting for its other files.
+     * @param dg    a DataGridlet object
+     */
+    private void failDataGridlet(DataGridlet dg) {
+        if (!waitingDataGridlet_.remove(dg)) {
+            return; // already sent back because of another missing file
+        }
+
+        // the other transfers are still made, as the files can be used
+        // by other DataGridlets
+        Iterator it = transfersInFlight_.values().iterator();
+        while (it.hasNext()) {
+            ((ArrayList) it.next()).remove(dg);
+        }
+
+        try {
+            dg.setResourceParameter(super.resourceID_, 0);
+            dg.setGridletStatus(Gridlet.FAILED);
+        } catch (Exception e) {
+            // ignore, FAILED is a valid status
+        }
+
+        super.sim_schedule(outputPort_, 0, GridSimTags.GRIDLET_RETURN,
+                new IO_data(dg, dg.getGridletOutputSize(), dg.getUserID()));
+    }
+
     /**
      * Checks whether the given file has a higher priority or not
      * @param filename  a file name
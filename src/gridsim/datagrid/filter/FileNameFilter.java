@@ -50,5 +50,15 @@ public class FileNameFilter extends Filter {
         }
     }
 
+    /**
+     * Allows the Replica Catalogue to look up the file name prefix
+     * in its index
+     * @return an IndexablePredicate object or <tt>null</tt> if the file name
+     *         is <tt>null</tt>
+     */
+    public IndexablePredicate getIndexablePredicate() {
+        return IndexablePredicate.namePrefix(name_);
+    }
+
 } 
 
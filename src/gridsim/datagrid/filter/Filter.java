@@ -22,6 +22,10 @@ import gridsim.datagrid.FileAttribute;
  *      <li> implement the {@link #match(FileAttribute)} method for
  *           comparison
  * </ol>
+ * A filter can also override {@link #getIndexablePredicate()} to tell the
+ * Replica Catalogue which of its conditions can be answered from an index.
+ * Then only the files satisfying that condition are given to
+ * {@link #match(FileAttribute)}, instead of every registered file.
  * @author  Uros Cibej and Anthony Sulistio
  * @since   GridSim Toolkit 4.0
  * @see     gridsim.datagrid.filter.FileNameFilter
@@ -37,5 +41,16 @@ public abstract class Filter {
      */
     public abstract boolean match(FileAttribute attr);
 
+    /**
+     * Gets a condition of this filter that the Replica Catalogue can answer
+     * from its indexes. Every file accepted by {@link #match(FileAttribute)}
+     * must also satisfy this condition.
+     * By default, no condition is given and all files are checked.
+     * @return an IndexablePredicate object or <tt>null</tt> if none
+     */
+    public IndexablePredicate getIndexablePredicate() {
+        return null;
+    }
+
 } 
 
@@ -0,0 +1,149 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2006, The University of Melbourne, Australia and
+ * University of Ljubljana, Slovenia
+ */
+
+package gridsim.datagrid.filter;
+
+
+/**
+ * Describes a condition on a single file attribute that a Replica Catalogue
+ * can answer from its indexes, instead of running a
+ * {@link gridsim.datagrid.filter.Filter} over every registered file.
+ * A Filter returns an object of this class from
+ * {@link gridsim.datagrid.filter.Filter#getIndexablePredicate()}.
+ * <br>
+ * The predicate only narrows down the files that are checked. The Replica
+ * Catalogue still calls {@link gridsim.datagrid.filter.Filter#match} on each
+ * of them, so the predicate must accept every file that the filter accepts.
+ * All ranges are inclusive.
+ *
+ * @see     gridsim.datagrid.filter.Filter
+ */
+public class IndexablePredicate {
+    private int type_;          // which attribute is compared
+    private String value_;      // the name prefix or owner name
+    private long low_;          // the lowest value of a range
+    private long high_;         // the highest value of a range
+
+    /** The file name starts with a given prefix */
+    public static final int NAME_PREFIX = 0;
+
+    /** The file is owned by a given user */
+    public static final int OWNER = 1;
+
+    /** The file size (in MB) is within a given range */
+    public static final int SIZE = 2;
+
+    /** The file creation time is within a given range */
+    public static final int CREATION_TIME = 3;
+
+    /** The file is stored in a given resource */
+    public static final int RESOURCE_ID = 4;
+
+    /**
+     * Creates a new predicate
+     * @param type      the attribute type
+     * @param value     the name prefix or owner name
+     * @param low       the lowest value of a range
+     * @param high      the highest value of a range
+     */
+    private IndexablePredicate(int type, String value, long low, long high) {
+        type_ = type;
+        value_ = value;
+        low_ = low;
+        high_ = high;
+    }
+
+    /**
+     * Creates a predicate on the file name prefix
+     * @param prefix    the beginning of a file name
+     * @return a new predicate or <tt>null</tt> if the prefix is <tt>null</tt>
+     */
+    public static IndexablePredicate namePrefix(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        return new IndexablePredicate(NAME_PREFIX, prefix, 0, 0);
+    }
+
+    /**
+     * Creates a predicate on the owner name
+     * @param owner     the owner name
+     * @return a new predicate or <tt>null</tt> if the owner is <tt>null</tt>
+     */
+    public static IndexablePredicate owner(String owner) {
+        if (owner == null) {
+            return null;
+        }
+        return new IndexablePredicate(OWNER, owner, 0, 0);
+    }
+
+    /**
+     * Creates a predicate on the file size
+     * @param min   the minimum file size (in MB)
+     * @param max   the maximum file size (in MB)
+     * @return a new predicate
+     */
+    public static IndexablePredicate sizeRange(int min, int max) {
+        return new IndexablePredicate(SIZE, null, min, max);
+    }
+
+    /**
+     * Creates a predicate on the file creation time
+     * @param from  the earliest creation time
+     * @param to    the latest creation time
+     * @return a new predicate
+     */
+    public static IndexablePredicate creationTimeRange(long from, long to) {
+        return new IndexablePredicate(CREATION_TIME, null, from, to);
+    }
+
+    /**
+     * Creates a predicate on the resource storing the file
+     * @param resourceID    a resource ID
+     * @return a new predicate
+     */
+    public static IndexablePredicate resourceID(int resourceID) {
+        return new IndexablePredicate(RESOURCE_ID, null, resourceID,
+                                      resourceID);
+    }
+
+    /**
+     * Gets the attribute type of this predicate
+     * @return one of the attribute types, such as {@link #NAME_PREFIX}
+     */
+    public int getType() {
+        return type_;
+    }
+
+    /**
+     * Gets the name prefix or owner name of this predicate
+     * @return the name prefix or owner name, or <tt>null</tt> for a range
+     */
+    public String getValue() {
+        return value_;
+    }
+
+    /**
+     * Gets the lowest value of the range of this predicate
+     * @return the lowest value
+     */
+    public long getLow() {
+        return low_;
+    }
+
+    /**
+     * Gets the highest value of the range of this predicate
+     * @return the highest value
+     */
+    public long getHigh() {
+        return high_;
+    }
+
+}
+
@@ -0,0 +1,210 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2006, The University of Melbourne, Australia and
+ * University of Ljubljana, Slovenia
+ */
+
+package gridsim.datagrid.index;
+
+import java.util.*;
+
+import gridsim.datagrid.FileAttribute;
+import gridsim.datagrid.filter.IndexablePredicate;
+
+
+/**
+ * Secondary indexes over the file attributes stored in a Replica Catalogue.
+ * The files are indexed by name, owner, size, creation time and resource ID,
+ * using the attribute values at the time of registration.
+ * These indexes are used to answer the
+ * {@link gridsim.datagrid.filter.IndexablePredicate} of a filter, so that
+ * only the files satisfying it need to be matched.
+ *
+ * @see gridsim.datagrid.index.TopRegionalRC
+ */
+class FileAttributeIndex
+{
+    private TreeSet names_;         // all file names, sorted
+    private HashMap owners_;        // owner name -> set of file names
+    private TreeMap sizes_;         // file size -> set of file names
+    private TreeMap creationTimes_; // creation time -> set of file names
+    private HashMap resources_;     // resource ID -> set of file names
+    private HashMap keys_;          // file name -> the indexed values
+
+    /** Creates empty indexes */
+    FileAttributeIndex()
+    {
+        names_ = new TreeSet();
+        owners_ = new HashMap();
+        sizes_ = new TreeMap();
+        creationTimes_ = new TreeMap();
+        resources_ = new HashMap();
+        keys_ = new HashMap();
+    }
+
+    /**
+     * Adds a file into the indexes. If the file name already exists,
+     * its previous entry is replaced.
+     * @param name  the file name as registered in the catalogue
+     * @param attr  the file attribute
+     */
+    void add(String name, FileAttribute attr)
+    {
+        if (name == null || attr == null) {
+            return;
+        }
+
+        remove(name);
+        Object[] key = new Object[4];
+        key[0] = attr.getOwnerName();
+        key[1] = new Long( attr.getFileSize() );
+        key[2] = new Long( attr.getCreationTime() );
+        key[3] = new Long( attr.getResourceID() );
+        keys_.put(name, key);
+
+        names_.add(name);
+        if (key[0] != null) {
+            addEntry(owners_, key[0], name);
+        }
+        addEntry(sizes_, key[1], name);
+        addEntry(creationTimes_, key[2], name);
+        addEntry(resources_, key[3], name);
+    }
+
+    /**
+     * Removes a file from the indexes
+     * @param name  the file name as registered in the catalogue
+     */
+    void remove(String name)
+    {
+        Object[] key = (Object[]) keys_.remove(name);
+        if (key == null) {
+            return;
+        }
+
+        names_.remove(name);
+        if (key[0] != null) {
+            removeEntry(owners_, key[0], name);
+        }
+        removeEntry(sizes_, key[1], name);
+        removeEntry(creationTimes_, key[2], name);
+        removeEntry(resources_, key[3], name);
+    }
+
+    /**
+     * Finds the file names satisfying a given predicate
+     * @param p     an IndexablePredicate object
+     * @return a list of file names or <tt>null</tt> if the predicate
+     *         can not be answered by these indexes
+     */
+    List find(IndexablePredicate p)
+    {
+        if (p == null) {
+            return null;
+        }
+
+        ArrayList result = new ArrayList();
+        switch ( p.getType() )
+        {
+            case IndexablePredicate.NAME_PREFIX:
+                // all names starting with the prefix are sorted together
+                Iterator it = names_.tailSet( p.getValue() ).iterator();
+                while ( it.hasNext() )
+                {
+                    String name = (String) it.next();
+                    if (name.startsWith( p.getValue() ) == false) {
+                        break;
+                    }
+                    result.add(name);
+                }
+                break;
+
+            case IndexablePredicate.OWNER:
+                addAll(result, (Set) owners_.get( p.getValue() ));
+                break;
+
+            case IndexablePredicate.SIZE:
+                addRange(result, sizes_, p);
+                break;
+
+            case IndexablePredicate.CREATION_TIME:
+                addRange(result, creationTimes_, p);
+                break;
+
+            case IndexablePredicate.RESOURCE_ID:
+                addAll(result, (Set) resources_.get( new Long(p.getLow()) ));
+                break;
+
+            default:
+                return null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the file names of all keys within the range of a predicate
+     * @param result    the list of file names
+     * @param map       a sorted index
+     * @param p         an IndexablePredicate object with a range
+     */
+    private void addRange(List result, TreeMap map, IndexablePredicate p)
+    {
+        if (p.getLow() > p.getHigh()) {
+            return;
+        }
+
+        // the end of a sub map is exclusive
+        SortedMap range = null;
+        if (p.getHigh() == Long.MAX_VALUE) {
+            range = map.tailMap( new Long(p.getLow()) );
+        }
+        else {
+            range = map.subMap(new Long(p.getLow()), new Long(p.getHigh()+1));
+        }
+
+        Iterator it = range.values().iterator();
+        while ( it.hasNext() ) {
+            addAll(result, (Set) it.next());
+        }
+    }
+
+    /** Adds all file names of a set into a list */
+    private void addAll(List result, Set set)
+    {
+        if (set != null) {
+            result.addAll(set);
+        }
+    }
+
+    /** Adds a file name into the set of a given key */
+    private void addEntry(Map map, Object key, String name)
+    {
+        Set set = (Set) map.get(key);
+        if (set == null)
+        {
+            set = new HashSet();
+            map.put(key, set);
+        }
+        set.add(name);
+    }
+
+    /** Removes a file name from the set of a given key */
+    private void removeEntry(Map map, Object key, String name)
+    {
+        Set set = (Set) map.get(key);
+        if (set == null) {
+            return;
+        }
+
+        set.remove(name);
+        if (set.isEmpty() == true) {
+            map.remove(key);
+        }
+    }
+
+}
+
@@ -16,6 +16,7 @@ import gridsim.datagrid.*;
 import gridsim.net.Link;
 import gridsim.*;
 import gridsim.datagrid.filter.Filter;
+import gridsim.datagrid.filter.IndexablePredicate;
 
 
 /**
@@ -32,6 +33,7 @@ public class TopRegionalRC extends AbstractRC
 {
     private Hashtable catalogueHash_;   // storing replicas
     private Hashtable attrHash_;        // storing file attributes
+    private FileAttributeIndex attrIndex_;  // indexes of file attributes
     private int lastUniqueID;           //  generate a uniqueID
 
 
@@ -73,6 +75,7 @@ public class TopRegionalRC extends AbstractRC
     {
         catalogueHash_ = new Hashtable();
         attrHash_ = new Hashtable();
+        attrIndex_ = new FileAttributeIndex();
         lastUniqueID = 0;
     }
 
@@ -304,6 +307,7 @@ public class TopRegionalRC extends AbstractRC
 
             catalogueHash_.put(filename + uniqueID, list);
             attrHash_.put(filename + uniqueID, attr);
+            attrIndex_.add(filename + uniqueID, attr);
 
             /*****  // DEBUG
             System.out.println(super.get_name() +
@@ -364,6 +368,7 @@ public class TopRegionalRC extends AbstractRC
             else {
                 catalogueHash_.remove(name);    // remove from the catalogue
                 attrHash_.remove(name);
+                attrIndex_.remove(name);
             }
         }
         catch (Exception e) {
@@ -436,6 +441,10 @@ public class TopRegionalRC extends AbstractRC
      * Only the top level Replica Catalogue runs the filter accross the list
      * of all {@link gridsim.datagrid.FileAttribute}
      * All the attributes that are filtered out are sent back to the requester.
+     * <br>
+     * If the filter has an
+     * {@link gridsim.datagrid.filter.IndexablePredicate}, then only the
+     * files found by the indexes are checked.
      *
      * @param ev    a Sim_event object
      */
@@ -456,14 +465,33 @@ public class TopRegionalRC extends AbstractRC
         ArrayList list = new ArrayList();
         int size = 0;
 
-        Enumeration attributes = attrHash_.elements();
-        while ( attributes.hasMoreElements() )
+        // find the candidates from the indexes if possible
+        IndexablePredicate p = f.getIndexablePredicate();
+        List names = attrIndex_.find(p);
+        if (names != null)
         {
-            FileAttribute attrTemp = (FileAttribute) attributes.nextElement();
-            if (f.match(attrTemp) == true)
+            Iterator it = names.iterator();
+            while ( it.hasNext() )
             {
-                list.add(attrTemp);     // add this attribute into the list
-                size += attrTemp.getAttributeSize();
+                FileAttribute attrTemp = (FileAttribute) attrHash_.get(it.next());
+                if (attrTemp != null && f.match(attrTemp) == true)
+                {
+                    list.add(attrTemp);     // add this attribute into the list
+                    size += attrTemp.getAttributeSize();
+                }
+            }
+        }
+        else
+        {
+            Enumeration attributes = attrHash_.elements();
+            while ( attributes.hasMoreElements() )
+            {
+                FileAttribute attrTemp = (FileAttribute) attributes.nextElement();
+                if (f.match(attrTemp) == true)
+                {
+                    list.add(attrTemp);     // add this attribute into the list
+                    size += attrTemp.getAttributeSize();
+                }
             }
         }
 
@@ -630,6 +658,7 @@ public class TopRegionalRC extends AbstractRC
 
             catalogueHash_.put(fAttr.getName(), list);
             attrHash_.put(fAttr.getName(), fAttr);
+            attrIndex_.add(fAttr.getName(), fAttr);
         }
         return true;
     }
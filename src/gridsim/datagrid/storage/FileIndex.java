@@ -0,0 +1,297 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2006, The University of Melbourne, Australia and
+ * University of Ljubljana, Slovenia
+ */
+
+package gridsim.datagrid.storage;
+
+import gridsim.datagrid.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * An index of the files stored on a storage, in the order they are laid
+ * out on the medium. A file is found by its name in constant time, and the
+ * total size of the files from the start of the medium up to and including
+ * a file (its end offset) is found in logarithmic time, using a
+ * Fenwick tree over the file sizes.
+ * <br>
+ * Deleted files leave an empty slot, so the order of the remaining files
+ * does not change. The slots are compacted once more than half of them
+ * are empty.
+ * <br>
+ * NOTE: a file must be renamed through {@link #rename(String, String)},
+ * otherwise it can not be found by its new name.
+ *
+ * @see gridsim.datagrid.storage.HarddriveStorage
+ * @see gridsim.datagrid.storage.TapeStorage
+ */
+class FileIndex {
+
+    /** the initial number of slots */
+    private static final int INITIAL_SLOTS = 16;
+
+    /** the files in on-medium order, <tt>null</tt> for an empty slot */
+    private File[] files_;
+
+    /** the names the files are found by */
+    private String[] names_;
+
+    /** the sizes of the files at the time they were added */
+    private int[] sizes_;
+
+    /** a Fenwick tree over the sizes, where tree_[i] covers slot i-1 */
+    private long[] tree_;
+
+    /** the number of slots used, including the empty ones */
+    private int slots_;
+
+    /** the number of files stored */
+    private int count_;
+
+    /** file name -> slot */
+    private HashMap slotMap_;
+
+    /** Creates an empty index */
+    FileIndex() {
+        files_ = new File[INITIAL_SLOTS];
+        names_ = new String[INITIAL_SLOTS];
+        sizes_ = new int[INITIAL_SLOTS];
+        tree_ = new long[INITIAL_SLOTS + 1];
+        slots_ = 0;
+        count_ = 0;
+        slotMap_ = new HashMap();
+    }
+
+    /**
+     * Gets the number of files stored
+     * @return the number of files
+     */
+    int size() {
+        return count_;
+    }
+
+    /**
+     * Checks whether a file with the given name is stored
+     * @param name  a file name
+     * @return <tt>true</tt> if found, <tt>false</tt> otherwise
+     */
+    boolean contains(String name) {
+        return slotMap_.containsKey(name);
+    }
+
+    /**
+     * Gets the slot of a file
+     * @param name  a file name
+     * @return the slot or <tt>-1</tt> if not found
+     */
+    int getSlot(String name) {
+        Integer slot = (Integer) slotMap_.get(name);
+        if (slot == null) {
+            return -1;
+        }
+        return slot.intValue();
+    }
+
+    /**
+     * Gets the file in a given slot
+     * @param slot  a slot returned by {@link #getSlot(String)}
+     * @return the file
+     */
+    File getFile(int slot) {
+        return files_[slot];
+    }
+
+    /**
+     * Gets the total size of the files from the start of the medium up to
+     * and including the file in the given slot
+     * @param slot  a slot returned by {@link #getSlot(String)}
+     * @return the end offset of the file in MB
+     */
+    long getEndOffset(int slot) {
+        long result = 0;
+        for (int i = slot + 1; i > 0; i -= (i & -i)) {
+            result += tree_[i];
+        }
+        return result;
+    }
+
+    /**
+     * Adds a file after the last one on the medium
+     * @param file  the file to be added
+     */
+    void add(File file) {
+        if (slots_ == files_.length) {
+            grow();
+        }
+
+        int slot = slots_++;
+        files_[slot] = file;
+        names_[slot] = file.getName();
+        sizes_[slot] = file.getSize();
+        update(slot, sizes_[slot]);
+        slotMap_.put(names_[slot], new Integer(slot));
+        count_++;
+    }
+
+    /**
+     * Removes a file
+     * @param name  the name of the file to be removed
+     * @return the removed file or <tt>null</tt> if not found
+     */
+    File remove(String name) {
+        Integer slot = (Integer) slotMap_.remove(name);
+        if (slot == null) {
+            return null;
+        }
+
+        int i = slot.intValue();
+        File file = files_[i];
+        update(i, -sizes_[i]);
+        files_[i] = null;
+        names_[i] = null;
+        sizes_[i] = 0;
+        count_--;
+
+        // too many empty slots
+        if (slots_ > INITIAL_SLOTS && count_ < slots_ / 2) {
+            rebuild(files_.length);
+        }
+        return file;
+    }
+
+    /**
+     * Changes the name a file is found by
+     * @param oldName   the current name
+     * @param newName   the new name
+     * @return <tt>true</tt> if successful, <tt>false</tt> otherwise
+     */
+    boolean rename(String oldName, String newName) {
+        if (slotMap_.containsKey(newName)) {
+            return false;
+        }
+
+        Integer slot = (Integer) slotMap_.remove(oldName);
+        if (slot == null) {
+            return false;
+        }
+
+        slotMap_.put(newName, slot);
+        names_[slot.intValue()] = newName;
+        return true;
+    }
+
+    /**
+     * Gets the names of all files in on-medium order
+     * @return a list of file names
+     */
+    ArrayList getNameList() {
+        ArrayList list = new ArrayList(count_);
+        for (int i = 0; i < slots_; i++) {
+            if (files_[i] != null) {
+                list.add(names_[i]);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Gets an iterator over the files in on-medium order
+     * @return an iterator of File objects
+     */
+    Iterator iterator() {
+        return new Iterator() {
+            private int next_ = skip(0);
+
+            private int skip(int i) {
+                while (i < slots_ && files_[i] == null) {
+                    i++;
+                }
+                return i;
+            }
+
+            public boolean hasNext() {
+                return next_ < slots_;
+            }
+
+            public Object next() {
+                if (next_ >= slots_) {
+                    throw new NoSuchElementException();
+                }
+                File file = files_[next_];
+                next_ = skip(next_ + 1);
+                return file;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /** Adds a value to the size of a slot in the Fenwick tree */
+    private void update(int slot, int delta) {
+        for (int i = slot + 1; i < tree_.length; i += (i & -i)) {
+            tree_[i] += delta;
+        }
+    }
+
+    /** Makes room for more slots */
+    private void grow() {
+        if (slots_ - count_ >= slots_ / 4) {
+            rebuild(files_.length);     // reuse the empty slots
+        }
+        else {
+            rebuild(files_.length * 2);
+        }
+    }
+
+    /**
+     * Moves the files to the front of new arrays, keeping their order,
+     * and rebuilds the name map and the Fenwick tree
+     * @param capacity  the number of slots of the new arrays
+     */
+    private void rebuild(int capacity) {
+        File[] files = new File[capacity];
+        String[] names = new String[capacity];
+        int[] sizes = new int[capacity];
+        long[] tree = new long[capacity + 1];
+        slotMap_.clear();
+
+        int j = 0;
+        for (int i = 0; i < slots_; i++) {
+            if (files_[i] == null) {
+                continue;
+            }
+            files[j] = files_[i];
+            names[j] = names_[i];
+            sizes[j] = sizes_[i];
+            slotMap_.put(names[j], new Integer(j));
+            j++;
+        }
+
+        // build the tree in linear time
+        for (int i = 1; i <= capacity; i++) {
+            tree[i] += sizes[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+
+        files_ = files;
+        names_ = names;
+        sizes_ = sizes;
+        tree_ = tree;
+        slots_ = j;
+    }
+
+}
+
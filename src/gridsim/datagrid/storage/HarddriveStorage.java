@@ -31,11 +31,8 @@ import java.util.*;
  */
 public class HarddriveStorage implements Storage {
 
-    /** a list storing the names of all the files on the harddrive */
-    private ArrayList nameList_;
-
-    /** a list storing all the files stored on the harddrive */
-    private ArrayList fileList_;
+    /** an index of all the files stored on the harddrive, in on-disk order */
+    private FileIndex fileList_;
 
     /** the name of the harddrive*/
     private String name_;
@@ -105,8 +102,7 @@ public class HarddriveStorage implements Storage {
      * DiamonMax 10 ATA harddisk. Furthermore, the necessary lists are created.
      */
     private void init() {
-        fileList_ = new ArrayList();
-        nameList_ = new ArrayList();
+        fileList_ = new FileIndex();
         gen_ = null;
         currentSize_ = 0;
 
@@ -347,28 +343,14 @@ public class HarddriveStorage implements Storage {
             return obj;
         }
 
-        Iterator it = fileList_.iterator();
-        int size = 0;
-        int index = 0;
-        boolean found = false;
-        File tempFile = null;
-
-        // find the file in the disk
-        while (it.hasNext()) {
-            tempFile = (File) it.next();
-            size += tempFile.getSize();
-            if (tempFile.getName().equals(fileName)) {
-                found = true;
-                obj = tempFile;
-                break;
-            }
-
-            index++;
-        }
+        // find the file and its end position in the disk index
+        int index = fileList_.getSlot(fileName);
+        boolean found = (index != -1);
 
         // if the file is found, then determine the time taken to get it
         if (found) {
-            obj = (File) fileList_.get(index);
+            obj = fileList_.getFile(index);
+            int size = (int) fileList_.getEndOffset(index);
             double seekTime = getSeekTime(size);
             double transferTime = getTransferTime(obj.getSize());
 
@@ -384,7 +366,7 @@ public class HarddriveStorage implements Storage {
      * @return a LinkedList of file names
      */
     public List getFileNameList() {
-        return nameList_;
+        return fileList_.getNameList();
     }
 
     /**
@@ -481,7 +463,6 @@ public class HarddriveStorage implements Storage {
             double transferTime = getTransferTime(file.getSize());
 
             fileList_.add(file);               // add the file into the HD
-            nameList_.add(file.getName());     // add the name to the name list
             currentSize_ += file.getSize();    // increment the current HD size
             result = seekTime + transferTime;  // add total time
         }
@@ -527,20 +508,13 @@ public class HarddriveStorage implements Storage {
             return null;
         }
 
-        Iterator it = fileList_.iterator();
+        // if a file is found then delete
         File file = null;
-        while (it.hasNext()) {
-            file = (File) it.next();
-            String name = file.getName();
-
-            // if a file is found then delete
-            if (fileName.equals(name)) {
-                double result = deleteFile(file);
-                file.setTransactionTime(result);
-                break;
-            } else {
-                file = null;
-            }
+        int index = fileList_.getSlot(fileName);
+        if (index != -1) {
+            file = fileList_.getFile(index);
+            double result = deleteFile(file);
+            file.setTransactionTime(result);
         }
         return file;
     }
@@ -579,8 +553,7 @@ public class HarddriveStorage implements Storage {
 
         // check if the file is in the storage
         if (contains(file)) {
-            fileList_.remove(file);            // remove the file HD
-            nameList_.remove(file.getName());  //remove the name from name list
+            fileList_.remove(file.getName());  // remove the file HD
             currentSize_ -= file.getSize();    // decrement the current HD space
             result = seekTime + transferTime;  // total time
             file.setTransactionTime(result);
@@ -602,15 +575,7 @@ public class HarddriveStorage implements Storage {
                     + ".contains(): Warning - invalid file name");
             return result;
         }
-        // check each file in the list
-        Iterator it = nameList_.iterator();
-        while (it.hasNext()) {
-            String name = (String) it.next();
-            if (name.equals(fileName)) {
-                result = true;
-                break;
-            }
-        }
+        result = fileList_.contains(fileName);
         return result;
     }
 
@@ -650,24 +615,18 @@ public class HarddriveStorage implements Storage {
         }
 
         // replace the file name in the file (physical) list
-        File obj = getFile(file.getName());
+        String oldName = file.getName();
+        File obj = getFile(oldName);
         if (obj != null) {
             obj.setName(newName);
         } else {
             return result;
         }
 
-        // replace the file name in the name list
-        Iterator it = nameList_.iterator();
-        while (it.hasNext()) {
-            String name = (String) it.next();
-            if (name.equals(file.getName())) {
-                file.setTransactionTime(0);
-                nameList_.remove(name);
-                nameList_.add(newName);
-                result = true;
-                break;
-            }
+        // replace the file name in the index
+        if (fileList_.rename(oldName, newName)) {
+            file.setTransactionTime(0);
+            result = true;
         }
 
         return result;
@@ -11,9 +11,7 @@ package gridsim.datagrid.storage;
 
 import gridsim.datagrid.File;
 import gridsim.ParameterException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.LinkedList;
 import java.util.Iterator;
 
 /**
@@ -41,11 +39,8 @@ import java.util.Iterator;
 
 public class TapeStorage implements Storage {
 
-    /** a list storing the names of all the files on the tape drive */
-    private ArrayList nameList_;
-
-    /** a list storing all the files stored on the tape */
-    private LinkedList fileList_;
+    /** an index of all the files stored on the tape, in on-tape order */
+    private FileIndex fileList_;
 
     /** the name of the tape drive*/
     private String name_;
@@ -110,8 +105,7 @@ public class TapeStorage implements Storage {
      * Furthermore, the necessary lists are created.
      */
     private void init() {
-        nameList_ = new ArrayList();
-        fileList_ = new LinkedList();
+        fileList_ = new FileIndex();
         currentSize_ = 0;
 
         // NOTE: Default value is taken from HP Ultrium Tape
@@ -358,26 +352,14 @@ public class TapeStorage implements Storage {
             return obj;
         }
 
-        Iterator it = fileList_.iterator();
-        int size = 0;
-        int index = 0;
-        boolean found = false;
-
-        // iterate linearly in a tape to find the file
-        while (it.hasNext()) {
-            obj = (File) it.next();
-            size += obj.getSize();
-
-            if (obj.getName().equals(fileName)) {
-                found = true;
-                break;
-            }
+        // look up the file and its end position in the tape index
+        int index = fileList_.getSlot(fileName);
+        boolean found = (index != -1);
 
-            index++;
-        }
         // if the file is found, then determine the time taken to get it
         if (found == true) {
-            obj = (File) fileList_.get(index);
+            obj = fileList_.getFile(index);
+            int size = (int) fileList_.getEndOffset(index);
             double rewindTime = getRewindTime(size);
             double accessTime = getAccessTime(size - obj.getSize());
             double transferTime = getTransferTime(obj.getSize());
@@ -395,7 +377,7 @@ public class TapeStorage implements Storage {
      * @return a LinkedList of file names
      */
     public List getFileNameList() {
-        return nameList_;
+        return fileList_.getNameList();
     }
 
     /**
@@ -458,7 +440,6 @@ public class TapeStorage implements Storage {
             double accessTime = getAccessTime(currentSize_);
             double transferTime = getTransferTime(file.getSize());
 
-            nameList_.add(file.getName());
             fileList_.add(file); // add the file into the tape
             currentSize_ += file.getSize(); // increment the current tape size
 
@@ -554,16 +535,7 @@ public class TapeStorage implements Storage {
             return result;
         }
 
-        // check each file in the list
-        Iterator it = nameList_.iterator();
-        while (it.hasNext()) {
-            String name = (String) it.next();
-            if (name.equals(fileName)) {
-                result = true;
-                break;
-            }
-        }
-
+        result = fileList_.contains(fileName);
         return result;
     }
 
@@ -648,25 +620,16 @@ public class TapeStorage implements Storage {
         }
 
         // replace the file name in the file (physical) list
-        File obj = getFile(file.getName());
+        String oldName = file.getName();
+        File obj = getFile(oldName);
         if (obj != null) {
             obj.setName(newName);
         } else {
             return result;
         }
 
-        // replace the file name in the name list
-        Iterator it = nameList_.iterator();
-        while (it.hasNext()) {
-            String name = (String) it.next();
-            if (name.equals(file.getName())) {
-                nameList_.remove(name);
-                nameList_.add(newName);
-                result = true;
-                break;
-            }
-        }
-
+        // replace the file name in the index
+        result = fileList_.rename(oldName, newName);
         return result;
     }
 
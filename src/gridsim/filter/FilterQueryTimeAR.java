@@ -22,7 +22,7 @@ import eduni.simjava.Sim_event;
  * <tt>Object[]</tt>, where <tt>Object[0]</tt> stores the transaction id.<br>
  * <tt>NOTE:</tt> This class can only be used for getting a reply or feedback
  * from a {@link gridsim.ARGridResource} entity regarding to query free or
- * busy time of a reservation.
+ * busy time of a reservation, or to a batch of reservation requests.
  * <br><br>
  *
  * This class is used by {@link eduni.simjava.Sim_system}
@@ -109,6 +109,28 @@ public abstract class AbstractGIS extends GridSimCore
      */
     public static final int NOTIFY_GIS_RESOURCE_FAILURE = GIS_BASE + 13;
 
+    /** Denotes a change in the list of local resources of a regional GIS.
+     * Once a regional GIS has sent its resource list to another one, it sends
+     * this tag whenever a resource is registered to it or removed from it,
+     * so that the other regional GIS can keep its global list up to date.
+     * <br>
+     * The data is an <tt>int[]</tt> with the sender ID, the version of its
+     * resource list, the resource ID and the kind of change, which is
+     * either {@link #REGISTER_RESOURCE}, {@link #REGISTER_RESOURCE_AR} or
+     * {@link #NOTIFY_GIS_RESOURCE_FAILURE}.
+     * This tag should be called from a Regional GIS to another.
+     */
+    public static final int GIS_DIRECTORY_UPDATE = GIS_BASE + 14;
+
+    // regional GIS IDs that have asked for the local resource list
+    private LinkedList directorySubscribers_ = new LinkedList();
+
+    // number of changes made to the local resource list so far
+    private int directoryVersion_ = 0;
+
+    // latest version received from each regional GIS
+    private HashMap peerVersion_ = new HashMap();
+
 
     /**
      * Creates a new regional GIS entity
@@ -313,6 +335,193 @@ public abstract class AbstractGIS extends GridSimCore
      */
     protected abstract void processEndSimulation();
 
+    /**
+     * Applies a change in the resource list of another regional GIS to the
+     * global resource lists kept by this entity.
+     * <br>
+     * NOTE: The default implementation does nothing. It should be overridden
+     *       by the subclasses that keep the global lists once they have
+     *       been received.
+     *
+     * @param resourceID  the resource ID
+     * @param change      {@link #REGISTER_RESOURCE},
+     *                    {@link #REGISTER_RESOURCE_AR} or
+     *                    {@link #NOTIFY_GIS_RESOURCE_FAILURE}
+     * @pre resourceID >= 0
+     * @post $none
+     */
+    protected void updateGlobalDirectory(int resourceID, int change) {
+        // empty
+    }
+
+    /**
+     * Discards the global resource lists kept by this entity, so that they
+     * are requested again from the other regional GIS entities. This happens
+     * when some changes in their resource lists have been missed.
+     * <br>
+     * NOTE: The default implementation does nothing. It should be overridden
+     *       by the subclasses that keep the global lists once they have
+     *       been received.
+     * @pre $none
+     * @post $none
+     */
+    protected void clearGlobalDirectory() {
+        // empty
+    }
+
+    /**
+     * Applies a change in the resource list of another regional GIS to
+     * global resource lists. Subclasses overriding
+     * {@link #updateGlobalDirectory(int, int)} can use this method on their
+     * own lists. A list that has not been received yet is left as it is.
+     *
+     * @param resList     the list of all resources or <tt>null</tt>
+     * @param resARList   the list of AR resources only or <tt>null</tt>
+     * @param resourceID  the resource ID
+     * @param change      {@link #REGISTER_RESOURCE},
+     *                    {@link #REGISTER_RESOURCE_AR} or
+     *                    {@link #NOTIFY_GIS_RESOURCE_FAILURE}
+     * @pre resourceID >= 0
+     * @post $none
+     */
+    protected static void applyDirectoryChange(List resList, List resARList,
+                                               int resourceID, int change)
+    {
+        Integer id = new Integer(resourceID);
+        if (change == NOTIFY_GIS_RESOURCE_FAILURE)
+        {
+            if (resList != null) {
+                resList.remove(id);
+            }
+
+            if (resARList != null) {
+                resARList.remove(id);
+            }
+            return;
+        }
+
+        // an AR resource is in both lists
+        boolean isAR = (change == REGISTER_RESOURCE_AR);
+        if (change == REGISTER_RESOURCE || isAR) {
+            addToDirectory(resList, id);
+        }
+
+        if (isAR) {
+            addToDirectory(resARList, id);
+        }
+    }
+
+    /**
+     * Gets the global resource list to keep after some changes in the
+     * resource lists of other regional GIS entities have been missed.
+     * Subclasses overriding {@link #clearGlobalDirectory()} can use this
+     * method on their own lists.
+     *
+     * @param list      a global resource list or <tt>null</tt>
+     * @param pending   the number of regional GIS entities that have not
+     *                  sent their part of the list yet
+     * @return the list if it is still being collected, or <tt>null</tt> so
+     *         that it is requested again on the next inquiry
+     * @pre $none
+     * @post $none
+     */
+    protected static ArrayList discardDirectory(ArrayList list, int pending)
+    {
+        if (pending > 0) {
+            return list;
+        }
+        return null;
+    }
+
+    /**
+     * Adds a resource ID into a global resource list if it is not there yet
+     */
+    private static void addToDirectory(List list, Integer id)
+    {
+        if (list != null && !list.contains(id)) {
+            list.add(id);
+        }
+    }
+
+    /**
+     * Notifies the regional GIS entities that have received the resource
+     * list of this entity about a change in the list. A subclass should call
+     * this method whenever a resource is added or removed from its list.
+     *
+     * @param resourceID  the resource ID
+     * @param change      {@link #REGISTER_RESOURCE},
+     *                    {@link #REGISTER_RESOURCE_AR} or
+     *                    {@link #NOTIFY_GIS_RESOURCE_FAILURE}
+     * @see #GIS_DIRECTORY_UPDATE
+     * @pre resourceID >= 0
+     * @post $none
+     */
+    protected void notifyDirectoryChange(int resourceID, int change)
+    {
+        directoryVersion_++;
+        if (directorySubscribers_.size() == 0) {
+            return;
+        }
+
+        int[] data = { super.get_id(), directoryVersion_, resourceID, change };
+        Iterator it = directorySubscribers_.iterator();
+        while ( it.hasNext() )
+        {
+            Integer id = (Integer) it.next();
+            super.send(super.output, 0.0, AbstractGIS.GIS_DIRECTORY_UPDATE,
+                       new IO_data(data, Link.DEFAULT_MTU, id.intValue()) );
+        }
+    }
+
+    /**
+     * Remembers a regional GIS that asks for the resource list of this
+     * entity, so that it is notified about the later changes
+     * @param ev    a Sim_event object containing the regional GIS ID
+     * @pre ev != null
+     * @post $none
+     */
+    private void addDirectorySubscriber(Sim_event ev)
+    {
+        Object obj = ev.get_data();
+        if (obj instanceof Integer && !directorySubscribers_.contains(obj)) {
+            directorySubscribers_.add(obj);
+        }
+    }
+
+    /**
+     * Processes a change in the resource list of another regional GIS.
+     * The changes of each regional GIS are numbered, so if one of them is
+     * missing, the global lists are discarded and requested again.
+     * @param ev    a Sim_event object
+     * @pre ev != null
+     * @post $none
+     */
+    private void processGISDirectoryUpdate(Sim_event ev)
+    {
+        Object obj = ev.get_data();
+        if ( !(obj instanceof int[]) ) {
+            return;
+        }
+
+        int[] data = (int[]) obj;
+        Integer sender = new Integer(data[0]);
+        Integer last = (Integer) peerVersion_.get(sender);
+        peerVersion_.put(sender, new Integer(data[1]));
+
+        // the first change received since the resource list was sent
+        if (last == null || data[1] == last.intValue() + 1) {
+            updateGlobalDirectory(data[2], data[3]);
+        }
+        else if (data[1] > last.intValue() + 1)
+        {
+            peerVersion_.clear();
+            clearGlobalDirectory();
+        }
+        else {
+            peerVersion_.put(sender, last);  // already received
+        }
+    }
+
     /**
      * Process incoming events one by one
      * @param ev    a Sim_event object
@@ -366,14 +575,21 @@ public abstract class AbstractGIS extends GridSimCore
 
             // get resource list from this GIS which is needed by other GIS
             case AbstractGIS.GIS_INQUIRY_RESOURCE_LIST:
+                addDirectorySubscriber(ev);
                 processGISResourceList(ev);
                 break;
 
             // get AR resource list from this GIS which is needed by other GIS
             case AbstractGIS.GIS_INQUIRY_RESOURCE_AR_LIST:
+                addDirectorySubscriber(ev);
                 processGISResourceARList(ev);
                 break;
 
+            // a change in the resource list of other GIS
+            case AbstractGIS.GIS_DIRECTORY_UPDATE:
+                processGISDirectoryUpdate(ev);
+                break;
+
             // get resource list from other GIS
             case AbstractGIS.GIS_INQUIRY_RESOURCE_RESULT:
                 processGISResourceResult(ev);
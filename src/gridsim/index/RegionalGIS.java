@@ -131,6 +131,12 @@ public class RegionalGIS extends AbstractGIS
                 ".processRegisterResourceAR(): Warning - can't register " +
                 "a resource ID.");
         }
+        else
+        {
+            Integer id = (Integer) ev.get_data();
+            super.notifyDirectoryChange(id.intValue(),
+                                        AbstractGIS.REGISTER_RESOURCE_AR);
+        }
     }
 
     /**
@@ -152,6 +158,12 @@ public class RegionalGIS extends AbstractGIS
                 ".processRegisterResource(): Warning - can't register " +
                 "a resource ID.");
         }
+        else
+        {
+            Integer id = (Integer) ev.get_data();
+            super.notifyDirectoryChange(id.intValue(),
+                                        AbstractGIS.REGISTER_RESOURCE);
+        }
     }
 
     /**
@@ -314,6 +326,36 @@ public class RegionalGIS extends AbstractGIS
         }
     }
 
+    /**
+     * Applies a change in the resource list of another regional GIS to the
+     * global resource lists, if they have already been received.
+     *
+     * @param resourceID  the resource ID
+     * @param change      {@link AbstractGIS#REGISTER_RESOURCE},
+     *                    {@link AbstractGIS#REGISTER_RESOURCE_AR} or
+     *                    {@link AbstractGIS#NOTIFY_GIS_RESOURCE_FAILURE}
+     * @pre resourceID >= 0
+     * @post $none
+     */
+    protected void updateGlobalDirectory(int resourceID, int change)
+    {
+        applyDirectoryChange(globalResList_, globalResARList_,
+                             resourceID, change);
+    }
+
+    /**
+     * Discards the global resource lists, so that they are requested again
+     * from the other regional GIS entities on the next inquiry. A list that
+     * is still being collected is kept.
+     * @pre $none
+     * @post $none
+     */
+    protected void clearGlobalDirectory()
+    {
+        globalResList_ = discardDirectory(globalResList_, numRes_);
+        globalResARList_ = discardDirectory(globalResARList_, numAR_);
+    }
+
     /**
      * Sends the result back to sender
      * @param list  a List object containing resource IDs
@@ -398,6 +398,12 @@ public class Output extends Sim_entity implements NetIO
                 int shutdownID)
     {
         IO_data io = (IO_data) ev.get_data();
+        if (io.getDestIDs() != null)
+        {
+            multicastSend(ev.get_tag(), io, gisID, statID, shutdownID);
+            return;
+        }
+
         int destId = io.getDestID();
 
         /*****   // DEBUG info
@@ -409,7 +415,7 @@ public class Output extends Sim_entity implements NetIO
         if (link_ != null && destId != gisID && destId != statID &&
             destId != shutdownID)
         {
-            submitToLink(ev);
+            submitToLink(io, ev.get_tag());
             return;
         }
 
@@ -435,23 +441,75 @@ public class Output extends Sim_entity implements NetIO
         super.sim_process(communicationDelay);
     }
 
+    /**
+     * Sends the same data to several destinations. With a network link, the
+     * data is split into packets for each destination. Otherwise, the data
+     * is given to the Input entity of each destination, and this entity
+     * holds only once, for the time taken by the slowest destination.
+     *
+     * @param tag       the event tag
+     * @param io        an IO_data object with the destination IDs
+     * @param gisID     the central/default GIS entity ID
+     * @param statID    the GridStatistic entity ID
+     * @param shutdownID    the GridSimShutdown entity ID
+     * @pre io != null
+     * @post $none
+     */
+    private synchronized void multicastSend(int tag, IO_data io, int gisID,
+                int statID, int shutdownID)
+    {
+        int[] destIDs = io.getDestIDs();
+        double minBaudRate = baudRate_;
+        boolean direct = false;     // whether any Input entity is used
+
+        for (int i = 0; i < destIDs.length; i++)
+        {
+            int destId = destIDs[i];
+            IO_data data = new IO_data(io.getData(), io.getByteSize(), destId,
+                                       io.getNetServiceLevel());
+
+            if (link_ != null && destId != gisID && destId != statID &&
+                destId != shutdownID)
+            {
+                submitToLink(data, tag);
+                continue;
+            }
+
+            // Identify ID of an entity which acts as Input/Buffer
+            // entity of destination entity
+            int id = GridSim.getEntityId( "Input_" +
+                     Sim_system.get_entity(destId).get_name() );
+            super.sim_schedule(id, GridSimTags.SCHEDULE_NOW, tag, data);
+
+            double receiverBaudRate = ( (Input)
+                    Sim_system.get_entity(id) ).getBaudRate();
+            minBaudRate = Math.min(minBaudRate, receiverBaudRate);
+            direct = true;
+        }
+
+        if (direct)
+        {
+            double communicationDelay = GridSimRandom.realIO(
+                    (io.getByteSize() * NetIO.BITS) / minBaudRate);
+            super.sim_process(communicationDelay);
+        }
+    }
+
     /**
      * This method takes data from an entity. If the size of the data is larger
      * than the MTU of the link, then the packet is split into mutiple size
      * units. After this it calls enque() to queue these packets into its
      * buffer.
      *
-     * @param ev    A Sim_event data that contains all the data for this method
-     *              to do its task.
-     * @pre ev != null
+     * @param data  the data to be sent and its destination
+     * @param tag   the event tag
+     * @pre data != null
      * @post $none
      */
-    private synchronized void submitToLink(Sim_event ev)
+    private synchronized void submitToLink(IO_data data, int tag)
     {
-        IO_data data = (IO_data) ev.get_data();
         Object obj = data.getData();
         long size = data.getByteSize();
-        int tag = ev.get_tag();
         int destId = data.getDestID();
         int netServiceType = data.getNetServiceLevel();
 
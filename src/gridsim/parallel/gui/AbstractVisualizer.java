@@ -7,11 +7,14 @@
 
 package gridsim.parallel.gui;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.util.LinkedList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.swing.JFrame;
+import javax.swing.Timer;
 
 import gridsim.GridSim;
 import gridsim.parallel.log.LoggerEnum;
@@ -23,6 +26,12 @@ import gridsim.parallel.profile.ScheduleItem;
  * {@link GridSim} class will notify the visualiser provided about the
  * allocation actions made by the entities. The duty of a visualiser
  * is to notify the interface components about these actions.
+ * <p>
+ * The actions are not given to the listeners by the simulation entities.
+ * Instead, they are placed in a bounded buffer that is emptied by the 
+ * event dispatch thread a given number of times per second. Hence, 
+ * the simulation does not wait for the interface components, unless 
+ * the buffer is full.
  * 
  * @author Marcos Dias de Assuncao
  * @since 5.0
@@ -39,6 +48,28 @@ public abstract class AbstractVisualizer extends JFrame implements Visualizer {
     // the GUI settings
     protected static GUISettings settings = GUISettings.getInstance();
     
+    /** The default number of actions that can wait to be delivered */
+    public static final int DEFAULT_BUFFER_SIZE = 4096;
+    
+    // the actions waiting to be delivered to the listeners
+    private ActionBuffer buffer = new ActionBuffer(DEFAULT_BUFFER_SIZE);
+    private Timer deliveryTimer;
+    
+    /**
+     * Creates a new visualiser and starts delivering the 
+     * allocation actions to the listeners
+     * @see GUISettings#getMaxRepaintsPerSecond()
+     */
+    public AbstractVisualizer() {
+    	int delay = 1000 / settings.getMaxRepaintsPerSecond();
+    	deliveryTimer = new Timer(delay, new ActionListener() {
+    		public void actionPerformed(ActionEvent e) {
+    			deliverActions();
+    		}
+    	});
+    	deliveryTimer.start();
+    }
+    
     /**
      * Enables the slow motion mode (used by the GUI)
      */
@@ -147,7 +178,8 @@ public abstract class AbstractVisualizer extends JFrame implements Visualizer {
      * Inserts an allocation action in the visualiser's buffer
      */
     private void placeAction(AllocationAction action, boolean shouldPause) {
-		notifyListeners(action);
+    	action.setTime(GridSim.clock());
+    	buffer.put(action);
 
     	if(shouldPause){
     		if(isStepByStepEnabled()){
@@ -173,8 +205,35 @@ public abstract class AbstractVisualizer extends JFrame implements Visualizer {
 		GridSim.resumeSimulation();
     }
     
+    /*
+     * Gives the actions in the buffer to the listeners. 
+     * This is called by the event dispatch thread.
+     */
+    private void deliverActions() {
+    	AllocationAction action = buffer.poll();
+    	if(action == null) {
+    		return;
+    	}
+    	
+    	while(action != null) {
+    		notifyListeners(action);
+    		action = buffer.poll();
+    	}
+    	actionsDelivered();
+    }
+    
+    /**
+     * Called by the event dispatch thread after a group of 
+     * actions has been delivered to the listeners. 
+     * By default, this method does nothing.
+     */
+    protected void actionsDelivered() {
+    	
+    }
+    
     /**
-     * Notifies a listener about the action performed
+     * Notifies a listener about the action performed. This method is 
+     * called by the event dispatch thread.
      * @param action the action performed
      * @see ActionType
      */
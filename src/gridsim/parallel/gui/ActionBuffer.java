@@ -0,0 +1,81 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ */
+
+package gridsim.parallel.gui;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded ring buffer that passes allocation actions from the
+ * simulation entities to the event dispatch thread without locks.
+ * Several entities can place actions in the buffer, whereas only
+ * one thread takes them out. When the buffer is full, the entity
+ * waits until the event dispatch thread makes room, so that no
+ * action is lost.
+ *
+ * @since 5.0
+ * @see AbstractVisualizer
+ */
+class ActionBuffer {
+	private final AtomicReferenceArray<AllocationAction> slots;
+	private final int mask;
+
+	// the next position to be written and the next one to be read
+	private final AtomicLong tail = new AtomicLong(0);
+	private volatile long head = 0;
+
+	/**
+	 * Creates a new buffer
+	 * @param capacity the minimum number of actions the buffer can hold.
+	 * The capacity is rounded up to a power of two.
+	 */
+	public ActionBuffer(int capacity) {
+		int size = 1;
+		while(size < capacity) {
+			size <<= 1;
+		}
+		slots = new AtomicReferenceArray<AllocationAction>(size);
+		mask = size - 1;
+	}
+
+	/**
+	 * Places an action in the buffer, waiting if the buffer is full
+	 * @param action the action to be placed
+	 */
+	public void put(AllocationAction action) {
+		while(true) {
+			long pos = tail.get();
+			if(pos - head > mask) {
+				Thread.yield();
+			}
+			else if(tail.compareAndSet(pos, pos + 1)) {
+				slots.set((int)pos & mask, action);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Takes the oldest action out of the buffer. This method
+	 * must be called by a single thread only.
+	 * @return the action or <code>null</code> if the buffer is empty
+	 */
+	public AllocationAction poll() {
+		int index = (int)head & mask;
+
+		// a slot stays empty until its entity has finished writing it
+		AllocationAction action = slots.get(index);
+		if(action == null) {
+			return null;
+		}
+
+		slots.set(index, null);
+		head++;
+		return action;
+	}
+}
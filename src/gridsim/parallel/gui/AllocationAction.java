@@ -27,6 +27,9 @@ public class AllocationAction {
 	// the id of the entity that generated this action
 	private int subject; 
 	private ActionType actionType;
+	
+	// the simulation time at which this action was performed
+	private double time = 0;
 		
 	/**
 	 * Creates a new {@link AllocationAction} object.
@@ -76,6 +79,22 @@ public class AllocationAction {
 		actionType = type;
 	}
 
+	/**
+	 * Gets the simulation time at which this action was performed
+	 * @return the simulation time
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Sets the simulation time at which this action was performed
+	 * @param time the simulation time
+	 */
+	public void setTime(double time) {
+		this.time = time;
+	}
+
 	/**
 	 * Gets the id of the subject or entity that created this action
 	 * @return the id of the subject or entity that created this action
@@ -58,6 +58,10 @@ class GUISettings {
 			Color.DARK_GRAY, Color.MAGENTA, Color.ORANGE, Color.PINK, 
 			Color.YELLOW, Color.BLUE};
 	
+	// the maximum number of times per second a resource window is repainted
+	private static final int DEF_MAX_REPAINTS = 10;
+	private int maxRepaints = DEF_MAX_REPAINTS;
+	
 	private static GUISettings settings = null;
 	
     /**
@@ -91,6 +95,15 @@ class GUISettings {
 		cARNonComm = createPalette(properties.getProperty(ppPrefix + "resource.arncpl"));
 		cARComm = createPalette(properties.getProperty(ppPrefix + "resource.arcpl"));
 		cARExec = createPalette(properties.getProperty(ppPrefix + "resource.arexecpl"));
+		
+		String repaints = properties.getProperty(ppPrefix + "resource.maxrepaints");
+		try {
+			if(repaints != null) {
+				maxRepaints = Math.max(1, Integer.parseInt(repaints.trim()));
+			}
+		} catch (NumberFormatException e) {
+			logger.log(Level.WARNING, "Invalid number of repaints: " + repaints, e);
+		}
     }
     
     /**
@@ -266,6 +279,16 @@ class GUISettings {
 		return cARExec;
 	}
 	
+	/**
+	 * Returns the maximum number of times per second a resource window
+	 * is repainted. Allocation actions that happen in between are shown
+	 * together by the next repaint.
+	 * @return the maximum number of repaints per second
+	 */
+	public int getMaxRepaintsPerSecond() {
+		return maxRepaints;
+	}
+	
 	/**
 	 * Get the value of a property.
 	 * @param key the property's key
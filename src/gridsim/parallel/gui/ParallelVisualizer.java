@@ -218,7 +218,8 @@ public class ParallelVisualizer extends AbstractVisualizer
 	}
 	
     /**
-     * Notifies a listener about the action performed
+     * Notifies a listener about the action performed. This method is 
+     * called by the event dispatch thread.
      * @param action the action performed
      * @see ActionType
      */
@@ -226,9 +227,16 @@ public class ParallelVisualizer extends AbstractVisualizer
     	AllocationListener listener = listeners.get(action.getSubject());
     	if(listener != null) {
     		listener.allocationActionPerformed(action);
-    		informListenersAboutTime();
     	}
     }
+    
+    /**
+     * Informs the listeners about the simulation time once all
+     * the actions waiting in the buffer have been delivered
+     */
+    protected void actionsDelivered() {
+    	informListenersAboutTime();
+    }
 
 	/**
 	 * Handles events triggered by the list of resource
@@ -314,6 +322,7 @@ public class ParallelVisualizer extends AbstractVisualizer
 		while(iterListener.hasNext()) {
 			AllocationListener listener = iterListener.next();
 			AllocationAction action = new AllocationAction(ActionType.SIMULATION_TIME_CHANGED);
+			action.setTime(GridSim.clock());
 			listener.allocationActionPerformed(action);
 		}
 		status.setText("Current simulation time is " + GridSim.clock() + " seconds.");
@@ -18,6 +18,7 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.GridLayout;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
@@ -26,9 +27,14 @@ import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.font.FontRenderContext;
 import java.awt.font.LineMetrics;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
@@ -49,6 +55,7 @@ import javax.swing.JSlider;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.BevelBorder;
 import javax.swing.border.Border;
 import javax.swing.border.CompoundBorder;
@@ -106,8 +113,20 @@ public class ResourceWindow extends JFrame
 	private ItemPanel pnItem;
 	private JobTypePanel pnColor;
 	
-	// the jobs or advance reservations displayed by this window
-	private ArrayList<ScheduleItem> scheduledItems = new ArrayList<ScheduleItem>();
+	// the jobs or advance reservations displayed by this window. Those
+	// not finished yet are drawn one by one, whereas the finished ones are
+	// indexed by time and drawn from cached tiles. Both are only used by
+	// the event dispatch thread, so the simulation thread queues the changes
+	private ArrayList<ScheduleItem> activeItems = new ArrayList<ScheduleItem>();
+	private ScheduleItemIndex finishedItems = new ScheduleItemIndex();
+	private ConcurrentLinkedQueue<ScheduleItem> arrivedItems = 
+		new ConcurrentLinkedQueue<ScheduleItem>();
+	private ConcurrentLinkedQueue<ScheduleItem> cancelledItems = 
+		new ConcurrentLinkedQueue<ScheduleItem>();
+	private volatile int numItems = 0;
+	
+	// coalesces the allocation actions into a limited number of repaints
+	private Timer repaintTimer;
 	
 	// the settings object
 	private static GUISettings settings = GUISettings.getInstance();
@@ -137,6 +156,15 @@ public class ResourceWindow extends JFrame
 
 		// initialise the left and right panels
 		initPanels();
+		
+		int delay = 1000 / settings.getMaxRepaintsPerSecond();
+		repaintTimer = new Timer(delay, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				refreshResourceWindow();
+			}
+		});
+		repaintTimer.setRepeats(false);
+		
 		FrameResizer adapter = new FrameResizer();
         super.addComponentListener(adapter);
 		
@@ -155,11 +183,12 @@ public class ResourceWindow extends JFrame
 		ActionType type = action.getActionType();
 		LinkedList<ScheduleItem> list = action.getScheduleItems();
 		double previousTime = currentTime;
-		currentTime = GridSim.clock();
+		currentTime = action.getTime();
 		
 		if (type == ActionType.ITEM_ARRIVED) {
 				for(ScheduleItem item : list){
-					scheduledItems.add(item);
+					arrivedItems.add(item);
+					numItems++;
 					pnItem.insertNewItem(item);
 				}
 				updateResourceWindow();
@@ -178,7 +207,8 @@ public class ResourceWindow extends JFrame
 		} 
 		else if (type == ActionType.ITEM_CANCELLED) {
 				for(ScheduleItem item : list){
-					scheduledItems.remove(item);
+					cancelledItems.add(item);
+					numItems--;
 				}
 				pnItem.updateItem(list.getLast());
 				updateResourceWindow();
@@ -236,7 +266,7 @@ public class ResourceWindow extends JFrame
 			}
 		}
 		
-		if(scheduledItems.size() > 0) {
+		if(numItems > 0) {
 			pnItem.updatePanel();
 		}
 		
@@ -445,7 +475,22 @@ public class ResourceWindow extends JFrame
 		setJMenuBar(menuBar);
 	}
 	
+	/*
+	 * Schedules a repaint of this window. The actions that happen before
+	 * the repaint are shown together, so that this window is repainted 
+	 * at most a given number of times per second.
+	 * @see GUISettings#getMaxRepaintsPerSecond()
+	 */
 	private void updateResourceWindow() {
+		if(!repaintTimer.isRunning()) {
+			repaintTimer.start();
+		}
+	}
+	
+	/*
+	 * Repaints the scheduling queue and scrolls to its end if needed
+	 */
+	private void refreshResourceWindow() {
 		pnGraph.repaint();
 		
 		if(slidingWindowSize != Double.MAX_VALUE) {
@@ -502,10 +547,36 @@ public class ResourceWindow extends JFrame
     }
 	
 	/** 
-	 * The panel inside the scroll pane where the jobs are shown.
+	 * The panel inside the scroll pane where the jobs are shown. Only
+	 * the jobs inside the visible part of the panel are drawn. The jobs
+	 * that have finished are drawn once into tiles that cover fixed periods
+	 * of time, which are stretched to the scale of the panel when shown. 
+	 * As the time span grows, the tiles are only drawn again each time 
+	 * the scale halves, or when the zoom or the drawing options change.
 	 */  
 	class GraphPanel extends JPanel {
 		
+		private static final int TILE_WIDTH = 256;
+		private static final int MAX_TILES = 64;
+		private static final int LABEL_MARGIN = 20;
+		
+		// the most recently used tiles with the finished jobs, 
+		// indexed by their level and position
+		private LinkedHashMap<Long, Tile> tiles_ = 
+			new LinkedHashMap<Long, Tile>(16, 0.75f, true) {
+				protected boolean removeEldestEntry(
+						Map.Entry<Long, Tile> eldest) {
+					return size() > MAX_TILES;
+				}
+		};
+		
+		// the settings used to draw the tiles
+		private int tileSliderX_, tileMinWidth_;
+		private double tileWindowSize_;
+		private float tileScaleY_;
+		private int tileHeight_;
+		private boolean tileDrawID_, tileShowPartition_;
+		
 		private int panelHeight_;
 		private int panelWidth_;
 		private float scaleY_;
@@ -540,7 +611,7 @@ public class ResourceWindow extends JFrame
 			super.setBackground(bgColor);
 		}
 
-		protected synchronized void paintComponent(Graphics g2) {
+		protected void paintComponent(Graphics g2) {
 			if(!animate_) {
 				return;
 			}
@@ -571,6 +642,8 @@ public class ResourceWindow extends JFrame
 			super.setPreferredSize(new Dimension((int) (timeSpan * scaleX_) + 2 * SHIFT_X,
 					(int) ((numPE) * scaleY_) + SHIFT_Y + SHIFT_BOTTOM));
 
+			validateTiles(minWidth);
+			updateItems();
 			drawSchedulingQueue(timeSpan, g2D);
 			drawGridsAndAxes(timeSpan, g2D);
 			super.revalidate();
@@ -649,70 +722,197 @@ public class ResourceWindow extends JFrame
 			g2D.rotate(theta, x, y);
 		}
 			
+		/*
+		 * Clears the tiles if the zoom, the size of the panel or the 
+		 * options used to draw them have changed. A larger time span 
+		 * only changes the scale at which the tiles are shown
+		 */
+		private void validateTiles(int minWidth) {
+			int tileHeight = SHIFT_Y + (int)(numPE * scaleY_) + 1;
+			double windowSize = ResourceWindow.this.slidingWindowSize;
+			if(tileSliderX_ != sliderX.getValue() || tileMinWidth_ != minWidth ||
+					Double.compare(tileWindowSize_, windowSize) != 0 ||
+					tileScaleY_ != scaleY_ || tileHeight_ != tileHeight || 
+					tileDrawID_ != drawID_ || tileShowPartition_ != showPartition_) {
+				tiles_.clear();
+				tileSliderX_ = sliderX.getValue();
+				tileMinWidth_ = minWidth;
+				tileWindowSize_ = windowSize;
+				tileScaleY_ = scaleY_;
+				tileHeight_ = tileHeight;
+				tileDrawID_ = drawID_;
+				tileShowPartition_ = showPartition_;
+			}
+		}
+		
+		/*
+		 * Applies the changes queued by the simulation thread and moves 
+		 * the items that have finished into the index of finished items
+		 */
+		private void updateItems() {
+			ScheduleItem item = null;
+			while((item = arrivedItems.poll()) != null) {
+				activeItems.add(item);
+			}
+			
+			while((item = cancelledItems.poll()) != null) {
+				if(!activeItems.remove(item) && finishedItems.remove(item)) {
+					clearTiles(item);
+				}
+			}
+			
+			Iterator<ScheduleItem> iter = activeItems.iterator();
+			while(iter.hasNext()) {
+				item = iter.next();
+				if(item != null && hasFinished(item)) {
+					iter.remove();
+					finishedItems.add(item);
+					clearTiles(item);
+				}
+			}
+		}
+		
+		/*
+		 * Checks whether an item has finished, that is, whether its
+		 * times and colour will not change anymore
+		 */
+		private boolean hasFinished(ScheduleItem item) {
+			if(item.getStartTime() < 0 || item.getPERangeList() == null) {
+				return false;
+			}
+			
+			if(item.isAdvanceReservation()) {
+				return item.getStatus() == ReservationStatus.FINISHED.intValue();
+			}
+			
+			return item.getStatus() == Gridlet.SUCCESS;
+		}
+		
+		/*
+		 * Removes the tiles where an item is drawn
+		 */
+		private void clearTiles(ScheduleItem item) {
+			Iterator<Tile> iter = tiles_.values().iterator();
+			while(iter.hasNext()) {
+				Tile tile = iter.next();
+				if(item.getStartTime() <= tile.to && 
+						item.getActualFinishTime() >= tile.from) {
+					iter.remove();
+				}
+			}
+		}
+		
+		/*
+		 * Gets the level of the tiles for the current scale. A tile of
+		 * level L covers 2^L seconds, so it is between TILE_WIDTH and twice
+		 * TILE_WIDTH pixels wide at the current scale
+		 */
+		private int getTileLevel() {
+			return (int)Math.ceil(Math.log(TILE_WIDTH / scaleX_) / Math.log(2));
+		}
+		
+		/*
+		 * Draws the finished items that are within the given area
+		 */
+		private void drawFinishedItems(Graphics2D g2D, Rectangle clip, int widthGph) {
+			if(finishedItems.size() == 0 || Float.isInfinite(scaleX_)) {
+				return;
+			}
+			
+			int level = getTileLevel();
+			double period = Math.pow(2, level);
+			int first = (int)(Math.max(0, clip.x - SHIFT_X) / scaleX_ / period);
+			int last = (int)(Math.min(widthGph, clip.x + clip.width - SHIFT_X) / scaleX_ / period);
+			
+			// tiles drawn at a larger scale are shrunk smoothly
+			Object interpolation = g2D.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+			g2D.setRenderingHint(RenderingHints.KEY_INTERPOLATION, 
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			
+			for(int i=first; i<=last; i++) {
+				Long key = ((long)level << 32) | i;
+				Tile tile = tiles_.get(key);
+				if(tile == null) {
+					tile = createTile(i, period);
+					tiles_.put(key, tile);
+				}
+				int x1 = SHIFT_X + (int)(i * period * scaleX_);
+				int x2 = SHIFT_X + (int)((i + 1) * period * scaleX_);
+				g2D.drawImage(tile.image, x1, 0, x2 - x1, tileHeight_, null);
+			}
+			
+			if(interpolation != null) {
+				g2D.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+			}
+		}
+		
+		/*
+		 * Draws the finished items of a tile into an image, at the current scale
+		 */
+		private Tile createTile(int index, double period) {
+			int x1 = (int)(index * period * scaleX_);
+			int x2 = (int)((index + 1) * period * scaleX_);
+			
+			Tile tile = new Tile();
+			tile.image = new BufferedImage(x2 - x1, 
+					tileHeight_, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g2D = tile.image.createGraphics();
+			g2D.setFont(grFont);
+			g2D.translate(-(SHIFT_X + x1), 0);
+			
+			// the label of an item may go a bit beyond its box
+			tile.from = index * period - LABEL_MARGIN / scaleX_;
+			tile.to = (index + 1) * period + LABEL_MARGIN / scaleX_;
+			ArrayList<ScheduleItem> items = new ArrayList<ScheduleItem>();
+			finishedItems.query(tile.from, tile.to, items);
+			for(ScheduleItem item : items) {
+				drawItem(g2D, item);
+			}
+			
+			g2D.dispose();
+			return tile;
+		}
+		
+		/*
+		 * The image of the finished items within a period of time
+		 */
+		private class Tile {
+			BufferedImage image;
+			double from, to;  // the period of the items drawn, labels included
+		}
+		
 		/*
 		 * Draws the boxes representing the gridlets or advance reservations 
 		 */
 		private void drawSchedulingQueue(double timeSpan, Graphics2D g2D) {
-				
-			Color boxColor = null;
-			Color fontColor = null;
 			
 			g2D.setColor(color);
 			int heightGph = (int)(numPE * scaleY_);
 			int widthGph = (int) (timeSpan * scaleX_);
 			g2D.fillRect(SHIFT_X, SHIFT_Y, widthGph, heightGph);
 			
-			int size = scheduledItems.size();
-				
-			for(int i=0; i<size; i++) {
-				ScheduleItem item = (ScheduleItem)scheduledItems.get(i);
+			// only the visible part of the panel needs to be drawn
+			Rectangle clip = g2D.getClipBounds();
+			if(clip == null) {
+				clip = new Rectangle(0, 0, super.getWidth(), super.getHeight());
+			}
+			
+			drawFinishedItems(g2D, clip, widthGph);
+			
+			int clipStart = clip.x - LABEL_MARGIN;
+			int clipEnd = clip.x + clip.width + LABEL_MARGIN;
+			for(ScheduleItem item : activeItems) {
 				if(item == null || item.getStartTime() < 0) {
 					continue;
 				}
 				
-               	int itemId = item.getID();
-				if (item.getPERangeList() != null) {
-					// the color of the font for normal gridlets is black
-					fontColor = Color.BLACK;
-					if(showPartition_) {
-						boxColor = colorQueues[item.getPartitionID() % colorQueues.length];
-					}
-					else if(!item.isAdvanceReservation()) {
-						// Gridlet is in execution
-						if(item.getStatus() == Gridlet.INEXEC) {
-							boxColor = colorsInExec[(itemId % colorsInExec.length)];
-						}
-						// Gridlet has finished
-						else if(item.getStatus() == Gridlet.SUCCESS) {
-							boxColor = colorsDone[(itemId % colorsDone.length)];
-						}
-						else {				
-							boxColor = colorsQueued[(itemId % colorsQueued.length)];
-						}
-					}
-					else {
-						// the color of the font for advance reservations is white
-						fontColor = Color.WHITE;
-						
-						if(item.getStatus() == ReservationStatus.IN_PROGRESS.intValue()) {
-							boxColor = colorsARInProgress[(itemId % colorsARInProgress.length)];
-						}
-						else if (item.getStatus() == ReservationStatus.NOT_COMMITTED.intValue() || 
-								item.getStatus() == ReservationStatus.UNKNOWN.intValue()) {
-							boxColor = colorsARNonCommitted[(itemId % colorsARNonCommitted.length)];
-						}
-						else if (item.getStatus() == ReservationStatus.COMMITTED.intValue()) {
-							boxColor = colorsARCommitted[(itemId % colorsARCommitted.length)];
-						}
-						else if (item.getStatus() == ReservationStatus.FINISHED.intValue()) {
-							boxColor = colorsDone[(itemId % colorsDone.length)];
-						}
-						else {
-							boxColor = colorsDone[(itemId % colorsDone.length)];
-						}
-					}
-					drawItem((Graphics2D) g2D, item, boxColor, fontColor);						
+				int startX = SHIFT_X + (int) (item.getStartTime() * scaleX_);
+				int finishX = SHIFT_X + (int) (item.getActualFinishTime() * scaleX_);
+				if(finishX < clipStart || startX > clipEnd) {
+					continue;
 				}
+				
+				drawItem(g2D, item);
 			}
 			
 			// if there is an item to be highlighted, then do it
@@ -721,6 +921,60 @@ public class ResourceWindow extends JFrame
 			}
 		}
 
+		/*
+		 * Draws a gridlet or advance reservation with the colours
+		 * that correspond to its status
+		 */
+		private void drawItem(Graphics2D g2D, ScheduleItem item) {
+			
+			Color boxColor = null;
+			Color fontColor = null;
+			
+           	int itemId = item.getID();
+			if (item.getPERangeList() != null) {
+				// the color of the font for normal gridlets is black
+				fontColor = Color.BLACK;
+				if(showPartition_) {
+					boxColor = colorQueues[item.getPartitionID() % colorQueues.length];
+				}
+				else if(!item.isAdvanceReservation()) {
+					// Gridlet is in execution
+					if(item.getStatus() == Gridlet.INEXEC) {
+						boxColor = colorsInExec[(itemId % colorsInExec.length)];
+					}
+					// Gridlet has finished
+					else if(item.getStatus() == Gridlet.SUCCESS) {
+						boxColor = colorsDone[(itemId % colorsDone.length)];
+					}
+					else {				
+						boxColor = colorsQueued[(itemId % colorsQueued.length)];
+					}
+				}
+				else {
+					// the color of the font for advance reservations is white
+					fontColor = Color.WHITE;
+					
+					if(item.getStatus() == ReservationStatus.IN_PROGRESS.intValue()) {
+						boxColor = colorsARInProgress[(itemId % colorsARInProgress.length)];
+					}
+					else if (item.getStatus() == ReservationStatus.NOT_COMMITTED.intValue() || 
+							item.getStatus() == ReservationStatus.UNKNOWN.intValue()) {
+						boxColor = colorsARNonCommitted[(itemId % colorsARNonCommitted.length)];
+					}
+					else if (item.getStatus() == ReservationStatus.COMMITTED.intValue()) {
+						boxColor = colorsARCommitted[(itemId % colorsARCommitted.length)];
+					}
+					else if (item.getStatus() == ReservationStatus.FINISHED.intValue()) {
+						boxColor = colorsDone[(itemId % colorsDone.length)];
+					}
+					else {
+						boxColor = colorsDone[(itemId % colorsDone.length)];
+					}
+				}
+				drawItem(g2D, item, boxColor, fontColor);						
+			}
+		}
+
 	    /*
 		 * Draws a gridlet or advance reservation in the scheduling window. 
 		 * This method assumes that the gridlet has a range of PEs
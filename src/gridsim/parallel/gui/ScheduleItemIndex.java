@@ -0,0 +1,176 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ */
+
+package gridsim.parallel.gui;
+
+import java.util.List;
+
+import gridsim.parallel.profile.ScheduleItem;
+
+/**
+ * An interval index of the schedule items whose start and finish times
+ * do not change anymore, such as finished Gridlets and advance reservations.
+ * The items are kept sorted by start time and grouped in blocks. Each
+ * block stores the latest finish time of its items, so that the blocks
+ * that finish before a given period are skipped when looking for the
+ * items intersecting that period.
+ *
+ * @since 5.0
+ * @see ResourceWindow
+ */
+class ScheduleItemIndex {
+	private static final int BLOCK_SIZE = 64;
+	private static final int INITIAL_SIZE = 256;
+
+	private ScheduleItem[] items = new ScheduleItem[INITIAL_SIZE];
+	private double[] starts = new double[INITIAL_SIZE];
+	private double[] finishes = new double[INITIAL_SIZE];
+	private double[] blockFinish = new double[INITIAL_SIZE / BLOCK_SIZE];
+	private int size = 0;
+
+	/**
+	 * Gets the number of items in the index
+	 * @return the number of items
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds an item to the index. The start and finish times of the item
+	 * are the ones at the time it is added.
+	 * @param item the item to be added
+	 */
+	public void add(ScheduleItem item) {
+		if(size == items.length) {
+			grow();
+		}
+
+		double start = item.getStartTime();
+		int pos = upperBound(start);
+		int moved = size - pos;
+
+		// items usually finish in the order they start, so only a
+		// few items at the end of the arrays have to be moved
+		System.arraycopy(items, pos, items, pos + 1, moved);
+		System.arraycopy(starts, pos, starts, pos + 1, moved);
+		System.arraycopy(finishes, pos, finishes, pos + 1, moved);
+
+		items[pos] = item;
+		starts[pos] = start;
+		finishes[pos] = item.getActualFinishTime();
+		size++;
+		updateBlocks(pos);
+	}
+
+	/**
+	 * Removes an item from the index
+	 * @param item the item to be removed
+	 * @return <code>true</code> if the item was in the index or
+	 * <code>false</code> otherwise.
+	 */
+	public boolean remove(ScheduleItem item) {
+		int pos = -1;
+		for(int i=size-1; i>=0; i--) {
+			if(items[i] == item) {
+				pos = i;
+				break;
+			}
+		}
+
+		if(pos < 0) {
+			return false;
+		}
+
+		int moved = size - pos - 1;
+		System.arraycopy(items, pos + 1, items, pos, moved);
+		System.arraycopy(starts, pos + 1, starts, pos, moved);
+		System.arraycopy(finishes, pos + 1, finishes, pos, moved);
+		size--;
+		items[size] = null;
+		updateBlocks(pos);
+		return true;
+	}
+
+	/**
+	 * Finds the items that intersect a period of time
+	 * @param from the start of the period
+	 * @param to the end of the period
+	 * @param result the list where the items found are added
+	 */
+	public void query(double from, double to, List<ScheduleItem> result) {
+		int end = upperBound(to);
+		for(int block=0; block * BLOCK_SIZE < end; block++) {
+			if(blockFinish[block] < from) {
+				continue;
+			}
+
+			int last = Math.min(end, (block + 1) * BLOCK_SIZE);
+			for(int i=block * BLOCK_SIZE; i<last; i++) {
+				if(finishes[i] >= from) {
+					result.add(items[i]);
+				}
+			}
+		}
+	}
+
+	// ------------------------- PRIVATE METHODS -------------------------
+
+	/*
+	 * Returns the position of the first item that starts after a given time
+	 */
+	private int upperBound(double time) {
+		int low = 0;
+		int high = size;
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			if(starts[mid] <= time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * Recalculates the latest finish time of the blocks from the one
+	 * that contains the given position
+	 */
+	private void updateBlocks(int pos) {
+		int numBlocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		for(int block=pos / BLOCK_SIZE; block<numBlocks; block++) {
+			double latest = Double.NEGATIVE_INFINITY;
+			int last = Math.min(size, (block + 1) * BLOCK_SIZE);
+			for(int i=block * BLOCK_SIZE; i<last; i++) {
+				latest = Math.max(latest, finishes[i]);
+			}
+			blockFinish[block] = latest;
+		}
+	}
+
+	/*
+	 * Doubles the capacity of the index
+	 */
+	private void grow() {
+		int capacity = items.length * 2;
+		ScheduleItem[] newItems = new ScheduleItem[capacity];
+		double[] newStarts = new double[capacity];
+		double[] newFinishes = new double[capacity];
+		double[] newBlockFinish = new double[capacity / BLOCK_SIZE];
+
+		System.arraycopy(items, 0, newItems, 0, size);
+		System.arraycopy(starts, 0, newStarts, 0, size);
+		System.arraycopy(finishes, 0, newFinishes, 0, size);
+		System.arraycopy(blockFinish, 0, newBlockFinish, 0, blockFinish.length);
+
+		items = newItems;
+		starts = newStarts;
+		finishes = newFinishes;
+		blockFinish = newBlockFinish;
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ */
+
+package gridsim.parallel.gui;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.DecimalFormat;
+import java.util.LinkedList;
+import java.util.zip.GZIPInputStream;
+
+import gridsim.parallel.profile.PERange;
+import gridsim.parallel.profile.PERangeList;
+import gridsim.parallel.profile.ScheduleItem;
+
+/**
+ * Reads a timeline file written by a {@link TimelineRecorder}. The
+ * actions are returned in the order they were performed, so that they
+ * can be replayed by giving them to a visualiser, for example:
+ * <pre>
+ *     TimelineReader reader = new TimelineReader("timeline.bin");
+ *     AllocationAction action = null;
+ *     while((action = reader.next()) != null) {
+ *         visualizer.notifyListeners(action);
+ *     }
+ *     reader.close();
+ * </pre>
+ * The schedule items of the actions are read-only copies of the
+ * items at the time the actions were recorded.
+ *
+ * @since 5.0
+ * @see TimelineRecorder
+ */
+public class TimelineReader {
+	private DataInputStream in;
+
+	/**
+	 * Opens a timeline file
+	 * @param fileName the name of the timeline file
+	 * @throws IOException if the file cannot be read or is not a timeline
+	 */
+	public TimelineReader(String fileName) throws IOException {
+		InputStream stream = new FileInputStream(fileName);
+		if(fileName.endsWith(".gz")) {
+			stream = new GZIPInputStream(stream);
+		}
+
+		in = new DataInputStream(new BufferedInputStream(stream));
+		if(in.readInt() != TimelineRecorder.MAGIC) {
+			in.close();
+			throw new IOException(fileName + " is not a timeline file.");
+		}
+
+		int version = in.readUnsignedByte();
+		if(version != TimelineRecorder.VERSION) {
+			in.close();
+			throw new IOException("Unsupported timeline version: " + version);
+		}
+	}
+
+	/**
+	 * Reads the next action of the timeline
+	 * @return the action or <code>null</code> if there are no more actions
+	 * @throws IOException if the file cannot be read
+	 */
+	public AllocationAction next() throws IOException {
+		double time;
+		try {
+			time = in.readDouble();
+		} catch (EOFException e) {
+			return null;
+		}
+
+		int subject = in.readInt();
+		ActionType type = getActionType(in.readUnsignedByte());
+		AllocationAction action = new AllocationAction(type);
+		action.setTime(time);
+		action.setSubject(subject);
+
+		int numItems = in.readInt();
+		if(numItems < 0) {
+			return action;
+		}
+
+		LinkedList<ScheduleItem> items = new LinkedList<ScheduleItem>();
+		for(int i=0; i<numItems; i++) {
+			items.add(readItem());
+		}
+		action.setScheduleItems(items);
+		return action;
+	}
+
+	/**
+	 * Closes the timeline file
+	 * @throws IOException if the file cannot be closed
+	 */
+	public void close() throws IOException {
+		in.close();
+	}
+
+	// ------------------------- PRIVATE METHODS -------------------------
+
+	/*
+	 * Reads the state of a schedule item
+	 */
+	private ScheduleItem readItem() throws IOException {
+		RecordedItem item = new RecordedItem();
+		item.id = in.readInt();
+		item.senderId = in.readInt();
+		item.status = in.readInt();
+		int flags = in.readUnsignedByte();
+		item.reservation = (flags & TimelineRecorder.FLAG_RESERVATION) != 0;
+		item.reserved = (flags & TimelineRecorder.FLAG_RESERVED) != 0;
+		item.numPE = in.readInt();
+		item.partition = in.readInt();
+		item.priority = in.readInt();
+		item.submissionTime = in.readDouble();
+		item.startTime = in.readDouble();
+		item.actualFinishTime = in.readDouble();
+		item.expectedFinishTime = in.readDouble();
+
+		int numRanges = in.readInt();
+		if(numRanges >= 0) {
+			item.ranges = new PERangeList();
+			for(int i=0; i<numRanges; i++) {
+				int begin = in.readInt();
+				item.ranges.add(new PERange(begin, in.readInt()));
+			}
+		}
+		return item;
+	}
+
+	/*
+	 * Finds the action type with the given value
+	 */
+	private static ActionType getActionType(int value) throws IOException {
+		for(ActionType type : ActionType.values()) {
+			if(type.intValue() == value) {
+				return type;
+			}
+		}
+		throw new IOException("Invalid action type: " + value);
+	}
+
+	/**
+	 * A copy of a schedule item as recorded in a timeline
+	 */
+	private static class RecordedItem implements ScheduleItem {
+		private static final DecimalFormat decFormater = new DecimalFormat("#,##0.00");
+		private int id, senderId, status, numPE, partition, priority;
+		private boolean reservation, reserved;
+		private double submissionTime, startTime;
+		private double actualFinishTime, expectedFinishTime;
+		private PERangeList ranges;
+
+		public int getID() {
+			return id;
+		}
+
+		public int getSenderID() {
+			return senderId;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		public int getNumPE() {
+			return numPE;
+		}
+
+		public double getSubmissionTime() {
+			return submissionTime;
+		}
+
+		public double getStartTime() {
+			return startTime;
+		}
+
+		public double getActualFinishTime() {
+			return actualFinishTime;
+		}
+
+		public double getExpectedFinishTime() {
+			return expectedFinishTime;
+		}
+
+		public int getPriority() {
+			return priority;
+		}
+
+		public int getPartitionID() {
+			return partition;
+		}
+
+		public PERangeList getPERangeList() {
+			return ranges;
+		}
+
+		public boolean isAdvanceReservation() {
+			return reservation;
+		}
+
+		public boolean hasReserved() {
+			return reserved;
+		}
+
+		public String toString(int timeUnit) {
+			StringBuilder stringBuilder = new StringBuilder();
+			stringBuilder.append((reservation ? "Reservation" : "Gridlet") + " ID: " + id);
+			stringBuilder.append("\nUser ID: " + senderId);
+			stringBuilder.append("\nStatus: " + status);
+			stringBuilder.append("\nSub. Time: " + decFormater.format(submissionTime / timeUnit));
+			stringBuilder.append("\nStart Time: " + decFormater.format(startTime / timeUnit));
+			stringBuilder.append("\nFinish Time: " + decFormater.format(actualFinishTime / timeUnit));
+			stringBuilder.append("\nNum. PEs: " + numPE);
+			return stringBuilder.toString();
+		}
+
+		public String toString() {
+			return toString(ScheduleItem.TIME_UNIT_SECOND);
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ */
+
+package gridsim.parallel.gui;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import gridsim.GridSim;
+import gridsim.parallel.log.LoggerEnum;
+import gridsim.parallel.log.Logging;
+import gridsim.parallel.profile.PERange;
+import gridsim.parallel.profile.PERangeList;
+import gridsim.parallel.profile.ScheduleItem;
+
+/**
+ * A visualiser for simulations that run without a graphical interface.
+ * Instead of showing the allocation actions, it records them into a
+ * binary timeline file, which can be replayed later using a
+ * {@link TimelineReader}. The file is compressed with gzip if its name
+ * ends with <tt>.gz</tt>. An example on how to use it:
+ * <pre>
+ *     TimelineRecorder recorder = new TimelineRecorder("timeline.bin");
+ *     GridSim.setVisualizer(recorder);
+ *     GridSim.startGridSimulation();
+ *     recorder.close();
+ * </pre>
+ * Each action is stored with the simulation time at which it was performed
+ * and a copy of the state of its schedule items at that time.
+ * <p>
+ * To discard the actions instead, which is the default when the
+ * visualiser is not used, see {@link VisualizerAdaptor}.
+ *
+ * @since 5.0
+ * @see TimelineReader
+ * @see gridsim.GridSim#setVisualizer(Visualizer)
+ */
+public class TimelineRecorder implements Visualizer {
+	private static Logger logger = Logging.getLogger(LoggerEnum.PARALLEL);
+
+	/** Identifies a timeline file */
+	public static final int MAGIC = 0x47535456;
+
+	/** The version of the timeline file format */
+	public static final int VERSION = 1;
+
+	// flags of the schedule items
+	static final int FLAG_RESERVATION = 1;
+	static final int FLAG_RESERVED = 2;
+
+	private DataOutputStream out;
+	private int numActions = 0;
+
+	/**
+	 * Creates a new recorder
+	 * @param fileName the name of the timeline file
+	 * @throws IOException if the file cannot be created
+	 */
+	public TimelineRecorder(String fileName) throws IOException {
+		OutputStream stream = new FileOutputStream(fileName);
+		if(fileName.endsWith(".gz")) {
+			stream = new GZIPOutputStream(stream);
+		}
+
+		out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+	}
+
+    /**
+     * Records the action performed
+     * @param subjectId the subject, or entity, that created the action
+     * @param actionType the action performed
+     * @param pause ignored as the simulation is never paused
+     * @param itemList the list of schedule items
+     * @see ActionType
+     */
+	public void notifyListeners(int subjectId, ActionType actionType,
+			boolean pause, LinkedList<ScheduleItem> itemList) {
+		AllocationAction action = new AllocationAction(actionType);
+		action.setSubject(subjectId);
+		action.setScheduleItems(itemList);
+		action.setTime(GridSim.clock());
+		notifyListeners(action);
+	}
+
+    /**
+     * Records the action performed
+     * @param subjectId the subject, or entity, that created the action
+     * @param actionType the action performed
+     * @param pause ignored as the simulation is never paused
+     * @param item the schedule item
+     * @see ActionType
+     */
+	public void notifyListeners(int subjectId, ActionType actionType,
+			boolean pause, ScheduleItem item) {
+    	LinkedList<ScheduleItem> itemList = null;
+    	if(item != null) {
+    		itemList = new LinkedList<ScheduleItem>();
+    		itemList.add(item);
+    	}
+    	notifyListeners(subjectId, actionType, pause, itemList);
+	}
+
+    /**
+     * Records the action performed
+     * @param subjectId the subject, or entity, that created the action
+     * @param actionType the action performed
+     * @param pause ignored as the simulation is never paused
+     * @see ActionType
+     */
+	public void notifyListeners(int subjectId, ActionType actionType,
+			boolean pause) {
+		notifyListeners(subjectId, actionType, pause,
+				(LinkedList<ScheduleItem>)null);
+	}
+
+    /**
+     * Records the action performed
+     * @param action the action performed
+     * @see ActionType
+     */
+	public synchronized void notifyListeners(AllocationAction action) {
+		if(out == null) {
+			return;
+		}
+
+		try {
+			writeAction(action);
+			numActions++;
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Error writing the timeline, " +
+					"the remaining actions will not be recorded.", e);
+			close();
+		}
+	}
+
+	/**
+	 * Gets the number of actions recorded so far
+	 * @return the number of actions
+	 */
+	public synchronized int getNumActions() {
+		return numActions;
+	}
+
+	/**
+	 * Writes the remaining actions and closes the timeline file.
+	 * Actions performed after this method is called are discarded.
+	 */
+	public synchronized void close() {
+		if(out == null) {
+			return;
+		}
+
+		try {
+			out.close();
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Error closing the timeline.", e);
+		}
+		out = null;
+	}
+
+	// ------------------------- PRIVATE METHODS -------------------------
+
+	/*
+	 * Writes an action and the current state of its items
+	 */
+	private void writeAction(AllocationAction action) throws IOException {
+		out.writeDouble(action.getTime());
+		out.writeInt(action.getSubject());
+		out.writeByte(action.getActionType().intValue());
+
+		LinkedList<ScheduleItem> items = action.getScheduleItems();
+		if(items == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		out.writeInt(items.size());
+		for(ScheduleItem item : items) {
+			int flags = 0;
+			if(item.isAdvanceReservation()) {
+				flags |= FLAG_RESERVATION;
+			}
+			if(item.hasReserved()) {
+				flags |= FLAG_RESERVED;
+			}
+
+			out.writeInt(item.getID());
+			out.writeInt(item.getSenderID());
+			out.writeInt(item.getStatus());
+			out.writeByte(flags);
+			out.writeInt(item.getNumPE());
+			out.writeInt(item.getPartitionID());
+			out.writeInt(item.getPriority());
+			out.writeDouble(item.getSubmissionTime());
+			out.writeDouble(item.getStartTime());
+			out.writeDouble(item.getActualFinishTime());
+			out.writeDouble(item.getExpectedFinishTime());
+
+			PERangeList ranges = item.getPERangeList();
+			if(ranges == null) {
+				out.writeInt(-1);
+				continue;
+			}
+
+			out.writeInt(ranges.size());
+			for(PERange range : ranges) {
+				out.writeInt(range.getBegin());
+				out.writeInt(range.getEnd());
+			}
+		}
+	}
+}
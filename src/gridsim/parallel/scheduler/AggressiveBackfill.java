@@ -140,6 +140,7 @@ public class AggressiveBackfill extends AllocPolicy {
             }
            	
             processEvent(ev);
+            super.notifyFreePE();
         }
 
         // CHECK for ANY INTERNAL EVENTS WAITING TO BE PROCESSED
@@ -321,6 +321,7 @@ public class AggressiveMultiPartitions extends AllocPolicy {
             }
            	
             processEvent(ev);
+            super.notifyFreePE();
         }
 
         // CHECK for ANY INTERNAL EVENTS WAITING TO BE PROCESSED
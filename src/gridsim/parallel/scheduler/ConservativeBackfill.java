@@ -177,6 +177,7 @@ public class ConservativeBackfill extends AllocPolicy {
             }
            	
             processEvent(ev);
+            super.notifyFreePE();
         }
 
         // CHECK for ANY INTERNAL EVENTS WAITING TO BE PROCESSED
@@ -181,6 +181,7 @@ public class SelectiveBackfill extends AllocPolicy {
             }
            	
             processEvent(ev);
+            super.notifyFreePE();
         }
 
         // CHECK for ANY INTERNAL EVENTS WAITING TO BE PROCESSED
@@ -1,7 +1,13 @@
 package gridsim.parallel.util;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import gridsim.Gridlet;
 
@@ -180,6 +186,19 @@ import gridsim.Gridlet;
  * to change the inter-arrival parameters.
  *
  * <p>
+ * ---------------------------- <br>
+ * Generating large workloads: <br>
+ * ---------------------------- <br>
+ * By default all jobs are drawn from a single random stream, one after 
+ * the other. Use {@link #setParallelGeneration(int)} to split the workload
+ * into simulated days instead. Each day uses its own random stream, whose 
+ * seed is derived from the workload seed and the day number, so days can 
+ * be generated independently by a pool of threads and then merged in 
+ * arrival order. The jobs generated in this mode are the same for a given
+ * seed regardless of the number of threads used, but they differ from the 
+ * jobs generated by the default sequential mode.
+ *
+ * <p>
  * For more information on the workload model implemented here, please read 
  * the following paper: <br>
  *   Uri Lublin and Dror G. Feitelson, The Workload on Parallel Supercomputers: 
@@ -197,6 +216,8 @@ public class WorkloadLublin99 implements WorkloadModel {
     private int size;          // job size for sending it through a network
     private ArrayList<WorkloadJob> jobs;   // a list with all the jobs generated
     protected Random random = null;   	// the number generator to be used
+    private long seed;                 // the seed given to the workload
+    private int numThreads = 0;        // threads used to generate days (0 = sequential)
     
     // Log PI for log gamma method 
     private static final double LOGPI  =  1.14472988584940017414;
@@ -229,6 +250,9 @@ public class WorkloadLublin99 implements WorkloadModel {
     // small epsilon for the iterative algorithm's accuracy
     private static final double EPS = 1E-10;
     
+    // golden gamma used to derive the seeds of the day substreams
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
     /** Represents interactive jobs */
     public static final int INTERACTIVE_JOBS = 0;
     
@@ -409,6 +433,37 @@ public class WorkloadLublin99 implements WorkloadModel {
 
         init(rating, jobType, seed);
     }
+    
+    /**
+     * Creates a generator for a single simulated day. The new object shares
+     * the parameters and the arrival weights of <tt>model</tt>, but has its
+     * own random stream and arrival state.
+     * @param model the workload model whose parameters are used
+     * @param daySeed the seed of the day's random stream
+     */
+    private WorkloadLublin99(WorkloadLublin99 model, long daySeed) {
+    	this.rating = model.rating;
+    	this.size = model.size;
+    	this.useJobType_ = model.useJobType_;
+    	this.workloadDuration = model.workloadDuration;
+    	this.numJobs = model.numJobs;
+    	this.start = model.start;
+    	this.seed = daySeed;
+    	this.random = new Random(daySeed);
+    	
+    	a1 = model.a1; b1 = model.b1;
+    	a2 = model.a2; b2 = model.b2;
+    	pa = model.pa; pb = model.pb;
+    	aarr = model.aarr; barr = model.barr;
+    	anum = model.anum; bnum = model.bnum;
+    	serialProb = model.serialProb; pow2Prob = model.pow2Prob;
+    	uLow = model.uLow; uMed = model.uMed;
+    	uHi = model.uHi; uProb = model.uProb;
+    	weights = model.weights;
+    	
+    	current_ = new int[2];
+    	timeFromBegin_ = new long[2];
+    }
 
     /**
      * Initialises all the attributes.
@@ -424,6 +479,7 @@ public class WorkloadLublin99 implements WorkloadModel {
     	this.useJobType_ = jobType;
         this.rating = rtg;
         this.jobs = null;
+        this.seed = seed;
         random = new Random(seed);
         workloadDuration = Double.MAX_VALUE;
         start = START;
@@ -887,6 +943,35 @@ public class WorkloadLublin99 implements WorkloadModel {
         return true;
     }
 
+    /**
+     * Enables the generation of the workload by simulated days. Each day is 
+     * created from an independent random stream derived from the seed and 
+     * the day number; <tt>numThreads</tt> days are created concurrently and 
+     * then merged in arrival order. For a given seed the jobs generated are 
+     * the same whatever the number of threads.
+     * @param numThreads the number of threads used to create days, or 
+     * <tt>0</tt> to use the default sequential generation.
+     * @return <tt>true</tt> if the number of threads has been set; 
+     * <tt>false</tt> otherwise.
+     */
+    public boolean setParallelGeneration(int numThreads) {
+    	if(numThreads < 0) {
+    		return false;
+    	}
+    	
+    	this.numThreads = numThreads;
+    	return true;
+    }
+    
+    /**
+     * Gets the number of threads used to create the workload by days.
+     * @return the number of threads, or <tt>0</tt> if the workload is
+     * generated sequentially.
+     */
+    public int getParallelGeneration() {
+    	return numThreads;
+    }
+
     /**
      * Generates jobs according to the model.
      * @return the list of jobs generated; <code>null</code> 
@@ -896,7 +981,9 @@ public class WorkloadLublin99 implements WorkloadModel {
     	if(jobs == null) {
     		jobs = new ArrayList<WorkloadJob>();
     		
-    		if(!createGridlets()) {
+    		boolean success = (numThreads > 0) ? 
+    				createGridletsByDay() : createGridlets();
+    		if(!success) {
     			jobs = null;
     		}
     	}
@@ -950,6 +1037,131 @@ public class WorkloadLublin99 implements WorkloadModel {
     	return true;
     }
     
+    /**
+     * Creates the gridlets by simulated days. Rounds of <tt>numThreads</tt>
+     * days are created concurrently and appended to the job list in day
+     * order until either the number of jobs or the workload duration is
+     * reached.
+     * @return <tt>true</tt> if the gridlets were created successfully or
+     * <tt>false</tt> otherwise.
+     */
+    private boolean createGridletsByDay() {
+    	initWeights(anum, bnum, weights);
+    	
+    	ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    	try {
+    		int day = 0;
+    		boolean done = false;
+    		while (!done) {
+    			List<Future<DayJobs>> round = new ArrayList<Future<DayJobs>>(numThreads);
+    			for (int i=0; i<numThreads; i++) {
+    				final WorkloadLublin99 dayModel = 
+    					new WorkloadLublin99(this, substreamSeed(seed, day));
+    				final int dayNumber = day++;
+    				round.add(executor.submit(new Callable<DayJobs>() {
+    					public DayJobs call() {
+    						return dayModel.createDayJobs(dayNumber);
+    					}
+    				}));
+    			}
+    			
+    			for (Future<DayJobs> future : round) {
+    				if (!done) {
+    					done = appendDayJobs(future.get());
+    				}
+    			}
+    		}
+    	} catch (InterruptedException e) {
+    		Thread.currentThread().interrupt();
+    		return false;
+    	} catch (ExecutionException e) {
+    		return false;
+    	} finally {
+    		executor.shutdownNow();
+    	}
+    	
+    	return true;
+    }
+    
+    /**
+     * Creates the jobs that arrive during a given simulated day, using this
+     * object's random stream. The day starts at the start hour and lasts 
+     * 24 hours.
+     * @param day the day number, starting at 0
+     * @return the jobs of the day
+     */
+    private DayJobs createDayJobs(int day) {
+    	long dayStart = (long)day * SECONDS_IN_DAY;
+    	long dayEnd = dayStart + SECONDS_IN_DAY;
+    	DayJobs result = new DayJobs();
+    	
+    	current_[BATCH_JOBS] = 
+    		current_[INTERACTIVE_JOBS] = start * BUCKETS / HOURS_IN_DAY;
+    	timeFromBegin_[INTERACTIVE_JOBS] = dayStart;
+    	calcNextArrival(INTERACTIVE_JOBS, weights, aarr, barr);
+    	if (useJobType_) {
+    		timeFromBegin_[BATCH_JOBS] = dayStart;
+    		calcNextArrival(BATCH_JOBS, weights, aarr, barr);
+    	} else {
+    		timeFromBegin_[BATCH_JOBS] = Long.MAX_VALUE;
+    	}
+    	
+    	int type = INTERACTIVE_JOBS;
+    	while (result.count < numJobs) {
+    		long[] info = getNextArrival(type, weights, aarr, barr);
+    		type = (int)info[0];
+    		long arrTime = info[1];
+    		
+    		if (arrTime > workloadDuration) {
+    			result.lastDay = true;
+    			break;
+    		} else if (arrTime >= dayEnd) {
+    			break;
+    		}
+    		
+    		int nodes = calcNumberOfNodes(serialProb[type] , pow2Prob[type],
+    				uLow[type], uMed[type], uHi[type], uProb[type]);
+    		int runTime = (int)timeFromNodes(a1[type], b1[type], a2[type], b2[type],
+    				pa[type], pb[type], nodes);
+    		result.add(arrTime, nodes, runTime);
+    	}
+    	
+    	return result;
+    }
+    
+    /**
+     * Appends the jobs of a day to the list of jobs.
+     * @param day the jobs of the day
+     * @return <tt>true</tt> if no more days are needed; 
+     * <tt>false</tt> otherwise.
+     */
+    private boolean appendDayJobs(DayJobs day) {
+    	for (int i=0; i<day.count; i++) {
+    		if (jobs.size() >= numJobs) {
+    			return true;
+    		}
+    		
+    		int len = day.runTime[i] * rating;    // calculate a job length for each PE
+    		Gridlet gl = new Gridlet(jobs.size()+1, len, size, size);
+    		gl.setNumPE(day.nodes[i]);            // set the requested num of proc
+    		jobs.add(new WorkloadJob(gl, day.arrival[i]));
+    	}
+    	
+    	return day.lastDay || jobs.size() >= numJobs;
+    }
+    
+    /*
+     * Derives the seed of a day's random stream from the workload seed,
+     * by scrambling the seed advanced by 'day' golden gammas (SplitMix64).
+     * java.util.Random cannot skip ahead, so each day gets its own stream.
+     */
+    private static long substreamSeed(long seed, int day) {
+    	long z = seed + (day + 1) * GOLDEN_GAMMA;
+    	z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    	z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    	return z ^ (z >>> 31);
+    }
+    
     /*
      * We distinguish between serial jobs , power2 jobs and other.
      * for serial job (with probability SerialProb) the number of nodes is 1
@@ -1035,6 +1247,19 @@ public class WorkloadLublin99 implements WorkloadModel {
     private void arrivalInit(double[] aarr, double[] barr, 
     		double[] anum, double[] bnum, int start_hour, double weights[][]) {
     	
+    	current_[BATCH_JOBS] = 
+    		current_[INTERACTIVE_JOBS] = start_hour * BUCKETS / HOURS_IN_DAY; 
+    	initWeights(anum, bnum, weights);
+
+      	calcNextArrival(BATCH_JOBS ,weights,aarr,barr);
+      	calcNextArrival(INTERACTIVE_JOBS,weights,aarr,barr);
+    }
+    
+    /*
+     * Calculates the points of each time interval (bucket) used by the 
+     * arrival process (step A of the algorithm described in 'arrivalInit').
+     */
+    private void initWeights(double[] anum, double[] bnum, double weights[][]) {
     	int idx, moveto = CYCLIC_DAY_START;
     	double[] mean = new double[] {0,0};
 
@@ -1043,9 +1268,6 @@ public class WorkloadLublin99 implements WorkloadModel {
     			weights[i][j] = 0;
     		}
     	}
-    	
-    	current_[BATCH_JOBS] = 
-    		current_[INTERACTIVE_JOBS] = start_hour * BUCKETS / HOURS_IN_DAY; 
 
     	/* 
     	 * for both batch and interactive calculate the propotion of each bucket ,
@@ -1066,9 +1288,6 @@ public class WorkloadLublin99 implements WorkloadModel {
     			weights[j][i] /= mean[j];
     		}
     	}
-
-      	calcNextArrival(BATCH_JOBS ,weights,aarr,barr);
-      	calcNextArrival(INTERACTIVE_JOBS,weights,aarr,barr);
     }
     
     /* 
@@ -1423,5 +1642,37 @@ public class WorkloadLublin99 implements WorkloadModel {
 		}
 		return ans;
 	}
+	
+	/*
+	 * The jobs created for a simulated day, kept in primitive arrays until
+	 * the days are merged and the gridlets are created.
+	 */
+	private static class DayJobs {
+		long[] arrival = new long[256];
+		int[] nodes = new int[256];
+		int[] runTime = new int[256];
+		int count = 0;
+		boolean lastDay = false;   // the workload duration ends in this day
+		
+		void add(long arrTime, int numNodes, int time) {
+			if (count == arrival.length) {
+				int capacity = count * 2;
+				long[] newArrival = new long[capacity];
+				int[] newNodes = new int[capacity];
+				int[] newRunTime = new int[capacity];
+				System.arraycopy(arrival, 0, newArrival, 0, count);
+				System.arraycopy(nodes, 0, newNodes, 0, count);
+				System.arraycopy(runTime, 0, newRunTime, 0, count);
+				arrival = newArrival;
+				nodes = newNodes;
+				runTime = newRunTime;
+			}
+			
+			arrival[count] = arrTime;
+			nodes[count] = numNodes;
+			runTime[count] = time;
+			count++;
+		}
+	}
 } 
 
@@ -35,6 +35,9 @@ public class FailureMsg
     /** The number of machines that will fail in this resource */
     private int numMachines;
 
+    /** The id of the only machine that will fail, or -1 if not specific */
+    private int machineID;
+
 
     /**
      * Creates a new failure message
@@ -45,6 +48,7 @@ public class FailureMsg
         this.time = time;
         res_id  = rid;
         numMachines = 0;
+        machineID = -1;
     }
 
     /**
@@ -102,4 +106,23 @@ public class FailureMsg
         return numMachines;
     }
 
+    /**
+     * This method sets the only machine which will fail in this resource,
+     * e.g. an outage of a machine in an availability trace
+     * @param id the machine id, or -1 if not specific
+     */
+    public void setMachineID(int id)
+    {
+        machineID = id;
+    }
+
+    /**
+     * This method returns the only machine which will fail in this resource
+     * @return the machine id, or -1 if the failed machines are not specific
+     */
+    public int getMachineID()
+    {
+        return machineID;
+    }
+
 } 
@@ -0,0 +1,536 @@
+/*
+ * Title:        GridSim Toolkit
+ * Description:  GridSim (Grid Simulation) Toolkit for Modeling and Simulation
+ *               of Parallel and Distributed Systems such as Clusters and Grids
+ * License:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ */
+
+package gridsim.resFailure;
+
+import gridsim.GridSim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.StringTokenizer;
+import java.util.zip.GZIPInputStream;
+
+
+/**
+ * Reads machine outages from an availability trace file, such as the ones
+ * found in failure trace archives. The trace is read lazily, i.e. only
+ * the outages starting within a look-ahead window are kept in memory, no
+ * matter how long the trace is. Hence, the outages in the file should be
+ * roughly sorted by their start time. An outage that starts more than
+ * the look-ahead window before an earlier one in the file is returned
+ * as soon as it is read.
+ * <p>
+ * Each outage is returned as a {@link gridsim.resFailure.FailureMsg}
+ * object for one machine of a resource. This class is used by
+ * {@link gridsim.resFailure.RegionalGISWithFailure} to send the outages
+ * to resources at the right time.
+ * <p>
+ * The following formats are supported, either plain or compressed with
+ * gzip (the file name ends with <tt>.gz</tt>):
+ * <ul>
+ *      <li> ASCII text, where each line contains the start time in seconds,
+ *           the resource entity name, the machine ID and the duration in
+ *           seconds, separated by spaces or tabs. Lines starting with
+ *           <tt>#</tt> or <tt>;</tt> are comments. For example:
+ *           <pre>
+ *           # start  resource  machine  duration
+ *           3600.0   Res_0     2        7200.0
+ *           </pre>
+ *      <li> compact binary, as created by
+ *           {@link #convert(String, String)}. This format is much faster
+ *           to read for traces with millions of outages.
+ * </ul>
+ *
+ * @see gridsim.resFailure.RegionalGISWithFailure
+ * @see gridsim.resFailure.FailureMsg
+ * @invariant $none
+ */
+public class FailureTraceReader
+{
+    /** The first bytes of a binary trace file, i.e. "GSFT" */
+    public static final int MAGIC = 0x47534654;
+
+    /** The default look-ahead window, i.e. 1 hour */
+    public static final double DEFAULT_LOOK_AHEAD = 3600.0;
+
+    private static final int VERSION = 1;
+    private static final byte RECORD_NAME = 0;      // a new resource name
+    private static final byte RECORD_OUTAGE = 1;    // an outage
+
+    private String fileName_;       // the trace file name
+    private BufferedReader text_;   // for reading a text trace
+    private DataInputStream data_;  // for reading a binary trace
+    private int lineNum_;           // the current line of a text trace
+    private double lookAhead_;      // the look-ahead window in seconds
+
+    private HashMap nameMap_;       // resource name -> resource ID
+    private HashMap indexMap_;      // index in binary trace -> resource name
+    private HashSet unknownSet_;    // unknown resource names
+
+    // the outages read so far, as a min-heap ordered by their start time
+    private double[] start_;
+    private FailureMsg[] msg_;
+    private int size_;
+
+    private double lastStart_;      // the start time of the last outage read
+    private double released_;       // the latest start time returned so far
+
+
+    /**
+     * Opens a trace file for reading
+     * @param fileName  the trace file name
+     * @throws IOException  if the file can not be opened or read
+     * @pre fileName != null
+     * @post $none
+     */
+    public FailureTraceReader(String fileName) throws IOException
+    {
+        if (fileName == null || fileName.length() == 0) {
+            throw new IOException("FailureTraceReader: invalid file name.");
+        }
+
+        fileName_ = fileName;
+        lookAhead_ = DEFAULT_LOOK_AHEAD;
+        lineNum_ = 0;
+        nameMap_ = new HashMap();
+        indexMap_ = new HashMap();
+        unknownSet_ = new HashSet();
+        start_ = new double[64];
+        msg_ = new FailureMsg[64];
+        size_ = 0;
+        lastStart_ = -1;
+        released_ = -1;
+
+        InputStream in = new FileInputStream(fileName);
+        if (fileName.endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+
+        // a binary trace starts with a magic number
+        BufferedInputStream buffer = new BufferedInputStream(in, 65536);
+        buffer.mark(8);
+        DataInputStream data = new DataInputStream(buffer);
+        int magic = 0;
+        try {
+            magic = data.readInt();
+        }
+        catch (EOFException e) {
+            magic = 0;
+        }
+
+        if (magic == MAGIC)
+        {
+            int version = data.readInt();
+            if (version != VERSION)
+            {
+                data.close();
+                throw new IOException("FailureTraceReader: unsupported " +
+                        "version " + version + " of " + fileName);
+            }
+            data_ = data;
+        }
+        else
+        {
+            buffer.reset();
+            text_ = new BufferedReader( new InputStreamReader(buffer) );
+        }
+    }
+
+    /**
+     * Sets the look-ahead window. Outages that are out of order in the
+     * trace by less than this window are still returned in time order.
+     * @param window    the look-ahead window in seconds
+     * @return <tt>true</tt> if successful, <tt>false</tt> otherwise
+     * @pre window >= 0.0
+     * @post $none
+     */
+    public boolean setLookAhead(double window)
+    {
+        if (window < 0.0) {
+            return false;
+        }
+
+        lookAhead_ = window;
+        return true;
+    }
+
+    /**
+     * Gets the look-ahead window
+     * @return the look-ahead window in seconds
+     * @pre $none
+     * @post $result >= 0.0
+     */
+    public double getLookAhead() {
+        return lookAhead_;
+    }
+
+    /**
+     * Gets the start time of the next outage
+     * @return the start time in seconds or <tt>-1</tt> if there are no
+     *         more outages
+     * @pre $none
+     * @post $none
+     */
+    public double peekTime()
+    {
+        fill();
+        if (size_ == 0) {
+            return -1;
+        }
+
+        return Math.max(start_[0], released_);
+    }
+
+    /**
+     * Gets the next outage. The failure length of the returned object is
+     * the duration of the outage in seconds, and the number of failed
+     * machines is always <tt>1</tt>.
+     * @return the next outage or <tt>null</tt> if there are no more outages
+     * @pre $none
+     * @post $none
+     */
+    public FailureMsg poll()
+    {
+        fill();
+        if (size_ == 0) {
+            return null;
+        }
+
+        released_ = Math.max(start_[0], released_);
+        return remove();
+    }
+
+    /**
+     * Closes the trace file. This is done automatically once the end of the
+     * file has been reached.
+     * @pre $none
+     * @post $none
+     */
+    public void close()
+    {
+        try
+        {
+            if (text_ != null) {
+                text_.close();
+            }
+
+            if (data_ != null) {
+                data_.close();
+            }
+        }
+        catch (IOException e) {
+            // ignore
+        }
+
+        text_ = null;
+        data_ = null;
+    }
+
+    /**
+     * Converts a text trace file into the compact binary format
+     * @param textFile      the text trace file name
+     * @param binaryFile    the binary trace file name
+     * @return the number of outages written
+     * @throws IOException  if one of the files can not be read or written
+     * @pre textFile != null
+     * @pre binaryFile != null
+     * @post $result >= 0
+     */
+    public static long convert(String textFile, String binaryFile)
+                               throws IOException
+    {
+        InputStream in = new FileInputStream(textFile);
+        if (textFile.endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in));
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream(
+                                    new FileOutputStream(binaryFile), 65536) );
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        HashMap indexMap = new HashMap();   // resource name -> index
+        long count = 0;
+        int lineNum = 0;
+        String line = null;
+        try
+        {
+            while ( (line = reader.readLine()) != null )
+            {
+                lineNum++;
+                Object[] outage = parseLine(line, lineNum, textFile);
+                if (outage == null) {
+                    continue;
+                }
+
+                // write the resource name the first time it is found
+                String name = (String) outage[1];
+                Integer index = (Integer) indexMap.get(name);
+                if (index == null)
+                {
+                    index = new Integer( indexMap.size() );
+                    indexMap.put(name, index);
+                    out.writeByte(RECORD_NAME);
+                    out.writeUTF(name);
+                }
+
+                out.writeByte(RECORD_OUTAGE);
+                out.writeDouble( ((Double) outage[0]).doubleValue() );
+                out.writeInt( index.intValue() );
+                out.writeInt( ((Integer) outage[2]).intValue() );
+                out.writeDouble( ((Double) outage[3]).doubleValue() );
+                count++;
+            }
+        }
+        finally
+        {
+            reader.close();
+            out.close();
+        }
+
+        return count;
+    }
+
+    //////////////////////// PRIVATE METHODS ///////////////////////////
+
+    /**
+     * Reads outages until the ones starting within the look-ahead window
+     * of the earliest outage are in memory
+     */
+    private void fill()
+    {
+        while (text_ != null || data_ != null)
+        {
+            if (size_ > 0 && lastStart_ > start_[0] + lookAhead_) {
+                break;
+            }
+
+            if (readNext() == false) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Reads the next record of the trace file
+     * @return <tt>false</tt> if the end of the file has been reached,
+     *         <tt>true</tt> otherwise
+     */
+    private boolean readNext()
+    {
+        try
+        {
+            if (text_ != null)
+            {
+                String line = text_.readLine();
+                if (line == null) {
+                    return false;
+                }
+
+                lineNum_++;
+                Object[] outage = parseLine(line, lineNum_, fileName_);
+                if (outage != null)
+                {
+                    add( ((Double) outage[0]).doubleValue(),
+                         (String) outage[1],
+                         ((Integer) outage[2]).intValue(),
+                         ((Double) outage[3]).doubleValue() );
+                }
+                return true;
+            }
+
+            byte type = data_.readByte();
+            if (type == RECORD_NAME)
+            {
+                String name = data_.readUTF();
+                indexMap_.put(new Integer(indexMap_.size()), name);
+                return true;
+            }
+
+            double start = data_.readDouble();
+            Integer index = new Integer( data_.readInt() );
+            int machineID = data_.readInt();
+            double duration = data_.readDouble();
+            add(start, (String) indexMap_.get(index), machineID, duration);
+            return true;
+        }
+        catch (EOFException e) {
+            return false;
+        }
+        catch (IOException e)
+        {
+            System.out.println("FailureTraceReader: Error - can't read " +
+                    fileName_ + ". " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Parses a line of a text trace
+     * @return an array of {start time, resource name, machine ID, duration}
+     *         or <tt>null</tt> if the line is a comment or invalid
+     */
+    private static Object[] parseLine(String line, int lineNum,
+                                      String fileName)
+    {
+        line = line.trim();
+        if (line.length() == 0 || line.startsWith("#") ||
+            line.startsWith(";")) {
+            return null;
+        }
+
+        StringTokenizer token = new StringTokenizer(line);
+        if (token.countTokens() < 4)
+        {
+            System.out.println("FailureTraceReader: Warning - ignoring " +
+                    "line " + lineNum + " of " + fileName + ".");
+            return null;
+        }
+
+        Object[] outage = new Object[4];
+        try
+        {
+            outage[0] = new Double( token.nextToken() );
+            outage[1] = token.nextToken();
+            outage[2] = new Integer( token.nextToken() );
+            outage[3] = new Double( token.nextToken() );
+        }
+        catch (NumberFormatException e)
+        {
+            System.out.println("FailureTraceReader: Warning - ignoring " +
+                    "line " + lineNum + " of " + fileName + ".");
+            return null;
+        }
+
+        return outage;
+    }
+
+    /**
+     * Adds an outage into the heap, ignoring unknown resources and outages
+     * without any duration
+     */
+    private void add(double start, String name, int machineID,
+                     double duration)
+    {
+        lastStart_ = start;
+        if (name == null || duration <= 0.0) {
+            return;
+        }
+
+        int resID = getResourceID(name);
+        if (resID < 0) {
+            return;
+        }
+
+        FailureMsg msg = new FailureMsg(duration, resID);
+        msg.setNumMachines(1);
+        msg.setMachineID(machineID);
+
+        if (size_ == start_.length)
+        {
+            double[] newStart = new double[size_ * 2];
+            FailureMsg[] newMsg = new FailureMsg[size_ * 2];
+            System.arraycopy(start_, 0, newStart, 0, size_);
+            System.arraycopy(msg_, 0, newMsg, 0, size_);
+            start_ = newStart;
+            msg_ = newMsg;
+        }
+
+        // move the parents down until the position is found
+        int i = size_++;
+        while (i > 0)
+        {
+            int parent = (i - 1) / 2;
+            if (start_[parent] <= start) {
+                break;
+            }
+
+            start_[i] = start_[parent];
+            msg_[i] = msg_[parent];
+            i = parent;
+        }
+
+        start_[i] = start;
+        msg_[i] = msg;
+    }
+
+    /** Removes the earliest outage from the heap */
+    private FailureMsg remove()
+    {
+        FailureMsg result = msg_[0];
+        size_--;
+        double start = start_[size_];
+        FailureMsg msg = msg_[size_];
+        msg_[size_] = null;
+
+        // move the last outage down from the top
+        int i = 0;
+        while (2*i + 1 < size_)
+        {
+            int child = 2*i + 1;
+            if (child + 1 < size_ && start_[child + 1] < start_[child]) {
+                child++;
+            }
+
+            if (start <= start_[child]) {
+                break;
+            }
+
+            start_[i] = start_[child];
+            msg_[i] = msg_[child];
+            i = child;
+        }
+
+        if (size_ > 0)
+        {
+            start_[i] = start;
+            msg_[i] = msg;
+        }
+
+        return result;
+    }
+
+    /** Gets the ID of a resource, or <tt>-1</tt> if it does not exist */
+    private int getResourceID(String name)
+    {
+        Integer id = (Integer) nameMap_.get(name);
+        if (id != null) {
+            return id.intValue();
+        }
+
+        int resID = GridSim.getEntityId(name);
+        if (resID < 0)
+        {
+            // only warn once for each unknown resource
+            if (unknownSet_.add(name) == true)
+            {
+                System.out.println("FailureTraceReader: Warning - ignoring " +
+                        "the outages of an unknown resource " + name + ".");
+            }
+            return -1;
+        }
+
+        nameMap_.put(name, new Integer(resID));
+        return resID;
+    }
+
+}
+
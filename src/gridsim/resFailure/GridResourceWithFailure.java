@@ -17,6 +17,9 @@ import gridsim.resFailure.*;
 import gridsim.*;
 import gridsim.net.*;
 import gridsim.index.*;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import eduni.simjava.Sim_event;
 import eduni.simjava.Sim_system;
@@ -65,6 +68,12 @@ public class GridResourceWithFailure extends GridSimCore
     // a flag to denote whether to record events into a file or not
     private boolean record_ = false;
 
+    // entities to be notified when this resource fails or recovers
+    private LinkedHashSet subscriberList_ = new LinkedHashSet();
+
+    // machine ID -> number of overlapping outages of that machine
+    private HashMap outageMap_ = new HashMap();
+
 
     /**
      * Allocates a new GridResourceWithFailure object. When making a different
@@ -425,8 +434,18 @@ public class GridResourceWithFailure extends GridSimCore
      *      <li> {@link gridsim.GridSimTags#GRIDLET_RESUME} </li>
      *      <li> {@link gridsim.GridSimTags#GRIDLET_MOVE} </li>
      *      <li> {@link gridsim.GridSimTags#GRIDLET_STATUS} </li>
+     *      <li> {@link gridsim.GridSimTags#GRIDRESOURCE_SUBSCRIBE_FAILURE} </li>
+     *      <li> {@link gridsim.GridSimTags#GRIDRESOURCE_UNSUBSCRIBE_FAILURE}
+     *           </li>
      * </ul>
      * <br>
+     * An entity subscribed by using
+     * {@link gridsim.GridSimTags#GRIDRESOURCE_SUBSCRIBE_FAILURE} receives a
+     * {@link gridsim.GridSimTags#GRIDRESOURCE_STATUS_CHANGED} event with an
+     * {@link gridsim.resFailure.AvailabilityInfo} object whenever all the
+     * machines of this resource fail, and whenever it recovers from such a
+     * failure. Hence, the entity does not need to poll this resource.
+     * <br>
      * This method also calls these methods in the following order:
      * <ol>
      *      <li> {@link #registerOtherEntity()} method
@@ -488,6 +507,7 @@ public class GridResourceWithFailure extends GridSimCore
 
             // process the received event
             processEvent(ev);
+            policy_.notifyFreePE();
         }
 
         // remove I/O entities created during construction of this entity
@@ -601,8 +621,8 @@ public class GridResourceWithFailure extends GridSimCore
     {
         int src_id = -1;
 
-        // GRIDRESOURCE_RECOVERY and GRIDRESOURCE_FAILURE_INFO (polling request)
-        // are ALWAYS processed.
+        // GRIDRESOURCE_RECOVERY, GRIDRESOURCE_FAILURE_INFO (polling request)
+        // and (un)subscription requests are ALWAYS processed.
         if (ev.get_tag() == GridSimTags.GRIDRESOURCE_RECOVERY)
         {
             processRecovery(ev);
@@ -611,6 +631,30 @@ public class GridResourceWithFailure extends GridSimCore
         {
             processPolling(ev);
         }
+        else if (ev.get_tag() == GridSimTags.GRIDRESOURCE_SUBSCRIBE_FAILURE ||
+                 ev.get_tag() == GridSimTags.GRIDRESOURCE_UNSUBSCRIBE_FAILURE)
+        {
+            processSubscription(ev);
+            return;
+        }
+        else if (ev.get_tag() == GridSimTags.RESOURCE_SUBSCRIBE_FREE_PE)
+        {
+            policy_.subscribeFreePE( ((Integer) ev.get_data()).intValue() );
+            return;
+        }
+        else if (ev.get_tag() == GridSimTags.RESOURCE_UNSUBSCRIBE_FREE_PE)
+        {
+            policy_.unsubscribeFreePE( ((Integer) ev.get_data()).intValue() );
+            return;
+        }
+        // outages of a single machine are counted even when all machines
+        // are out of order, as they may overlap each other
+        else if (ev.get_tag() == GridSimTags.GRIDRESOURCE_FAILURE &&
+                 getMachineOutage(ev) != null)
+        {
+            processMachineFailure( getMachineOutage(ev) );
+            return;
+        }
 
         // Only if the resource is not failed, then process other events
         if (!getResourceFailed())
@@ -1051,11 +1095,14 @@ public class GridResourceWithFailure extends GridSimCore
         }
         *******/
 
-        // if all the machines of the resource are out of order or not
+        // if all the machines of the resource are out of order or not.
+        // The reply is delayed instead of pausing this resource, so that
+        // other events can still be processed in the meantime.
+        double delay = 0.0;
         if (getResourceFailed())
         {
             resAv.setAvailability(false);
-            super.sim_pause(GridSimTags.POLLING_TIME_USER);
+            delay = GridSimTags.POLLING_TIME_USER;
         }
         else
         {
@@ -1063,10 +1110,58 @@ public class GridResourceWithFailure extends GridSimCore
         }
 
         // sends back to the sender
-        super.send(super.output, 0.0, ev.get_tag(),
+        super.send(super.output, delay, ev.get_tag(),
                    new IO_data(resAv, Link.DEFAULT_MTU, resAv.getSrcID()));
     }
 
+    /**
+     * Processes a request to subscribe or unsubscribe an entity from the
+     * failure and recovery notifications of this resource.
+     * @param ev  a Sim_event object
+     * @pre ev != null
+     * @post $none
+     */
+    private void processSubscription(Sim_event ev)
+    {
+        Object obj = ev.get_data();
+        if ( !(obj instanceof Integer) )
+        {
+            System.out.println(super.get_name() + ".processSubscription(): " +
+                    "Error - the entity ID is missing.");
+            return;
+        }
+
+        if (ev.get_tag() == GridSimTags.GRIDRESOURCE_SUBSCRIBE_FAILURE) {
+            subscriberList_.add(obj);
+        }
+        else {
+            subscriberList_.remove(obj);
+        }
+    }
+
+    /**
+     * Notifies all subscribers that this resource has failed or recovered.
+     * @param available  <tt>true</tt> if this resource has recovered,
+     *                   <tt>false</tt> if all its machines have failed
+     * @pre $none
+     * @post $none
+     */
+    private void notifySubscribers(boolean available)
+    {
+        Iterator it = subscriberList_.iterator();
+        while ( it.hasNext() )
+        {
+            int destID = ((Integer) it.next()).intValue();
+            AvailabilityInfo resAv = new AvailabilityInfo(super.get_id(),
+                                                          destID);
+            resAv.setAvailability(available);
+
+            super.send(super.output, 0.0,
+                       GridSimTags.GRIDRESOURCE_STATUS_CHANGED,
+                       new IO_data(resAv, Link.DEFAULT_MTU, destID) );
+        }
+    }
+
 
     /**
      * This method simulates the failure of a resource.
@@ -1120,6 +1215,7 @@ public class GridResourceWithFailure extends GridSimCore
                 // set all the machines as failed
                 setMachineFailed(true, numMachines);
                 emptyGridletLists();
+                notifySubscribers(false);
 
                 // as all the machines in this resource have failed, all
                 // gridlets are lost (the ones running and the ones waiting)
@@ -1169,6 +1265,13 @@ public class GridResourceWithFailure extends GridSimCore
      */
     private void processRecovery(Sim_event ev)
     {
+        FailureMsg outage = getMachineOutage(ev);
+        if (outage != null)
+        {
+            processMachineRecovery(outage);
+            return;
+        }
+
         int mach = resource_.getNumMachines();
         int failedMach = resource_.getNumFailedMachines();
 
@@ -1176,31 +1279,151 @@ public class GridResourceWithFailure extends GridSimCore
 
         // If all the machines of this resource were out of order,
         // then we have to register again this resource to the GIS
-        // Only the regGIS, but not the systemGIS. This is because the
-        // systemGIS will always have all the res in its list. Resources are
-        // not removed from the systemGIS when they fail.
-        if (mach == failedMach)
+        if (mach == failedMach) {
+            registerAfterFailure();
+        }
+        else {
+            System.out.println(super.get_name() +
+                ": Resource recovered at clock: " + GridSim.clock());
+        }
+
+        if (record_) {
+            write("Recovery", 0); // Write in the results file
+        }
+    }
+
+    /**
+     * Registers this resource again to the regional GIS after all of its
+     * machines have been out of order, and notifies the subscribers.
+     * Only the regGIS, but not the systemGIS. This is because the
+     * systemGIS will always have all the res in its list. Resources are
+     * not removed from the systemGIS when they fail.
+     */
+    private void registerAfterFailure()
+    {
+        int gisID = GridSim.getEntityId(regionalGISName_);
+
+        // send the registration to regGIS
+        super.send(super.output, GridSimTags.SCHEDULE_NOW,
+                   GridSimTags.REGISTER_RESOURCE,
+                   new IO_data(new Integer(super.get_id()), SIZE, gisID));
+
+
+        System.out.println(super.get_name() + ": Resource recovered." +
+                   " Registering the resource at the regional GIS AGAIN" +
+                   " after the failure at clock: " + GridSim.clock());
+
+        notifySubscribers(true);
+    }
+
+    /**
+     * Gets the outage of a single machine, such as the ones read from an
+     * availability trace by {@link gridsim.resFailure.FailureTraceReader}
+     * @param ev   a Sim_event object
+     * @return the outage or <tt>null</tt> if this event is not about a
+     *         single machine
+     */
+    private FailureMsg getMachineOutage(Sim_event ev)
+    {
+        Object obj = ev.get_data();
+        if (obj instanceof FailureMsg && ((FailureMsg) obj).getMachineID() >= 0)
         {
-            int gisID = GridSim.getEntityId(regionalGISName_);
+            return (FailureMsg) obj;
+        }
 
-            // send the registration to regGIS
-            super.send(super.output, GridSimTags.SCHEDULE_NOW,
-                       GridSimTags.REGISTER_RESOURCE,
-                       new IO_data(new Integer(super.get_id()), SIZE, gisID));
+        return null;
+    }
 
+    /**
+     * This method simulates the failure of a single machine.
+     * If the machine is already out of order, the outage is only counted,
+     * so that the machine recovers at the end of the last outage.
+     * @param outage   the outage of a machine
+     * @pre outage != null
+     * @post $none
+     */
+    private void processMachineFailure(FailureMsg outage)
+    {
+        int machID = outage.getMachineID();
+        Machine mach = resource_.getMachineList().getMachine(machID);
+        if (mach == null)
+        {
+            System.out.println(super.get_name() + ".processMachineFailure(): " +
+                    "Warning - machine " + machID + " does not exist.");
+            return;
+        }
 
-            System.out.println(super.get_name() + ": Resource recovered." +
-                       " Registering the resource at the regional GIS AGAIN" +
-                       " after the failure at clock: " + GridSim.clock());
+        Integer key = new Integer(machID);
+        int[] count = (int[]) outageMap_.get(key);
+        if (count == null)
+        {
+            count = new int[1];
+            outageMap_.put(key, count);
+        }
 
+        count[0]++;
+        if (count[0] > 1) {
+            return;     // already out of order
+        }
+
+        if (record_)
+        {
+            System.out.println(super.get_name() + " - Machine: " + machID +
+                    " is set to FAILED until clock: " +
+                    (GridSim.clock() + outage.getTime()) );
+            mach.setFailed(super.get_name(), true);
+            write("Failure", 1);
         }
         else {
-            System.out.println(super.get_name() +
-                ": Resource recovered at clock: " + GridSim.clock());
+            mach.setFailed(true);
         }
 
-        if (record_) {
-            write("Recovery", 0); // Write in the results file
+        emptyGridletLists(machID);
+
+        // none of the machines of this resource is working now
+        if ( getResourceFailed() )
+        {
+            emptyGridletLists();
+            notifySubscribers(false);
+        }
+    }
+
+    /**
+     * This method simulates the recovery of a single machine at the end
+     * of its last outage.
+     * @param outage   the outage of a machine
+     * @pre outage != null
+     * @post $none
+     */
+    private void processMachineRecovery(FailureMsg outage)
+    {
+        Integer key = new Integer( outage.getMachineID() );
+        int[] count = (int[]) outageMap_.get(key);
+        if (count == null) {
+            return;
+        }
+
+        count[0]--;
+        if (count[0] > 0) {
+            return;     // another outage of this machine is still going on
+        }
+
+        outageMap_.remove(key);
+        Machine mach = resource_.getMachineList().getMachine( key.intValue() );
+        boolean resFailed = getResourceFailed();
+        if (record_)
+        {
+            System.out.println(super.get_name() + " - Machine: " + key +
+                    " is set to WORKING");
+            mach.setFailed(super.get_name(), false);
+            write("Recovery", 0);
+        }
+        else {
+            mach.setFailed(false);
+        }
+
+        if (resFailed) {
+            registerAfterFailure();
         }
     }
 
@@ -92,6 +92,12 @@ public class RegionalGISWithFailure extends AbstractGIS
     // denotes whether sim has just began or it has been running for some time
     private boolean begining;
 
+    // whether to poll the resources or to be notified by them
+    private boolean polling_;
+
+    // the machine outages to be injected, or null if using the generators
+    private FailureTraceReader failureTrace_;
+
 
 
     /**
@@ -185,6 +191,39 @@ public class RegionalGISWithFailure extends AbstractGIS
                    super.get_name() + " entity");
    }
 
+    /**
+     * Creates a new regional GIS entity that replays the machine outages
+     * of an availability trace, instead of generating resource failures.
+     * Each outage is sent to its resource at its start time, and the
+     * recovery at its end time. The trace is read while the simulation
+     * is running, hence it can contain millions of outages.
+     * @param name  this regional GIS name
+     * @param link  a network link to this entity
+     * @param failureTrace  the machine outages to be replayed
+     * @throws Exception This happens when creating this entity before
+     *                   initializing GridSim package or this entity name is
+     *                   <tt>null</tt> or empty, or the trace is <tt>null</tt>
+     * @see gridsim.resFailure.FailureTraceReader
+     * @pre name != null
+     * @pre link != null
+     * @pre failureTrace != null
+     * @post $none
+     */
+    public RegionalGISWithFailure(String name, Link link,
+                      FailureTraceReader failureTrace) throws Exception
+    {
+        super(name, link);
+        if (failureTrace == null)
+        {
+            throw new Exception(super.get_name() +
+                    " : Problem when setting the failure trace for the " +
+                    super.get_name() + " entity");
+        }
+
+        init();
+        failureTrace_ = failureTrace;
+    }
+
     /**
      * Asks this resource to record its activities. <br>
      * NOTE: this method should be called <b>BEFORE</b> the simulation starts.
@@ -219,6 +258,36 @@ public class RegionalGISWithFailure extends AbstractGIS
         numRes_ = -1;
 
         begining = true;
+        polling_ = false;
+        failureTrace_ = null;
+    }
+
+    /**
+     * Sets how this entity finds out about resource failures. By default,
+     * each resource notifies this entity when it fails or recovers.
+     * Alternatively, this entity polls all of its resources every
+     * {@link gridsim.GridSimTags#POLLING_TIME_GIS} seconds, which sends
+     * many more events. <br>
+     * NOTE: this method should be called <b>BEFORE</b> the simulation starts.
+     *
+     * @param polling   <tt>true</tt> to poll the resources periodically,
+     *                  <tt>false</tt> to be notified by the resources
+     * @pre $none
+     * @post $none
+     */
+    public void setPolling(boolean polling) {
+        polling_ = polling;
+    }
+
+    /**
+     * Checks whether this entity polls its resources periodically or is
+     * notified by them
+     * @return <tt>true</tt> if polling, <tt>false</tt> if notified
+     * @pre $none
+     * @post $none
+     */
+    public boolean isPolling() {
+        return polling_;
     }
 
     /**
@@ -286,6 +355,13 @@ public class RegionalGISWithFailure extends AbstractGIS
                 ".processRegisterResourceAR(): Warning - can't register " +
                 "a resource ID.");
         }
+        else
+        {
+            Integer id = (Integer) ev.get_data();
+            subscribeResource(id);
+            super.notifyDirectoryChange(id.intValue(),
+                                        AbstractGIS.REGISTER_RESOURCE_AR);
+        }
     }
 
     /**
@@ -308,6 +384,61 @@ public class RegionalGISWithFailure extends AbstractGIS
                 ".processRegisterResource(): Warning - can't register " +
                 "a resource ID.");
         }
+        else
+        {
+            Integer id = (Integer) ev.get_data();
+            subscribeResource(id);
+            super.notifyDirectoryChange(id.intValue(),
+                                        AbstractGIS.REGISTER_RESOURCE);
+        }
+    }
+
+    /**
+     * Asks a newly registered resource to notify this entity when it fails
+     * or recovers, unless this entity polls its resources instead.
+     * A resource registers again after recovering from a failure, but it
+     * keeps only one subscription per entity.
+     * @param resID  a resource ID
+     * @pre resID != null
+     * @post $none
+     */
+    private void subscribeResource(Integer resID)
+    {
+        if (polling_) {
+            return;
+        }
+
+        super.send(super.output, GridSimTags.SCHEDULE_NOW,
+                   GridSimTags.GRIDRESOURCE_SUBSCRIBE_FAILURE,
+                   new IO_data(myID_, Link.DEFAULT_MTU, resID.intValue()) );
+    }
+
+    /**
+     * This function processes an incoming event,
+     * whose tag is GRIDRESOURCE_STATUS_CHANGED.
+     * A failed resource is removed from the list of available resources.
+     * A recovered resource is added back once it registers again.
+     * @param ev  a Sim_event object (or an incoming event or request)
+     */
+    private void processResourceStatusChanged(Sim_event ev)
+    {
+        Object obj = ev.get_data();
+        if ( !(obj instanceof AvailabilityInfo) ) {
+            return;
+        }
+
+        AvailabilityInfo resAv = (AvailabilityInfo) obj;
+        if (record_) {
+            System.out.println(super.get_name() +
+                ": receives a status notification from " +
+                GridSim.getEntityName(resAv.getResID()) +
+                ". Is res available? " + resAv.getAvailability() +
+                ". Clock: " + GridSim.clock());
+        }
+
+        if (!resAv.getAvailability()) {
+            removeResource( resAv.getResID() );
+        }
     }
 
     /**
@@ -459,6 +590,56 @@ public class RegionalGISWithFailure extends AbstractGIS
 
     }
 
+    /**
+     * Sends all machine outages of the failure trace that start now to
+     * their resources, and then schedules an event to itself for the next
+     * outage. Hence, only one outage of the trace is scheduled at any time.
+     */
+    private void processTraceFailure()
+    {
+        while (failureTrace_.peekTime() >= 0 &&
+               failureTrace_.peekTime() <= GridSim.clock())
+        {
+            FailureMsg outage = failureTrace_.poll();
+            int res_id = outage.getRes();
+
+            // Sends the recovery time for this machine. Sends
+            // a deferred event to itself for that.
+            super.send(super.get_id(), outage.getTime(),
+                       GridSimTags.GRIDRESOURCE_RECOVERY, outage);
+
+            /*****************/
+            if (record_) {
+                System.out.println(super.get_name() +
+                   ": sends a GRIDRESOURCE_FAILURE event to the resource " +
+                   GridSim.getEntityName(res_id) + ". Machine: " +
+                   outage.getMachineID() + ". Clock: " + GridSim.clock() +
+                   ". Fail duration: " + outage.getTime() + " seconds.");
+            }
+            /*****************/
+
+            // Send the GRIDRESOURCE_FAILURE event to the resource.
+            super.send(super.output, 0.0, GridSimTags.GRIDRESOURCE_FAILURE,
+                       new IO_data(outage, Link.DEFAULT_MTU, res_id));
+        }
+
+        scheduleTraceFailure();
+    }
+
+    /**
+     * Schedules an event to itself for the next outage of the failure trace
+     */
+    private void scheduleTraceFailure()
+    {
+        double time = failureTrace_.peekTime();
+        if (time < 0) {
+            return;     // no more outages
+        }
+
+        double delay = Math.max(0.0, time - GridSim.clock());
+        super.send(super.get_id(), delay, GridSimTags.GRIDRESOURCE_FAILURE);
+    }
+
     /**
      * This function processes an incoming event, whose tag is
      * GRIDRESOURCE_RECOVERY.
@@ -530,6 +711,8 @@ public class RegionalGISWithFailure extends AbstractGIS
             if (((Integer) resList_.get(j)).intValue() == resID)
             {
                 resList_.remove(j);
+                super.notifyDirectoryChange(resID,
+                        AbstractGIS.NOTIFY_GIS_RESOURCE_FAILURE);
 
                 if (record_) {
                     write("Removing", resID, GridSim.clock());
@@ -748,7 +931,12 @@ public class RegionalGISWithFailure extends AbstractGIS
         {
             // Resource failure event: send a failure event to a resource.
             case GridSimTags.GRIDRESOURCE_FAILURE:
-                processGridResource_Failure(ev);
+                if (failureTrace_ != null) {
+                    processTraceFailure();
+                }
+                else {
+                    processGridResource_Failure(ev);
+                }
                 break;
 
                 // Resource recovery event.
@@ -762,6 +950,11 @@ public class RegionalGISWithFailure extends AbstractGIS
                 processGridResource_Polling(ev);
                 break;
 
+                // A resource tells the GIS that it has failed or recovered
+            case GridSimTags.GRIDRESOURCE_STATUS_CHANGED:
+                processResourceStatusChanged(ev);
+                break;
+
                 // A user tells the GIS that a resource is out of order
             case AbstractGIS.NOTIFY_GIS_RESOURCE_FAILURE:
                 processResourceFailed(ev);
@@ -894,6 +1087,36 @@ public class RegionalGISWithFailure extends AbstractGIS
         }
     }
 
+    /**
+     * Applies a change in the resource list of another regional GIS to the
+     * global resource lists, if they have already been received.
+     *
+     * @param resourceID  the resource ID
+     * @param change      {@link AbstractGIS#REGISTER_RESOURCE},
+     *                    {@link AbstractGIS#REGISTER_RESOURCE_AR} or
+     *                    {@link AbstractGIS#NOTIFY_GIS_RESOURCE_FAILURE}
+     * @pre resourceID >= 0
+     * @post $none
+     */
+    protected void updateGlobalDirectory(int resourceID, int change)
+    {
+        applyDirectoryChange(globalResList_, globalResARList_,
+                             resourceID, change);
+    }
+
+    /**
+     * Discards the global resource lists, so that they are requested again
+     * from the other regional GIS entities on the next inquiry. A list that
+     * is still being collected is kept.
+     * @pre $none
+     * @post $none
+     */
+    protected void clearGlobalDirectory()
+    {
+        globalResList_ = discardDirectory(globalResList_, numRes_);
+        globalResARList_ = discardDirectory(globalResARList_, numAR_);
+    }
+
     /**
      * Sends the result back to sender
      * @param list  a List object containing resource IDs
@@ -1274,6 +1497,18 @@ public class RegionalGISWithFailure extends AbstractGIS
      */
     protected void registerOtherEntity()
     {
+        // replay the failure trace instead of generating failures
+        if (failureTrace_ != null)
+        {
+            scheduleTraceFailure();
+            if (polling_)
+            {
+                super.send(super.get_id(), GridSimTags.POLLING_TIME_GIS,
+                           GridSimTags.GRIDRESOURCE_POLLING);
+            }
+            return;
+        }
+
         double resTimeFail = getNextFailureTimeSample();
 
         // the time when we will decide when a resource will fail
@@ -1294,9 +1529,13 @@ public class RegionalGISWithFailure extends AbstractGIS
         }
         /***************/
 
-        // Now, we have to start the polling functionality
-        super.send(super.get_id(), GridSimTags.POLLING_TIME_GIS,
-                   GridSimTags.GRIDRESOURCE_POLLING);
+        // Now, we have to start the polling functionality, unless the
+        // resources notify this entity about their failures
+        if (polling_)
+        {
+            super.send(super.get_id(), GridSimTags.POLLING_TIME_GIS,
+                       GridSimTags.GRIDRESOURCE_POLLING);
+        }
     }
 
 
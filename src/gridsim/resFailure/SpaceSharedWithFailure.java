@@ -114,6 +114,7 @@ class SpaceSharedWithFailure extends AllocPolicy implements AllocPolicyWithFailu
             {
                 updateGridletProcessing();   // update Gridlets
                 checkGridletCompletion();    // check for finished Gridlets
+                super.notifyFreePE();
             }
         }
 
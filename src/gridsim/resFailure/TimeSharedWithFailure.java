@@ -119,6 +119,7 @@ class TimeSharedWithFailure extends AllocPolicy implements AllocPolicyWithFailur
             // Internal Event if the event source is this entity
             if (ev.get_src() == super.myId_) {
                 internalEvent();
+                super.notifyFreePE();
             }
         }
 
@@ -119,6 +119,26 @@ public class LCGRandom
 
     }
 
+    /**************************************************************
+     * Generates several real-valued random numbers in the range 0 to 1.
+     * They are the same as the numbers returned by calling gen ()
+     * len times.
+     * @param  out  array where the numbers are stored
+     * @param  off  position of the first number in the array
+     * @param  len  number of numbers to generate
+     */
+    public void gen (double [] out, int off, int len)
+    {
+        long z = SEED [stream];
+        int end = off + len;
+        for (int i = off; i < end; i++) {
+            z = (MULTIPIER * z) % MODULUS;
+            out [i] = (double) z * SCALER;
+        }
+        SEED [stream] = z;
+    }
+
+
     /**************************************************************
      * Generates an integer-valued random number in the range
      * 0 to MODULUS - 1.
@@ -14,7 +14,7 @@ import eduni.simjava.distributions.*;
  * @author      Costas Simatos
  */
 
-public class Poisson implements DiscreteGenerator
+public class Poisson implements DiscreteBulkGenerator
 {
     private Sim_random_obj source_;
     private double mean_;
@@ -97,6 +97,17 @@ public class Poisson implements DiscreteGenerator
         return x;
     }
 
+    /**
+     * Generate several new random numbers.
+     * @param out The array where the numbers are stored
+     * @param off The position in the array of the first number
+     * @param len The number of numbers
+     */
+    public void sample(long[] out, int off, int len)
+    {
+        Sim_bulk_sampler.fill(this, out, off, len);
+    }
+
     /**
      * Set the random number generator's seed.
      * @param seed The new seed for the generator
@@ -99,5 +99,36 @@ public class Variate
         return rand.gen ();
         //return rand.nextDouble ();
     } 
+
+
+    /**************************************************************
+     * Generate several random numbers at once. They are the same as
+     * the numbers returned by calling gen () len times.
+     * @param  out  array where the numbers are stored
+     * @param  off  position of the first number in the array
+     * @param  len  number of numbers to generate
+     */
+    public void gen (double [] out, int off, int len)
+    {
+        int end = off + len;
+        for (int i = off; i < end; i++) {
+            out [i] = gen ();
+        }
+    }
+
+
+    /**************************************************************
+     * Generate several random numbers in the interval 0 to 1 at once,
+     * straight from the installed random number generator. Subclasses
+     * that override gen (double [], int, int) can use it as their
+     * source of uniform numbers.
+     * @param  out  array where the numbers are stored
+     * @param  off  position of the first number in the array
+     * @param  len  number of numbers to generate
+     */
+    protected void genUniform (double [] out, int off, int len)
+    {
+        rand.gen (out, off, len);
+    }
 }
 
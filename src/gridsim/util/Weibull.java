@@ -112,5 +112,21 @@ public class Weibull extends Variate
 
     }
 
+
+    /**************************************************************
+     * Generates several random numbers from Weibull distribution.
+     * @param  out  array where the numbers are stored
+     * @param  off  position of the first number in the array
+     * @param  len  number of numbers to generate
+     */
+    public void gen (double [] out, int off, int len)
+    {
+        genUniform (out, off, len);
+        int end = off + len;
+        for (int i = off; i < end; i++) {
+            out [i] = scale * Math.pow (-Math.log (out [i]), shape_recip);
+        }
+    }
+
 }
 